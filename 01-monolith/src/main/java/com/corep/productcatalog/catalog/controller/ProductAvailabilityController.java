@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2024-2025 Daniele Bortoluzzi
+ * 
+ * Master di I Livello in Cloud Computing
+ * Università degli Studi di Torino - COREP
+ * 
+ * This project is part of the Cloud Computing Master's program.
+ * Educational project for Cloud Computing Course.
+ * 
+ * MIT License - see LICENSE file for details
+ */
+package com.corep.productcatalog.catalog.controller;
+
+import com.corep.productcatalog.catalog.dto.ProductAvailabilityDTO;
+import com.corep.productcatalog.catalog.service.ProductAvailabilityService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Product Availability Controller
+ * Products together with their available quantity, served from the product_availability read model:
+ * one call and one indexed query instead of GET /products/{id} + GET /inventory/product/{id}
+ *
+ * In microservices: this would be a query-side (BFF) service composing catalog and inventory data
+ */
+@RestController
+@RequestMapping("/api/v1/products/availability")
+@RequiredArgsConstructor
+public class ProductAvailabilityController {
+
+    private final ProductAvailabilityService productAvailabilityService;
+
+    /**
+     * Example: /api/v1/products/availability?category=Electronics&inStockOnly=true&page=0&size=20
+     */
+    @GetMapping
+    public ResponseEntity<Slice<ProductAvailabilityDTO>> getProductAvailabilities(
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "false") boolean inStockOnly,
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size) {
+        Slice<ProductAvailabilityDTO> products = productAvailabilityService.getProductAvailabilities(
+                category, inStockOnly, PageRequest.of(page, size, Sort.by("productId")));
+        return ResponseEntity.ok(products);
+    }
+
+    @GetMapping("/{productId}")
+    public ResponseEntity<ProductAvailabilityDTO> getProductAvailability(@PathVariable Long productId) {
+        return ResponseEntity.ok(productAvailabilityService.getProductAvailability(productId));
+    }
+}
@@ -11,18 +11,40 @@
  */
 package com.corep.productcatalog.catalog.controller;
 
+import com.corep.productcatalog.catalog.dto.AutocompleteSuggestionDTO;
+import com.corep.productcatalog.catalog.dto.CategoryStatisticsDTO;
+import com.corep.productcatalog.catalog.dto.CursorPageDTO;
+import com.corep.productcatalog.catalog.dto.ProductBatchDTO;
 import com.corep.productcatalog.catalog.dto.ProductDTO;
+import com.corep.productcatalog.catalog.dto.ProductImportReportDTO;
+import com.corep.productcatalog.catalog.exception.InvalidCursorException;
+import com.corep.productcatalog.catalog.service.ProductAutocompleteIndex;
+import com.corep.productcatalog.catalog.service.ProductExportWriter;
+import com.corep.productcatalog.catalog.service.ProductImportService;
 import com.corep.productcatalog.catalog.service.ProductService;
+import com.corep.productcatalog.catalog.service.ProductVersion;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.List;
 
@@ -40,6 +62,9 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductExportWriter productExportWriter;
+    private final ProductImportService productImportService;
+    private final ProductAutocompleteIndex productAutocompleteIndex;
 
     @PostMapping
     public ResponseEntity<ProductDTO> createProduct(@Valid @RequestBody ProductDTO productDTO) {
@@ -47,9 +72,35 @@ public class ProductController {
         return new ResponseEntity<>(createdProduct, HttpStatus.CREATED);
     }
 
+    /**
+     * Bulk import products from an NDJSON feed (one product per line, optional "initialStock")
+     * Rows are written in chunked transactions; the report lists the rejected rows
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ProductImportReportDTO> importProductsNdjson(InputStream body) throws IOException {
+        return ResponseEntity.ok(productImportService.importNdjson(body));
+    }
+
+    /**
+     * Bulk import products from a CSV feed (header: name,description,price,category,initialStock)
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ProductImportReportDTO> importProductsCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(productImportService.importCsv(body));
+    }
+
     /**
      * Get all products with optional filtering and pagination
      * Example: /api/v1/products?category=Electronics&page=0&size=10&sort=price,asc
+     *
+     * Keyset mode (pagination=keyset): cursor-based pages over the whole catalog sorted by id, price or category;
+     * the category and price filters and sizes below 1 are rejected (400).
+     * Pages hold at most 500 products in both modes.
+     * Example: /api/v1/products?pagination=keyset&size=10&sortBy=price, then add &cursor={nextCursor}
+     *
+     * Conditional GET (offset pages and full lists, whole catalog or one category): the ETag is the in-memory
+     * version of the category or catalog; If-None-Match with the current version gets 304 without any query.
+     * Keyset pages and price filters carry no ETag.
      */
     @GetMapping
     public ResponseEntity<?> getAllProducts(
@@ -57,9 +108,29 @@ public class ProductController {
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "10") @Max(500) int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(defaultValue = "offset") String pagination,
+            @RequestParam(required = false) String cursor,
+            WebRequest request) {
+
+        // Keyset pagination: no OFFSET scan and no COUNT query
+        if (pagination.equalsIgnoreCase("keyset")) {
+            if (category != null && !category.isEmpty() || minPrice != null || maxPrice != null) {
+                throw new InvalidCursorException("Keyset pagination does not support the category and price filters");
+            }
+            if (size < 1) {
+                throw new InvalidCursorException("Keyset pagination requires a page size of at least 1");
+            }
+            CursorPageDTO<ProductDTO> products = productService.getAllProducts(cursor, size, sortBy, sortDir);
+            return ResponseEntity.ok(products);
+        }
+
+        boolean priceFiltered = minPrice != null && maxPrice != null;
+        if (!priceFiltered && request.checkNotModified(productService.getCollectionVersion(category).getETag())) {
+            return null; // 304 Not Modified
+        }
 
         // If pagination parameters are provided, use pagination
         if (page >= 0 && size > 0) {
@@ -68,10 +139,14 @@ public class ProductController {
                     : Sort.by(sortBy).ascending();
             Pageable pageable = PageRequest.of(page, size, sort);
 
-            if (category != null && !category.isEmpty()) {
+            if (category != null && !category.isEmpty() && priceFiltered) {
+                Page<ProductDTO> products =
+                        productService.getProductsByPriceRange(minPrice, maxPrice, category, pageable);
+                return ResponseEntity.ok(products);
+            } else if (category != null && !category.isEmpty()) {
                 Page<ProductDTO> products = productService.getProductsByCategory(category, pageable);
                 return ResponseEntity.ok(products);
-            } else if (minPrice != null && maxPrice != null) {
+            } else if (priceFiltered) {
                 Page<ProductDTO> products = productService.getProductsByPriceRange(minPrice, maxPrice, pageable);
                 return ResponseEntity.ok(products);
             } else {
@@ -90,10 +165,77 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * Export the whole catalog as NDJSON (default) or CSV
+     * Rows are streamed to the response as they are read from the database (constant memory)
+     * Example: /api/v1/products/export?format=csv
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "ndjson") String format) {
+        if (format.equalsIgnoreCase("csv")) {
+            return ResponseEntity.ok()
+                    .contentType(new MediaType("text", "csv"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products.csv\"")
+                    .body(productExportWriter::writeCsv);
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(productExportWriter::writeNdjson);
+    }
+
+    /**
+     * Full-text search over name, description and category (in-process inverted index)
+     * Every word must match, as a whole word or as a prefix; results are ranked by relevance
+     * Example: /api/v1/products/search?q=wireless mou&page=0&size=10
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Page<ProductDTO>> searchProducts(
+            @RequestParam @NotBlank String q,
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(500) int size) {
+        Page<ProductDTO> products = productService.searchProducts(q, PageRequest.of(page, size));
+        return ResponseEntity.ok(products);
+    }
+
+    /**
+     * Typeahead completions (product names and categories) for the prefix typed so far
+     * Served from an in-memory prefix trie, no database access
+     * Example: /api/v1/products/autocomplete?q=lap&limit=5
+     */
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<AutocompleteSuggestionDTO>> autocomplete(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") @Min(1) int limit) {
+        List<AutocompleteSuggestionDTO> suggestions = productAutocompleteIndex.complete(q, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+
+    /**
+     * Get several products in one call (e.g. the lines of a cart), in the order of the ids
+     * Unknown ids are reported in missingIds; includeAvailability adds the available quantity of each product
+     * Example: /api/v1/products/batch?ids=12,7,31&includeAvailability=true
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<ProductBatchDTO> getProductsByIds(
+            @RequestParam @NotEmpty @Size(max = 500) List<Long> ids,
+            @RequestParam(defaultValue = "false") boolean includeAvailability) {
+        ProductBatchDTO batch = productService.getProductsByIds(ids, includeAvailability);
+        return ResponseEntity.ok(batch);
+    }
+
+    /**
+     * Get a product, with conditional GET: ETag and Last-Modified come from the product version,
+     * so a client (or CDN) revalidating an unchanged product gets 304 before the product is loaded
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id) {
+    public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id, WebRequest request) {
+        ProductVersion version = productService.getProductVersion(id);
+        if (request.checkNotModified(version.getETag(), version.getLastModifiedMillis())) {
+            return null; // 304 Not Modified
+        }
         ProductDTO product = productService.getProductById(id);
-        return ResponseEntity.ok(product);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(product);
     }
 
     /**
@@ -101,37 +243,54 @@ public class ProductController {
      */
     @GetMapping("/category/{category}/ordered-by-price")
     public ResponseEntity<List<ProductDTO>> getProductsByCategoryOrderedByPrice(
-            @PathVariable String category) {
+            @PathVariable String category,
+            WebRequest request) {
+        if (request.checkNotModified(productService.getCollectionVersion(category).getETag())) {
+            return null; // 304 Not Modified
+        }
         List<ProductDTO> products = productService.getProductsByCategoryOrderedByPrice(category);
         return ResponseEntity.ok(products);
     }
 
     /**
-     * Get category statistics (uses native SQL query with aggregation)
+     * Get category statistics (count, average, min and max price per category)
+     * Served from in-memory aggregates maintained on every product write
      */
     @GetMapping("/statistics/categories")
-    public ResponseEntity<List<Object[]>> getCategoryStatistics() {
-        List<Object[]> statistics = productService.getCategoryStatistics();
+    public ResponseEntity<List<CategoryStatisticsDTO>> getCategoryStatistics() {
+        List<CategoryStatisticsDTO> statistics = productService.getCategoryStatistics();
         return ResponseEntity.ok(statistics);
     }
 
     /**
-     * Get products by price range (uses native SQL query)
+     * Get products by price range, most expensive first, optionally within a category
+     * Served from the in-memory price index; only the matching products are loaded
+     * Example: /api/v1/products/price-range?minPrice=50&maxPrice=200&category=Electronics
      */
     @GetMapping("/price-range")
     public ResponseEntity<List<ProductDTO>> getProductsByPriceRange(
             @RequestParam BigDecimal minPrice,
-            @RequestParam BigDecimal maxPrice) {
-        List<ProductDTO> products = productService.getProductsByPriceRange(minPrice, maxPrice);
+            @RequestParam BigDecimal maxPrice,
+            @RequestParam(required = false) String category) {
+        List<ProductDTO> products = productService.getProductsByPriceRange(minPrice, maxPrice,
+                category == null || category.isEmpty() ? null : category);
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * Update a product
+     * Optional If-Match (the ETag of a previous GET): 412 Precondition Failed if the product changed since,
+     * instead of silently overwriting the other change. A concurrent update is answered with 409 Conflict.
+     */
     @PutMapping("/{id}")
     public ResponseEntity<ProductDTO> updateProduct(
             @PathVariable Long id,
-            @Valid @RequestBody ProductDTO productDTO) {
-        ProductDTO updatedProduct = productService.updateProduct(id, productDTO);
-        return ResponseEntity.ok(updatedProduct);
+            @Valid @RequestBody ProductDTO productDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ProductDTO updatedProduct = productService.updateProduct(id, productDTO, ifMatch);
+        return ResponseEntity.ok()
+                .eTag(ProductVersion.ofProduct(id, updatedProduct.getVersion(), updatedProduct.getUpdatedAt()).getETag())
+                .body(updatedProduct);
     }
 
     @DeleteMapping("/{id}")
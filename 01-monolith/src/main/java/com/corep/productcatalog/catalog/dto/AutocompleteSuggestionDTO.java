@@ -0,0 +1,24 @@
+package com.corep.productcatalog.catalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Autocomplete suggestion: a product name or a category matching the typed prefix
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutocompleteSuggestionDTO {
+
+    public enum Type { PRODUCT, CATEGORY }
+
+    private String text;
+    private Type type;
+
+    /**
+     * Number of products with this name, or in this category
+     */
+    private int productCount;
+}
@@ -0,0 +1,22 @@
+package com.corep.productcatalog.catalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Category statistics DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryStatisticsDTO {
+
+    private String category;
+    private long productCount;
+    private BigDecimal averagePrice;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+}
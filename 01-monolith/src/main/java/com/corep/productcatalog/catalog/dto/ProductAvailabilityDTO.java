@@ -0,0 +1,26 @@
+package com.corep.productcatalog.catalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Product with its available quantity (one call instead of product + inventory)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductAvailabilityDTO {
+
+    private Long id;
+    private String name;
+    private String description;
+    private BigDecimal price;
+    private String category;
+    private Integer availableQuantity;
+    private boolean inStock;
+    private LocalDateTime updatedAt;
+}
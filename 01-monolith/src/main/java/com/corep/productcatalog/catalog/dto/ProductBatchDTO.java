@@ -0,0 +1,24 @@
+package com.corep.productcatalog.catalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Multi-get result
+ * products follow the order of the requested ids (duplicates removed); ids with no product are listed in missingIds
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBatchDTO {
+
+    private List<ProductDTO> products;
+    private List<Long> missingIds;
+
+    // Available quantity per product id, only when requested (products without inventory are absent)
+    private Map<Long, Integer> availableQuantities;
+}
@@ -35,5 +35,8 @@ public class ProductDTO {
 
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+
+    // Read-only: conditional updates send it back as If-Match (ETag), the body value is ignored
+    private Long version;
 }
 
@@ -0,0 +1,33 @@
+package com.corep.productcatalog.catalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Product import report DTO
+ * Summary of a bulk import with the errors of the rejected rows (row numbers are 1-based data rows)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportReportDTO {
+
+    private long totalRows;
+    private long importedRows;
+    private long failedRows;
+    private long durationMillis;
+    private double rowsPerSecond;
+    private List<RowError> errors = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long row;
+        private String message;
+    }
+}
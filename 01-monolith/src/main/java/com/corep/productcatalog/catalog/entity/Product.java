@@ -5,6 +5,7 @@ import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -16,14 +17,23 @@ import java.time.LocalDateTime;
  * In microservices: Product Catalog Service will not handle inventory
  */
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        // Serve sorting, range filters and keyset pagination by price/category (id as tie-breaker)
+        @Index(name = "idx_products_price_id", columnList = "price, id"),
+        @Index(name = "idx_products_category_id", columnList = "category, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Product {
 
+    /**
+     * Sequence with pooled allocation (50 ids per round trip) instead of IDENTITY,
+     * so Hibernate can batch inserts (bulk import)
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Product name is required")
@@ -51,6 +61,15 @@ public class Product {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    /**
+     * Optimistic locking: incremented by every update, which fails if another transaction changed the row since it was read
+     * The column default lets ddl-auto add the column to existing tables
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
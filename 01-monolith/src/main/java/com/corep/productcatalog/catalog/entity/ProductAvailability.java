@@ -0,0 +1,59 @@
+package com.corep.productcatalog.catalog.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Product-with-availability read model: product fields denormalized with the available quantity
+ * of its inventory, so a screen showing both reads one row instead of joining products and inventory
+ *
+ * Written only by ProductAvailabilityService (set-based SQL refreshed in the writing transaction);
+ * read-only for JPA.
+ */
+@Entity
+@Immutable
+@Table(name = "product_availability", indexes = {
+        // "in stock only" lists, in product id order, with and without a category filter
+        @Index(name = "idx_product_availability_in_stock_id", columnList = "in_stock, product_id"),
+        @Index(name = "idx_product_availability_category_in_stock_id", columnList = "category, in_stock, product_id")
+})
+@Data
+@NoArgsConstructor
+public class ProductAvailability {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @Column(length = 500)
+    private String description;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal price;
+
+    @Column(nullable = false, length = 50)
+    private String category;
+
+    /**
+     * Available quantity of the inventory (0 while the product has none)
+     */
+    @Column(name = "available_quantity", nullable = false)
+    private Integer availableQuantity;
+
+    @Column(name = "in_stock", nullable = false)
+    private boolean inStock;
+
+    /**
+     * Latest change of the product or of its inventory
+     */
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,21 @@
+package com.corep.productcatalog.catalog.event;
+
+import com.corep.productcatalog.catalog.dto.ProductDTO;
+import lombok.Value;
+
+/**
+ * Published by ProductService when a product is created
+ * In-process listeners (read models, indexes) use @TransactionalEventListener to react after commit
+ *
+ * In microservices: this would be published to a message broker for other services
+ */
+@Value
+public class ProductCreatedEvent {
+
+    /**
+     * Event type of the outbox entry written with the product (see OutboxDispatcher)
+     */
+    public static final String OUTBOX_TYPE = "ProductCreated";
+
+    ProductDTO product;
+}
@@ -0,0 +1,17 @@
+package com.corep.productcatalog.catalog.event;
+
+import lombok.Value;
+
+/**
+ * Published by ProductService when a product is deleted
+ */
+@Value
+public class ProductDeletedEvent {
+
+    /**
+     * Event type of the outbox entry written with the deletion
+     */
+    public static final String OUTBOX_TYPE = "ProductDeleted";
+
+    Long productId;
+}
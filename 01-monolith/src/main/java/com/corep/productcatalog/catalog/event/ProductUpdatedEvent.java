@@ -0,0 +1,13 @@
+package com.corep.productcatalog.catalog.event;
+
+import com.corep.productcatalog.catalog.dto.ProductDTO;
+import lombok.Value;
+
+/**
+ * Published by ProductService when a product is updated (carries the new state)
+ */
+@Value
+public class ProductUpdatedEvent {
+
+    ProductDTO product;
+}
@@ -0,0 +1,8 @@
+package com.corep.productcatalog.catalog.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
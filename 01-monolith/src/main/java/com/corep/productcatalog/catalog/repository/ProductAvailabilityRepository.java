@@ -0,0 +1,23 @@
+package com.corep.productcatalog.catalog.repository;
+
+import com.corep.productcatalog.catalog.entity.ProductAvailability;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Product-with-availability read model queries
+ * Pass a Pageable sorted by productId: the in-stock filters are then range scans on the (…, in_stock, product_id) indexes
+ */
+@Repository
+public interface ProductAvailabilityRepository extends JpaRepository<ProductAvailability, Long> {
+
+    Slice<ProductAvailability> findAllBy(Pageable pageable);
+
+    Slice<ProductAvailability> findByInStockTrue(Pageable pageable);
+
+    Slice<ProductAvailability> findByCategory(String category, Pageable pageable);
+
+    Slice<ProductAvailability> findByCategoryAndInStockTrue(String category, Pageable pageable);
+}
@@ -0,0 +1,16 @@
+package com.corep.productcatalog.catalog.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Lightweight projection of a product (id, category, price)
+ * Used to rebuild the in-memory read models without loading full entities
+ */
+public interface ProductPriceView {
+
+    Long getId();
+
+    String getCategory();
+
+    BigDecimal getPrice();
+}
@@ -1,15 +1,22 @@
 package com.corep.productcatalog.catalog.repository;
 
 import com.corep.productcatalog.catalog.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Product Repository
@@ -30,6 +37,51 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     Page<Product> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
 
+    Page<Product> findByCategoryAndPriceBetween(String category, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
+
+    // Keyset (seek) pagination: filter on the last seen sort key + id instead of OFFSET,
+    // and return a Slice so no COUNT query is run. Page 10,000 costs the same as page 1.
+    Slice<Product> findAllBy(Pageable pageable);
+
+    Slice<Product> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    Slice<Product> findByIdLessThanOrderByIdDesc(Long id, Pageable pageable);
+
+    @Query("SELECT p FROM Product p WHERE p.price >= :price AND (p.price > :price OR p.id > :id) ORDER BY p.price ASC, p.id ASC")
+    Slice<Product> findNextByPriceAsc(@Param("price") BigDecimal price, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT p FROM Product p WHERE p.price <= :price AND (p.price < :price OR p.id < :id) ORDER BY p.price DESC, p.id DESC")
+    Slice<Product> findNextByPriceDesc(@Param("price") BigDecimal price, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT p FROM Product p WHERE p.category >= :category AND (p.category > :category OR p.id > :id) ORDER BY p.category ASC, p.id ASC")
+    Slice<Product> findNextByCategoryAsc(@Param("category") String category, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT p FROM Product p WHERE p.category <= :category AND (p.category < :category OR p.id < :id) ORDER BY p.category DESC, p.id DESC")
+    Slice<Product> findNextByCategoryDesc(@Param("category") String category, @Param("id") Long id, Pageable pageable);
+
+    // Streaming query: rows are read through a JDBC cursor with the given fetch size
+    // instead of materializing the whole table. Must be consumed inside a transaction and closed.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p ORDER BY p.id")
+    Stream<Product> streamAll();
+
+    // Projection stream used to rebuild the category statistics, the price index and the collection versions
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.id AS id, p.category AS category, p.price AS price FROM Product p")
+    Stream<ProductPriceView> streamPriceViews();
+
+    // Projection stream used to rebuild the product search index
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.id AS id, p.name AS name, p.description AS description, p.category AS category FROM Product p")
+    Stream<ProductSearchView> streamSearchViews();
+
+    // Version of a product for conditional requests: reads two columns by primary key, no entity
+    @Query("SELECT p.version AS version, p.updatedAt AS updatedAt FROM Product p WHERE p.id = :id")
+    Optional<ProductVersionView> findVersionById(@Param("id") Long id);
+
     // JPQL Query with sorting
     @Query("SELECT p FROM Product p WHERE p.category = :category ORDER BY p.price ASC")
     List<Product> findProductsByCategoryOrderedByPrice(@Param("category") String category);
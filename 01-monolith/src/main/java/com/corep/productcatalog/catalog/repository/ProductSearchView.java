@@ -0,0 +1,16 @@
+package com.corep.productcatalog.catalog.repository;
+
+/**
+ * Lightweight projection of the searchable fields of a product
+ * Used to rebuild the product search index without loading full entities
+ */
+public interface ProductSearchView {
+
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    String getCategory();
+}
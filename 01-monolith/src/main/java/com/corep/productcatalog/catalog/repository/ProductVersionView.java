@@ -0,0 +1,13 @@
+package com.corep.productcatalog.catalog.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Version column and last update of a single product (ETag and Last-Modified validators)
+ */
+public interface ProductVersionView {
+
+    Long getVersion();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2024-2025 Daniele Bortoluzzi
+ * 
+ * Master di I Livello in Cloud Computing
+ * Università degli Studi di Torino - COREP
+ * 
+ * This project is part of the Cloud Computing Master's program.
+ * Educational project for Cloud Computing Course.
+ * 
+ * MIT License - see LICENSE file for details
+ */
+package com.corep.productcatalog.catalog.service;
+
+import com.corep.productcatalog.catalog.dto.CategoryStatisticsDTO;
+import com.corep.productcatalog.catalog.dto.ProductDTO;
+import com.corep.productcatalog.catalog.event.ProductCreatedEvent;
+import com.corep.productcatalog.catalog.event.ProductDeletedEvent;
+import com.corep.productcatalog.catalog.event.ProductUpdatedEvent;
+import com.corep.productcatalog.catalog.repository.ProductRepository;
+import com.corep.productcatalog.catalog.repository.ProductPriceView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Category Statistics Registry
+ * In-memory per-category aggregates (count, sum, min, max), maintained incrementally
+ * from the product events instead of running GROUP BY over the products table on every request
+ *
+ * Min/max must survive deletions, so each category keeps a multiset of its prices (price -> count).
+ * The registry also remembers the category and price of every product, so an update or a delete
+ * can be subtracted from the right aggregate.
+ *
+ * The reconcile job rebuilds everything from the table (at startup and periodically) to repair any
+ * drift, e.g. rows written without going through ProductService.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryStatisticsRegistry {
+
+    private final ProductRepository productRepository;
+
+    private Map<Long, PricePoint> products = new HashMap<>();
+    private Map<String, CategoryAggregate> categories = new TreeMap<>();
+
+    /**
+     * Changes applied while a rebuild is reading the table, replayed on the rebuilt state
+     */
+    private List<Change> changesDuringRebuild;
+
+    /**
+     * Immutable view served to readers, recomputed lazily after a change
+     */
+    private volatile List<CategoryStatisticsDTO> snapshot = Collections.emptyList();
+    private volatile boolean snapshotStale = false;
+
+    public List<CategoryStatisticsDTO> getStatistics() {
+        if (snapshotStale) {
+            synchronized (this) {
+                if (snapshotStale) {
+                    snapshot = categories.entrySet().stream()
+                            .map(entry -> entry.getValue().toDTO(entry.getKey()))
+                            .collect(Collectors.toUnmodifiableList());
+                    snapshotStale = false;
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    @TransactionalEventListener
+    public void onProductCreated(ProductCreatedEvent event) {
+        apply(new Change(event.getProduct().getId(), pricePoint(event.getProduct())));
+    }
+
+    @TransactionalEventListener
+    public void onProductUpdated(ProductUpdatedEvent event) {
+        apply(new Change(event.getProduct().getId(), pricePoint(event.getProduct())));
+    }
+
+    @TransactionalEventListener
+    public void onProductDeleted(ProductDeletedEvent event) {
+        apply(new Change(event.getProductId(), null));
+    }
+
+    /**
+     * Reconcile job: rebuild all aggregates from the products table
+     * Runs at startup (after DataInitializer) and every app.statistics.reconcile-interval
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.statistics.reconcile-interval:PT10M}",
+            fixedDelayString = "${app.statistics.reconcile-interval:PT10M}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (this) {
+            changesDuringRebuild = new ArrayList<>();
+        }
+
+        Map<Long, PricePoint> rebuiltProducts = new HashMap<>();
+        Map<String, CategoryAggregate> rebuiltCategories = new TreeMap<>();
+        try (Stream<ProductPriceView> views = productRepository.streamPriceViews()) {
+            views.forEach(view -> {
+                PricePoint point = new PricePoint(view.getCategory(), view.getPrice());
+                rebuiltProducts.put(view.getId(), point);
+                rebuiltCategories.computeIfAbsent(point.category(), category -> new CategoryAggregate()).add(point.price());
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changesDuringRebuild = null;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            products = rebuiltProducts;
+            categories = rebuiltCategories;
+            // Changes are idempotent (last state per product): replaying one already seen by the query is harmless
+            List<Change> pending = changesDuringRebuild;
+            changesDuringRebuild = null;
+            pending.forEach(this::applyLocked);
+            snapshotStale = true;
+        }
+        log.info("Rebuilt category statistics: {} products in {} categories", rebuiltProducts.size(), rebuiltCategories.size());
+    }
+
+    private synchronized void apply(Change change) {
+        if (changesDuringRebuild != null) {
+            changesDuringRebuild.add(change);
+        }
+        applyLocked(change);
+        snapshotStale = true;
+    }
+
+    private void applyLocked(Change change) {
+        PricePoint previous = change.point() == null
+                ? products.remove(change.productId())
+                : products.put(change.productId(), change.point());
+        if (previous != null) {
+            CategoryAggregate aggregate = categories.get(previous.category());
+            aggregate.remove(previous.price());
+            if (aggregate.isEmpty()) {
+                categories.remove(previous.category());
+            }
+        }
+        if (change.point() != null) {
+            categories.computeIfAbsent(change.point().category(), category -> new CategoryAggregate())
+                    .add(change.point().price());
+        }
+    }
+
+    private PricePoint pricePoint(ProductDTO product) {
+        return new PricePoint(product.getCategory(), product.getPrice());
+    }
+
+    private record PricePoint(String category, BigDecimal price) {
+    }
+
+    /**
+     * New state of a product (point == null: product deleted)
+     */
+    private record Change(Long productId, PricePoint point) {
+    }
+
+    /**
+     * Count, sum and price multiset of one category
+     */
+    private static class CategoryAggregate {
+
+        private long count;
+        private BigDecimal sum = BigDecimal.ZERO;
+        private final TreeMap<BigDecimal, Integer> prices = new TreeMap<>();
+
+        void add(BigDecimal price) {
+            count++;
+            sum = sum.add(price);
+            prices.merge(price, 1, Integer::sum);
+        }
+
+        void remove(BigDecimal price) {
+            count--;
+            sum = sum.subtract(price);
+            prices.computeIfPresent(price, (key, occurrences) -> occurrences == 1 ? null : occurrences - 1);
+        }
+
+        boolean isEmpty() {
+            return count == 0;
+        }
+
+        CategoryStatisticsDTO toDTO(String category) {
+            return new CategoryStatisticsDTO(
+                    category,
+                    count,
+                    sum.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP),
+                    prices.firstKey(),
+                    prices.lastKey());
+        }
+    }
+}
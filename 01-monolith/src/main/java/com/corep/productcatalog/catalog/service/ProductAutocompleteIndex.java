@@ -0,0 +1,478 @@
+/*
+ * Copyright (c) 2024-2025 Daniele Bortoluzzi
+ * 
+ * Master di I Livello in Cloud Computing
+ * Università degli Studi di Torino - COREP
+ * 
+ * This project is part of the Cloud Computing Master's program.
+ * Educational project for Cloud Computing Course.
+ * 
+ * MIT License - see LICENSE file for details
+ */
+package com.corep.productcatalog.catalog.service;
+
+import com.corep.productcatalog.catalog.dto.AutocompleteSuggestionDTO;
+import com.corep.productcatalog.catalog.event.ProductCreatedEvent;
+import com.corep.productcatalog.catalog.event.ProductDeletedEvent;
+import com.corep.productcatalog.catalog.event.ProductUpdatedEvent;
+import com.corep.productcatalog.catalog.repository.ProductRepository;
+import com.corep.productcatalog.catalog.repository.ProductSearchView;
+import com.corep.productcatalog.shared.config.ApplicationProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Product Autocomplete Index
+ * Compressed prefix trie (radix tree) over product names and categories, for search-as-you-type
+ *
+ * Keys are normalized like the search index (lower case, no accents, single spaces). A product name is
+ * inserted from each of its first words, so "lap" completes "Gaming Laptop"; completions starting at the
+ * first word rank higher. Every node keeps its best completions (at most app.autocomplete.max-suggestions),
+ * updated bottom-up along the changed key until a node is not affected: a lookup only walks the typed prefix,
+ * whatever the catalog size.
+ *
+ * Kept in sync by the product events after commit, rebuilt from the table at startup.
+ */
+@Component
+@Slf4j
+public class ProductAutocompleteIndex {
+
+    private static final Comparator<Entry> BY_RANK =
+            Comparator.comparingLong(Entry::rank).reversed().thenComparing(entry -> entry.text);
+
+    private final ProductRepository productRepository;
+    private final int maxSuggestions;
+    private final int maxWordsPerName;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private Trie trie;
+    private List<Change> changesDuringRebuild;
+
+    public ProductAutocompleteIndex(ProductRepository productRepository, ApplicationProperties properties) {
+        this.productRepository = productRepository;
+        this.maxSuggestions = properties.getAutocomplete().getMaxSuggestions();
+        this.maxWordsPerName = properties.getAutocomplete().getMaxWordsPerName();
+        this.trie = new Trie();
+    }
+
+    /**
+     * Best completions of the prefix (at most min(limit, app.autocomplete.max-suggestions))
+     */
+    public List<AutocompleteSuggestionDTO> complete(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = trie.find(key);
+            if (node == null) {
+                return List.of();
+            }
+            return Arrays.stream(node.top)
+                    .limit(limit)
+                    .map(entry -> new AutocompleteSuggestionDTO(entry.text, entry.type, entry.productCount))
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onProductCreated(ProductCreatedEvent event) {
+        apply(new Change(event.getProduct().getId(), event.getProduct().getName(), event.getProduct().getCategory()));
+    }
+
+    @TransactionalEventListener
+    public void onProductUpdated(ProductUpdatedEvent event) {
+        apply(new Change(event.getProduct().getId(), event.getProduct().getName(), event.getProduct().getCategory()));
+    }
+
+    @TransactionalEventListener
+    public void onProductDeleted(ProductDeletedEvent event) {
+        apply(new Change(event.getProductId(), null, null));
+    }
+
+    /**
+     * Rebuild the whole trie from the products table (at startup, after DataInitializer)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Trie rebuilt = new Trie();
+        try (Stream<ProductSearchView> views = productRepository.streamSearchViews()) {
+            views.forEach(view -> rebuilt.apply(new Change(view.getId(), view.getName(), view.getCategory())));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Changes carry the full new state of a product: replaying one already read by the query is harmless
+            changesDuringRebuild.forEach(rebuilt::apply);
+            changesDuringRebuild = null;
+            trie = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Rebuilt product autocomplete index: {} products, {} nodes", rebuilt.products.size(), rebuilt.root.count());
+    }
+
+    private void apply(Change change) {
+        lock.writeLock().lock();
+        try {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+            trie.apply(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static String normalize(String text) {
+        return ProductSearchIndex.tokenize(text).collect(Collectors.joining(" "));
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Radix trie plus the indexed name and category of every product (to unindex them on update/delete)
+     */
+    private final class Trie {
+
+        private final Node root = new Node("");
+        private final Map<Long, IndexedProduct> products = new HashMap<>();
+
+        void apply(Change change) {
+            IndexedProduct previous = change.name() == null
+                    ? products.remove(change.productId())
+                    : products.put(change.productId(), new IndexedProduct(change.name(), change.category()));
+            if (previous != null) {
+                index(previous, -1);
+            }
+            if (change.name() != null) {
+                index(new IndexedProduct(change.name(), change.category()), 1);
+            }
+        }
+
+        private void index(IndexedProduct product, int delta) {
+            List<String> words = ProductSearchIndex.tokenize(product.name()).toList();
+            for (int i = 0; i < Math.min(words.size(), maxWordsPerName); i++) {
+                String key = String.join(" ", words.subList(i, words.size()));
+                update(key, AutocompleteSuggestionDTO.Type.PRODUCT, product.name().trim(), i == 0, delta);
+            }
+            String category = normalize(product.category());
+            if (!category.isEmpty()) {
+                update(category, AutocompleteSuggestionDTO.Type.CATEGORY, product.category().trim(), true, delta);
+            }
+        }
+
+        private void update(String key, AutocompleteSuggestionDTO.Type type, String text, boolean atStart, int delta) {
+            List<Node> path = delta > 0 ? insertPath(key) : exactPath(key);
+            if (path == null) {
+                return;
+            }
+            Node terminal = path.get(path.size() - 1);
+            Entry entry = terminal.entry(type, text);
+            if (entry == null) {
+                if (delta < 0) {
+                    return;
+                }
+                entry = new Entry(text, type, atStart);
+                terminal.entries.add(entry);
+            }
+            entry.productCount += delta;
+            if (delta > 0) {
+                promote(path, entry);
+            } else {
+                if (entry.productCount <= 0) {
+                    terminal.entries.remove(entry);
+                }
+                demote(path, entry);
+            }
+        }
+
+        /**
+         * Path from the root to the node of the key, creating and splitting nodes as needed
+         */
+        private List<Node> insertPath(String key) {
+            List<Node> path = new ArrayList<>();
+            Node node = root;
+            path.add(node);
+            int i = 0;
+            while (i < key.length()) {
+                Node child = node.children.get(key.charAt(i));
+                if (child == null) {
+                    child = new Node(key.substring(i));
+                    node.children.put(key.charAt(i), child);
+                    path.add(child);
+                    return path;
+                }
+                int common = commonPrefixLength(child.label, key, i);
+                if (common < child.label.length()) {
+                    // Split the edge: node -> middle (common part) -> child (rest)
+                    Node middle = new Node(child.label.substring(0, common));
+                    middle.top = child.top;
+                    child.label = child.label.substring(common);
+                    middle.children.put(child.label.charAt(0), child);
+                    node.children.put(middle.label.charAt(0), middle);
+                    child = middle;
+                }
+                path.add(child);
+                node = child;
+                i += common;
+            }
+            return path;
+        }
+
+        /**
+         * Path from the root to the node of the key, or null if the key is not in the trie
+         */
+        private List<Node> exactPath(String key) {
+            List<Node> path = new ArrayList<>();
+            Node node = root;
+            path.add(node);
+            int i = 0;
+            while (i < key.length()) {
+                Node child = node.children.get(key.charAt(i));
+                if (child == null || commonPrefixLength(child.label, key, i) < child.label.length()) {
+                    return null;
+                }
+                path.add(child);
+                node = child;
+                i += child.label.length();
+            }
+            return path;
+        }
+
+        /**
+         * Node whose subtree holds every key starting with the prefix (the prefix may end inside an edge)
+         */
+        Node find(String prefix) {
+            Node node = root;
+            int i = 0;
+            while (i < prefix.length()) {
+                Node child = node.children.get(prefix.charAt(i));
+                if (child == null) {
+                    return null;
+                }
+                int common = commonPrefixLength(child.label, prefix, i);
+                if (i + common == prefix.length()) {
+                    return child;
+                }
+                if (common < child.label.length()) {
+                    return null;
+                }
+                node = child;
+                i += common;
+            }
+            return node;
+        }
+
+        /**
+         * The entry ranks higher: bottom-up, add it to the completions of each node until a node does not list it
+         * (then no ancestor can list it either)
+         */
+        private void promote(List<Node> path, Entry entry) {
+            for (int i = path.size() - 1; i >= 0; i--) {
+                if (!path.get(i).offer(entry, maxSuggestions)) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * The entry ranks lower or is gone: bottom-up, prune empty nodes, re-compress single-child nodes and
+         * recompute the completions of the nodes listing the entry
+         */
+        private void demote(List<Node> path, Entry entry) {
+            for (int i = path.size() - 1; i >= 0; i--) {
+                Node node = path.get(i);
+                boolean listed = node.lists(entry);
+                if (i > 0 && node.entries.isEmpty() && node.children.size() <= 1) {
+                    Node parent = path.get(i - 1);
+                    parent.children.remove(node.label.charAt(0));
+                    if (node.children.size() == 1) {
+                        Node child = node.children.values().iterator().next();
+                        child.label = node.label + child.label;
+                        parent.children.put(child.label.charAt(0), child);
+                    }
+                } else if (listed) {
+                    node.refreshTop(maxSuggestions);
+                }
+                if (!listed) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final class Node {
+
+        private String label;
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private final List<Entry> entries = new ArrayList<>(1);
+        private Entry[] top = new Entry[0];
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Entry entry(AutocompleteSuggestionDTO.Type type, String text) {
+            for (Entry entry : entries) {
+                if (entry.type == type && entry.text.equals(text)) {
+                    return entry;
+                }
+            }
+            return null;
+        }
+
+        boolean lists(Entry entry) {
+            for (Entry listed : top) {
+                if (listed == entry) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Update the completions for an entry whose rank went up; returns false if they did not change
+         */
+        boolean offer(Entry entry, int max) {
+            for (int i = 0; i < top.length; i++) {
+                Entry listed = top[i];
+                if (listed == entry || (listed.type == entry.type && listed.text.equals(entry.text))) {
+                    // Already listed, or the same suggestion reached through another key: keep the best one
+                    if (listed != entry && BY_RANK.compare(listed, entry) <= 0) {
+                        return false;
+                    }
+                    Entry[] updated = top.clone();
+                    updated[i] = entry;
+                    Arrays.sort(updated, BY_RANK);
+                    top = updated;
+                    return true;
+                }
+            }
+            if (top.length < max) {
+                Entry[] updated = Arrays.copyOf(top, top.length + 1);
+                updated[top.length] = entry;
+                Arrays.sort(updated, BY_RANK);
+                top = updated;
+                return true;
+            }
+            if (BY_RANK.compare(entry, top[top.length - 1]) < 0) {
+                Entry[] updated = top.clone();
+                updated[top.length - 1] = entry;
+                Arrays.sort(updated, BY_RANK);
+                top = updated;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Best completions of the subtree: own entries merged with the children's best completions
+         */
+        void refreshTop(int max) {
+            List<Entry> candidates = new ArrayList<>(entries);
+            for (Node child : children.values()) {
+                Collections.addAll(candidates, child.top);
+            }
+            candidates.sort(BY_RANK);
+            List<Entry> best = new ArrayList<>(Math.min(max, candidates.size()));
+            Set<String> seen = new HashSet<>();
+            for (Entry candidate : candidates) {
+                if (best.size() == max) {
+                    break;
+                }
+                if (seen.add(candidate.type + ":" + candidate.text)) {
+                    best.add(candidate);
+                }
+            }
+            top = best.toArray(new Entry[0]);
+        }
+
+        int count() {
+            int count = 1;
+            for (Node child : children.values()) {
+                count += child.count();
+            }
+            return count;
+        }
+    }
+
+    /**
+     * A completion stored at the node of its key
+     */
+    private static final class Entry {
+
+        private final String text;
+        private final AutocompleteSuggestionDTO.Type type;
+        private final boolean atStart;
+        private int productCount;
+
+        Entry(String text, AutocompleteSuggestionDTO.Type type, boolean atStart) {
+            this.text = text;
+            this.type = type;
+            this.atStart = atStart;
+        }
+
+        /**
+         * More products first; completions matching from the first word before those matching a later word
+         */
+        long rank() {
+            return productCount * 2L + (atStart ? 1 : 0);
+        }
+    }
+
+    private record IndexedProduct(String name, String category) {
+    }
+
+    /**
+     * New name and category of a product (name == null: product deleted)
+     */
+    private record Change(Long productId, String name, String category) {
+    }
+}
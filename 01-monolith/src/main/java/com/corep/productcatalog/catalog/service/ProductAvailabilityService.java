@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2024-2025 Daniele Bortoluzzi
+ * 
+ * Master di I Livello in Cloud Computing
+ * Università degli Studi di Torino - COREP
+ * 
+ * This project is part of the Cloud Computing Master's program.
+ * Educational project for Cloud Computing Course.
+ * 
+ * MIT License - see LICENSE file for details
+ */
+package com.corep.productcatalog.catalog.service;
+
+import com.corep.productcatalog.catalog.dto.ProductAvailabilityDTO;
+import com.corep.productcatalog.catalog.entity.ProductAvailability;
+import com.corep.productcatalog.catalog.event.ProductCreatedEvent;
+import com.corep.productcatalog.catalog.event.ProductDeletedEvent;
+import com.corep.productcatalog.catalog.event.ProductUpdatedEvent;
+import com.corep.productcatalog.catalog.exception.ProductNotFoundException;
+import com.corep.productcatalog.catalog.repository.ProductAvailabilityRepository;
+import com.corep.productcatalog.inventory.event.InventoryChangedEvent;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Product Availability Service
+ * Maintains and serves the product_availability read model (product fields + available quantity)
+ *
+ * Writes of ProductService and InventoryService publish events inside their transaction, applied to the
+ * read model just before that transaction commits, so it commits (or rolls back) with the write that changed it:
+ * - product created/updated/deleted: the rows are recomputed from the products and inventory tables with
+ *   set-based statements per chunk: rows of deleted products are deleted, existing rows updated in place,
+ *   missing rows inserted (INSERT ... SELECT); a bulk import refreshes a whole chunk at once
+ * - inventory changed only (reservation, release, stock update): a single UPDATE of the quantity columns,
+ *   with the available quantity carried by the last event of the product
+ *
+ * Concurrency: an inventory change writes its inventory row first, so two of them on the same product update
+ * the read model in the order of their inventory writes. A recompute locks the products rows, then their
+ * inventory rows (in id order, all chunks before the first write): it waits for the inventory changes in
+ * flight to commit and then reads them (READ COMMITTED: every statement sees the latest committed data);
+ * two recomputes of the same product are serialized on the products rows and never insert the same row twice.
+ *
+ * Rows written without going through the services (e.g. DataInitializer) are picked up by the rebuild at startup.
+ *
+ * In microservices: a query-side service fed by the ProductCreated/Updated/Deleted and InventoryChanged events
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductAvailabilityService {
+
+    /**
+     * Product ids per refresh statement
+     */
+    static final int REFRESH_CHUNK_SIZE = 100;
+
+    private static final String AVAILABILITY_COLUMNS =
+            "p.name, p.description, p.price, p.category, " +
+            "COALESCE(i.available_quantity, 0), COALESCE(i.available_quantity, 0) > 0, " +
+            "GREATEST(p.updated_at, COALESCE(i.last_updated, p.updated_at)) " +
+            "FROM products p LEFT JOIN inventory i ON i.product_id = p.id";
+
+    private static final String INSERT_ROWS_SELECT =
+            "INSERT INTO product_availability " +
+            "(product_id, name, description, price, category, available_quantity, in_stock, updated_at) " +
+            "SELECT p.id, " + AVAILABILITY_COLUMNS;
+
+    private static final String LOCK_PRODUCTS = "SELECT id FROM products WHERE id IN (:ids) ORDER BY id FOR UPDATE";
+
+    private static final String LOCK_INVENTORY =
+            "SELECT product_id FROM inventory WHERE product_id IN (:ids) ORDER BY product_id FOR UPDATE";
+
+    private static final String DELETE_ROWS_OF_DELETED_PRODUCTS =
+            "DELETE FROM product_availability a WHERE a.product_id IN (:ids) " +
+            "AND NOT EXISTS (SELECT 1 FROM products p WHERE p.id = a.product_id)";
+
+    private static final String UPDATE_ROWS =
+            "UPDATE product_availability a " +
+            "SET (name, description, price, category, available_quantity, in_stock, updated_at) = " +
+            "(SELECT " + AVAILABILITY_COLUMNS + " WHERE p.id = a.product_id) " +
+            "WHERE a.product_id IN (:ids)";
+
+    private static final String INSERT_MISSING_ROWS = INSERT_ROWS_SELECT + " WHERE p.id IN (:ids) " +
+            "AND NOT EXISTS (SELECT 1 FROM product_availability a WHERE a.product_id = p.id)";
+
+    private static final String UPDATE_AVAILABLE_QUANTITY =
+            "UPDATE product_availability SET available_quantity = :available, in_stock = :inStock, " +
+            "updated_at = :updatedAt WHERE product_id = :productId";
+
+    private final ProductAvailabilityRepository productAvailabilityRepository;
+    private final EntityManager entityManager;
+
+    @Timed("catalog.availability.get")
+    @Transactional(readOnly = true)
+    public ProductAvailabilityDTO getProductAvailability(Long productId) {
+        return productAvailabilityRepository.findById(productId)
+                .map(this::convertToDTO)
+                .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + productId));
+    }
+
+    /**
+     * Products with availability, optionally of one category and/or in stock only
+     * No join: one range scan on the product_availability indexes (pageable sorted by productId)
+     */
+    @Timed("catalog.availability.list")
+    @Transactional(readOnly = true)
+    public Slice<ProductAvailabilityDTO> getProductAvailabilities(String category, boolean inStockOnly, Pageable pageable) {
+        boolean byCategory = category != null && !category.isEmpty();
+        Slice<ProductAvailability> rows;
+        if (byCategory && inStockOnly) {
+            rows = productAvailabilityRepository.findByCategoryAndInStockTrue(category, pageable);
+        } else if (byCategory) {
+            rows = productAvailabilityRepository.findByCategory(category, pageable);
+        } else if (inStockOnly) {
+            rows = productAvailabilityRepository.findByInStockTrue(pageable);
+        } else {
+            rows = productAvailabilityRepository.findAllBy(pageable);
+        }
+        return rows.map(this::convertToDTO);
+    }
+
+    @EventListener
+    public void onProductCreated(ProductCreatedEvent event) {
+        markDirty(event.getProduct().getId());
+    }
+
+    @EventListener
+    public void onProductUpdated(ProductUpdatedEvent event) {
+        markDirty(event.getProduct().getId());
+    }
+
+    @EventListener
+    public void onProductDeleted(ProductDeletedEvent event) {
+        markDirty(event.getProductId());
+    }
+
+    @EventListener
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        PendingRefresh pending = pendingRefresh(event.getProductId());
+        if (pending != null) {
+            pending.availableQuantities.put(event.getProductId(), event.getAvailableQuantity());
+        }
+    }
+
+    /**
+     * Recompute the whole read model from the products and inventory tables
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        entityManager.createNativeQuery("DELETE FROM product_availability").executeUpdate();
+        int rows = entityManager.createNativeQuery(INSERT_ROWS_SELECT).executeUpdate();
+        log.info("Rebuilt product availability read model: {} products", rows);
+    }
+
+    /**
+     * Remember the product in the recompute of the current transaction
+     */
+    private void markDirty(Long productId) {
+        PendingRefresh pending = pendingRefresh(productId);
+        if (pending != null) {
+            pending.productIds.add(productId);
+        }
+    }
+
+    /**
+     * Refresh of the current transaction (registered on first use), null outside a transaction
+     */
+    private PendingRefresh pendingRefresh(Long productId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            log.warn("Product {} changed outside a transaction: availability refreshed at next rebuild", productId);
+            return null;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingRefresh pending) {
+                return pending;
+            }
+        }
+        PendingRefresh pending = new PendingRefresh();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    /**
+     * Recompute the rows of the changed products, then update the quantity of the products whose inventory
+     * only changed; runs inside the writing transaction
+     * Entity changes are flushed first so the statements see them; deleted products lose their row
+     */
+    private void refresh(Set<Long> productIds, Map<Long, Integer> availableQuantities) {
+        entityManager.flush();
+        // Chunks in id order: concurrent refreshes lock the rows in the same order
+        List<Long> ids = productIds.stream().sorted().toList();
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += REFRESH_CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + REFRESH_CHUNK_SIZE, ids.size())));
+        }
+        // Every lock before the first write: no product_availability row is held while waiting
+        for (List<Long> chunk : chunks) {
+            entityManager.createNativeQuery(LOCK_PRODUCTS).setParameter("ids", chunk).getResultList();
+            entityManager.createNativeQuery(LOCK_INVENTORY).setParameter("ids", chunk).getResultList();
+        }
+        for (List<Long> chunk : chunks) {
+            for (String statement : List.of(DELETE_ROWS_OF_DELETED_PRODUCTS, UPDATE_ROWS, INSERT_MISSING_ROWS)) {
+                entityManager.createNativeQuery(statement).setParameter("ids", chunk).executeUpdate();
+            }
+        }
+
+        // No row (product deleted, or written without the services): nothing to update, the rebuild covers it
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> inventoryOnly = availableQuantities.keySet().stream()
+                .filter(productId -> !productIds.contains(productId))
+                .sorted()
+                .toList();
+        for (Long productId : inventoryOnly) {
+            int available = availableQuantities.get(productId);
+            entityManager.createNativeQuery(UPDATE_AVAILABLE_QUANTITY)
+                    .setParameter("available", available)
+                    .setParameter("inStock", available > 0)
+                    .setParameter("updatedAt", now)
+                    .setParameter("productId", productId)
+                    .executeUpdate();
+        }
+        log.debug("Refreshed availability of {} products, quantity of {} products", ids.size(), inventoryOnly.size());
+    }
+
+    private ProductAvailabilityDTO convertToDTO(ProductAvailability row) {
+        return new ProductAvailabilityDTO(row.getProductId(), row.getName(), row.getDescription(), row.getPrice(),
+                row.getCategory(), row.getAvailableQuantity(), row.isInStock(), row.getUpdatedAt());
+    }
+
+    /**
+     * Products changed by the current transaction, refreshed just before it commits
+     * Registered as a transaction synchronization, so it is suspended with its transaction (REQUIRES_NEW)
+     */
+    private class PendingRefresh implements TransactionSynchronization {
+
+        private final Set<Long> productIds = new LinkedHashSet<>();
+
+        /**
+         * Latest available quantity per product whose inventory changed
+         */
+        private final Map<Long, Integer> availableQuantities = new LinkedHashMap<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            refresh(productIds, availableQuantities);
+        }
+    }
+}
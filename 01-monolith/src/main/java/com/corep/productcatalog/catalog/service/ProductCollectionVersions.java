@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2024-2025 Daniele Bortoluzzi
+ *
+ * Master di I Livello in Cloud Computing
+ * Università degli Studi di Torino - COREP
+ *
+ * This project is part of the Cloud Computing Master's program.
+ * Educational project for Cloud Computing Course.
+ *
+ * MIT License - see LICENSE file for details
+ */
+package com.corep.productcatalog.catalog.service;
+
+import com.corep.productcatalog.catalog.event.ProductCreatedEvent;
+import com.corep.productcatalog.catalog.event.ProductDeletedEvent;
+import com.corep.productcatalog.catalog.event.ProductUpdatedEvent;
+import com.corep.productcatalog.catalog.repository.ProductPriceView;
+import com.corep.productcatalog.catalog.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Product Collection Versions
+ * In-memory version counters of the whole catalog and of each category, for the ETags of product lists:
+ * a conditional GET is answered without any query
+ *
+ * Every product event bumps the catalog and the categories the product left and entered; the category of
+ * each product is remembered so an update or a delete reaches the category it was in. A change to a product
+ * of unknown category bumps every category. Counters are bumped after commit, so a list read at the same
+ * time can only carry an older version than its content (an extra download, never a stale 304).
+ * The generation (startup time) is part of the version: counters restarting from 0 never match an old ETag.
+ *
+ * Single instance: writes made by another instance do not reach these counters.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductCollectionVersions {
+
+    private final ProductRepository productRepository;
+
+    private final long generation = System.currentTimeMillis();
+    private final AtomicLong catalog = new AtomicLong();
+    private final Map<String, AtomicLong> categories = new ConcurrentHashMap<>();
+    // Part of the version of every category
+    private final AtomicLong everyCategory = new AtomicLong();
+
+    // Guarded by this
+    private Map<Long, String> categoryOf = new HashMap<>();
+    private List<Change> changesDuringRebuild;
+
+    /**
+     * Version of the products of a category (or of the whole catalog when category is null)
+     */
+    public ProductVersion get(String category) {
+        if (category == null) {
+            return ProductVersion.ofCollection(generation, catalog.get());
+        }
+        AtomicLong counter = categories.get(category);
+        return ProductVersion.ofCollection(generation, everyCategory.get() + (counter == null ? 0 : counter.get()));
+    }
+
+    @TransactionalEventListener
+    public void onProductCreated(ProductCreatedEvent event) {
+        apply(new Change(event.getProduct().getId(), event.getProduct().getCategory()), true);
+    }
+
+    @TransactionalEventListener
+    public void onProductUpdated(ProductUpdatedEvent event) {
+        apply(new Change(event.getProduct().getId(), event.getProduct().getCategory()), false);
+    }
+
+    @TransactionalEventListener
+    public void onProductDeleted(ProductDeletedEvent event) {
+        apply(new Change(event.getProductId(), null), false);
+    }
+
+    /**
+     * Load the category of every product (at startup, after DataInitializer)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (this) {
+            changesDuringRebuild = new ArrayList<>();
+        }
+
+        Map<Long, String> rebuilt = new HashMap<>();
+        try (Stream<ProductPriceView> views = productRepository.streamPriceViews()) {
+            views.forEach(view -> rebuilt.put(view.getId(), view.getCategory()));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changesDuringRebuild = null;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            // Changes are idempotent (last state per product); their counters were already bumped
+            changesDuringRebuild.forEach(change -> record(rebuilt, change));
+            changesDuringRebuild = null;
+            categoryOf = rebuilt;
+        }
+        log.info("Loaded product collection versions: {} products", rebuilt.size());
+    }
+
+    private synchronized void apply(Change change, boolean created) {
+        if (changesDuringRebuild != null) {
+            changesDuringRebuild.add(change);
+        }
+        String previous = record(categoryOf, change);
+        catalog.incrementAndGet();
+        if (previous == null && !created) {
+            // Product written before the categories were loaded: the category it was in is unknown
+            everyCategory.incrementAndGet();
+        } else if (previous != null && !previous.equals(change.category())) {
+            bump(previous);
+        }
+        bump(change.category());
+    }
+
+    private void bump(String category) {
+        if (category != null) {
+            categories.computeIfAbsent(category, key -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    private static String record(Map<Long, String> categories, Change change) {
+        return change.category() == null
+                ? categories.remove(change.productId())
+                : categories.put(change.productId(), change.category());
+    }
+
+    /**
+     * New category of a product (category == null: product deleted)
+     */
+    private record Change(Long productId, String category) {
+    }
+}
@@ -0,0 +1,67 @@
+package com.corep.productcatalog.catalog.service;
+
+import com.corep.productcatalog.catalog.entity.Product;
+import com.corep.productcatalog.catalog.exception.InvalidCursorException;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Continuation token for keyset pagination
+ * Encodes the sort (field + direction) and the sort key + id of the last product of a page,
+ * as URL-safe Base64 so clients treat it as opaque
+ */
+@Value
+public class ProductCursor {
+
+    public static final Set<String> SORTABLE_FIELDS = Set.of("id", "price", "category");
+
+    private static final String SEPARATOR = ":";
+
+    String sortBy;
+    boolean descending;
+    Long lastId;
+    String lastKey;
+
+    /**
+     * Cursor pointing after the given product
+     */
+    public static ProductCursor after(Product product, String sortBy, boolean descending) {
+        String key = switch (sortBy) {
+            case "price" -> product.getPrice().toPlainString();
+            case "category" -> product.getCategory();
+            default -> String.valueOf(product.getId());
+        };
+        return new ProductCursor(sortBy, descending, product.getId(), key);
+    }
+
+    public static ProductCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // The key is last: categories may contain the separator
+            String[] parts = decoded.split(SEPARATOR, 4);
+            if (parts.length != 4 || !SORTABLE_FIELDS.contains(parts[0])) {
+                throw new InvalidCursorException("Invalid cursor: " + token);
+            }
+            if ("price".equals(parts[0])) {
+                new BigDecimal(parts[3]); // fail fast on a tampered price key
+            }
+            return new ProductCursor(parts[0], "desc".equals(parts[1]), Long.valueOf(parts[2]), parts[3]);
+        } catch (IllegalArgumentException e) {
+            // Bad Base64 or number format
+            throw new InvalidCursorException("Invalid cursor: " + token);
+        }
+    }
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, sortBy, descending ? "desc" : "asc", String.valueOf(lastId), lastKey);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public BigDecimal getLastPrice() {
+        return new BigDecimal(lastKey);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2024-2025 Daniele Bortoluzzi
+ * 
+ * Master di I Livello in Cloud Computing
+ * Università degli Studi di Torino - COREP
+ * 
+ * This project is part of the Cloud Computing Master's program.
+ * Educational project for Cloud Computing Course.
+ * 
+ * MIT License - see LICENSE file for details
+ */
+package com.corep.productcatalog.catalog.service;
+
+import com.corep.productcatalog.catalog.dto.ProductDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Product Export Writer
+ * Writes the whole catalog to an output stream (NDJSON or CSV) row by row, as products are read
+ * from the database cursor: nothing is collected in memory
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductExportWriter {
+
+    private static final String CSV_HEADER = "id,name,description,price,category,createdAt,updatedAt";
+
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Newline-delimited JSON: one ProductDTO per line
+     */
+    public void writeNdjson(OutputStream outputStream) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8))) {
+            productService.exportProducts(product -> {
+                try {
+                    writer.write(objectMapper.writeValueAsString(product));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    /**
+     * CSV with header (RFC 4180 quoting)
+     */
+    public void writeCsv(OutputStream outputStream) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8))) {
+            writer.write(CSV_HEADER);
+            writer.write("\r\n");
+            productService.exportProducts(product -> {
+                try {
+                    writeCsvRow(writer, product);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private void writeCsvRow(Writer writer, ProductDTO product) throws IOException {
+        writer.write(String.valueOf(product.getId()));
+        writer.write(',');
+        writer.write(csvField(product.getName()));
+        writer.write(',');
+        writer.write(csvField(product.getDescription()));
+        writer.write(',');
+        writer.write(product.getPrice().toPlainString());
+        writer.write(',');
+        writer.write(csvField(product.getCategory()));
+        writer.write(',');
+        writer.write(String.valueOf(product.getCreatedAt()));
+        writer.write(',');
+        writer.write(String.valueOf(product.getUpdatedAt()));
+        writer.write("\r\n");
+    }
+
+    private String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
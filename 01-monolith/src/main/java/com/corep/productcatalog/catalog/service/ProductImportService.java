@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2024-2025 Daniele Bortoluzzi
+ * 
+ * Master di I Livello in Cloud Computing
+ * Università degli Studi di Torino - COREP
+ * 
+ * This project is part of the Cloud Computing Master's program.
+ * Educational project for Cloud Computing Course.
+ * 
+ * MIT License - see LICENSE file for details
+ */
+package com.corep.productcatalog.catalog.service;
+
+import com.corep.productcatalog.catalog.dto.ProductDTO;
+import com.corep.productcatalog.catalog.dto.ProductImportReportDTO;
+import com.corep.productcatalog.catalog.entity.Product;
+import com.corep.productcatalog.catalog.event.ProductCreatedEvent;
+import com.corep.productcatalog.catalog.exception.InvalidImportFileException;
+import com.corep.productcatalog.catalog.repository.ProductRepository;
+import com.corep.productcatalog.inventory.service.InventoryService;
+import com.corep.productcatalog.shared.config.ApplicationProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Product Import Service
+ * Bulk import of supplier feeds (NDJSON or CSV) with chunked transactions
+ *
+ * The input is read row by row; valid rows are accumulated into chunks and each chunk is written
+ * in its own transaction: products and their inventories are inserted together with JDBC batching
+ * (sequence ids, hibernate.jdbc.batch_size). Invalid rows, and the rows of a chunk rejected by
+ * the database, are listed in the report; the other chunks are still imported.
+ *
+ * In microservices: inventories would be created by Inventory Service from ProductCreatedEvents
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductImportService {
+
+    private final ProductService productService;
+    private final ProductRepository productRepository;
+    private final InventoryService inventoryService;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Import newline-delimited JSON: one product per line, with an optional "initialStock" field
+     * Example line: {"name": "Mouse", "price": 19.99, "category": "Accessories", "initialStock": 40}
+     */
+    public ProductImportReportDTO importNdjson(InputStream inputStream) throws IOException {
+        ImportRun run = new ImportRun();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        String line;
+        long rowNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            rowNumber++;
+            try {
+                JsonNode node = objectMapper.readTree(line);
+                ProductDTO product = objectMapper.treeToValue(node, ProductDTO.class);
+                run.accept(rowNumber, product, initialStock(node));
+            } catch (JsonProcessingException e) {
+                run.reject(rowNumber, "Malformed JSON: " + e.getOriginalMessage());
+            } catch (NumberFormatException e) {
+                run.reject(rowNumber, "Invalid number: " + e.getMessage());
+            }
+        }
+        return run.finish();
+    }
+
+    /**
+     * initialStock of an NDJSON line: absent means 0; otherwise an integer, as a JSON number or a string
+     * like the CSV column (so "abc", 12.7 or null are rejected instead of imported as some stock)
+     */
+    private int initialStock(JsonNode line) {
+        JsonNode value = line.get("initialStock");
+        if (value == null) {
+            return 0;
+        }
+        if (value.isIntegralNumber() && value.canConvertToInt()) {
+            return value.intValue();
+        }
+        if (value.isTextual()) {
+            return Integer.parseInt(value.textValue().trim());
+        }
+        throw new NumberFormatException("initialStock must be an integer, got " + value);
+    }
+
+    /**
+     * Import CSV with a header row
+     * Columns (any order): name, description, price, category, initialStock (description and initialStock optional)
+     */
+    public ProductImportReportDTO importCsv(InputStream inputStream) throws IOException {
+        ImportRun run = new ImportRun();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        List<String> header = readCsvRecord(reader);
+        if (header == null) {
+            return run.finish();
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.keySet().containsAll(Set.of("name", "price", "category"))) {
+            throw new InvalidImportFileException("CSV header must contain the columns name, price and category");
+        }
+
+        List<String> record;
+        long rowNumber = 0;
+        while ((record = readCsvRecord(reader)) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            rowNumber++;
+            try {
+                ProductDTO product = new ProductDTO();
+                product.setName(csvValue(record, columns, "name"));
+                product.setDescription(csvValue(record, columns, "description"));
+                String price = csvValue(record, columns, "price");
+                product.setPrice(price == null ? null : new BigDecimal(price));
+                product.setCategory(csvValue(record, columns, "category"));
+                String initialStock = csvValue(record, columns, "initialstock");
+                run.accept(rowNumber, product, initialStock == null ? 0 : Integer.parseInt(initialStock));
+            } catch (NumberFormatException e) {
+                run.reject(rowNumber, "Invalid number: " + e.getMessage());
+            }
+        }
+        return run.finish();
+    }
+
+    private String csvValue(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Read one CSV record (RFC 4180): quoted fields may contain commas, escaped quotes and line breaks
+     * Returns null at the end of the input
+     */
+    private List<String> readCsvRecord(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            if (!quoted) {
+                break;
+            }
+            line = reader.readLine();
+            if (line == null) {
+                break; // unterminated quote: keep what was read, validation reports the row
+            }
+            field.append('\n');
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * State of one import: the current chunk and the report
+     */
+    private class ImportRun {
+
+        private final long startNanos = System.nanoTime();
+        private final int chunkSize = properties.getProductImport().getChunkSize();
+        private final List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        private final ProductImportReportDTO report = new ProductImportReportDTO();
+
+        void accept(long rowNumber, ProductDTO product, int initialStock) {
+            report.setTotalRows(report.getTotalRows() + 1);
+            Set<ConstraintViolation<ProductDTO>> violations = validator.validate(product);
+            if (!violations.isEmpty()) {
+                addError(rowNumber, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            if (initialStock < 0) {
+                addError(rowNumber, "Initial stock cannot be negative");
+                return;
+            }
+            chunk.add(new ImportRow(rowNumber, product, initialStock));
+            if (chunk.size() >= chunkSize) {
+                writeChunk();
+            }
+        }
+
+        void reject(long rowNumber, String message) {
+            report.setTotalRows(report.getTotalRows() + 1);
+            addError(rowNumber, message);
+        }
+
+        ProductImportReportDTO finish() {
+            if (!chunk.isEmpty()) {
+                writeChunk();
+            }
+            long elapsedNanos = System.nanoTime() - startNanos;
+            report.setDurationMillis(elapsedNanos / 1_000_000);
+            report.setRowsPerSecond(report.getImportedRows() / Math.max(elapsedNanos / 1_000_000_000.0, 1e-9));
+            log.info("Imported {} of {} products in {} ms ({} rows/s)", report.getImportedRows(),
+                    report.getTotalRows(), report.getDurationMillis(), Math.round(report.getRowsPerSecond()));
+            return report;
+        }
+
+        /**
+         * Write the products of the chunk and their inventories in one transaction
+         */
+        private void writeChunk() {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    List<Product> products = chunk.stream()
+                            .map(row -> productService.convertToEntity(row.product()))
+                            .collect(Collectors.toList());
+                    productRepository.saveAll(products);
+
+                    Map<Long, Integer> initialStocks = new LinkedHashMap<>();
+                    for (int i = 0; i < products.size(); i++) {
+                        initialStocks.put(products.get(i).getId(), chunk.get(i).initialStock());
+                    }
+                    inventoryService.createInventories(initialStocks);
+                    products.forEach(product ->
+                            eventPublisher.publishEvent(new ProductCreatedEvent(productService.convertToDTO(product))));
+                });
+                report.setImportedRows(report.getImportedRows() + chunk.size());
+            } catch (RuntimeException e) {
+                log.warn("Import chunk of {} rows rejected: {}", chunk.size(), e.getMessage());
+                chunk.forEach(row -> addError(row.rowNumber(), "Rejected by the database: " + e.getMessage()));
+            }
+            chunk.clear();
+        }
+
+        private void addError(long rowNumber, String message) {
+            report.setFailedRows(report.getFailedRows() + 1);
+            if (report.getErrors().size() < properties.getProductImport().getMaxReportedErrors()) {
+                report.getErrors().add(new ProductImportReportDTO.RowError(rowNumber, message));
+            }
+        }
+    }
+
+    private record ImportRow(long rowNumber, ProductDTO product, int initialStock) {
+    }
+}
@@ -0,0 +1,494 @@
+/*
+ * Copyright (c) 2024-2025 Daniele Bortoluzzi
+ *
+ * Master di I Livello in Cloud Computing
+ * Università degli Studi di Torino - COREP
+ *
+ * This project is part of the Cloud Computing Master's program.
+ * Educational project for Cloud Computing Course.
+ *
+ * MIT License - see LICENSE file for details
+ */
+package com.corep.productcatalog.catalog.service;
+
+import com.corep.productcatalog.catalog.dto.ProductDTO;
+import com.corep.productcatalog.catalog.event.ProductCreatedEvent;
+import com.corep.productcatalog.catalog.event.ProductDeletedEvent;
+import com.corep.productcatalog.catalog.event.ProductUpdatedEvent;
+import com.corep.productcatalog.catalog.repository.ProductPriceView;
+import com.corep.productcatalog.catalog.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Product Price Index
+ * In-memory sorted index of the product prices, serving price range queries (optionally within a category)
+ * with pagination, instead of range scans that load full entities to be counted and sorted
+ *
+ * Prices are kept as whole cents (the price column has scale 2): one set for the whole catalog and one per
+ * category, each holding its products twice, ordered by (cents, product id) and by product id. Both orders are
+ * immutable lists of primitive arrays cut in blocks of a few hundred entries: a write copies the block it
+ * touches and the block tables, and publishes the new lists at once, so a read never copies the set.
+ *
+ * A range is two binary searches on the price order: the number of matches is the distance between them and
+ * a page ordered by price is a slice of it. A page ordered by id walks the id order and keeps the products in
+ * the range: about (offset + size) * products / matches steps, cheap when the range is wide; a narrow range is
+ * cheaper to sort, and is sorted instead.
+ *
+ * Kept in sync by the product events after commit, rebuilt from the table at startup.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductPriceIndex {
+
+    /**
+     * Entries per block after a bulk load; a block is split in two when it exceeds twice this size
+     */
+    private static final int BLOCK_SIZE = 256;
+
+    /**
+     * Largest price the products.price column holds (precision 10, scale 2): wider bounds are clamped to it
+     */
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+
+    private final ProductRepository productRepository;
+
+    /**
+     * Current index; replaced as a whole by a rebuild
+     */
+    private volatile Index index = new Index(Map.of());
+
+    // Guarded by this
+    private List<Change> changesDuringRebuild;
+
+    public enum Order { PRICE_ASC, PRICE_DESC, ID_ASC, ID_DESC }
+
+    /**
+     * Product ids of one page of results and the total number of matches
+     */
+    public record PriceRangeResult(List<Long> productIds, long totalMatches) {
+    }
+
+    /**
+     * Products priced between minPrice and maxPrice (both included), of the category if not null
+     */
+    public PriceRangeResult find(BigDecimal minPrice, BigDecimal maxPrice, String category, Order order,
+                                 long offset, int limit) {
+        PriceSet prices = category == null ? index.all : index.byCategory.get(category);
+        // Whole cents inside the bounds: 9.999 as lower bound starts at 10.00
+        long from = clamp(minPrice).setScale(2, RoundingMode.CEILING).unscaledValue().longValueExact();
+        long to = clamp(maxPrice).setScale(2, RoundingMode.FLOOR).unscaledValue().longValueExact();
+        if (prices == null || from > to) {
+            return new PriceRangeResult(List.of(), 0);
+        }
+        PriceSet.Snapshot snapshot = prices.snapshot;
+        Blocks byPrice = snapshot.byPrice();
+        int low = byPrice.firstAtLeast(from, Long.MIN_VALUE);
+        int high = byPrice.firstAtLeast(to + 1, Long.MIN_VALUE);
+        int matches = high - low;
+        int first = (int) Math.min(offset, matches);
+        int count = Math.min(limit, matches - first);
+
+        List<Long> page = new ArrayList<>(count);
+        if (count == 0) {
+            return new PriceRangeResult(page, matches);
+        }
+        if (order == Order.PRICE_ASC) {
+            byPrice.addValues(low + first, count, false, page);
+        } else if (order == Order.PRICE_DESC) {
+            byPrice.addValues(high - 1 - first, count, true, page);
+        } else if ((long) (first + count) * byPrice.size() <= (long) matches * matches) {
+            // Wide range: most products walked are in it
+            snapshot.byId().addKeysWithValueIn(from, to, first, count, order == Order.ID_DESC, page);
+        } else {
+            long[] ids = byPrice.values(low, high);
+            Arrays.sort(ids);
+            for (int i = 0; i < count; i++) {
+                page.add(ids[order == Order.ID_ASC ? first + i : matches - 1 - first - i]);
+            }
+        }
+        return new PriceRangeResult(page, matches);
+    }
+
+    public int size() {
+        return index.products.size();
+    }
+
+    private static BigDecimal clamp(BigDecimal price) {
+        return price.max(MAX_PRICE.negate()).min(MAX_PRICE);
+    }
+
+    @TransactionalEventListener
+    public void onProductCreated(ProductCreatedEvent event) {
+        apply(change(event.getProduct()));
+    }
+
+    @TransactionalEventListener
+    public void onProductUpdated(ProductUpdatedEvent event) {
+        apply(change(event.getProduct()));
+    }
+
+    @TransactionalEventListener
+    public void onProductDeleted(ProductDeletedEvent event) {
+        apply(new Change(event.getProductId(), null, 0));
+    }
+
+    /**
+     * Rebuild the whole index from the products table (at startup, after DataInitializer)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (this) {
+            changesDuringRebuild = new ArrayList<>();
+        }
+
+        Map<Long, Entry> products = new HashMap<>();
+        try (Stream<ProductPriceView> views = productRepository.streamPriceViews()) {
+            views.forEach(view -> products.put(view.getId(),
+                    new Entry(view.getCategory(), new PriceKey(cents(view.getPrice()), view.getId()))));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changesDuringRebuild = null;
+            }
+            throw e;
+        }
+
+        Index rebuilt = new Index(products);
+        synchronized (this) {
+            // Changes are idempotent (last state per product): replaying one already seen by the query is harmless
+            changesDuringRebuild.forEach(rebuilt::apply);
+            changesDuringRebuild = null;
+            index = rebuilt;
+        }
+        log.info("Rebuilt product price index: {} products", rebuilt.products.size());
+    }
+
+    private synchronized void apply(Change change) {
+        if (changesDuringRebuild != null) {
+            changesDuringRebuild.add(change);
+        }
+        index.apply(change);
+    }
+
+    private Change change(ProductDTO product) {
+        return new Change(product.getId(), product.getCategory(), cents(product.getPrice()));
+    }
+
+    private static long cents(BigDecimal price) {
+        return price.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Price of a product in cents
+     */
+    private record PriceKey(long cents, long productId) {
+    }
+
+    /**
+     * New state of a product (category == null: product deleted)
+     */
+    private record Change(Long productId, String category, long cents) {
+    }
+
+    /**
+     * Indexed product: where to remove it from on update or delete
+     */
+    private record Entry(String category, PriceKey key) {
+    }
+
+    /**
+     * Prices of a set of products, by price and by id
+     * Written under the lock of the index (one writer), read without locks through the current snapshot
+     */
+    private static class PriceSet {
+
+        private volatile Snapshot snapshot;
+
+        PriceSet(List<PriceKey> keys) {
+            int size = keys.size();
+            long[] cents = new long[size];
+            long[] ids = new long[size];
+            keys.sort(Comparator.comparingLong(PriceKey::cents).thenComparingLong(PriceKey::productId));
+            for (int i = 0; i < size; i++) {
+                cents[i] = keys.get(i).cents();
+                ids[i] = keys.get(i).productId();
+            }
+            Blocks byPrice = Blocks.of(cents, ids);
+            keys.sort(Comparator.comparingLong(PriceKey::productId));
+            for (int i = 0; i < size; i++) {
+                ids[i] = keys.get(i).productId();
+                cents[i] = keys.get(i).cents();
+            }
+            snapshot = new Snapshot(byPrice, Blocks.of(ids, cents));
+        }
+
+        void add(PriceKey key) {
+            Snapshot current = snapshot;
+            snapshot = new Snapshot(current.byPrice().insert(key.cents(), key.productId()),
+                    current.byId().insert(key.productId(), key.cents()));
+        }
+
+        void remove(PriceKey key) {
+            Snapshot current = snapshot;
+            snapshot = new Snapshot(current.byPrice().remove(key.cents(), key.productId()),
+                    current.byId().remove(key.productId(), key.cents()));
+        }
+
+        /**
+         * (cents, product id) pairs by price, (product id, cents) pairs by id
+         */
+        record Snapshot(Blocks byPrice, Blocks byId) {
+        }
+    }
+
+    /**
+     * Immutable list of (key, value) pairs ordered by key then value, in blocks: blocks[b] holds positions
+     * starts[b] to starts[b] + keys[b].length - 1. A write returns a new list sharing the untouched blocks.
+     */
+    private record Blocks(long[][] keys, long[][] values, int[] starts, int size) {
+
+        static Blocks of(long[] keys, long[] values) {
+            int blocks = (keys.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+            long[][] blockKeys = new long[blocks][];
+            long[][] blockValues = new long[blocks][];
+            int[] starts = new int[blocks];
+            for (int b = 0; b < blocks; b++) {
+                int from = b * BLOCK_SIZE;
+                int to = Math.min(from + BLOCK_SIZE, keys.length);
+                blockKeys[b] = Arrays.copyOfRange(keys, from, to);
+                blockValues[b] = Arrays.copyOfRange(values, from, to);
+                starts[b] = from;
+            }
+            return new Blocks(blockKeys, blockValues, starts, keys.length);
+        }
+
+        /**
+         * Position of the first pair >= (key, value) (size if none)
+         */
+        int firstAtLeast(long key, long value) {
+            int block = blockOf(key, value);
+            return block == keys.length ? size : starts[block] + indexIn(block, key, value);
+        }
+
+        /**
+         * Values of the positions from (included) to (excluded)
+         */
+        long[] values(int from, int to) {
+            long[] copy = new long[to - from];
+            int block = blockAt(from);
+            int index = from - starts[block];
+            for (int i = 0; i < copy.length; i++, index++) {
+                if (index == values[block].length) {
+                    block++;
+                    index = 0;
+                }
+                copy[i] = values[block][index];
+            }
+            return copy;
+        }
+
+        /**
+         * Add the values of count positions from the given one, going up or down
+         */
+        void addValues(int position, int count, boolean descending, List<Long> page) {
+            int block = blockAt(position);
+            int index = position - starts[block];
+            for (int i = 0; i < count; i++) {
+                page.add(values[block][index]);
+                if (descending && --index < 0 && block > 0) {
+                    index = values[--block].length - 1;
+                } else if (!descending && ++index == values[block].length) {
+                    block++;
+                    index = 0;
+                }
+            }
+        }
+
+        /**
+         * Walk the keys up or down and add the ones whose value is between min and max, skipping the first skip
+         */
+        void addKeysWithValueIn(long min, long max, int skip, int count, boolean descending, List<Long> page) {
+            int skipped = 0;
+            for (int i = 0; i < keys.length && page.size() < count; i++) {
+                int b = descending ? keys.length - 1 - i : i;
+                long[] blockValues = values[b];
+                for (int j = 0; j < blockValues.length && page.size() < count; j++) {
+                    int index = descending ? blockValues.length - 1 - j : j;
+                    if (blockValues[index] >= min && blockValues[index] <= max && skipped++ >= skip) {
+                        page.add(keys[b][index]);
+                    }
+                }
+            }
+        }
+
+        Blocks insert(long key, long value) {
+            if (keys.length == 0) {
+                return of(new long[]{key}, new long[]{value});
+            }
+            int block = Math.min(blockOf(key, value), keys.length - 1);
+            int index = indexIn(block, key, value);
+            long[] newKeys = insertAt(keys[block], index, key);
+            long[] newValues = insertAt(values[block], index, value);
+            if (newKeys.length <= 2 * BLOCK_SIZE) {
+                return replace(block, new long[][]{newKeys}, new long[][]{newValues}, size + 1);
+            }
+            int half = newKeys.length / 2;
+            return replace(block,
+                    new long[][]{Arrays.copyOfRange(newKeys, 0, half), Arrays.copyOfRange(newKeys, half, newKeys.length)},
+                    new long[][]{Arrays.copyOfRange(newValues, 0, half), Arrays.copyOfRange(newValues, half, newValues.length)},
+                    size + 1);
+        }
+
+        Blocks remove(long key, long value) {
+            int block = blockOf(key, value);
+            if (block == keys.length) {
+                return this;
+            }
+            int index = indexIn(block, key, value);
+            if (keys[block][index] != key || values[block][index] != value) {
+                return this;
+            }
+            if (keys[block].length == 1) {
+                return replace(block, new long[0][], new long[0][], size - 1);
+            }
+            return replace(block, new long[][]{removeAt(keys[block], index)},
+                    new long[][]{removeAt(values[block], index)}, size - 1);
+        }
+
+        /**
+         * First block whose last pair is >= (key, value) (number of blocks if none)
+         */
+        private int blockOf(long key, long value) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                int last = keys[middle].length - 1;
+                if (compare(keys[middle][last], values[middle][last], key, value) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Index of the first pair >= (key, value) in the block
+         */
+        private int indexIn(int block, long key, long value) {
+            long[] blockKeys = keys[block];
+            long[] blockValues = values[block];
+            int low = 0;
+            int high = blockKeys.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (compare(blockKeys[middle], blockValues[middle], key, value) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Block holding a position (0 <= position < size)
+         */
+        private int blockAt(int position) {
+            int found = Arrays.binarySearch(starts, position);
+            return found >= 0 ? found : -found - 2;
+        }
+
+        /**
+         * Same list with the block replaced by the given ones (none: block removed)
+         */
+        private Blocks replace(int block, long[][] newKeys, long[][] newValues, int newSize) {
+            int blocks = keys.length - 1 + newKeys.length;
+            long[][] blockKeys = new long[blocks][];
+            long[][] blockValues = new long[blocks][];
+            System.arraycopy(keys, 0, blockKeys, 0, block);
+            System.arraycopy(values, 0, blockValues, 0, block);
+            System.arraycopy(newKeys, 0, blockKeys, block, newKeys.length);
+            System.arraycopy(newValues, 0, blockValues, block, newValues.length);
+            System.arraycopy(keys, block + 1, blockKeys, block + newKeys.length, keys.length - block - 1);
+            System.arraycopy(values, block + 1, blockValues, block + newKeys.length, keys.length - block - 1);
+            int[] starts = new int[blocks];
+            for (int b = 1; b < blocks; b++) {
+                starts[b] = starts[b - 1] + blockKeys[b - 1].length;
+            }
+            return new Blocks(blockKeys, blockValues, starts, newSize);
+        }
+
+        private static int compare(long key, long value, long otherKey, long otherValue) {
+            int byKey = Long.compare(key, otherKey);
+            return byKey != 0 ? byKey : Long.compare(value, otherValue);
+        }
+
+        private static long[] insertAt(long[] array, int index, long element) {
+            long[] copy = new long[array.length + 1];
+            System.arraycopy(array, 0, copy, 0, index);
+            copy[index] = element;
+            System.arraycopy(array, index, copy, index + 1, array.length - index);
+            return copy;
+        }
+
+        private static long[] removeAt(long[] array, int index) {
+            long[] copy = new long[array.length - 1];
+            System.arraycopy(array, 0, copy, 0, index);
+            System.arraycopy(array, index + 1, copy, index, array.length - index - 1);
+            return copy;
+        }
+    }
+
+    private static class Index {
+
+        private final PriceSet all;
+        private final Map<String, PriceSet> byCategory = new ConcurrentHashMap<>();
+        private final Map<Long, Entry> products;
+
+        /**
+         * Index of the given products, loaded in bulk
+         */
+        Index(Map<Long, Entry> products) {
+            this.products = new ConcurrentHashMap<>(products);
+            Map<String, List<PriceKey>> keysByCategory = new HashMap<>();
+            products.values().forEach(entry ->
+                    keysByCategory.computeIfAbsent(entry.category(), category -> new ArrayList<>()).add(entry.key()));
+            keysByCategory.forEach((category, keys) -> byCategory.put(category, new PriceSet(keys)));
+            all = new PriceSet(new ArrayList<>(products.values().stream().map(Entry::key).toList()));
+        }
+
+        void apply(Change change) {
+            Entry previous = products.remove(change.productId());
+            if (previous != null) {
+                all.remove(previous.key());
+                byCategory.get(previous.category()).remove(previous.key());
+            }
+            if (change.category() != null) {
+                PriceKey key = new PriceKey(change.cents(), change.productId());
+                products.put(change.productId(), new Entry(change.category(), key));
+                all.add(key);
+                byCategory.computeIfAbsent(change.category(), category -> new PriceSet(new ArrayList<>())).add(key);
+            }
+        }
+    }
+}
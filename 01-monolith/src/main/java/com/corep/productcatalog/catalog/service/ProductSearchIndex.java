@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2024-2025 Daniele Bortoluzzi
+ * 
+ * Master di I Livello in Cloud Computing
+ * Università degli Studi di Torino - COREP
+ * 
+ * This project is part of the Cloud Computing Master's program.
+ * Educational project for Cloud Computing Course.
+ * 
+ * MIT License - see LICENSE file for details
+ */
+package com.corep.productcatalog.catalog.service;
+
+import com.corep.productcatalog.catalog.dto.ProductDTO;
+import com.corep.productcatalog.catalog.event.ProductCreatedEvent;
+import com.corep.productcatalog.catalog.event.ProductDeletedEvent;
+import com.corep.productcatalog.catalog.event.ProductUpdatedEvent;
+import com.corep.productcatalog.catalog.repository.ProductRepository;
+import com.corep.productcatalog.catalog.repository.ProductSearchView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Product Search Index
+ * In-process inverted index over product name, description and category, used by GET /api/v1/products/search
+ * instead of LIKE '%x%' queries (which no index can serve)
+ *
+ * Text is tokenized on non-alphanumeric characters, lower-cased and stripped of accents. Terms are kept
+ * in a sorted map, so every query token also matches as a prefix ("lap" finds "laptop").
+ * All query tokens must match. Relevance is TF-IDF like: field weight (name 3, category 2, description 1)
+ * times occurrences times the rarity of the term; prefix matches count half.
+ *
+ * Kept in sync by the product events after commit, rebuilt from the table at startup.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchIndex {
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final double PREFIX_MATCH_FACTOR = 0.5;
+
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Comparator<Map.Entry<Long, Double>> BY_RELEVANCE =
+            Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+
+    private final ProductRepository productRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private Map<Long, Set<String>> documents = new HashMap<>();
+    private List<Change> changesDuringRebuild;
+
+    /**
+     * Product ids of one page of results, most relevant first, and the total number of matches
+     */
+    public record SearchResult(List<Long> productIds, long totalMatches) {
+    }
+
+    public SearchResult search(String query, long offset, int limit) {
+        List<String> tokens = tokenize(query).distinct().toList();
+        if (tokens.isEmpty()) {
+            return new SearchResult(List.of(), 0);
+        }
+
+        Map<Long, Double> scores = null;
+        lock.readLock().lock();
+        try {
+            for (String token : tokens) {
+                Map<Long, Double> tokenScores = scoreToken(token);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((productId, score) -> score + tokenScores.get(productId));
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new SearchResult(topResults(scores, offset, limit), scores.size());
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onProductCreated(ProductCreatedEvent event) {
+        apply(new Change(event.getProduct().getId(), termWeights(event.getProduct())));
+    }
+
+    @TransactionalEventListener
+    public void onProductUpdated(ProductUpdatedEvent event) {
+        apply(new Change(event.getProduct().getId(), termWeights(event.getProduct())));
+    }
+
+    @TransactionalEventListener
+    public void onProductDeleted(ProductDeletedEvent event) {
+        apply(new Change(event.getProductId(), null));
+    }
+
+    /**
+     * Rebuild the whole index from the products table (at startup, after DataInitializer)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        NavigableMap<String, Map<Long, Integer>> rebuiltPostings = new TreeMap<>();
+        Map<Long, Set<String>> rebuiltDocuments = new HashMap<>();
+        try (Stream<ProductSearchView> views = productRepository.streamSearchViews()) {
+            views.forEach(view -> add(rebuiltPostings, rebuiltDocuments, view.getId(),
+                    termWeights(view.getName(), view.getDescription(), view.getCategory())));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            postings = rebuiltPostings;
+            documents = rebuiltDocuments;
+            // Changes carry the full new state of a product: replaying one already read by the query is harmless
+            changesDuringRebuild.forEach(this::applyLocked);
+            changesDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Rebuilt product search index: {} products, {} terms", rebuiltDocuments.size(), rebuiltPostings.size());
+    }
+
+    /**
+     * Split text into lower-case, accent-free alphanumeric tokens
+     */
+    static Stream<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Stream.empty();
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return NON_ALPHANUMERIC.splitAsStream(folded).filter(token -> !token.isEmpty());
+    }
+
+    /**
+     * Score of every product matching the token exactly or as a prefix
+     */
+    private Map<Long, Double> scoreToken(String token) {
+        Map<Long, Double> scores = new HashMap<>();
+        int documentCount = documents.size();
+        for (Map.Entry<String, Map<Long, Integer>> term
+                : postings.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+            double idf = Math.log(1 + (double) documentCount / term.getValue().size());
+            double factor = term.getKey().equals(token) ? 1 : PREFIX_MATCH_FACTOR;
+            term.getValue().forEach((productId, weight) ->
+                    scores.merge(productId, weight * idf * factor, Math::max));
+        }
+        return scores;
+    }
+
+    /**
+     * Results [offset, offset + limit) by relevance, keeping only offset + limit entries in a heap
+     */
+    private List<Long> topResults(Map<Long, Double> scores, long offset, int limit) {
+        if (offset >= scores.size()) {
+            return List.of();
+        }
+        int keep = (int) Math.min(offset + limit, scores.size());
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(keep, BY_RELEVANCE.reversed());
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            if (heap.size() < keep) {
+                heap.add(entry);
+            } else if (BY_RELEVANCE.compare(entry, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(heap);
+        ranked.sort(BY_RELEVANCE);
+        return ranked.subList((int) offset, ranked.size()).stream().map(Map.Entry::getKey).toList();
+    }
+
+    private void apply(Change change) {
+        lock.writeLock().lock();
+        try {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+            applyLocked(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void applyLocked(Change change) {
+        Set<String> previousTerms = documents.remove(change.productId());
+        if (previousTerms != null) {
+            for (String term : previousTerms) {
+                Map<Long, Integer> products = postings.get(term);
+                products.remove(change.productId());
+                if (products.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        if (change.termWeights() != null) {
+            add(postings, documents, change.productId(), change.termWeights());
+        }
+    }
+
+    private static void add(NavigableMap<String, Map<Long, Integer>> postings, Map<Long, Set<String>> documents,
+                            Long productId, Map<String, Integer> termWeights) {
+        termWeights.forEach((term, weight) ->
+                postings.computeIfAbsent(term, key -> new HashMap<>(4)).put(productId, weight));
+        documents.put(productId, termWeights.keySet());
+    }
+
+    private static Map<String, Integer> termWeights(ProductDTO product) {
+        return termWeights(product.getName(), product.getDescription(), product.getCategory());
+    }
+
+    private static Map<String, Integer> termWeights(String name, String description, String category) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        tokenize(name).forEach(term -> weights.merge(term, NAME_WEIGHT, Integer::sum));
+        tokenize(category).forEach(term -> weights.merge(term, CATEGORY_WEIGHT, Integer::sum));
+        tokenize(description).forEach(term -> weights.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+        return weights;
+    }
+
+    /**
+     * New indexed terms of a product (termWeights == null: product deleted)
+     */
+    private record Change(Long productId, Map<String, Integer> termWeights) {
+    }
+}
@@ -11,29 +11,68 @@
  */
 package com.corep.productcatalog.catalog.service;
 
+import com.corep.productcatalog.catalog.dto.CategoryStatisticsDTO;
+import com.corep.productcatalog.catalog.dto.CursorPageDTO;
+import com.corep.productcatalog.catalog.dto.ProductBatchDTO;
 import com.corep.productcatalog.catalog.dto.ProductDTO;
 import com.corep.productcatalog.catalog.entity.Product;
+import com.corep.productcatalog.catalog.event.ProductCreatedEvent;
+import com.corep.productcatalog.catalog.event.ProductDeletedEvent;
+import com.corep.productcatalog.catalog.event.ProductUpdatedEvent;
+import com.corep.productcatalog.catalog.exception.InvalidCursorException;
 import com.corep.productcatalog.catalog.exception.ProductNotFoundException;
 import com.corep.productcatalog.catalog.repository.ProductRepository;
+import com.corep.productcatalog.catalog.repository.ProductVersionView;
 import com.corep.productcatalog.inventory.service.InventoryService;
+import com.corep.productcatalog.shared.config.CacheConfig;
+import com.corep.productcatalog.shared.exception.PreconditionFailedException;
+import com.corep.productcatalog.shared.outbox.OutboxEvent;
+import com.corep.productcatalog.shared.outbox.OutboxEventRepository;
+import com.corep.productcatalog.shared.web.EntityTags;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Product Service
  * Manages product catalog information (name, description, price, category)
  * 
- * In modular monolith: coordinates with InventoryService for inventory creation/deletion
+ * In modular monolith: inventory creation/deletion is requested through the transactional outbox;
+ * availability for the multi-get is read from InventoryService (in microservices: one batch call to it)
  * In microservices architecture:
  * - This service would be extracted to Product Catalog Service
+ *
+ * The reads that fill the products cache or are answered with an ETag (the product, the offset lists of the
+ * catalog and of a category) are not readOnly: with read replicas they run on the primary. A replica lagging
+ * behind the last update would otherwise cache the old product for the cache TTL, or pair the new version of
+ * a list with its old content, and conditional GETs would get stale 304s.
  */
 @Service
 @RequiredArgsConstructor
@@ -41,39 +80,44 @@ import java.util.stream.Collectors;
 @Transactional
 public class ProductService {
 
+    /**
+     * Ids per IN query of getProductsByIds
+     */
+    static final int MULTI_GET_CHUNK_SIZE = 100;
+
     private final ProductRepository productRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CategoryStatisticsRegistry categoryStatisticsRegistry;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductPriceIndex productPriceIndex;
+    private final ProductCollectionVersions productCollectionVersions;
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
     private final InventoryService inventoryService;
 
     /**
-     * Creates a new product and automatically creates inventory
-     * @Transactional ensures atomicity - if any error occurs, the transaction is rolled back
+     * Creates a new product; its inventory is created asynchronously
+     * @Transactional ensures atomicity - the product and its outbox event are committed together
      * 
-     * In modular monolith: calls InventoryService to create inventory (synchronous)
-     * In microservices: would publish ProductCreatedEvent for Inventory Service (asynchronous)
+     * In modular monolith: the ProductCreated outbox event is delivered to InventoryService by OutboxDispatcher
+     * In microservices: the outbox event would be relayed to a message broker for Inventory Service
      */
+    @Timed("catalog.products.create")
     public ProductDTO createProduct(ProductDTO productDTO) {
         Product product = convertToEntity(productDTO);
         Product savedProduct = productRepository.save(product);
+        outboxEventRepository.save(new OutboxEvent(ProductCreatedEvent.OUTBOX_TYPE, savedProduct.getId()));
         
-        // Automatically create inventory for the new product (modular monolith pattern)
-        // In microservices, this would be replaced by publishing ProductCreatedEvent
-        try {
-            inventoryService.createInventory(savedProduct.getId(), 0); // Initial stock: 0
-            log.info("Created inventory for product {}", savedProduct.getId());
-        } catch (Exception e) {
-            log.error("Failed to create inventory for product {}: {}", savedProduct.getId(), e.getMessage());
-            // In a real scenario, you might want to rollback the product creation
-            // For now, we log the error but continue (inventory can be created later)
-        }
-        
-        return convertToDTO(savedProduct);
+        ProductDTO createdProduct = convertToDTO(savedProduct);
+        eventPublisher.publishEvent(new ProductCreatedEvent(createdProduct));
+        return createdProduct;
     }
 
     /**
-     * Retrieves all products
-     * @Transactional(readOnly = true) optimizes for read-only operations
+     * Retrieves all products (on the primary: the list carries the catalog ETag)
      */
-    @Transactional(readOnly = true)
     public List<ProductDTO> getAllProducts() {
         return productRepository.findAll()
                 .stream()
@@ -82,22 +126,178 @@ public class ProductService {
     }
 
     /**
-     * Retrieves products with pagination support
+     * Streams every product to the consumer, one at a time, in id order
+     * Backed by a JDBC cursor: each entity is detached once consumed, so memory stays constant
+     * regardless of the catalog size (used by the catalog export)
      */
     @Transactional(readOnly = true)
+    public void exportProducts(Consumer<ProductDTO> consumer) {
+        try (Stream<Product> products = productRepository.streamAll()) {
+            products.forEach(product -> {
+                consumer.accept(convertToDTO(product));
+                entityManager.detach(product);
+            });
+        }
+    }
+
+    /**
+     * Retrieves products with pagination support (on the primary: the page carries the catalog ETag)
+     */
+    @Timed("catalog.products.list")
     public Page<ProductDTO> getAllProducts(Pageable pageable) {
         return productRepository.findAll(pageable)
                 .map(this::convertToDTO);
     }
 
+    /**
+     * Retrieves products with keyset (seek) pagination
+     * The first page is requested without cursor; following pages pass the nextCursor of the previous page.
+     * The sort (id, price or category, asc/desc) is taken from the cursor when present.
+     * No OFFSET and no COUNT query: every page costs the same regardless of its depth.
+     */
+    @Timed("catalog.products.list.cursor")
     @Transactional(readOnly = true)
+    public CursorPageDTO<ProductDTO> getAllProducts(String cursor, int size, String sortBy, String sortDir) {
+        Pageable limit = PageRequest.of(0, size);
+        Slice<Product> slice;
+        boolean descending;
+
+        if (cursor == null || cursor.isEmpty()) {
+            if (!ProductCursor.SORTABLE_FIELDS.contains(sortBy)) {
+                throw new InvalidCursorException("Keyset pagination supports sorting by " + ProductCursor.SORTABLE_FIELDS);
+            }
+            descending = sortDir.equalsIgnoreCase("desc");
+            Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+            slice = productRepository.findAllBy(PageRequest.of(0, size, Sort.by(direction, sortBy, "id")));
+        } else {
+            ProductCursor after = ProductCursor.decode(cursor);
+            sortBy = after.getSortBy();
+            descending = after.isDescending();
+            slice = switch (sortBy) {
+                case "price" -> descending
+                        ? productRepository.findNextByPriceDesc(after.getLastPrice(), after.getLastId(), limit)
+                        : productRepository.findNextByPriceAsc(after.getLastPrice(), after.getLastId(), limit);
+                case "category" -> descending
+                        ? productRepository.findNextByCategoryDesc(after.getLastKey(), after.getLastId(), limit)
+                        : productRepository.findNextByCategoryAsc(after.getLastKey(), after.getLastId(), limit);
+                default -> descending
+                        ? productRepository.findByIdLessThanOrderByIdDesc(after.getLastId(), limit)
+                        : productRepository.findByIdGreaterThanOrderByIdAsc(after.getLastId(), limit);
+            };
+        }
+
+        List<Product> products = slice.getContent();
+        String nextCursor = slice.hasNext()
+                ? ProductCursor.after(products.get(products.size() - 1), sortBy, descending).encode()
+                : null;
+        return new CursorPageDTO<>(
+                products.stream().map(this::convertToDTO).collect(Collectors.toList()),
+                products.size(),
+                slice.hasNext(),
+                nextCursor);
+    }
+
+    /**
+     * Version of a product for conditional GET, without loading the entity:
+     * from the products cache when the product is cached, else from its version and updated_at columns (primary)
+     */
+    public ProductVersion getProductVersion(Long id) {
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        ProductDTO cached = cache == null ? null : cache.get(id, ProductDTO.class);
+        if (cached != null) {
+            return ProductVersion.ofProduct(id, cached.getVersion(), cached.getUpdatedAt());
+        }
+        ProductVersionView version = productRepository.findVersionById(id)
+                .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
+        return ProductVersion.ofProduct(id, version.getVersion(), version.getUpdatedAt());
+    }
+
+    /**
+     * Version of the products of a category (or of the whole catalog when category is null),
+     * for conditional GET of list pages: read from in-memory counters, no query
+     */
+    public ProductVersion getCollectionVersion(String category) {
+        return productCollectionVersions.get(category == null || category.isEmpty() ? null : category);
+    }
+
+    /**
+     * Retrieves a product by id (read-through cache)
+     * Served from the products cache when present, invalidated by updateProduct/deleteProduct;
+     * a miss is loaded from the primary
+     */
+    @Timed("catalog.products.get")
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
     public ProductDTO getProductById(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
         return convertToDTO(product);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Retrieves several products at once (cart and order pages)
+     * Products found in the products cache are not read again; the others are loaded with findAllById,
+     * in chunks of MULTI_GET_CHUNK_SIZE ids (one IN query per chunk) and cached like getProductById does.
+     * With includeAvailability, the available quantities are read in the same transaction, one query per chunk.
+     * Loaded from the primary, as the loaded products are cached.
+     *
+     * @param ids requested ids; the result keeps their order, duplicates removed
+     */
+    @Timed("catalog.products.batch")
+    public ProductBatchDTO getProductsByIds(List<Long> ids, boolean includeAvailability) {
+        List<Long> distinctIds = List.copyOf(new LinkedHashSet<>(ids));
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        Map<Long, ProductDTO> found = new HashMap<>();
+        List<Long> toLoad = new ArrayList<>();
+        for (Long id : distinctIds) {
+            ProductDTO cached = cache == null ? null : cache.get(id, ProductDTO.class);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                toLoad.add(id);
+            }
+        }
+        for (List<Long> chunk : chunks(toLoad)) {
+            for (Product product : productRepository.findAllById(chunk)) {
+                ProductDTO dto = convertToDTO(product);
+                found.put(product.getId(), dto);
+                if (cache != null) {
+                    cache.put(product.getId(), dto);
+                }
+            }
+        }
+
+        List<ProductDTO> products = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : distinctIds) {
+            ProductDTO product = found.get(id);
+            if (product != null) {
+                products.add(product);
+            } else {
+                missingIds.add(id);
+            }
+        }
+
+        Map<Long, Integer> availableQuantities = null;
+        if (includeAvailability) {
+            availableQuantities = new HashMap<>();
+            for (List<Long> chunk : chunks(products.stream().map(ProductDTO::getId).toList())) {
+                availableQuantities.putAll(inventoryService.getAvailableQuantities(chunk));
+            }
+        }
+        return new ProductBatchDTO(products, missingIds, availableQuantities);
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += MULTI_GET_CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + MULTI_GET_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Retrieves the products of a category (on the primary: the list carries the category ETag)
+     */
     public List<ProductDTO> getProductsByCategory(String category) {
         return productRepository.findByCategory(category)
                 .stream()
@@ -106,9 +306,8 @@ public class ProductService {
     }
 
     /**
-     * Retrieves products by category with pagination
+     * Retrieves products by category with pagination (on the primary: the page carries the category ETag)
      */
-    @Transactional(readOnly = true)
     public Page<ProductDTO> getProductsByCategory(String category, Pageable pageable) {
         return productRepository.findByCategory(category, pageable)
                 .map(this::convertToDTO);
@@ -126,71 +325,177 @@ public class ProductService {
     }
 
     /**
-     * Uses native SQL query to get category statistics
+     * Category statistics (count, average, min and max price per category)
+     * Served from the incrementally maintained CategoryStatisticsRegistry: no table scan per request
      */
+    @Timed("catalog.statistics")
     @Transactional(readOnly = true)
-    public List<Object[]> getCategoryStatistics() {
-        return productRepository.getCategoryStatistics();
+    public List<CategoryStatisticsDTO> getCategoryStatistics() {
+        return categoryStatisticsRegistry.getStatistics();
+    }
+
+    @Timed("catalog.price-range")
+    @Transactional(readOnly = true)
+    public List<ProductDTO> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+        return getProductsByPriceRange(minPrice, maxPrice, (String) null);
     }
 
     /**
-     * Uses native SQL query to find products by price range
+     * Products priced between minPrice and maxPrice (both included), of the category if not null,
+     * most expensive first
+     * Matching ids come from ProductPriceIndex; the products are loaded by id in chunks
      */
+    @Timed("catalog.price-range")
     @Transactional(readOnly = true)
-    public List<ProductDTO> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
-        return productRepository.findProductsByPriceRange(minPrice, maxPrice)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public List<ProductDTO> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, String category) {
+        ProductPriceIndex.PriceRangeResult result = productPriceIndex.find(minPrice, maxPrice, category,
+                ProductPriceIndex.Order.PRICE_DESC, 0, Integer.MAX_VALUE);
+        return loadInOrder(result.productIds());
     }
 
     /**
      * Uses pagination to find products by price range
      */
+    @Timed("catalog.price-range")
     @Transactional(readOnly = true)
     public Page<ProductDTO> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
-        return productRepository.findByPriceBetween(minPrice, maxPrice, pageable)
-                .map(this::convertToDTO);
+        return getProductsByPriceRange(minPrice, maxPrice, null, pageable);
+    }
+
+    /**
+     * Page of the products priced between minPrice and maxPrice (both included), of the category if not null
+     * Sorted by price or by id (default): the page is served from ProductPriceIndex and only its products
+     * are loaded. Any other sort is left to the database.
+     */
+    @Timed("catalog.price-range")
+    @Transactional(readOnly = true)
+    public Page<ProductDTO> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, String category,
+                                                    Pageable pageable) {
+        ProductPriceIndex.Order order = priceIndexOrder(pageable.getSort());
+        if (order == null) {
+            Page<Product> products = category == null
+                    ? productRepository.findByPriceBetween(minPrice, maxPrice, pageable)
+                    : productRepository.findByCategoryAndPriceBetween(category, minPrice, maxPrice, pageable);
+            return products.map(this::convertToDTO);
+        }
+        ProductPriceIndex.PriceRangeResult result = productPriceIndex.find(minPrice, maxPrice, category, order,
+                pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(loadInOrder(result.productIds()), pageable, result.totalMatches());
+    }
+
+    /**
+     * Order of ProductPriceIndex matching the sort, null if the index cannot serve it
+     */
+    private static ProductPriceIndex.Order priceIndexOrder(Sort sort) {
+        if (sort.isUnsorted()) {
+            return ProductPriceIndex.Order.ID_ASC;
+        }
+        List<Sort.Order> orders = sort.toList();
+        Sort.Order first = orders.get(0);
+        boolean byPrice = first.getProperty().equals("price")
+                && (orders.size() == 1 || orders.size() == 2 && orders.get(1).getProperty().equals("id")
+                        && orders.get(1).getDirection() == first.getDirection());
+        if (byPrice) {
+            return first.isAscending() ? ProductPriceIndex.Order.PRICE_ASC : ProductPriceIndex.Order.PRICE_DESC;
+        }
+        if (first.getProperty().equals("id") && orders.size() == 1) {
+            return first.isAscending() ? ProductPriceIndex.Order.ID_ASC : ProductPriceIndex.Order.ID_DESC;
+        }
+        return null;
+    }
+
+    /**
+     * Products of the given ids in the same order, loaded in chunks of MULTI_GET_CHUNK_SIZE
+     * Products deleted since the ids were read are skipped
+     */
+    private List<ProductDTO> loadInOrder(List<Long> ids) {
+        Map<Long, Product> products = new HashMap<>();
+        for (List<Long> chunk : chunks(ids)) {
+            productRepository.findAllById(chunk).forEach(product -> products.put(product.getId(), product));
+        }
+        return ids.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Full-text search over name, description and category, most relevant first
+     * Ranking and pagination come from ProductSearchIndex; only the products of the page are loaded
+     */
+    @Timed("catalog.search")
+    @Transactional(readOnly = true)
+    public Page<ProductDTO> searchProducts(String query, Pageable pageable) {
+        ProductSearchIndex.SearchResult result =
+                productSearchIndex.search(query, pageable.getOffset(), pageable.getPageSize());
+        // Keep the relevance order; skip products deleted since the search
+        return new PageImpl<>(loadInOrder(result.productIds()), pageable, result.totalMatches());
     }
 
+    @Timed("catalog.products.update")
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
     public ProductDTO updateProduct(Long id, ProductDTO productDTO) {
+        return updateProduct(id, productDTO, null);
+    }
+
+    /**
+     * Conditional update (optimistic concurrency)
+     * ifMatch is the If-Match header: the update is applied only if it matches the current ETag of the
+     * product (null = unconditional). A concurrent update committed between our read and our write is
+     * detected by the version column when flushing.
+     *
+     * @throws PreconditionFailedException if ifMatch does not match the current version
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the product was updated concurrently
+     */
+    @Timed("catalog.products.update")
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
+    public ProductDTO updateProduct(Long id, ProductDTO productDTO, String ifMatch) {
         Product existingProduct = productRepository.findById(id)
                 .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
+        String eTag = ProductVersion.ofProduct(id, existingProduct.getVersion(), existingProduct.getUpdatedAt()).getETag();
+        if (!EntityTags.matches(ifMatch, eTag)) {
+            recordOptimisticConflict("precondition");
+            throw new PreconditionFailedException("Product " + id + " has changed: current version is " + eTag);
+        }
 
         existingProduct.setName(productDTO.getName());
         existingProduct.setDescription(productDTO.getDescription());
         existingProduct.setPrice(productDTO.getPrice());
         existingProduct.setCategory(productDTO.getCategory());
 
-        Product updatedProduct = productRepository.save(existingProduct);
-        return convertToDTO(updatedProduct);
+        Product updatedProduct;
+        try {
+            // Flush now so a version conflict is reported (and counted) here rather than at commit
+            updatedProduct = productRepository.saveAndFlush(existingProduct);
+        } catch (OptimisticLockingFailureException e) {
+            recordOptimisticConflict("concurrent");
+            throw e;
+        }
+        ProductDTO updatedProductDTO = convertToDTO(updatedProduct);
+        eventPublisher.publishEvent(new ProductUpdatedEvent(updatedProductDTO));
+        return updatedProductDTO;
     }
 
     /**
-     * Deletes a product and automatically deletes associated inventory
-     * In modular monolith: calls InventoryService to delete inventory (synchronous)
-     * In microservices: would publish ProductDeletedEvent for Inventory Service (asynchronous)
+     * Deletes a product; its inventory is deleted asynchronously
+     * In modular monolith: the ProductDeleted outbox event is delivered to InventoryService by OutboxDispatcher
+     * In microservices: the outbox event would be relayed to a message broker for Inventory Service
      */
+    @Timed("catalog.products.delete")
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
     public void deleteProduct(Long id) {
         if (!productRepository.existsById(id)) {
             throw new ProductNotFoundException("Product not found with id: " + id);
         }
         
-        // Automatically delete inventory for the product (modular monolith pattern)
-        // In microservices, this would be replaced by publishing ProductDeletedEvent
-        try {
-            inventoryService.deleteInventory(id);
-            log.info("Deleted inventory for product {}", id);
-        } catch (Exception e) {
-            log.warn("Inventory not found or already deleted for product {}: {}", id, e.getMessage());
-            // Continue with product deletion even if inventory doesn't exist
-        }
-        
         productRepository.deleteById(id);
+        outboxEventRepository.save(new OutboxEvent(ProductDeletedEvent.OUTBOX_TYPE, id));
+        eventPublisher.publishEvent(new ProductDeletedEvent(id));
         log.info("Deleted product {}", id);
     }
 
-    private Product convertToEntity(ProductDTO productDTO) {
+    Product convertToEntity(ProductDTO productDTO) {
         Product product = new Product();
         product.setName(productDTO.getName());
         product.setDescription(productDTO.getDescription());
@@ -199,7 +504,16 @@ public class ProductService {
         return product;
     }
 
-    private ProductDTO convertToDTO(Product product) {
+    /**
+     * Rejected product update: optimistic.lock.conflicts, tagged by entity, operation and reason
+     * (precondition: stale If-Match, concurrent: version check failed at flush)
+     */
+    private void recordOptimisticConflict(String reason) {
+        meterRegistry.counter("optimistic.lock.conflicts", "entity", "product", "operation", "update",
+                "reason", reason).increment();
+    }
+
+    ProductDTO convertToDTO(Product product) {
         ProductDTO productDTO = new ProductDTO();
         productDTO.setId(product.getId());
         productDTO.setName(product.getName());
@@ -208,6 +522,7 @@ public class ProductService {
         productDTO.setCategory(product.getCategory());
         productDTO.setCreatedAt(product.getCreatedAt());
         productDTO.setUpdatedAt(product.getUpdatedAt());
+        productDTO.setVersion(product.getVersion());
         return productDTO;
     }
 }
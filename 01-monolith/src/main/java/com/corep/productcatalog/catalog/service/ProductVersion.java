@@ -0,0 +1,36 @@
+package com.corep.productcatalog.catalog.service;
+
+import com.corep.productcatalog.shared.web.EntityTags;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Validators for conditional requests on product resources (If-None-Match / If-Modified-Since on reads,
+ * If-Match on updates)
+ * A product's strong ETag is derived from its id and version column; a collection's from its in-memory
+ * version counter (ProductCollectionVersions).
+ */
+@Value
+public class ProductVersion {
+
+    String eTag;
+
+    /**
+     * Last-Modified of a single product; null for collections (only the ETag tells a collection changed)
+     */
+    LocalDateTime lastModified;
+
+    public static ProductVersion ofProduct(Long id, Long version, LocalDateTime updatedAt) {
+        return new ProductVersion(EntityTags.versioned("p", id, version), updatedAt);
+    }
+
+    public static ProductVersion ofCollection(long generation, long version) {
+        return new ProductVersion("\"c" + Long.toHexString(generation) + "-" + version + "\"", null);
+    }
+
+    public long getLastModifiedMillis() {
+        return lastModified == null ? -1 : lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
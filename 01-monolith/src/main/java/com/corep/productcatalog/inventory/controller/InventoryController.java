@@ -12,14 +12,31 @@
 package com.corep.productcatalog.inventory.controller;
 
 import com.corep.productcatalog.inventory.dto.InventoryDTO;
+import com.corep.productcatalog.inventory.dto.InventoryHistoryDTO;
+import com.corep.productcatalog.inventory.dto.InventoryMovementDTO;
+import com.corep.productcatalog.inventory.dto.StockBatchRequestDTO;
+import com.corep.productcatalog.inventory.dto.StockReservationDTO;
+import com.corep.productcatalog.inventory.dto.StockReservationRequestDTO;
+import com.corep.productcatalog.inventory.service.InventoryMovementService;
 import com.corep.productcatalog.inventory.service.InventoryService;
+import com.corep.productcatalog.inventory.service.LowStockAlertBroadcaster;
+import com.corep.productcatalog.inventory.service.StockReservationService;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -36,6 +53,9 @@ import java.util.List;
 public class InventoryController {
 
     private final InventoryService inventoryService;
+    private final LowStockAlertBroadcaster lowStockAlertBroadcaster;
+    private final StockReservationService stockReservationService;
+    private final InventoryMovementService inventoryMovementService;
 
     /**
      * Create inventory for a product
@@ -55,22 +75,59 @@ public class InventoryController {
     @GetMapping("/product/{productId}")
     public ResponseEntity<InventoryDTO> getInventoryByProductId(@PathVariable Long productId) {
         InventoryDTO inventory = inventoryService.getInventoryByProductId(productId);
-        return ResponseEntity.ok(inventory);
+        return ResponseEntity.ok()
+                .eTag(InventoryService.eTag(productId, inventory.getVersion()))
+                .body(inventory);
+    }
+
+    /**
+     * Quantities of a product at a past instant (default: now), rebuilt from the movement journal
+     * e.g. to find the stock before a wrong update and set it back
+     * Example: /api/v1/inventory/product/1/history?at=2025-01-15T09:30:00
+     */
+    @GetMapping("/product/{productId}/history")
+    public ResponseEntity<InventoryHistoryDTO> getInventoryAt(
+            @PathVariable Long productId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return ResponseEntity.ok(inventoryMovementService.getInventoryAt(productId,
+                at == null ? LocalDateTime.now() : at));
+    }
+
+    /**
+     * Movements of a product (audit), oldest first, optionally in (from, to]
+     * Example: /api/v1/inventory/product/1/movements?from=2025-01-15T00:00:00&page=0&size=50
+     */
+    @GetMapping("/product/{productId}/movements")
+    public ResponseEntity<Slice<InventoryMovementDTO>> getMovements(
+            @PathVariable Long productId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+            @RequestParam(defaultValue = "50") @Min(1) int size) {
+        Slice<InventoryMovementDTO> movements = inventoryMovementService.getMovements(productId, from,
+                to == null ? LocalDateTime.now() : to, PageRequest.of(page, size));
+        return ResponseEntity.ok(movements);
     }
 
     /**
      * Update stock quantity
+     * Optional If-Match (the ETag of a previous GET): 412 Precondition Failed if the inventory changed since,
+     * e.g. a reservation was made after the client computed the new quantity
      */
     @PutMapping("/product/{productId}/stock")
     public ResponseEntity<InventoryDTO> updateStock(
             @PathVariable Long productId,
-            @RequestParam @NotNull @Min(0) Integer stockQuantity) {
-        InventoryDTO inventory = inventoryService.updateStock(productId, stockQuantity);
-        return ResponseEntity.ok(inventory);
+            @RequestParam @NotNull @Min(0) Integer stockQuantity,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        InventoryDTO inventory = inventoryService.updateStock(productId, stockQuantity, ifMatch);
+        return ResponseEntity.ok()
+                .eTag(InventoryService.eTag(productId, inventory.getVersion()))
+                .body(inventory);
     }
 
     /**
      * Reserve stock (for orders)
+     * Untracked: the units stay reserved until /release is called; prefer /reservations, which expire
      * In microservices: this would be called by external clients/services
      */
     @PostMapping("/product/{productId}/reserve")
@@ -94,21 +151,91 @@ public class InventoryController {
     }
 
     /**
-     * Get low stock items
+     * Reserve stock for all lines of an order in one call (all-or-nothing)
+     * Example body: {"lines": [{"productId": 1, "quantity": 2}, {"productId": 4, "quantity": 1}]}
+     */
+    @PostMapping("/reserve")
+    public ResponseEntity<List<InventoryDTO>> reserveStockBatch(@Valid @RequestBody StockBatchRequestDTO request) {
+        List<InventoryDTO> inventories = inventoryService.reserveStockBatch(request.getLines());
+        return ResponseEntity.ok(inventories);
+    }
+
+    /**
+     * Release reserved stock for all lines of an order in one call (all-or-nothing)
+     */
+    @PostMapping("/release")
+    public ResponseEntity<List<InventoryDTO>> releaseStockBatch(@Valid @RequestBody StockBatchRequestDTO request) {
+        List<InventoryDTO> inventories = inventoryService.releaseStockBatch(request.getLines());
+        return ResponseEntity.ok(inventories);
+    }
+
+    /**
+     * Hold stock for a limited time (cart / checkout)
+     * Released automatically at expiresAt unless confirmed or cancelled before
+     * Example body: {"productId": 1, "quantity": 2, "ttlSeconds": 600}
+     */
+    @PostMapping("/reservations")
+    public ResponseEntity<StockReservationDTO> createReservation(@Valid @RequestBody StockReservationRequestDTO request) {
+        Duration ttl = request.getTtlSeconds() == null ? null : Duration.ofSeconds(request.getTtlSeconds());
+        StockReservationDTO reservation = stockReservationService.hold(request.getProductId(), request.getQuantity(), ttl);
+        return new ResponseEntity<>(reservation, HttpStatus.CREATED);
+    }
+
+    @GetMapping("/reservations/{reservationId}")
+    public ResponseEntity<StockReservationDTO> getReservation(@PathVariable Long reservationId) {
+        return ResponseEntity.ok(stockReservationService.getReservation(reservationId));
+    }
+
+    /**
+     * Confirm a hold (order placed): the held units leave the stock
+     */
+    @PostMapping("/reservations/{reservationId}/confirm")
+    public ResponseEntity<Void> confirmReservation(@PathVariable Long reservationId) {
+        stockReservationService.confirm(reservationId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Cancel a hold: the held units become available again
+     */
+    @DeleteMapping("/reservations/{reservationId}")
+    public ResponseEntity<Void> cancelReservation(@PathVariable Long reservationId) {
+        stockReservationService.cancel(reservationId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Get low stock items, least available first
+     * Example: /api/v1/inventory/low-stock?threshold=10&page=0&size=50
      */
     @GetMapping("/low-stock")
-    public ResponseEntity<List<InventoryDTO>> getLowStockItems(
-            @RequestParam(defaultValue = "10") Integer threshold) {
-        List<InventoryDTO> items = inventoryService.getLowStockItems(threshold);
+    public ResponseEntity<Slice<InventoryDTO>> getLowStockItems(
+            @RequestParam(defaultValue = "10") Integer threshold,
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+            @RequestParam(defaultValue = "50") @Min(1) int size) {
+        Slice<InventoryDTO> items = inventoryService.getLowStockItems(threshold, PageRequest.of(page, size));
         return ResponseEntity.ok(items);
     }
 
+    /**
+     * Stream low stock alerts (Server-Sent Events) instead of polling /low-stock
+     * An event is pushed when a product's available quantity crosses the threshold (LOW / RECOVERED)
+     * Example: curl -N "http://localhost:8080/api/v1/inventory/low-stock/stream?threshold=10"
+     */
+    @GetMapping(value = "/low-stock/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLowStockAlerts(@RequestParam(defaultValue = "10") @Min(1) int threshold) {
+        return lowStockAlertBroadcaster.subscribe(threshold);
+    }
+
     /**
      * Get out of stock items
+     * Example: /api/v1/inventory/out-of-stock?page=0&size=50
      */
     @GetMapping("/out-of-stock")
-    public ResponseEntity<List<InventoryDTO>> getOutOfStockItems() {
-        List<InventoryDTO> items = inventoryService.getOutOfStockItems();
+    public ResponseEntity<Slice<InventoryDTO>> getOutOfStockItems(
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+            @RequestParam(defaultValue = "50") @Min(1) int size) {
+        Slice<InventoryDTO> items = inventoryService.getOutOfStockItems(PageRequest.of(page, size));
         return ResponseEntity.ok(items);
     }
 
@@ -21,5 +21,6 @@ public class InventoryDTO {
     private Integer reservedQuantity;
     private Integer availableQuantity;
     private LocalDateTime lastUpdated;
+    private Long version;
 }
 
@@ -0,0 +1,26 @@
+package com.corep.productcatalog.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Quantities of a product at a past instant, rebuilt from the movement journal
+ * snapshotAsOf is the snapshot the reconstruction started from (null: from the first movement),
+ * replayedMovements the number of movements summed on top of it
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryHistoryDTO {
+
+    private Long productId;
+    private LocalDateTime asOf;
+    private Integer stockQuantity;
+    private Integer reservedQuantity;
+    private Integer availableQuantity;
+    private LocalDateTime snapshotAsOf;
+    private Long replayedMovements;
+}
@@ -0,0 +1,23 @@
+package com.corep.productcatalog.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Inventory movement DTO (RESTOCK, ADJUST, RESERVE, RELEASE, COMMIT)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryMovementDTO {
+
+    private Long id;
+    private Long productId;
+    private String type;
+    private Integer stockDelta;
+    private Integer reservedDelta;
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,30 @@
+package com.corep.productcatalog.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Low stock alert pushed to the subscribers of /api/v1/inventory/low-stock/stream
+ * LOW: available quantity dropped below the subscriber's threshold; RECOVERED: back at or above it
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LowStockAlertDTO {
+
+    public enum Type { LOW, RECOVERED }
+
+    private Type type;
+    private Long productId;
+    private Integer availableQuantity;
+    private Integer threshold;
+    private LocalDateTime timestamp;
+
+    /**
+     * Alerts discarded for this subscriber (queue full) since the previous delivered alert
+     */
+    private long droppedAlerts;
+}
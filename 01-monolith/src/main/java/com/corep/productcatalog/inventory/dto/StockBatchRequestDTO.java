@@ -0,0 +1,38 @@
+package com.corep.productcatalog.inventory.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Stock batch request DTO
+ * All lines of a multi-line order, reserved or released all-or-nothing
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockBatchRequestDTO {
+
+    @NotEmpty(message = "At least one line is required")
+    @Valid
+    private List<Line> lines;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+
+        @NotNull(message = "Product ID is required")
+        private Long productId;
+
+        @NotNull(message = "Quantity is required")
+        @Min(value = 1, message = "Quantity must be at least 1")
+        private Integer quantity;
+    }
+}
@@ -0,0 +1,22 @@
+package com.corep.productcatalog.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stock reservation (hold) DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationDTO {
+
+    private Long id;
+    private Long productId;
+    private Integer quantity;
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+}
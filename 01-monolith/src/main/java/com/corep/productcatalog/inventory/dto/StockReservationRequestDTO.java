@@ -0,0 +1,30 @@
+package com.corep.productcatalog.inventory.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stock reservation request DTO
+ * Example body: {"productId": 1, "quantity": 2, "ttlSeconds": 600}
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationRequestDTO {
+
+    @NotNull(message = "Product ID is required")
+    private Long productId;
+
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private Integer quantity;
+
+    /**
+     * Lifetime of the hold (optional: app.inventory.reservation-ttl, capped at app.inventory.max-reservation-ttl)
+     */
+    @Min(value = 1, message = "TTL must be at least 1 second")
+    private Long ttlSeconds;
+}
@@ -1,9 +1,13 @@
 package com.corep.productcatalog.inventory.entity;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
@@ -13,14 +17,20 @@ import java.time.LocalDateTime;
  * Currently in the monolith but in a separate package for easy extraction
  */
 @Entity
-@Table(name = "inventory")
+@Table(name = "inventory", indexes = {
+        @Index(name = "idx_inventory_available_id", columnList = "available_quantity, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Inventory {
 
+    /**
+     * Sequence with pooled allocation (50 ids per round trip) so inserts can be batched
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_seq")
+    @SequenceGenerator(name = "inventory_seq", sequenceName = "inventory_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -37,20 +47,39 @@ public class Inventory {
     @Column(name = "reserved_quantity", nullable = false)
     private Integer reservedQuantity = 0;
 
+    /**
+     * Persisted copy of stockQuantity - reservedQuantity, so low-stock queries can use an index
+     * Recomputed on every insert/update of the entity; the bulk JPQL updates in InventoryRepository adjust it too
+     */
+    @Column(name = "available_quantity", nullable = false)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Integer availableQuantity;
+
     @Column(name = "last_updated", nullable = false)
     private LocalDateTime lastUpdated;
 
+    /**
+     * Optimistic locking: incremented by every update, including the bulk JPQL updates in InventoryRepository
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         lastUpdated = LocalDateTime.now();
         if (reservedQuantity == null) {
             reservedQuantity = 0;
         }
+        availableQuantity = getAvailableQuantity();
     }
 
     @PreUpdate
     protected void onUpdate() {
         lastUpdated = LocalDateTime.now();
+        availableQuantity = getAvailableQuantity();
     }
 
     /**
@@ -0,0 +1,28 @@
+package com.corep.productcatalog.inventory.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Last journal sequence of a ledger shard written to the inventory table
+ * Saved in the same transaction as the write-behind flush: on recovery, journal records up to this
+ * sequence are already in the database and are not replayed
+ */
+@Entity
+@Table(name = "inventory_ledger_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryLedgerCheckpoint {
+
+    @Id
+    private Integer shard;
+
+    @Column(name = "last_sequence", nullable = false)
+    private Long lastSequence;
+}
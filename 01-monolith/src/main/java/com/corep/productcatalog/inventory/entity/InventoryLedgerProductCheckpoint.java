@@ -0,0 +1,33 @@
+package com.corep.productcatalog.inventory.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Last journal sequence of a ledger shard written to the inventory table for one product
+ * Saved when a fence writes the changes of that product alone (the shard checkpoint cannot move: the other
+ * products of the shard are still pending); on recovery, the journal records of the product up to this
+ * sequence are not replayed. Dropped by the next flush of the whole shard, which moves its checkpoint.
+ */
+@Entity
+@Table(name = "inventory_ledger_product_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryLedgerProductCheckpoint {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer shard;
+
+    @Column(name = "last_sequence", nullable = false)
+    private Long lastSequence;
+}
@@ -0,0 +1,59 @@
+package com.corep.productcatalog.inventory.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Inventory movement - one change of the stock or reserved quantity of a product (append-only)
+ * Current and past quantities are the sum of the movements (from the latest InventorySnapshot on), so the
+ * history of a product can be audited and its stock at any instant reconstructed.
+ */
+@Entity
+@Table(name = "inventory_movements", indexes = {
+        @Index(name = "idx_inventory_movements_product_occurred", columnList = "product_id, occurred_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryMovement {
+
+    public enum Type {
+        /** Stock received, including the initial stock of a new inventory */
+        RESTOCK,
+        /** Stock set by hand (correction, stocktake) or removed with the inventory */
+        ADJUST,
+        RESERVE,
+        RELEASE,
+        /** Reserved units shipped: they leave both the stock and the reserved quantity */
+        COMMIT
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_movements_seq")
+    @SequenceGenerator(name = "inventory_movements_seq", sequenceName = "inventory_movements_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Type type;
+
+    @Column(name = "stock_delta", nullable = false)
+    private Integer stockDelta;
+
+    @Column(name = "reserved_delta", nullable = false)
+    private Integer reservedDelta;
+
+    /**
+     * Commit time of the writing transaction (all its movements share it); for the reservations and releases
+     * served by InventoryLedger, the time of its write-behind flush
+     */
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,16 @@
+package com.corep.productcatalog.inventory.event;
+
+import lombok.Value;
+
+/**
+ * Published by InventoryService when the available quantity of a product changes
+ * (reservation, release, stock update, or inventory created/deleted through the API, counted from/to 0);
+ * carries the quantity before and after the change
+ */
+@Value
+public class InventoryChangedEvent {
+
+    Long productId;
+    int previousAvailableQuantity;
+    int availableQuantity;
+}
@@ -0,0 +1,8 @@
+package com.corep.productcatalog.inventory.exception;
+
+public class StockReservationNotFoundException extends RuntimeException {
+
+    public StockReservationNotFoundException(String message) {
+        super(message);
+    }
+}
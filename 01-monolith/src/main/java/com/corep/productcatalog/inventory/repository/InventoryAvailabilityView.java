@@ -0,0 +1,11 @@
+package com.corep.productcatalog.inventory.repository;
+
+/**
+ * Available quantity of a product, without loading the Inventory entity
+ */
+public interface InventoryAvailabilityView {
+
+    Long getProductId();
+
+    Integer getAvailableQuantity();
+}
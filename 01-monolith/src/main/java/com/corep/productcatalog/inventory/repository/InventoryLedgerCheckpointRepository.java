@@ -0,0 +1,12 @@
+package com.corep.productcatalog.inventory.repository;
+
+import com.corep.productcatalog.inventory.entity.InventoryLedgerCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Inventory Ledger Checkpoint Repository
+ */
+@Repository
+public interface InventoryLedgerCheckpointRepository extends JpaRepository<InventoryLedgerCheckpoint, Integer> {
+}
@@ -0,0 +1,24 @@
+package com.corep.productcatalog.inventory.repository;
+
+import com.corep.productcatalog.inventory.entity.InventoryLedgerProductCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Inventory Ledger Product Checkpoint Repository
+ */
+@Repository
+public interface InventoryLedgerProductCheckpointRepository
+        extends JpaRepository<InventoryLedgerProductCheckpoint, Long> {
+
+    List<InventoryLedgerProductCheckpoint> findByShard(Integer shard);
+
+    @Modifying
+    @Query("DELETE FROM InventoryLedgerProductCheckpoint c WHERE c.shard = :shard")
+    int deleteByShard(@Param("shard") Integer shard);
+}
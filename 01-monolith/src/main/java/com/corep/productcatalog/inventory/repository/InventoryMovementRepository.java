@@ -0,0 +1,39 @@
+package com.corep.productcatalog.inventory.repository;
+
+import com.corep.productcatalog.inventory.entity.InventoryMovement;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Inventory Movement Repository
+ * Both queries are range scans on idx_inventory_movements_product_occurred (product_id, occurred_at)
+ */
+@Repository
+public interface InventoryMovementRepository extends JpaRepository<InventoryMovement, Long> {
+
+    /**
+     * Movements of a product in (from, to], oldest first
+     */
+    @Query("SELECT m FROM InventoryMovement m WHERE m.productId = :productId " +
+            "AND m.occurredAt > :from AND m.occurredAt <= :to ORDER BY m.occurredAt, m.id")
+    Slice<InventoryMovement> findByProductIdBetween(@Param("productId") Long productId,
+                                                    @Param("from") LocalDateTime from,
+                                                    @Param("to") LocalDateTime to,
+                                                    Pageable pageable);
+
+    /**
+     * Sum of the movements of a product in (from, to], without loading them
+     */
+    @Query("SELECT COALESCE(SUM(m.stockDelta), 0) AS stockDelta, COALESCE(SUM(m.reservedDelta), 0) AS reservedDelta, " +
+            "COUNT(m) AS movements FROM InventoryMovement m " +
+            "WHERE m.productId = :productId AND m.occurredAt > :from AND m.occurredAt <= :to")
+    InventoryMovementTotalsView sumByProductIdBetween(@Param("productId") Long productId,
+                                                      @Param("from") LocalDateTime from,
+                                                      @Param("to") LocalDateTime to);
+}
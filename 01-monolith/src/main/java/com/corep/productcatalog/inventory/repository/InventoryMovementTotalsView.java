@@ -0,0 +1,13 @@
+package com.corep.productcatalog.inventory.repository;
+
+/**
+ * Projection: sum of the movements of a product over a time range
+ */
+public interface InventoryMovementTotalsView {
+
+    Long getStockDelta();
+
+    Long getReservedDelta();
+
+    Long getMovements();
+}
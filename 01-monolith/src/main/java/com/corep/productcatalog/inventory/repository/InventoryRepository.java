@@ -1,11 +1,16 @@
 package com.corep.productcatalog.inventory.repository;
 
 import com.corep.productcatalog.inventory.entity.Inventory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,17 +25,107 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
 
     boolean existsByProductId(Long productId);
 
+    @Query("SELECT i.productId FROM Inventory i WHERE i.productId IN :productIds")
+    List<Long> findProductIdsByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
     /**
-     * Find low stock items (native SQL query)
+     * Products among productIds that still exist, locked until the end of the transaction:
+     * a concurrent delete of one of them waits for the inventory to be created
+     */
+    @Query(value = "SELECT id FROM products WHERE id IN (:productIds) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockExistingProductIds(@Param("productIds") Collection<Long> productIds);
+
+    @Query("SELECT i.productId AS productId, i.availableQuantity AS availableQuantity FROM Inventory i " +
+            "WHERE i.productId IN :productIds")
+    List<InventoryAvailabilityView> findAvailabilityByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Inventory i WHERE i.productId IN :productIds")
+    int deleteByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
+    /**
+     * Load the inventory rows of several products in one query, in product id order
+     * No lock: the batch is written with a version check (optimistic locking), and the id order makes
+     * concurrent batches take the row locks of their UPDATEs in the same order
+     */
+    @Query("SELECT i FROM Inventory i WHERE i.productId IN :productIds ORDER BY i.productId")
+    List<Inventory> findAllByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
+    /**
+     * Find low stock items, least available first
+     * Range scan on idx_inventory_available_id (available_quantity, id), which also provides the order:
+     * the query reads only the rows of the requested page
      * In microservices: this would be a dedicated endpoint
      */
-    @Query(value = "SELECT * FROM inventory WHERE (stock_quantity - reserved_quantity) < :threshold", nativeQuery = true)
-    List<Inventory> findLowStockItems(@Param("threshold") Integer threshold);
+    @Query("SELECT i FROM Inventory i WHERE i.availableQuantity < :threshold ORDER BY i.availableQuantity, i.id")
+    Slice<Inventory> findLowStockItems(@Param("threshold") int threshold, Pageable pageable);
 
     /**
-     * Find out of stock items
+     * Find out of stock items (same index as findLowStockItems)
      */
-    @Query(value = "SELECT * FROM inventory WHERE (stock_quantity - reserved_quantity) <= 0", nativeQuery = true)
-    List<Inventory> findOutOfStockItems();
-}
+    @Query("SELECT i FROM Inventory i WHERE i.availableQuantity <= 0 ORDER BY i.availableQuantity, i.id")
+    Slice<Inventory> findOutOfStockItems(Pageable pageable);
+
+    /**
+     * Atomically reserve stock if enough is available (conditional update, no read-modify-write window)
+     * Increments the version, so a concurrent read-modify-write of the same row fails its version check
+     * Returns the number of updated rows: 0 means inventory not found or insufficient stock
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.reservedQuantity = i.reservedQuantity + :quantity, " +
+            "i.availableQuantity = i.availableQuantity - :quantity, i.lastUpdated = :now, i.version = i.version + 1 " +
+            "WHERE i.productId = :productId AND i.stockQuantity - i.reservedQuantity >= :quantity")
+    int reserveIfAvailable(@Param("productId") Long productId,
+                           @Param("quantity") int quantity,
+                           @Param("now") LocalDateTime now);
 
+    /**
+     * Atomically release reserved stock if enough is reserved
+     * Returns the number of updated rows: 0 means inventory not found or not enough reserved
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.reservedQuantity = i.reservedQuantity - :quantity, " +
+            "i.availableQuantity = i.availableQuantity + :quantity, i.lastUpdated = :now, i.version = i.version + 1 " +
+            "WHERE i.productId = :productId AND i.reservedQuantity >= :quantity")
+    int releaseIfReserved(@Param("productId") Long productId,
+                          @Param("quantity") int quantity,
+                          @Param("now") LocalDateTime now);
+
+    /**
+     * Atomically turn reserved stock into shipped stock (confirmed order): both quantities decrease,
+     * the available quantity is unchanged
+     * Returns the number of updated rows: 0 means inventory not found or not enough reserved
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.stockQuantity = i.stockQuantity - :quantity, " +
+            "i.reservedQuantity = i.reservedQuantity - :quantity, i.lastUpdated = :now, i.version = i.version + 1 " +
+            "WHERE i.productId = :productId AND i.reservedQuantity >= :quantity")
+    int commitIfReserved(@Param("productId") Long productId,
+                         @Param("quantity") int quantity,
+                         @Param("now") LocalDateTime now);
+
+    /**
+     * Apply the stock changes accumulated by the in-memory ledger since its last flush (write-behind)
+     * Deltas rather than absolute values; no other write touches the row meanwhile, the ledger fences a product
+     * (flush and evict) before InventoryService writes it directly.
+     * The version moves by the number of ledger operations, keeping the ETags served by the ledger valid.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.stockQuantity = i.stockQuantity + :stockDelta, " +
+            "i.reservedQuantity = i.reservedQuantity + :reservedDelta, " +
+            "i.availableQuantity = i.availableQuantity + :stockDelta - :reservedDelta, " +
+            "i.lastUpdated = :now, i.version = i.version + :operations WHERE i.productId = :productId")
+    int applyLedgerDelta(@Param("productId") Long productId,
+                         @Param("stockDelta") int stockDelta,
+                         @Param("reservedDelta") int reservedDelta,
+                         @Param("operations") long operations,
+                         @Param("now") LocalDateTime now);
+
+    /**
+     * Inventories with neither movement nor snapshot (written before the movement journal existed, or by data.sql)
+     */
+    @Query("SELECT i FROM Inventory i " +
+            "WHERE NOT EXISTS (SELECT 1 FROM InventorySnapshot s WHERE s.productId = i.productId) " +
+            "AND NOT EXISTS (SELECT 1 FROM InventoryMovement m WHERE m.productId = i.productId)")
+    List<Inventory> findAllWithoutHistory();
+}
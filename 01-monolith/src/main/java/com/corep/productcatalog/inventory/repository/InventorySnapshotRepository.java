@@ -0,0 +1,22 @@
+package com.corep.productcatalog.inventory.repository;
+
+import com.corep.productcatalog.inventory.entity.InventorySnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Inventory Snapshot Repository
+ */
+@Repository
+public interface InventorySnapshotRepository extends JpaRepository<InventorySnapshot, Long> {
+
+    /**
+     * Latest snapshot of a product taken as of the given instant or before
+     * One index lookup on idx_inventory_snapshots_product_as_of
+     */
+    Optional<InventorySnapshot> findFirstByProductIdAndAsOfLessThanEqualOrderByAsOfDesc(Long productId,
+                                                                                         LocalDateTime asOf);
+}
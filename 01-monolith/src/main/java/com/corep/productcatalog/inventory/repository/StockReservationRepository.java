@@ -0,0 +1,44 @@
+package com.corep.productcatalog.inventory.repository;
+
+import com.corep.productcatalog.inventory.entity.StockReservation;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Stock Reservation Repository
+ * In microservices: this would be in a separate Inventory Service
+ */
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    /**
+     * Holds expired at the given instant, earliest first
+     * Range scan on idx_stock_reservations_expires_id: only the due rows are read, however many holds are active.
+     * Locked with SKIP LOCKED where the database supports it (PostgreSQL), so several instances expire
+     * different holds, and a concurrent confirm/cancel of a locked hold waits for the expiry to commit
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2")) // LockOptions.SKIP_LOCKED
+    @Query("SELECT r FROM StockReservation r WHERE r.expiresAt <= :now ORDER BY r.expiresAt, r.id")
+    List<StockReservation> findExpired(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Delete one hold, returning 0 if another transaction (confirm, cancel or expiry) already settled it
+     * Whoever deletes the row settles the inventory, so a hold is never released twice
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM StockReservation r WHERE r.id = :id")
+    int deleteHold(@Param("id") Long id);
+}
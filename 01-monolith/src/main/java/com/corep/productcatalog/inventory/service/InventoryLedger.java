@@ -0,0 +1,672 @@
+/*
+ * Copyright (c) 2024-2025 Daniele Bortoluzzi
+ *
+ * Master di I Livello in Cloud Computing
+ * Università degli Studi di Torino - COREP
+ *
+ * This project is part of the Cloud Computing Master's program.
+ * Educational project for Cloud Computing Course.
+ *
+ * MIT License - see LICENSE file for details
+ */
+package com.corep.productcatalog.inventory.service;
+
+import com.corep.productcatalog.inventory.entity.Inventory;
+import com.corep.productcatalog.inventory.entity.InventoryLedgerCheckpoint;
+import com.corep.productcatalog.inventory.entity.InventoryLedgerProductCheckpoint;
+import com.corep.productcatalog.inventory.entity.InventoryMovement;
+import com.corep.productcatalog.inventory.event.InventoryChangedEvent;
+import com.corep.productcatalog.inventory.exception.InsufficientStockException;
+import com.corep.productcatalog.inventory.exception.InventoryNotFoundException;
+import com.corep.productcatalog.inventory.repository.InventoryLedgerCheckpointRepository;
+import com.corep.productcatalog.inventory.repository.InventoryLedgerProductCheckpointRepository;
+import com.corep.productcatalog.inventory.repository.InventoryRepository;
+import com.corep.productcatalog.shared.config.ApplicationProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Inventory Ledger (app.inventory.ledger.enabled)
+ * In-memory stock of the products being reserved, for flash sales where even the atomic UPDATE of
+ * StockReservationEngine is limited by the row lock of a hot product
+ *
+ * - Partitioned by product id into app.inventory.ledger.shards shards; each shard has a single writer thread
+ *   that applies reservations and releases in arrival order, so no lock is needed around the stock.
+ * - Readers (getInventoryByProductId) read the shard's map without waiting for the writer.
+ * - Every change is appended to the shard's journal; the writer syncs it once per batch of queued
+ *   operations (group commit) before answering the callers of that batch. If the sync fails, the changes of
+ *   the batch are undone in memory and their callers get the error: nothing is acknowledged unless journaled.
+ * - Write-behind: every app.inventory.ledger.flush-interval (or flush-batch-size operations) the accumulated
+ *   changes are written to the inventory table, one UPDATE per product, with the shard checkpoint, in one
+ *   transaction; InventoryChangedEvents are published and the movements recorded (reserved and released units
+ *   summed per product) there. The journal is then truncated.
+ * - Recovery: at startup the journal records after each shard's checkpoint are applied to the table.
+ *
+ * Other inventory writes (stock updates, batches, holds, deletes) keep going to the database: before writing
+ * a product they fence it, which writes the pending changes of that product alone (its own transaction, with a
+ * per-product checkpoint) and evicts it; while fenced, reservations of that product also take the database
+ * path. The product is loaded again once no fencing transaction is running. The fencing transaction waits at
+ * most app.inventory.ledger.fence-timeout for the shard, then fails: the shard may be blocked on a row lock the
+ * fencing transaction holds.
+ *
+ * Single instance only: the ledger is the authority for the products it holds. The low-stock queries and the
+ * availability read model see its changes after the next flush.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.inventory.ledger", name = "enabled", havingValue = "true")
+@Slf4j
+public class InventoryLedger {
+
+    private static final Pattern JOURNAL_FILE = Pattern.compile("shard-(\\d+)\\.journal");
+
+    private final InventoryRepository inventoryRepository;
+    private final InventoryLedgerCheckpointRepository checkpointRepository;
+    private final InventoryLedgerProductCheckpointRepository productCheckpointRepository;
+    private final InventoryMovementService movementService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ApplicationProperties.Inventory.Ledger settings;
+    private final Timer flushTimer;
+    private final MeterRegistry meterRegistry;
+    private final Shard[] shards;
+
+    @Autowired
+    public InventoryLedger(InventoryRepository inventoryRepository,
+                           InventoryLedgerCheckpointRepository checkpointRepository,
+                           InventoryLedgerProductCheckpointRepository productCheckpointRepository,
+                           InventoryMovementService movementService, TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher,
+                           ApplicationProperties properties, MeterRegistry meterRegistry) {
+        this(inventoryRepository, checkpointRepository, productCheckpointRepository, movementService,
+                transactionTemplate, eventPublisher, properties, meterRegistry, InventoryLedgerJournal::new);
+    }
+
+    InventoryLedger(InventoryRepository inventoryRepository,
+                    InventoryLedgerCheckpointRepository checkpointRepository,
+                    InventoryLedgerProductCheckpointRepository productCheckpointRepository,
+                    InventoryMovementService movementService, TransactionTemplate transactionTemplate,
+                    ApplicationEventPublisher eventPublisher, ApplicationProperties properties,
+                    MeterRegistry meterRegistry, Function<Path, InventoryLedgerJournal> journals) {
+        this.inventoryRepository = inventoryRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.productCheckpointRepository = productCheckpointRepository;
+        this.movementService = movementService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.settings = properties.getInventory().getLedger();
+        this.meterRegistry = meterRegistry;
+        this.flushTimer = meterRegistry.timer("inventory.ledger.flush");
+
+        Path directory = Path.of(settings.getJournalDirectory());
+        Map<Integer, Long> sequences = recover(directory);
+        this.shards = new Shard[settings.getShards()];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard(i, journals.apply(directory.resolve("shard-" + i + ".journal")),
+                    sequences.getOrDefault(i, 0L));
+        }
+        Gauge.builder("inventory.ledger.pending", this,
+                        ledger -> Arrays.stream(ledger.shards).mapToInt(shard -> shard.pendingOperations.get()).sum())
+                .description("Ledger operations not yet written to the inventory table")
+                .register(meterRegistry);
+        log.info("Inventory ledger started: {} shards, journal in {}", shards.length, directory);
+    }
+
+    /**
+     * Reserve stock in memory
+     * @return the new stock, or null if the product is fenced (the caller uses the database path)
+     * @throws InsufficientStockException if not enough is available
+     */
+    public Stock reserve(Long productId, int quantity) {
+        Shard shard = shardOf(productId);
+        return shard.call(() -> {
+            if (shard.fences.containsKey(productId)) {
+                return null;
+            }
+            Stock stock = shard.load(productId);
+            if (stock.availableQuantity() < quantity) {
+                throw new InsufficientStockException(String.format("Insufficient stock. Available: %d, Requested: %d",
+                        stock.availableQuantity(), quantity));
+            }
+            return shard.apply(productId, 0, quantity);
+        });
+    }
+
+    /**
+     * Release reserved stock in memory
+     * @return the new stock, or null if the product is fenced (the caller uses the database path)
+     */
+    public Stock release(Long productId, int quantity) {
+        Shard shard = shardOf(productId);
+        return shard.call(() -> {
+            if (shard.fences.containsKey(productId)) {
+                return null;
+            }
+            Stock stock = shard.load(productId);
+            if (stock.reservedQuantity() < quantity) {
+                throw new IllegalArgumentException(String.format(
+                        "Cannot release more than reserved. Reserved: %d, Requested: %d",
+                        stock.reservedQuantity(), quantity));
+            }
+            return shard.apply(productId, 0, -quantity);
+        });
+    }
+
+    /**
+     * Current stock if the product is held by the ledger (lock-free), null otherwise: the table is up to date
+     */
+    public Stock get(Long productId) {
+        return shardOf(productId).stocks.get(productId);
+    }
+
+    /**
+     * Hand products over to the database for the current transaction: their pending changes are flushed and
+     * they are evicted; until the transaction completes, reservations of these products use the database
+     * Only these products are flushed: the flush transaction never waits for rows of other products that the
+     * fencing transaction may already hold
+     * @throws CannotAcquireLockException if a shard does not hand them over within the fence timeout
+     */
+    public void fence(Collection<Long> productIds) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Inventory ledger fence requires a transaction");
+        }
+        Map<Shard, List<Long>> byShard = new LinkedHashMap<>();
+        productIds.forEach(productId -> byShard.computeIfAbsent(shardOf(productId), shard -> new ArrayList<>())
+                .add(productId));
+        byShard.forEach((shard, ids) -> {
+            // Set on the shard thread once fenced: a hand-over given up on (timeout) must not be unfenced
+            AtomicBoolean fenced = new AtomicBoolean();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    // Not waited for: queued after the fence, and before any later reservation of this thread
+                    shard.execute(() -> {
+                        if (fenced.get()) {
+                            ids.forEach(productId -> shard.fences.computeIfPresent(productId,
+                                    (id, count) -> count == 1 ? null : count - 1));
+                        }
+                    });
+                }
+            });
+            shard.call(() -> {
+                shard.flush(ids);
+                ids.forEach(productId -> {
+                    shard.stocks.remove(productId);
+                    shard.fences.merge(productId, 1, Integer::sum);
+                });
+                fenced.set(true);
+                return null;
+            }, settings.getFenceTimeout());
+        });
+    }
+
+    /**
+     * Write every pending change to the table now (tests, shutdown)
+     */
+    public void flush() {
+        for (Shard shard : shards) {
+            shard.call(() -> {
+                shard.flush();
+                return null;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (Shard shard : shards) {
+            shard.stop();
+        }
+    }
+
+    private Shard shardOf(Long productId) {
+        return shards[Math.floorMod(Long.hashCode(productId), shards.length)];
+    }
+
+    /**
+     * Apply the journal records written after each shard's checkpoint, then delete the journals
+     * @return last sequence per shard
+     */
+    private Map<Integer, Long> recover(Path directory) {
+        Map<Integer, Long> sequences = new HashMap<>();
+        if (!Files.isDirectory(directory)) {
+            return sequences;
+        }
+        List<Path> journals;
+        try (Stream<Path> files = Files.list(directory)) {
+            journals = files.filter(file -> JOURNAL_FILE.matcher(file.getFileName().toString()).matches()).toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list inventory ledger journals in " + directory, e);
+        }
+        for (Path journal : journals) {
+            Matcher matcher = JOURNAL_FILE.matcher(journal.getFileName().toString());
+            matcher.matches();
+            int shard = Integer.parseInt(matcher.group(1));
+            long checkpoint = checkpointRepository.findById(shard)
+                    .map(InventoryLedgerCheckpoint::getLastSequence)
+                    .orElse(0L);
+            Map<Long, Long> productCheckpoints = new HashMap<>();
+            productCheckpointRepository.findByShard(shard).forEach(productCheckpoint ->
+                    productCheckpoints.put(productCheckpoint.getProductId(), productCheckpoint.getLastSequence()));
+            List<InventoryLedgerJournal.Record> journaled;
+            try {
+                journaled = InventoryLedgerJournal.read(journal).stream()
+                        .filter(record -> record.sequence() > checkpoint)
+                        .toList();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read inventory ledger journal " + journal, e);
+            }
+            long lastSequence = journaled.isEmpty() ? checkpoint : journaled.get(journaled.size() - 1).sequence();
+            // Records of products flushed alone by a fence are in the table too
+            List<InventoryLedgerJournal.Record> records = journaled.stream()
+                    .filter(record -> record.sequence() > productCheckpoints.getOrDefault(record.productId(), 0L))
+                    .toList();
+            if (!journaled.isEmpty() || !productCheckpoints.isEmpty()) {
+                Map<Long, PendingDelta> deltas = new TreeMap<>();
+                records.forEach(record -> deltas.computeIfAbsent(record.productId(), id -> new PendingDelta(0))
+                        .add(record.stockDelta(), record.reservedDelta()));
+                transactionTemplate.executeWithoutResult(status -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    deltas.forEach((productId, delta) -> {
+                        inventoryRepository.applyLedgerDelta(productId, delta.stockDelta, delta.reservedDelta,
+                                delta.operations, now);
+                        recordMovements(productId, delta);
+                    });
+                    checkpointRepository.save(new InventoryLedgerCheckpoint(shard, lastSequence));
+                    productCheckpointRepository.deleteByShard(shard);
+                });
+                log.warn("Inventory ledger recovery: replayed {} journal records of shard {} ({} products)",
+                        records.size(), shard, deltas.size());
+            }
+            try {
+                Files.delete(journal);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot delete inventory ledger journal " + journal, e);
+            }
+            sequences.put(shard, lastSequence);
+        }
+        return sequences;
+    }
+
+    /**
+     * The ledger only reserves and releases: one RESERVE and one RELEASE movement per product and flush,
+     * with the flush time as occurred_at (not the time of each reservation)
+     */
+    private void recordMovements(Long productId, PendingDelta delta) {
+        if (delta.reserved > 0) {
+            movementService.record(productId, InventoryMovement.Type.RESERVE, 0, delta.reserved);
+        }
+        if (delta.released > 0) {
+            movementService.record(productId, InventoryMovement.Type.RELEASE, 0, -delta.released);
+        }
+    }
+
+    /**
+     * Stock of one product as held by the ledger (immutable: replaced on every change)
+     */
+    public record Stock(Long inventoryId, Long productId, int stockQuantity, int reservedQuantity, long version,
+                        LocalDateTime lastUpdated) {
+
+        public int availableQuantity() {
+            return stockQuantity - reservedQuantity;
+        }
+    }
+
+    /**
+     * Changes of one product since the last flush
+     */
+    private static class PendingDelta {
+
+        private final int previousAvailable;
+        private int stockDelta;
+        private int reservedDelta;
+        private int reserved;
+        private int released;
+        private long operations;
+
+        PendingDelta(int previousAvailable) {
+            this.previousAvailable = previousAvailable;
+        }
+
+        void add(int stock, int reserved) {
+            stockDelta += stock;
+            reservedDelta += reserved;
+            if (reserved > 0) {
+                this.reserved += reserved;
+            } else {
+                this.released -= reserved;
+            }
+            operations++;
+        }
+
+        void undo(int stock, int reserved) {
+            stockDelta -= stock;
+            reservedDelta -= reserved;
+            if (reserved > 0) {
+                this.reserved -= reserved;
+            } else {
+                this.released += reserved;
+            }
+            operations--;
+        }
+    }
+
+    /**
+     * Answer to the caller of a queued operation, given once the journal is synced
+     * journaled: the operation changed a stock, so it fails if its journal records could not be synced
+     */
+    private record Completion(boolean journaled, Runnable complete, Consumer<RuntimeException> fail) {
+    }
+
+    /**
+     * A change applied since the last sync of the journal: the stock before it and the deltas
+     */
+    private record Undo(Long productId, Stock previous, int stockDelta, int reservedDelta) {
+    }
+
+    /**
+     * One partition of the ledger and its writer thread
+     * Everything but the stocks map is confined to the writer thread.
+     */
+    private final class Shard {
+
+        private final int index;
+        private final Map<Long, Stock> stocks = new ConcurrentHashMap<>();
+        private final Map<Long, Integer> fences = new HashMap<>();
+        private final Map<Long, PendingDelta> pending = new LinkedHashMap<>();
+        private final AtomicInteger pendingOperations = new AtomicInteger();
+        private final BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>();
+        private final List<Completion> completions = new ArrayList<>();
+        private final List<Undo> unsynced = new ArrayList<>();
+        private final InventoryLedgerJournal journal;
+        private final Thread thread;
+        private long sequence;
+        // Product checkpoints saved since the last flush of the whole shard
+        private boolean productCheckpoints;
+        private volatile boolean running = true;
+
+        Shard(int index, InventoryLedgerJournal journal, long sequence) {
+            this.index = index;
+            this.sequence = sequence;
+            this.journal = journal;
+            this.thread = new Thread(this::run, "inventory-ledger-" + index);
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        /**
+         * Run a task on the writer thread and wait for it; the answer is given once the journal is synced
+         */
+        <T> T call(Supplier<T> task) {
+            return call(task, null);
+        }
+
+        /**
+         * Queue a task that changes no stock on the writer thread, without waiting for it
+         */
+        void execute(Runnable task) {
+            queue.add(task);
+        }
+
+        /**
+         * Same, waiting at most the given time (null: no limit); a task still queued when the wait is given up
+         * is skipped
+         * @throws CannotAcquireLockException if the wait times out
+         */
+        <T> T call(Supplier<T> task, Duration timeout) {
+            if (!running) {
+                throw new IllegalStateException("Inventory ledger is stopped");
+            }
+            CompletableFuture<T> future = new CompletableFuture<>();
+            if (timeout != null) {
+                future.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            }
+            queue.add(() -> {
+                if (future.isDone()) {
+                    return;
+                }
+                int changes = unsynced.size();
+                try {
+                    T result = task.get();
+                    completions.add(new Completion(unsynced.size() != changes, () -> future.complete(result),
+                            future::completeExceptionally));
+                } catch (RuntimeException e) {
+                    completions.add(new Completion(false, () -> future.completeExceptionally(e),
+                            future::completeExceptionally));
+                }
+            });
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof TimeoutException) {
+                    throw new CannotAcquireLockException(String.format(
+                            "Inventory ledger shard %d did not answer within %s", index, timeout), e.getCause());
+                }
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        Stock load(Long productId) {
+            Stock stock = stocks.get(productId);
+            if (stock == null) {
+                // Read-write transaction: always the primary, never a lagging replica
+                Inventory inventory = transactionTemplate.execute(status ->
+                        inventoryRepository.findByProductId(productId).orElse(null));
+                if (inventory == null) {
+                    throw new InventoryNotFoundException("Inventory not found for product: " + productId);
+                }
+                stock = new Stock(inventory.getId(), productId, inventory.getStockQuantity(),
+                        inventory.getReservedQuantity(), inventory.getVersion(), inventory.getLastUpdated());
+                stocks.put(productId, stock);
+            }
+            return stock;
+        }
+
+        Stock apply(Long productId, int stockDelta, int reservedDelta) {
+            Stock current = stocks.get(productId);
+            Stock next = new Stock(current.inventoryId(), productId, current.stockQuantity() + stockDelta,
+                    current.reservedQuantity() + reservedDelta, current.version() + 1, LocalDateTime.now());
+            journal.append(++sequence, productId, stockDelta, reservedDelta);
+            unsynced.add(new Undo(productId, current, stockDelta, reservedDelta));
+            pending.computeIfAbsent(productId, id -> new PendingDelta(current.availableQuantity()))
+                    .add(stockDelta, reservedDelta);
+            pendingOperations.incrementAndGet();
+            stocks.put(productId, next);
+            return next;
+        }
+
+        /**
+         * Write-behind: pending changes and checkpoint in one transaction, then drop the journal
+         */
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            sync();
+            long checkpoint = sequence;
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                pending.forEach((productId, delta) -> write(productId, delta, now));
+                checkpointRepository.save(new InventoryLedgerCheckpoint(index, checkpoint));
+                if (productCheckpoints) {
+                    productCheckpointRepository.deleteByShard(index);
+                }
+            }));
+            log.debug("Inventory ledger shard {} flushed {} operations on {} products", index,
+                    pendingOperations.get(), pending.size());
+            pending.clear();
+            pendingOperations.set(0);
+            productCheckpoints = false;
+            journal.truncate();
+        }
+
+        /**
+         * Write the pending changes of some products only (fence), with their product checkpoints
+         * The journal keeps their records until the next flush of the whole shard
+         */
+        void flush(Collection<Long> productIds) {
+            List<Long> flushed = productIds.stream().filter(pending::containsKey).sorted().toList();
+            if (flushed.isEmpty()) {
+                return;
+            }
+            sync();
+            long checkpoint = sequence;
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                flushed.forEach(productId -> {
+                    write(productId, pending.get(productId), now);
+                    productCheckpointRepository.save(new InventoryLedgerProductCheckpoint(productId, index, checkpoint));
+                });
+            }));
+            log.debug("Inventory ledger shard {} flushed {} fenced products", index, flushed.size());
+            flushed.forEach(productId -> pendingOperations.addAndGet((int) -pending.remove(productId).operations));
+            productCheckpoints = true;
+        }
+
+        private void write(Long productId, PendingDelta delta, LocalDateTime now) {
+            if (inventoryRepository.applyLedgerDelta(productId, delta.stockDelta, delta.reservedDelta,
+                    delta.operations, now) == 0) {
+                log.warn("Inventory of product {} disappeared, {} ledger operations dropped",
+                        productId, delta.operations);
+                return;
+            }
+            recordMovements(productId, delta);
+            eventPublisher.publishEvent(new InventoryChangedEvent(productId, delta.previousAvailable,
+                    stocks.get(productId).availableQuantity()));
+        }
+
+        private void run() {
+            long flushIntervalNanos = settings.getFlushInterval().toNanos();
+            long nextFlush = System.nanoTime() + flushIntervalNanos;
+            List<Runnable> batch = new ArrayList<>();
+            while (running || !queue.isEmpty()) {
+                try {
+                    Runnable first = queue.poll(Math.max(0, nextFlush - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (first != null) {
+                        batch.add(first);
+                        queue.drainTo(batch, settings.getMaxOperationsPerSync() - 1);
+                        batch.forEach(Runnable::run);
+                        batch.clear();
+                        sync();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    running = false;
+                } catch (RuntimeException e) {
+                    log.error("Inventory ledger shard {} failed to sync its journal, {} changes undone", index,
+                            unsynced.size(), e);
+                    undoUnsynced(e);
+                }
+                if (pendingOperations.get() >= settings.getFlushBatchSize() || System.nanoTime() >= nextFlush) {
+                    flushQuietly();
+                    nextFlush = System.nanoTime() + flushIntervalNanos;
+                }
+            }
+            flushQuietly();
+            try {
+                journal.close();
+            } catch (IOException e) {
+                log.warn("Cannot close inventory ledger journal of shard {}", index, e);
+            }
+        }
+
+        /**
+         * Make the changes applied so far durable, then answer their callers
+         */
+        private void sync() {
+            journal.sync();
+            unsynced.clear();
+            completions.forEach(completion -> completion.complete().run());
+            completions.clear();
+        }
+
+        /**
+         * The journal could not be synced: restore the stocks and pending deltas as they were before the
+         * unsynced changes, drop their records, and fail their callers
+         */
+        private void undoUnsynced(RuntimeException failure) {
+            for (int i = unsynced.size() - 1; i >= 0; i--) {
+                Undo undo = unsynced.get(i);
+                stocks.put(undo.productId(), undo.previous());
+                PendingDelta delta = pending.get(undo.productId());
+                delta.undo(undo.stockDelta(), undo.reservedDelta());
+                if (delta.operations == 0) {
+                    pending.remove(undo.productId());
+                }
+                pendingOperations.decrementAndGet();
+            }
+            unsynced.clear();
+            journal.discard();
+            completions.forEach(completion -> {
+                if (completion.journaled()) {
+                    completion.fail().accept(failure);
+                } else {
+                    completion.complete().run();
+                }
+            });
+            completions.clear();
+        }
+
+        /**
+         * Scheduled flush: on failure (database down) the changes stay pending and journaled, retried next time
+         */
+        private void flushQuietly() {
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                meterRegistry.counter("inventory.ledger.flush.failures").increment();
+                log.error("Inventory ledger shard {} could not flush {} operations, will retry", index,
+                        pendingOperations.get(), e);
+            }
+        }
+
+        void stop() {
+            running = false;
+            queue.add(() -> { });
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2024-2025 Daniele Bortoluzzi
+ *
+ * Master di I Livello in Cloud Computing
+ * Università degli Studi di Torino - COREP
+ *
+ * This project is part of the Cloud Computing Master's program.
+ * Educational project for Cloud Computing Course.
+ *
+ * MIT License - see LICENSE file for details
+ */
+package com.corep.productcatalog.inventory.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only journal of one ledger shard
+ * One fixed-size record per stock change: sequence, product id, stock delta, reserved delta (24 bytes).
+ * Records are buffered by append() and written with one fsync by sync(), once per batch of operations
+ * (group commit). The journal is truncated once its records are in the database.
+ * A failed sync cuts the file back to its last synced size and keeps the records buffered: the shard either
+ * syncs them again or undoes their operations and discards them.
+ *
+ * Only the shard thread writes to it.
+ */
+class InventoryLedgerJournal implements Closeable {
+
+    static final int RECORD_SIZE = 8 + 8 + 4 + 4;
+
+    private final Path path;
+    private final FileChannel channel;
+    private ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * 256);
+    private long syncedSize;
+    // Set when a failed sync could not be cut back: the file may hold records of undone operations
+    private boolean broken;
+
+    InventoryLedgerJournal(Path path) {
+        this.path = path;
+        try {
+            Files.createDirectories(path.getParent());
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            this.syncedSize = channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open inventory ledger journal " + path, e);
+        }
+    }
+
+    void append(long sequence, long productId, int stockDelta, int reservedDelta) {
+        if (buffer.remaining() < RECORD_SIZE) {
+            ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+        buffer.putLong(sequence).putLong(productId).putInt(stockDelta).putInt(reservedDelta);
+    }
+
+    /**
+     * Write the buffered records and force them to disk
+     */
+    void sync() {
+        if (broken) {
+            throw new IllegalStateException("Inventory ledger journal " + path + " is unusable after a failed write");
+        }
+        if (buffer.position() == 0) {
+            return;
+        }
+        int end = buffer.position();
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+            syncedSize = channel.size();
+            buffer.clear();
+        } catch (IOException e) {
+            buffer.limit(buffer.capacity()).position(end);
+            cutBack();
+            throw new UncheckedIOException("Cannot write inventory ledger journal " + path, e);
+        }
+    }
+
+    /**
+     * Drop the buffered records (their operations were undone)
+     */
+    void discard() {
+        buffer.clear();
+    }
+
+    /**
+     * Drop every record (all of them are in the database)
+     */
+    void truncate() {
+        try {
+            channel.truncate(0);
+            channel.force(true);
+            syncedSize = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot truncate inventory ledger journal " + path, e);
+        }
+    }
+
+    /**
+     * Remove what a failed sync may have written after the last synced record
+     */
+    private void cutBack() {
+        try {
+            channel.truncate(syncedSize);
+        } catch (IOException e) {
+            broken = true;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Read the records of a journal file, stopping at a torn or out-of-order record (crash during a write)
+     */
+    static List<Record> read(Path path) throws IOException {
+        List<Record> records = new ArrayList<>();
+        if (!Files.exists(path)) {
+            return records;
+        }
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(path));
+        long previousSequence = Long.MIN_VALUE;
+        while (data.remaining() >= RECORD_SIZE) {
+            Record record = new Record(data.getLong(), data.getLong(), data.getInt(), data.getInt());
+            if (record.sequence() <= previousSequence) {
+                break;
+            }
+            records.add(record);
+            previousSequence = record.sequence();
+        }
+        return records;
+    }
+
+    record Record(long sequence, long productId, int stockDelta, int reservedDelta) {
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2024-2025 Daniele Bortoluzzi
+ *
+ * Master di I Livello in Cloud Computing
+ * Università degli Studi di Torino - COREP
+ *
+ * This project is part of the Cloud Computing Master's program.
+ * Educational project for Cloud Computing Course.
+ *
+ * MIT License - see LICENSE file for details
+ */
+package com.corep.productcatalog.inventory.service;
+
+import com.corep.productcatalog.inventory.dto.InventoryHistoryDTO;
+import com.corep.productcatalog.inventory.dto.InventoryMovementDTO;
+import com.corep.productcatalog.inventory.entity.Inventory;
+import com.corep.productcatalog.inventory.entity.InventoryMovement;
+import com.corep.productcatalog.inventory.entity.InventorySnapshot;
+import com.corep.productcatalog.inventory.exception.InventoryNotFoundException;
+import com.corep.productcatalog.inventory.repository.InventoryMovementRepository;
+import com.corep.productcatalog.inventory.repository.InventoryMovementTotalsView;
+import com.corep.productcatalog.inventory.repository.InventoryRepository;
+import com.corep.productcatalog.inventory.repository.InventorySnapshotRepository;
+import com.corep.productcatalog.shared.config.ApplicationProperties;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inventory Movement Service
+ * Append-only journal of the inventory changes (RESTOCK, ADJUST, RESERVE, RELEASE, COMMIT) and point-in-time
+ * reconstruction of the quantities of a product
+ *
+ * InventoryService (and InventoryLedger at write-behind) record a movement for every change; the movements
+ * of a transaction are kept in memory and inserted together just before it commits (JDBC batch, one
+ * occurred_at for all of them), so the journal commits or rolls back with the change it describes.
+ * Batching is per transaction only, on purpose: a writer buffering across transactions would lose the
+ * movements of committed changes on a crash, and point-in-time reconstructions would no longer match the
+ * stock. The insert costs little next to the transaction (see InventoryMovementBenchmarkTest).
+ * Movements of InventoryLedger reservations are written by its flush: their occurred_at is the flush time,
+ * up to app.inventory.ledger.flush-interval after the reservations, summed per product and flush.
+ *
+ * Every app.inventory.snapshot-interval, the products with app.inventory.snapshot-every movements since
+ * their last snapshot get a new one, as of app.inventory.snapshot-settle-delay ago (transactions still
+ * committing are past that instant). The quantities at any instant are the latest snapshot before it plus
+ * the sum of the movements in between: one index lookup and one bounded range scan.
+ * Inventories without history (data.sql, rows written before the journal) get a baseline snapshot at startup.
+ *
+ * In microservices: this would be in a separate Inventory Service
+ */
+@Service
+@Slf4j
+@Transactional
+public class InventoryMovementService {
+
+    /**
+     * Lower bound of the replay when a product has no snapshot yet (before any movement)
+     */
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final InventoryMovementRepository movementRepository;
+    private final InventorySnapshotRepository snapshotRepository;
+    private final InventoryRepository inventoryRepository;
+    private final ApplicationProperties.Inventory settings;
+
+    /**
+     * Movements committed by this instance per product since its last snapshot (lost on restart: the next
+     * snapshot of the product is then just later)
+     */
+    private final Map<Long, Integer> movementsSinceSnapshot = new ConcurrentHashMap<>();
+
+    public InventoryMovementService(InventoryMovementRepository movementRepository,
+                                    InventorySnapshotRepository snapshotRepository,
+                                    InventoryRepository inventoryRepository, ApplicationProperties properties) {
+        this.movementRepository = movementRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.settings = properties.getInventory();
+    }
+
+    /**
+     * Add a movement to the current transaction, inserted just before it commits
+     */
+    public void record(Long productId, InventoryMovement.Type type, int stockDelta, int reservedDelta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            log.warn("Inventory movement of product {} outside a transaction, not recorded", productId);
+            return;
+        }
+        InventoryMovement movement = new InventoryMovement(null, productId, type, stockDelta, reservedDelta, null);
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingMovements pending) {
+                pending.movements.add(movement);
+                return;
+            }
+        }
+        PendingMovements pending = new PendingMovements();
+        pending.movements.add(movement);
+        TransactionSynchronizationManager.registerSynchronization(pending);
+    }
+
+    /**
+     * Stock and reserved quantity of a product at the given instant (latest snapshot + later movements)
+     *
+     * @throws InventoryNotFoundException if the product had no inventory history at that instant
+     */
+    @Timed("inventory.history")
+    @Transactional(readOnly = true)
+    public InventoryHistoryDTO getInventoryAt(Long productId, LocalDateTime at) {
+        InventorySnapshot snapshot = snapshotRepository
+                .findFirstByProductIdAndAsOfLessThanEqualOrderByAsOfDesc(productId, at)
+                .orElse(null);
+        InventoryMovementTotalsView tail = movementRepository.sumByProductIdBetween(productId,
+                snapshot == null ? BEGINNING : snapshot.getAsOf(), at);
+        if (snapshot == null && tail.getMovements() == 0) {
+            throw new InventoryNotFoundException("No inventory history for product " + productId + " at " + at);
+        }
+        int stock = (snapshot == null ? 0 : snapshot.getStockQuantity()) + tail.getStockDelta().intValue();
+        int reserved = (snapshot == null ? 0 : snapshot.getReservedQuantity()) + tail.getReservedDelta().intValue();
+        return new InventoryHistoryDTO(productId, at, stock, reserved, stock - reserved,
+                snapshot == null ? null : snapshot.getAsOf(), tail.getMovements());
+    }
+
+    /**
+     * Movements of a product in (from, to], oldest first
+     */
+    @Transactional(readOnly = true)
+    public Slice<InventoryMovementDTO> getMovements(Long productId, LocalDateTime from, LocalDateTime to,
+                                                    Pageable pageable) {
+        return movementRepository.findByProductIdBetween(productId, from == null ? BEGINNING : from, to, pageable)
+                .map(this::convertToDTO);
+    }
+
+    /**
+     * Snapshot the products with enough movements since their last snapshot
+     *
+     * @return number of snapshots taken
+     */
+    @Scheduled(initialDelayString = "${app.inventory.snapshot-interval:PT1M}",
+            fixedDelayString = "${app.inventory.snapshot-interval:PT1M}")
+    public int snapshotDue() {
+        List<Long> due = new ArrayList<>();
+        movementsSinceSnapshot.forEach((productId, count) -> {
+            if (count >= settings.getSnapshotEvery()) {
+                due.add(productId);
+            }
+        });
+        LocalDateTime asOf = LocalDateTime.now().minus(settings.getSnapshotSettleDelay());
+        List<InventorySnapshot> snapshots = new ArrayList<>();
+        for (Long productId : due) {
+            InventoryHistoryDTO state = getInventoryAt(productId, asOf);
+            snapshots.add(new InventorySnapshot(null, productId, asOf, state.getStockQuantity(),
+                    state.getReservedQuantity()));
+            movementsSinceSnapshot.remove(productId);
+        }
+        snapshotRepository.saveAll(snapshots);
+        if (!snapshots.isEmpty()) {
+            log.info("Took {} inventory snapshots as of {}", snapshots.size(), asOf);
+        }
+        return snapshots.size();
+    }
+
+    /**
+     * Baseline snapshot (current quantities) for the inventories that have no history yet
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void snapshotInventoriesWithoutHistory() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Inventory> inventories = inventoryRepository.findAllWithoutHistory();
+        snapshotRepository.saveAll(inventories.stream()
+                .map(inventory -> new InventorySnapshot(null, inventory.getProductId(), now,
+                        inventory.getStockQuantity(), inventory.getReservedQuantity()))
+                .toList());
+        if (!inventories.isEmpty()) {
+            log.info("Took baseline snapshots of {} inventories without movements", inventories.size());
+        }
+    }
+
+    private InventoryMovementDTO convertToDTO(InventoryMovement movement) {
+        return new InventoryMovementDTO(movement.getId(), movement.getProductId(), movement.getType().name(),
+                movement.getStockDelta(), movement.getReservedDelta(), movement.getOccurredAt());
+    }
+
+    /**
+     * Movements of the current transaction, inserted just before it commits
+     * Registered as a transaction synchronization, so it is suspended with its transaction (REQUIRES_NEW)
+     */
+    private class PendingMovements implements TransactionSynchronization {
+
+        private final List<InventoryMovement> movements = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            LocalDateTime now = LocalDateTime.now();
+            movements.forEach(movement -> movement.setOccurredAt(now));
+            movementRepository.saveAll(movements);
+        }
+
+        @Override
+        public void afterCommit() {
+            movements.forEach(movement -> movementsSinceSnapshot.merge(movement.getProductId(), 1, Integer::sum));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2024-2025 Daniele Bortoluzzi
+ * 
+ * Master di I Livello in Cloud Computing
+ * Università degli Studi di Torino - COREP
+ * 
+ * This project is part of the Cloud Computing Master's program.
+ * Educational project for Cloud Computing Course.
+ * 
+ * MIT License - see LICENSE file for details
+ */
+package com.corep.productcatalog.inventory.service;
+
+import com.corep.productcatalog.catalog.event.ProductCreatedEvent;
+import com.corep.productcatalog.catalog.event.ProductDeletedEvent;
+import com.corep.productcatalog.shared.outbox.OutboxEventHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Inventory side of the product lifecycle: creates the inventory of new products and deletes
+ * the inventory of deleted products, from the outbox events written by ProductService
+ *
+ * In microservices: Inventory Service would consume the same events from the message broker
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryOutboxHandler implements OutboxEventHandler {
+
+    private final InventoryService inventoryService;
+
+    @Override
+    public Set<String> eventTypes() {
+        return Set.of(ProductCreatedEvent.OUTBOX_TYPE, ProductDeletedEvent.OUTBOX_TYPE);
+    }
+
+    @Override
+    public void handle(String eventType, List<Long> productIds) {
+        if (ProductCreatedEvent.OUTBOX_TYPE.equals(eventType)) {
+            int created = inventoryService.createMissingInventories(productIds);
+            log.info("Created inventory for {} new products", created);
+        } else {
+            int deleted = inventoryService.deleteInventories(productIds);
+            log.info("Deleted inventory for {} deleted products", deleted);
+        }
+    }
+}
@@ -12,16 +12,45 @@
 package com.corep.productcatalog.inventory.service;
 
 import com.corep.productcatalog.inventory.dto.InventoryDTO;
+import com.corep.productcatalog.inventory.dto.StockBatchRequestDTO;
 import com.corep.productcatalog.inventory.entity.Inventory;
-import com.corep.productcatalog.inventory.exception.InventoryNotFoundException;
+import com.corep.productcatalog.inventory.entity.InventoryMovement;
+import com.corep.productcatalog.inventory.event.InventoryChangedEvent;
 import com.corep.productcatalog.inventory.exception.InsufficientStockException;
+import com.corep.productcatalog.inventory.exception.InventoryNotFoundException;
+import com.corep.productcatalog.inventory.repository.InventoryAvailabilityView;
 import com.corep.productcatalog.inventory.repository.InventoryRepository;
+import com.corep.productcatalog.shared.config.ApplicationProperties;
+import com.corep.productcatalog.shared.exception.PreconditionFailedException;
+import com.corep.productcatalog.shared.web.EntityTags;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -35,6 +64,11 @@ import java.util.stream.Collectors;
  * - This service would be extracted to a separate Inventory Service
  * - Would communicate with Product Catalog Service via Feign Client or Events
  * - Would have its own database
+ *
+ * Every change is also recorded in the movement journal (InventoryMovementService).
+ *
+ * With app.inventory.ledger.enabled, single reservations and releases and the inventory reads are served by
+ * InventoryLedger; every other write fences the products it touches first (see InventoryLedger).
  */
 @Service
 @RequiredArgsConstructor
@@ -43,6 +77,13 @@ import java.util.stream.Collectors;
 public class InventoryService {
 
     private final InventoryRepository inventoryRepository;
+    private final StockReservationEngine stockReservationEngine;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationProperties properties;
+    private final InventoryMovementService movementService;
+    private final Optional<InventoryLedger> ledger;
 
     /**
      * Create inventory for a product
@@ -66,96 +107,355 @@ public class InventoryService {
         inventory.setReservedQuantity(0);
 
         Inventory saved = inventoryRepository.save(inventory);
+        movementService.record(productId, InventoryMovement.Type.RESTOCK, initialStock, 0);
+        publishChange(productId, 0, saved.getAvailableQuantity());
         log.info("Created inventory for product {} with stock {}", productId, initialStock);
         return convertToDTO(saved);
     }
 
+    /**
+     * Create inventories for freshly created products in one batch (bulk product import)
+     * Joins the caller's transaction; inserts are batched by Hibernate (sequence ids + jdbc.batch_size).
+     * Unlike createInventory, no existence check is done per product: the products were just created.
+     *
+     * @param initialStocks Initial stock quantity per product ID
+     */
+    public void createInventories(Map<Long, Integer> initialStocks) {
+        List<Inventory> inventories = initialStocks.entrySet().stream()
+                .map(entry -> {
+                    Inventory inventory = new Inventory();
+                    inventory.setProductId(entry.getKey());
+                    inventory.setStockQuantity(entry.getValue());
+                    inventory.setReservedQuantity(0);
+                    return inventory;
+                })
+                .collect(Collectors.toList());
+        inventoryRepository.saveAll(inventories);
+        inventories.forEach(inventory -> movementService.record(inventory.getProductId(),
+                InventoryMovement.Type.RESTOCK, inventory.getStockQuantity(), 0));
+        log.debug("Created inventory for {} products", inventories.size());
+    }
+
+    /**
+     * Create an empty inventory (stock 0) for each product that has none yet, in one batch
+     * Idempotent: products that already have an inventory are skipped (outbox events may be delivered twice).
+     * Products deleted meanwhile are skipped too (a ProductCreated retried after its ProductDeleted): the
+     * products still there are locked, so none of them can be deleted before the inventories are inserted.
+     *
+     * @return number of inventories created
+     */
+    public int createMissingInventories(Collection<Long> productIds) {
+        List<Long> products = inventoryRepository.lockExistingProductIds(productIds);
+        if (products.isEmpty()) {
+            return 0;
+        }
+        Set<Long> existing = new HashSet<>(inventoryRepository.findProductIdsByProductIdIn(products));
+        Map<Long, Integer> initialStocks = new LinkedHashMap<>();
+        products.stream()
+                .filter(productId -> !existing.contains(productId))
+                .forEach(productId -> initialStocks.put(productId, 0));
+        createInventories(initialStocks);
+        return initialStocks.size();
+    }
+
     /**
      * Get inventory for a product
      * In microservices: this would be a REST endpoint
      */
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public InventoryDTO getInventoryByProductId(Long productId) {
+        InventoryLedger.Stock stock = ledger.map(held -> held.get(productId)).orElse(null);
+        if (stock != null) {
+            return convertToDTO(stock);
+        }
         Inventory inventory = inventoryRepository.findByProductId(productId)
                 .orElseThrow(() -> new InventoryNotFoundException("Inventory not found for product: " + productId));
         return convertToDTO(inventory);
     }
 
+    /**
+     * Available quantity of several products in one query (product multi-get)
+     * Products without inventory are absent from the map
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Integer> getAvailableQuantities(Collection<Long> productIds) {
+        return inventoryRepository.findAvailabilityByProductIdIn(productIds).stream()
+                .collect(Collectors.toMap(InventoryAvailabilityView::getProductId,
+                        InventoryAvailabilityView::getAvailableQuantity));
+    }
+
     /**
      * Update stock quantity
      * In microservices: this would be a REST endpoint
      */
+    @Timed("inventory.update")
     public InventoryDTO updateStock(Long productId, Integer newStockQuantity) {
+        return updateStock(productId, newStockQuantity, null);
+    }
+
+    /**
+     * Conditional stock update (optimistic concurrency)
+     * ifMatch is the If-Match header: applied only if it matches the current ETag of the inventory
+     * (null = unconditional). Not retried on a version conflict: the new quantity was decided by the
+     * caller from the state it read, which a concurrent reservation has just changed.
+     *
+     * @throws PreconditionFailedException if ifMatch does not match the current version
+     * @throws OptimisticLockingFailureException if the inventory changed between our read and our write
+     */
+    @Timed("inventory.update")
+    public InventoryDTO updateStock(Long productId, Integer newStockQuantity, String ifMatch) {
+        fence(List.of(productId));
         Inventory inventory = inventoryRepository.findByProductId(productId)
                 .orElseThrow(() -> new InventoryNotFoundException("Inventory not found for product: " + productId));
+        String eTag = eTag(productId, inventory.getVersion());
+        if (!EntityTags.matches(ifMatch, eTag)) {
+            recordOptimisticConflict("update", "precondition");
+            throw new PreconditionFailedException(
+                    "Inventory of product " + productId + " has changed: current version is " + eTag);
+        }
 
+        int previousAvailable = inventory.getAvailableQuantity();
+        int previousStock = inventory.getStockQuantity();
         inventory.setStockQuantity(newStockQuantity);
-        Inventory updated = inventoryRepository.save(inventory);
+        Inventory updated;
+        try {
+            updated = inventoryRepository.saveAndFlush(inventory);
+        } catch (OptimisticLockingFailureException e) {
+            recordOptimisticConflict("update", "failed");
+            throw e;
+        }
+        movementService.record(productId, InventoryMovement.Type.ADJUST, newStockQuantity - previousStock, 0);
+        publishChange(productId, previousAvailable, updated.getAvailableQuantity());
         log.info("Updated stock for product {} to {}", productId, newStockQuantity);
         return convertToDTO(updated);
     }
 
+    /**
+     * Strong ETag of the inventory of a product, e.g. "i42-v7"
+     */
+    public static String eTag(Long productId, Long version) {
+        return EntityTags.versioned("i", productId, version);
+    }
+
     /**
      * Reserve stock (for orders)
+     * Applied as an atomic conditional update by StockReservationEngine (safe under concurrent orders),
+     * or in memory by InventoryLedger when enabled (undone if the caller's transaction rolls back)
      * In microservices: this would be called by external clients/services
      */
+    @Timed("inventory.reserve")
+    @Transactional(propagation = Propagation.SUPPORTS)
     public InventoryDTO reserveStock(Long productId, Integer quantity) {
-        Inventory inventory = inventoryRepository.findByProductId(productId)
-                .orElseThrow(() -> new InventoryNotFoundException("Inventory not found for product: " + productId));
-
-        int available = inventory.getAvailableQuantity();
-        if (available < quantity) {
-            throw new InsufficientStockException(
-                    String.format("Insufficient stock. Available: %d, Requested: %d", available, quantity));
+        try {
+            InventoryLedger.Stock stock = ledger.map(held -> held.reserve(productId, quantity)).orElse(null);
+            if (stock != null) {
+                onRollback(() -> releaseStock(productId, quantity));
+                log.info("Reserved {} units for product {}", quantity, productId);
+                return convertToDTO(stock);
+            }
+            Inventory updated = inTransaction(() -> {
+                fence(List.of(productId));
+                Inventory inventory = stockReservationEngine.reserve(productId, quantity);
+                movementService.record(productId, InventoryMovement.Type.RESERVE, 0, quantity);
+                publishChange(productId, inventory.getAvailableQuantity() + quantity, inventory.getAvailableQuantity());
+                return inventory;
+            });
+            log.info("Reserved {} units for product {}", quantity, productId);
+            return convertToDTO(updated);
+        } catch (InsufficientStockException e) {
+            recordConflict("reserve");
+            throw e;
         }
-
-        inventory.setReservedQuantity(inventory.getReservedQuantity() + quantity);
-        Inventory updated = inventoryRepository.save(inventory);
-        log.info("Reserved {} units for product {}", quantity, productId);
-        return convertToDTO(updated);
     }
 
     /**
      * Release reserved stock (when order is cancelled)
+     * Applied as an atomic conditional update by StockReservationEngine, or in memory by InventoryLedger
      * In microservices: this would be called by external clients/services
      */
+    @Timed("inventory.release")
+    @Transactional(propagation = Propagation.SUPPORTS)
     public InventoryDTO releaseStock(Long productId, Integer quantity) {
-        Inventory inventory = inventoryRepository.findByProductId(productId)
-                .orElseThrow(() -> new InventoryNotFoundException("Inventory not found for product: " + productId));
-
-        if (inventory.getReservedQuantity() < quantity) {
-            throw new IllegalArgumentException(
-                    String.format("Cannot release more than reserved. Reserved: %d, Requested: %d",
-                            inventory.getReservedQuantity(), quantity));
+        InventoryLedger.Stock stock = ledger.map(held -> held.release(productId, quantity)).orElse(null);
+        if (stock != null) {
+            onRollback(() -> reserveStock(productId, quantity));
+            log.info("Released {} units for product {}", quantity, productId);
+            return convertToDTO(stock);
         }
-
-        inventory.setReservedQuantity(inventory.getReservedQuantity() - quantity);
-        Inventory updated = inventoryRepository.save(inventory);
+        Inventory updated = inTransaction(() -> {
+            fence(List.of(productId));
+            Inventory inventory = stockReservationEngine.release(productId, quantity);
+            movementService.record(productId, InventoryMovement.Type.RELEASE, 0, -quantity);
+            publishChange(productId, inventory.getAvailableQuantity() - quantity, inventory.getAvailableQuantity());
+            return inventory;
+        });
         log.info("Released {} units for product {}", quantity, productId);
         return convertToDTO(updated);
     }
 
     /**
-     * Get low stock items
+     * Ship reserved stock (the order holding it was confirmed): stock and reserved quantity both decrease
+     * The available quantity does not change, so no InventoryChangedEvent is published
+     */
+    @Timed("inventory.commit")
+    public InventoryDTO commitReservedStock(Long productId, Integer quantity) {
+        fence(List.of(productId));
+        Inventory updated = stockReservationEngine.commit(productId, quantity);
+        movementService.record(productId, InventoryMovement.Type.COMMIT, -quantity, -quantity);
+        log.info("Committed {} reserved units for product {}", quantity, productId);
+        return convertToDTO(updated);
+    }
+
+    /**
+     * Release the units of expired reservation holds, summed per product (StockReservationService expiry job)
+     * Unlike releaseStock, a product with less reserved than its expired holds (e.g. released meanwhile through
+     * /release) is skipped with a warning instead of failing: one inconsistent row must not block the expiry.
+     *
+     * @return number of products whose holds were released
+     */
+    public int releaseExpiredHolds(Map<Long, Integer> quantities) {
+        fence(quantities.keySet());
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Integer> released = new TreeMap<>();
+        quantities.forEach((productId, quantity) -> {
+            if (inventoryRepository.releaseIfReserved(productId, quantity, now) == 1) {
+                released.put(productId, quantity);
+                movementService.record(productId, InventoryMovement.Type.RELEASE, 0, -quantity);
+            } else {
+                log.warn("Expired holds of {} units on product {} exceed its reserved quantity, not released",
+                        quantity, productId);
+            }
+        });
+        if (!released.isEmpty()) {
+            inventoryRepository.findAllByProductIdIn(released.keySet()).forEach(inventory ->
+                    publishChange(inventory.getProductId(),
+                            inventory.getAvailableQuantity() - released.get(inventory.getProductId()),
+                            inventory.getAvailableQuantity()));
+        }
+        return released.size();
+    }
+
+    /**
+     * Reserve stock for all lines of an order (all-or-nothing)
+     * Loads every affected row in one query and applies every line in a single transaction; any failing
+     * line rolls back the whole batch. No row is locked while the lines are checked: the writes carry a
+     * version check, and a batch that loses the race against a concurrent update is retried from a fresh read.
+     */
+    @Timed("inventory.reserve.batch")
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<InventoryDTO> reserveStockBatch(List<StockBatchRequestDTO.Line> lines) {
+        Map<Long, Integer> quantities = mergeLines(lines);
+        return retryOnConflict("reserve.batch", () -> {
+            fence(quantities.keySet());
+            List<Inventory> inventories = loadInventories(quantities);
+            for (Inventory inventory : inventories) {
+                int requested = quantities.get(inventory.getProductId());
+                if (inventory.getAvailableQuantity() < requested) {
+                    recordConflict("reserve.batch");
+                    throw new InsufficientStockException(
+                            String.format("Insufficient stock for product %d. Available: %d, Requested: %d",
+                                    inventory.getProductId(), inventory.getAvailableQuantity(), requested));
+                }
+                inventory.setReservedQuantity(inventory.getReservedQuantity() + requested);
+                movementService.record(inventory.getProductId(), InventoryMovement.Type.RESERVE, 0, requested);
+                publishChange(inventory.getProductId(), inventory.getAvailableQuantity() + requested,
+                        inventory.getAvailableQuantity());
+            }
+
+            List<Inventory> updated = inventoryRepository.saveAllAndFlush(inventories);
+            log.info("Reserved stock for {} products in one batch", updated.size());
+            return updated.stream()
+                    .map(this::convertToDTO)
+                    .collect(Collectors.toList());
+        });
+    }
+
+    /**
+     * Release reserved stock for all lines of an order (all-or-nothing)
+     * Same optimistic strategy as reserveStockBatch
+     */
+    @Timed("inventory.release.batch")
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<InventoryDTO> releaseStockBatch(List<StockBatchRequestDTO.Line> lines) {
+        Map<Long, Integer> quantities = mergeLines(lines);
+        return retryOnConflict("release.batch", () -> {
+            fence(quantities.keySet());
+            List<Inventory> inventories = loadInventories(quantities);
+            for (Inventory inventory : inventories) {
+                int requested = quantities.get(inventory.getProductId());
+                if (inventory.getReservedQuantity() < requested) {
+                    throw new IllegalArgumentException(
+                            String.format("Cannot release more than reserved for product %d. Reserved: %d, Requested: %d",
+                                    inventory.getProductId(), inventory.getReservedQuantity(), requested));
+                }
+                inventory.setReservedQuantity(inventory.getReservedQuantity() - requested);
+                movementService.record(inventory.getProductId(), InventoryMovement.Type.RELEASE, 0, -requested);
+                publishChange(inventory.getProductId(), inventory.getAvailableQuantity() - requested,
+                        inventory.getAvailableQuantity());
+            }
+
+            List<Inventory> updated = inventoryRepository.saveAllAndFlush(inventories);
+            log.info("Released stock for {} products in one batch", updated.size());
+            return updated.stream()
+                    .map(this::convertToDTO)
+                    .collect(Collectors.toList());
+        });
+    }
+
+    /**
+     * Run a read-check-write batch in its own transaction, retrying it from a fresh read when its version
+     * check fails, at most app.inventory.max-reservation-attempts times with a short randomized backoff
+     * Inside a caller's transaction the batch runs once: the conflict must roll back the caller as a whole.
+     */
+    private <T> T retryOnConflict(String operation, Supplier<T> batch) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return batch.get();
+        }
+        int maxAttempts = properties.getInventory().getMaxReservationAttempts();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> batch.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    recordOptimisticConflict(operation, "failed");
+                    throw e;
+                }
+                recordOptimisticConflict(operation, "retried");
+                log.debug("Version conflict on {} (attempt {} of {}), retrying", operation, attempt, maxAttempts);
+                backOff(attempt);
+            }
+        }
+    }
+
+    private void backOff(int attempt) {
+        long maxDelayMillis = properties.getInventory().getReservationRetryBackoff().toMillis() * attempt;
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(maxDelayMillis + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying a stock batch", e);
+        }
+    }
+
+    /**
+     * Get low stock items (paginated, least available first)
+     * Uses the indexed available_quantity column; a Slice avoids the COUNT query
      * In microservices: this would be a REST endpoint
      */
+    @Timed("inventory.low-stock")
     @Transactional(readOnly = true)
-    public List<InventoryDTO> getLowStockItems(Integer threshold) {
-        return inventoryRepository.findLowStockItems(threshold)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public Slice<InventoryDTO> getLowStockItems(int threshold, Pageable pageable) {
+        return inventoryRepository.findLowStockItems(threshold, pageable)
+                .map(this::convertToDTO);
     }
 
     /**
-     * Get out of stock items
+     * Get out of stock items (paginated)
      */
     @Transactional(readOnly = true)
-    public List<InventoryDTO> getOutOfStockItems() {
-        return inventoryRepository.findOutOfStockItems()
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public Slice<InventoryDTO> getOutOfStockItems(Pageable pageable) {
+        return inventoryRepository.findOutOfStockItems(pageable)
+                .map(this::convertToDTO);
     }
 
     /**
@@ -163,12 +463,120 @@ public class InventoryService {
      * In microservices: this would be triggered by ProductDeletedEvent
      */
     public void deleteInventory(Long productId) {
+        fence(List.of(productId));
         Inventory inventory = inventoryRepository.findByProductId(productId)
                 .orElseThrow(() -> new InventoryNotFoundException("Inventory not found for product: " + productId));
         inventoryRepository.delete(inventory);
+        movementService.record(productId, InventoryMovement.Type.ADJUST, -inventory.getStockQuantity(),
+                -inventory.getReservedQuantity());
+        publishChange(productId, inventory.getAvailableQuantity(), 0);
         log.info("Deleted inventory for product {}", productId);
     }
 
+    /**
+     * Reservation rejected for insufficient stock: inventory.reservation.conflicts, tagged by operation
+     */
+    private void recordConflict(String operation) {
+        meterRegistry.counter("inventory.reservation.conflicts", "operation", operation).increment();
+    }
+
+    /**
+     * Version check failed (reason retried / failed) or stale If-Match (precondition): optimistic.lock.conflicts
+     */
+    private void recordOptimisticConflict(String operation, String reason) {
+        meterRegistry.counter("optimistic.lock.conflicts", "entity", "inventory", "operation", operation,
+                "reason", reason).increment();
+    }
+
+    /**
+     * Delete the inventories of several products in one statement (products deleted)
+     * Idempotent: products without inventory are ignored
+     *
+     * @return number of inventories deleted
+     */
+    public int deleteInventories(Collection<Long> productIds) {
+        fence(productIds);
+        inventoryRepository.findAllByProductIdIn(productIds).forEach(inventory -> {
+            movementService.record(inventory.getProductId(), InventoryMovement.Type.ADJUST,
+                    -inventory.getStockQuantity(), -inventory.getReservedQuantity());
+            publishChange(inventory.getProductId(), inventory.getAvailableQuantity(), 0);
+        });
+        int deleted = inventoryRepository.deleteByProductIdIn(productIds);
+        log.debug("Deleted inventory for {} products", deleted);
+        return deleted;
+    }
+
+    /**
+     * Sum quantities per product (an order may contain the same product on several lines),
+     * sorted by product id
+     */
+    private Map<Long, Integer> mergeLines(List<StockBatchRequestDTO.Line> lines) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (StockBatchRequestDTO.Line line : lines) {
+            quantities.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    private List<Inventory> loadInventories(Map<Long, Integer> quantities) {
+        List<Inventory> inventories = inventoryRepository.findAllByProductIdIn(quantities.keySet());
+        if (inventories.size() < quantities.size()) {
+            Set<Long> missing = new TreeSet<>(quantities.keySet());
+            inventories.forEach(inventory -> missing.remove(inventory.getProductId()));
+            throw new InventoryNotFoundException("Inventory not found for products: " + missing);
+        }
+        return inventories;
+    }
+
+    /**
+     * Hand the products over from the ledger to this transaction (no-op without ledger)
+     */
+    private void fence(Collection<Long> productIds) {
+        ledger.ifPresent(held -> held.fence(productIds));
+    }
+
+    /**
+     * Joins the caller's transaction, or runs in a new one (single reservations run without one on the ledger)
+     */
+    private <T> T inTransaction(Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+        return transactionTemplate.execute(status -> work.get());
+    }
+
+    /**
+     * A change made in the ledger is not part of the caller's transaction: undone if that one rolls back
+     */
+    private void onRollback(Runnable undo) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_ROLLED_BACK) {
+                    return;
+                }
+                // The caller's resources are still bound: run in a transaction of our own
+                TransactionTemplate requiresNew = new TransactionTemplate(transactionTemplate.getTransactionManager());
+                requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+                try {
+                    requiresNew.executeWithoutResult(tx -> undo.run());
+                } catch (RuntimeException e) {
+                    log.error("Could not undo a ledger operation after a rollback", e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Delivered to listeners (e.g. LowStockAlertBroadcaster) only if the transaction commits
+     */
+    private void publishChange(Long productId, int previousAvailable, int available) {
+        eventPublisher.publishEvent(new InventoryChangedEvent(productId, previousAvailable, available));
+    }
+
     private InventoryDTO convertToDTO(Inventory inventory) {
         InventoryDTO dto = new InventoryDTO();
         dto.setId(inventory.getId());
@@ -177,6 +585,19 @@ public class InventoryService {
         dto.setReservedQuantity(inventory.getReservedQuantity());
         dto.setAvailableQuantity(inventory.getAvailableQuantity());
         dto.setLastUpdated(inventory.getLastUpdated());
+        dto.setVersion(inventory.getVersion());
+        return dto;
+    }
+
+    private InventoryDTO convertToDTO(InventoryLedger.Stock stock) {
+        InventoryDTO dto = new InventoryDTO();
+        dto.setId(stock.inventoryId());
+        dto.setProductId(stock.productId());
+        dto.setStockQuantity(stock.stockQuantity());
+        dto.setReservedQuantity(stock.reservedQuantity());
+        dto.setAvailableQuantity(stock.availableQuantity());
+        dto.setLastUpdated(stock.lastUpdated());
+        dto.setVersion(stock.version());
         return dto;
     }
 }
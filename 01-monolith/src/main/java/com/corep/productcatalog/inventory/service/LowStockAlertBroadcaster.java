@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2024-2025 Daniele Bortoluzzi
+ * 
+ * Master di I Livello in Cloud Computing
+ * Università degli Studi di Torino - COREP
+ * 
+ * This project is part of the Cloud Computing Master's program.
+ * Educational project for Cloud Computing Course.
+ * 
+ * MIT License - see LICENSE file for details
+ */
+package com.corep.productcatalog.inventory.service;
+
+import com.corep.productcatalog.inventory.dto.LowStockAlertDTO;
+import com.corep.productcatalog.inventory.event.InventoryChangedEvent;
+import com.corep.productcatalog.shared.config.ApplicationProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Low Stock Alert Broadcaster
+ * Pushes threshold crossings to Server-Sent Events subscribers as soon as a stock change commits,
+ * instead of dashboards polling the low-stock query
+ *
+ * Each subscriber has its own threshold: a LOW alert is sent when the available quantity of a product
+ * drops below it, a RECOVERED alert when it gets back at or above it.
+ *
+ * Backpressure: alerts are queued per subscriber (bounded, app.low-stock-alerts.queue-capacity) and written
+ * by a small delivery pool, never by the thread that changed the stock. When a slow client's queue is full
+ * the oldest alert is dropped; the next delivered alert reports how many were dropped.
+ *
+ * In microservices: Inventory Service would publish the changes to a broker and a notification service would fan them out
+ */
+@Component
+@Slf4j
+public class LowStockAlertBroadcaster {
+
+    private final ApplicationProperties.LowStockAlerts settings;
+    private final Executor deliveryExecutor;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public LowStockAlertBroadcaster(ApplicationProperties properties) {
+        this(properties, Executors.newFixedThreadPool(properties.getLowStockAlerts().getDeliveryThreads(),
+                new CustomizableThreadFactory("low-stock-sse-")));
+    }
+
+    LowStockAlertBroadcaster(ApplicationProperties properties, Executor deliveryExecutor) {
+        this.settings = properties.getLowStockAlerts();
+        this.deliveryExecutor = deliveryExecutor;
+    }
+
+    /**
+     * Open a stream of alerts for the given threshold
+     */
+    public SseEmitter subscribe(int threshold) {
+        SseEmitter emitter = new SseEmitter(settings.getEmitterTimeout().toMillis());
+        register(emitter, threshold);
+        return emitter;
+    }
+
+    void register(SseEmitter emitter, int threshold) {
+        Subscriber subscriber = new Subscriber(emitter, threshold);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        log.debug("Low stock subscriber added (threshold {}), {} active", threshold, subscribers.size());
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Detect threshold crossings once the stock change is committed
+     */
+    @TransactionalEventListener
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        int previous = event.getPreviousAvailableQuantity();
+        int current = event.getAvailableQuantity();
+        if (previous == current || subscribers.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Subscriber subscriber : subscribers) {
+            int threshold = subscriber.threshold;
+            if (previous >= threshold && current < threshold) {
+                subscriber.offer(new LowStockAlertDTO(LowStockAlertDTO.Type.LOW,
+                        event.getProductId(), current, threshold, now, 0));
+            } else if (previous < threshold && current >= threshold) {
+                subscriber.offer(new LowStockAlertDTO(LowStockAlertDTO.Type.RECOVERED,
+                        event.getProductId(), current, threshold, now, 0));
+            }
+        }
+    }
+
+    /**
+     * SSE comment sent periodically: keeps proxies from closing idle streams and detects gone clients
+     */
+    @Scheduled(fixedDelayString = "${app.low-stock-alerts.heartbeat-interval:PT15S}")
+    public void sendHeartbeats() {
+        subscribers.forEach(Subscriber::heartbeat);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        if (deliveryExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * One SSE client: bounded alert queue, drained by at most one delivery task at a time (keeps alerts in order)
+     */
+    private final class Subscriber implements Runnable {
+
+        private final SseEmitter emitter;
+        private final int threshold;
+
+        // Guarded by this
+        private final Deque<LowStockAlertDTO> queue = new ArrayDeque<>();
+        private long droppedAlerts;
+        private boolean heartbeatPending;
+        private boolean draining;
+
+        Subscriber(SseEmitter emitter, int threshold) {
+            this.emitter = emitter;
+            this.threshold = threshold;
+        }
+
+        void offer(LowStockAlertDTO alert) {
+            synchronized (this) {
+                if (queue.size() >= settings.getQueueCapacity()) {
+                    queue.pollFirst();
+                    droppedAlerts++;
+                }
+                queue.addLast(alert);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            deliveryExecutor.execute(this);
+        }
+
+        void heartbeat() {
+            synchronized (this) {
+                heartbeatPending = true;
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            deliveryExecutor.execute(this);
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                LowStockAlertDTO alert;
+                boolean heartbeat;
+                synchronized (this) {
+                    alert = queue.pollFirst();
+                    heartbeat = alert == null && heartbeatPending;
+                    if (alert == null && !heartbeat) {
+                        draining = false;
+                        return;
+                    }
+                    if (alert != null) {
+                        alert.setDroppedAlerts(droppedAlerts);
+                        droppedAlerts = 0;
+                    } else {
+                        heartbeatPending = false;
+                    }
+                }
+                try {
+                    if (alert != null) {
+                        emitter.send(SseEmitter.event().name("low-stock").data(alert, MediaType.APPLICATION_JSON));
+                    } else {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // Client disconnected or emitter already completed
+                    log.debug("Dropping low stock subscriber: {}", e.getMessage());
+                    subscribers.remove(this);
+                    synchronized (this) {
+                        queue.clear();
+                        draining = false;
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
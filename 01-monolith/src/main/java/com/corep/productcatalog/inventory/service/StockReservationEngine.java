@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2024-2025 Daniele Bortoluzzi
+ * 
+ * Master di I Livello in Cloud Computing
+ * Università degli Studi di Torino - COREP
+ * 
+ * This project is part of the Cloud Computing Master's program.
+ * Educational project for Cloud Computing Course.
+ * 
+ * MIT License - see LICENSE file for details
+ */
+package com.corep.productcatalog.inventory.service;
+
+import com.corep.productcatalog.inventory.entity.Inventory;
+import com.corep.productcatalog.inventory.exception.InsufficientStockException;
+import com.corep.productcatalog.inventory.exception.InventoryNotFoundException;
+import com.corep.productcatalog.inventory.repository.InventoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stock Reservation Engine
+ * Applies reservations and releases as atomic conditional updates on the inventory row
+ *
+ * The availability check and the increment happen in a single UPDATE statement,
+ * so concurrent orders on a hot product can neither oversell nor lose updates,
+ * and the row lock is held only for the duration of that statement.
+ * The inventory row is read only to build the response or to explain a rejection.
+ */
+@Component
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class StockReservationEngine {
+
+    private final InventoryRepository inventoryRepository;
+
+    /**
+     * Reserve stock, failing if the product has not enough available quantity
+     * Must be called inside a transaction (InventoryService)
+     */
+    public Inventory reserve(Long productId, int quantity) {
+        if (inventoryRepository.reserveIfAvailable(productId, quantity, LocalDateTime.now()) == 0) {
+            Inventory inventory = findInventory(productId);
+            throw new InsufficientStockException(
+                    String.format("Insufficient stock. Available: %d, Requested: %d",
+                            inventory.getAvailableQuantity(), quantity));
+        }
+        return findInventory(productId);
+    }
+
+    /**
+     * Release reserved stock, failing if less than the requested quantity is reserved
+     * Must be called inside a transaction (InventoryService)
+     */
+    public Inventory release(Long productId, int quantity) {
+        if (inventoryRepository.releaseIfReserved(productId, quantity, LocalDateTime.now()) == 0) {
+            Inventory inventory = findInventory(productId);
+            throw new IllegalArgumentException(
+                    String.format("Cannot release more than reserved. Reserved: %d, Requested: %d",
+                            inventory.getReservedQuantity(), quantity));
+        }
+        return findInventory(productId);
+    }
+
+    /**
+     * Remove reserved units from the stock (the order holding them was confirmed)
+     * Must be called inside a transaction (InventoryService)
+     */
+    public Inventory commit(Long productId, int quantity) {
+        if (inventoryRepository.commitIfReserved(productId, quantity, LocalDateTime.now()) == 0) {
+            Inventory inventory = findInventory(productId);
+            throw new IllegalArgumentException(
+                    String.format("Cannot commit more than reserved. Reserved: %d, Requested: %d",
+                            inventory.getReservedQuantity(), quantity));
+        }
+        return findInventory(productId);
+    }
+
+    private Inventory findInventory(Long productId) {
+        return inventoryRepository.findByProductId(productId)
+                .orElseThrow(() -> new InventoryNotFoundException("Inventory not found for product: " + productId));
+    }
+}
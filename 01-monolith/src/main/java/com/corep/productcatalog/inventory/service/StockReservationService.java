@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2024-2025 Daniele Bortoluzzi
+ * 
+ * Master di I Livello in Cloud Computing
+ * Università degli Studi di Torino - COREP
+ * 
+ * This project is part of the Cloud Computing Master's program.
+ * Educational project for Cloud Computing Course.
+ * 
+ * MIT License - see LICENSE file for details
+ */
+package com.corep.productcatalog.inventory.service;
+
+import com.corep.productcatalog.inventory.dto.StockReservationDTO;
+import com.corep.productcatalog.inventory.entity.StockReservation;
+import com.corep.productcatalog.inventory.exception.StockReservationNotFoundException;
+import com.corep.productcatalog.inventory.repository.StockReservationRepository;
+import com.corep.productcatalog.shared.config.ApplicationProperties;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stock Reservation Service
+ * Time-bounded holds: a reservation sets stock aside until it is confirmed (the units leave the stock),
+ * cancelled (they become available again) or it expires (released by the expiry job)
+ *
+ * The holds table is its own expiry queue: idx_stock_reservations_expires_id orders it by expiry time,
+ * so every app.inventory.reservation-expiry-interval the job reads only the holds already due, in batches
+ * of app.inventory.reservation-expiry-batch-size, and releases each batch in one transaction with one
+ * conditional UPDATE per product. No scan of the active holds, and no timer kept in memory:
+ * holds survive a restart and are expired by whichever instance gets to them first.
+ *
+ * Metrics: inventory.reservations.active (holds not yet settled), inventory.reservations.expired
+ * and inventory.reservations.expiry.lag (time between the expiry instant of a hold and its release).
+ * The active holds are counted in memory: adjusted after each commit of this instance, recounted in the
+ * database at startup and every app.inventory.reservation-gauge-recount-interval (holds of other instances).
+ *
+ * In microservices: this would be in a separate Inventory Service
+ */
+@Service
+@Slf4j
+@Transactional
+public class StockReservationService {
+
+    private final StockReservationRepository stockReservationRepository;
+    private final InventoryService inventoryService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationProperties.Inventory settings;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * One expiry run at a time in this instance (scheduler and explicit calls)
+     */
+    private final ReentrantLock expiryLock = new ReentrantLock();
+
+    private final AtomicLong activeHolds = new AtomicLong();
+
+    public StockReservationService(StockReservationRepository stockReservationRepository,
+                                   InventoryService inventoryService, TransactionTemplate transactionTemplate,
+                                   ApplicationProperties properties, MeterRegistry meterRegistry) {
+        this.stockReservationRepository = stockReservationRepository;
+        this.inventoryService = inventoryService;
+        this.transactionTemplate = transactionTemplate;
+        this.settings = properties.getInventory();
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("inventory.reservations.active", activeHolds, AtomicLong::get)
+                .description("Stock reservation holds not yet confirmed, cancelled or expired")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserve stock until now + ttl (null: app.inventory.reservation-ttl; capped at max-reservation-ttl)
+     *
+     * @throws com.corep.productcatalog.inventory.exception.InsufficientStockException if not enough is available
+     */
+    @Timed("inventory.reservation.hold")
+    public StockReservationDTO hold(Long productId, Integer quantity, Duration ttl) {
+        Duration lifetime = ttl == null ? settings.getReservationTtl() : ttl;
+        if (lifetime.compareTo(settings.getMaxReservationTtl()) > 0) {
+            lifetime = settings.getMaxReservationTtl();
+        }
+        inventoryService.reserveStock(productId, quantity);
+
+        StockReservation reservation = new StockReservation();
+        reservation.setProductId(productId);
+        reservation.setQuantity(quantity);
+        reservation.setExpiresAt(LocalDateTime.now().plus(lifetime));
+        StockReservation saved = stockReservationRepository.save(reservation);
+        adjustActiveHolds(1);
+        log.info("Held {} units of product {} until {} (reservation {})", quantity, productId,
+                saved.getExpiresAt(), saved.getId());
+        return convertToDTO(saved);
+    }
+
+    @Transactional(readOnly = true)
+    public StockReservationDTO getReservation(Long reservationId) {
+        return convertToDTO(findReservation(reservationId));
+    }
+
+    /**
+     * Confirm a hold (order placed): its units leave the stock for good
+     * A hold past its expiry is refused even if the job has not released it yet
+     */
+    @Timed("inventory.reservation.confirm")
+    public void confirm(Long reservationId) {
+        StockReservation reservation = claim(reservationId);
+        if (!reservation.getExpiresAt().isAfter(LocalDateTime.now())) {
+            throw new StockReservationNotFoundException("Reservation " + reservationId + " has expired");
+        }
+        inventoryService.commitReservedStock(reservation.getProductId(), reservation.getQuantity());
+        adjustActiveHolds(-1);
+        log.info("Confirmed reservation {}", reservationId);
+    }
+
+    /**
+     * Cancel a hold (cart abandoned or order cancelled): its units become available again
+     */
+    @Timed("inventory.reservation.cancel")
+    public void cancel(Long reservationId) {
+        StockReservation reservation = claim(reservationId);
+        inventoryService.releaseStock(reservation.getProductId(), reservation.getQuantity());
+        adjustActiveHolds(-1);
+        log.info("Cancelled reservation {}", reservationId);
+    }
+
+    /**
+     * Expiry job: release every hold whose expiry time has passed, batch by batch
+     * @return number of holds expired
+     */
+    @Scheduled(initialDelayString = "${app.inventory.reservation-expiry-interval:PT1S}",
+            fixedDelayString = "${app.inventory.reservation-expiry-interval:PT1S}")
+    @Transactional(propagation = Propagation.NEVER)
+    public int expireDue() {
+        expiryLock.lock();
+        try {
+            int expired = 0;
+            while (true) {
+                List<StockReservation> batch = new ArrayList<>();
+                transactionTemplate.executeWithoutResult(status -> {
+                    batch.addAll(stockReservationRepository.findExpired(LocalDateTime.now(),
+                            PageRequest.of(0, settings.getReservationExpiryBatchSize())));
+                    if (batch.isEmpty()) {
+                        return;
+                    }
+                    Map<Long, Integer> quantities = new TreeMap<>();
+                    batch.forEach(reservation ->
+                            quantities.merge(reservation.getProductId(), reservation.getQuantity(), Integer::sum));
+                    stockReservationRepository.deleteAllInBatch(batch);
+                    inventoryService.releaseExpiredHolds(quantities);
+                });
+                recordExpiry(batch);
+                expired += batch.size();
+                if (batch.size() < settings.getReservationExpiryBatchSize()) {
+                    if (expired > 0) {
+                        log.info("Expired {} stock reservations", expired);
+                    }
+                    return expired;
+                }
+            }
+        } finally {
+            expiryLock.unlock();
+        }
+    }
+
+    /**
+     * Recount the active holds gauge in the database (at startup, then every reservation-gauge-recount-interval)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.inventory.reservation-gauge-recount-interval:PT5M}",
+            fixedDelayString = "${app.inventory.reservation-gauge-recount-interval:PT5M}")
+    @Transactional(readOnly = true)
+    public void recountActiveHolds() {
+        activeHolds.set(stockReservationRepository.count());
+    }
+
+    /**
+     * Take a hold away from the other settlers (confirm, cancel, expiry): deleted here, settled by the caller
+     * in the same transaction
+     */
+    private StockReservation claim(Long reservationId) {
+        StockReservation reservation = findReservation(reservationId);
+        if (stockReservationRepository.deleteHold(reservationId) == 0) {
+            throw new StockReservationNotFoundException("Reservation " + reservationId + " has already been settled");
+        }
+        return reservation;
+    }
+
+    private StockReservation findReservation(Long reservationId) {
+        return stockReservationRepository.findById(reservationId)
+                .orElseThrow(() -> new StockReservationNotFoundException("Reservation not found: " + reservationId));
+    }
+
+    private void recordExpiry(List<StockReservation> expired) {
+        if (expired.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        activeHolds.addAndGet(-expired.size());
+        meterRegistry.counter("inventory.reservations.expired").increment(expired.size());
+        expired.forEach(reservation -> meterRegistry.timer("inventory.reservations.expiry.lag")
+                .record(Duration.between(reservation.getExpiresAt(), now)));
+    }
+
+    /**
+     * Change the active holds gauge once the current transaction commits
+     */
+    private void adjustActiveHolds(long delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            activeHolds.addAndGet(delta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                activeHolds.addAndGet(delta);
+            }
+        });
+    }
+
+    private StockReservationDTO convertToDTO(StockReservation reservation) {
+        return new StockReservationDTO(reservation.getId(), reservation.getProductId(), reservation.getQuantity(),
+                reservation.getCreatedAt(), reservation.getExpiresAt());
+    }
+}
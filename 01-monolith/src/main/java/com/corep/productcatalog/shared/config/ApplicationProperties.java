@@ -4,6 +4,11 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Type-safe configuration properties
@@ -31,6 +36,56 @@ public class ApplicationProperties {
      */
     private Pagination pagination = new Pagination();
 
+    /**
+     * In-process cache settings
+     */
+    private Cache cache = new Cache();
+
+    /**
+     * Bulk product import settings
+     */
+    private ProductImport productImport = new ProductImport();
+
+    /**
+     * Category statistics settings
+     */
+    private Statistics statistics = new Statistics();
+
+    /**
+     * Low stock alert stream (SSE) settings
+     */
+    private LowStockAlerts lowStockAlerts = new LowStockAlerts();
+
+    /**
+     * Autocomplete settings
+     */
+    private Autocomplete autocomplete = new Autocomplete();
+
+    /**
+     * Virtual thread diagnostics (spring.threads.virtual.enabled)
+     */
+    private VirtualThreads virtualThreads = new VirtualThreads();
+
+    /**
+     * Transactional outbox dispatcher settings
+     */
+    private Outbox outbox = new Outbox();
+
+    /**
+     * Inventory optimistic locking retries, reservation holds, movement snapshots and the in-memory ledger
+     */
+    private Inventory inventory = new Inventory();
+
+    /**
+     * Read replica routing for read-only transactions
+     */
+    private ReadReplicas readReplicas = new ReadReplicas();
+
+    /**
+     * Idempotency-Key support on write requests
+     */
+    private Idempotency idempotency = new Idempotency();
+
     @Getter
     @Setter
     public static class Pagination {
@@ -44,5 +99,304 @@ public class ApplicationProperties {
          */
         private int maxPageSize = 100;
     }
-}
 
+    @Getter
+    @Setter
+    public static class Cache {
+        /**
+         * Maximum number of products kept in the product cache
+         */
+        private long productsMaxSize = 10_000;
+
+        /**
+         * Time after which a cached product expires
+         */
+        private Duration productsTtl = Duration.ofMinutes(10);
+    }
+
+    @Getter
+    @Setter
+    public static class ProductImport {
+        /**
+         * Rows written per transaction
+         */
+        private int chunkSize = 500;
+
+        /**
+         * Maximum number of row errors listed in the import report (all failures are counted)
+         */
+        private int maxReportedErrors = 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class Statistics {
+        /**
+         * Interval of the job rebuilding the category statistics from the products table
+         */
+        private Duration reconcileInterval = Duration.ofMinutes(10);
+    }
+
+    @Getter
+    @Setter
+    public static class LowStockAlerts {
+        /**
+         * Alerts buffered per subscriber; when full the oldest alert is dropped
+         */
+        private int queueCapacity = 256;
+
+        /**
+         * Threads writing alerts to the subscribers
+         */
+        private int deliveryThreads = 2;
+
+        /**
+         * Lifetime of a stream before the client has to reconnect
+         */
+        private Duration emitterTimeout = Duration.ofMinutes(30);
+
+        /**
+         * Interval of the heartbeat comment sent on every stream
+         */
+        private Duration heartbeatInterval = Duration.ofSeconds(15);
+    }
+
+    @Getter
+    @Setter
+    public static class Autocomplete {
+        /**
+         * Suggestions precomputed per trie node (upper bound of the limit parameter)
+         */
+        private int maxSuggestions = 10;
+
+        /**
+         * Leading words of a product name that a prefix can start from ("lap" finds "Gaming Laptop")
+         */
+        private int maxWordsPerName = 5;
+    }
+
+    @Getter
+    @Setter
+    public static class VirtualThreads {
+        /**
+         * Report virtual threads pinned to their carrier for longer than this (e.g. blocking inside synchronized)
+         */
+        private Duration pinningThreshold = Duration.ofMillis(20);
+    }
+
+    @Getter
+    @Setter
+    public static class Outbox {
+        /**
+         * Interval between two polls of the outbox table
+         */
+        private Duration pollInterval = Duration.ofMillis(500);
+
+        /**
+         * Events delivered per transaction
+         */
+        private int batchSize = 100;
+
+        /**
+         * Delay before the first retry of a failed event, doubled at each further failure
+         */
+        private Duration retryBackoff = Duration.ofSeconds(5);
+
+        /**
+         * Upper bound of the retry delay
+         */
+        private Duration maxRetryBackoff = Duration.ofMinutes(10);
+    }
+
+    @Getter
+    @Setter
+    public static class Inventory {
+        /**
+         * Attempts of a batch reservation/release that fails on a version conflict (first attempt included)
+         */
+        private int maxReservationAttempts = 5;
+
+        /**
+         * Base delay before retrying a conflicting batch, multiplied by the attempt number and randomized
+         */
+        private Duration reservationRetryBackoff = Duration.ofMillis(10);
+
+        /**
+         * Lifetime of a reservation hold when the request does not set one
+         */
+        private Duration reservationTtl = Duration.ofMinutes(15);
+
+        /**
+         * Upper bound of the lifetime a request may ask for
+         */
+        private Duration maxReservationTtl = Duration.ofHours(2);
+
+        /**
+         * Interval between two runs of the job releasing expired holds
+         */
+        private Duration reservationExpiryInterval = Duration.ofSeconds(1);
+
+        /**
+         * Expired holds released per transaction
+         */
+        private int reservationExpiryBatchSize = 500;
+
+        /**
+         * Interval between two recounts of the active holds gauge (it also follows the writes of this instance)
+         */
+        private Duration reservationGaugeRecountInterval = Duration.ofMinutes(5);
+
+        /**
+         * Movements of a product after which its next snapshot is taken
+         */
+        private int snapshotEvery = 100;
+
+        /**
+         * Interval between two snapshot runs
+         */
+        private Duration snapshotInterval = Duration.ofMinutes(1);
+
+        /**
+         * Snapshots are taken as of this long ago, past the transactions still committing their movements
+         */
+        private Duration snapshotSettleDelay = Duration.ofSeconds(10);
+
+        /**
+         * In-memory ledger serving reservations and releases (InventoryLedger)
+         */
+        private Ledger ledger = new Ledger();
+
+        @Getter
+        @Setter
+        public static class Ledger {
+            /**
+             * Serve reserve/release/get from memory with write-behind to the inventory table (single instance only)
+             */
+            private boolean enabled = false;
+
+            /**
+             * Partitions of the ledger, each with its own writer thread and journal
+             */
+            private int shards = 4;
+
+            /**
+             * Directory of the shard journals, replayed at startup after a crash
+             */
+            private String journalDirectory = System.getProperty("java.io.tmpdir") + "/product-catalog/inventory-ledger";
+
+            /**
+             * Maximum delay before the changes of a shard are written to the inventory table
+             */
+            private Duration flushInterval = Duration.ofMillis(100);
+
+            /**
+             * Pending operations of a shard that trigger a flush before the interval
+             */
+            private int flushBatchSize = 1000;
+
+            /**
+             * Queued operations applied with one journal sync (group commit)
+             */
+            private int maxOperationsPerSync = 256;
+
+            /**
+             * Maximum wait of a database write for the shard to hand its products over (fence);
+             * past it the writing transaction fails
+             */
+            private Duration fenceTimeout = Duration.ofSeconds(10);
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class ReadReplicas {
+        /**
+         * Route read-only transactions to the replicas (off: everything uses spring.datasource)
+         */
+        private boolean enabled = false;
+
+        /**
+         * Replica connections
+         */
+        private List<Replica> replicas = new ArrayList<>();
+
+        /**
+         * A replica lagging more than this is skipped until it catches up
+         */
+        private Duration maxLag = Duration.ofSeconds(5);
+
+        /**
+         * Interval between two lag checks
+         */
+        private Duration lagCheckInterval = Duration.ofSeconds(5);
+
+        /**
+         * Query run on a replica returning its lag in seconds (default: PostgreSQL streaming replication;
+         * it also grows while the primary is idle, so keep max-lag above the write interval or use a heartbeat table)
+         */
+        private String lagQuery = "SELECT COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)";
+
+        @Getter
+        @Setter
+        public static class Replica {
+            /**
+             * JDBC URL of the replica
+             */
+            private String url;
+
+            private String username;
+
+            private String password;
+
+            /**
+             * Connection pool size of the replica
+             */
+            private int maximumPoolSize = 10;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Idempotency {
+        /**
+         * Honour the Idempotency-Key header on POST/PUT/PATCH/DELETE under /api
+         */
+        private boolean enabled = true;
+
+        /**
+         * Time a completed request is remembered (retries after that execute again)
+         */
+        private Duration ttl = Duration.ofHours(24);
+
+        /**
+         * Memory budget of the in-memory store, stored response bodies included; least recently used keys go first
+         */
+        private DataSize maxStoreSize = DataSize.ofMegabytes(64);
+
+        /**
+         * Larger response bodies are not stored: a retry gets the status and headers with an empty body
+         */
+        private DataSize maxResponseSize = DataSize.ofMegabytes(1);
+
+        /**
+         * Keyed request bodies up to this size are held in memory to be fingerprinted; larger ones (e.g. imports)
+         * are spooled to a temporary file
+         */
+        private DataSize maxRequestBufferSize = DataSize.ofMegabytes(1);
+
+        /**
+         * Also keep the keys in the idempotency_keys table (several instances, restarts)
+         */
+        private boolean persistent = false;
+
+        /**
+         * A persisted key still executing after this is considered abandoned (its instance died)
+         */
+        private Duration inProgressTimeout = Duration.ofMinutes(1);
+
+        /**
+         * Interval of the job deleting expired persisted keys
+         */
+        private Duration purgeInterval = Duration.ofMinutes(10);
+    }
+}
@@ -0,0 +1,37 @@
+package com.corep.productcatalog.shared.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * In-process cache configuration (Caffeine)
+ * Bounded by size and TTL; hit/miss/eviction counters are recorded and exposed
+ * by Actuator as cache.gets, cache.puts and cache.evictions (/actuator/metrics)
+ *
+ * The cache manager is transaction-aware: puts and evictions made inside a
+ * transaction are applied only after commit, so a rolled back update never
+ * leaves its data in the cache
+ *
+ * In microservices: each service would own its cache (or use a distributed cache like Redis)
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PRODUCTS_CACHE = "products";
+
+    @Bean
+    public CacheManager cacheManager(ApplicationProperties properties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(PRODUCTS_CACHE);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(properties.getCache().getProductsMaxSize())
+                .expireAfterWrite(properties.getCache().getProductsTtl())
+                .recordStats());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
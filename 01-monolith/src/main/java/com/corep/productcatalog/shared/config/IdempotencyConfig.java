@@ -0,0 +1,29 @@
+package com.corep.productcatalog.shared.config;
+
+import com.corep.productcatalog.shared.idempotency.IdempotencyFilter;
+import com.corep.productcatalog.shared.idempotency.IdempotencyStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Idempotency-Key header on the write endpoints under /api (app.idempotency.enabled, on by default)
+ * Lets clients retry POST /products, /reserve, /reservations... after a timeout without applying them twice
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.idempotency", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyConfig {
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore store, ObjectMapper objectMapper,
+                                                                       MeterRegistry meterRegistry,
+                                                                       ApplicationProperties properties) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(
+                new IdempotencyFilter(store, objectMapper, meterRegistry, properties.getIdempotency()));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,50 @@
+package com.corep.productcatalog.shared.config;
+
+import com.corep.productcatalog.shared.metrics.DatabaseStatementCounter;
+import com.corep.productcatalog.shared.metrics.DatabaseStatementMetricsFilter;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Application metrics (Micrometer), exposed by Actuator at /actuator/metrics
+ * - @Timed service methods (catalog.*, inventory.*), tagged with class, method and exception (outcome)
+ * - Repository calls: spring.data.repository.invocations (recorded by Spring Boot)
+ * - HTTP requests: http.server.requests (per endpoint and status) and the SQL statements per request
+ *
+ * Percentiles and histograms are configured in application.yml (management.metrics.distribution)
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Required for @Timed on arbitrary beans (Spring Boot only times the web layer by itself)
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public DatabaseStatementCounter databaseStatementCounter() {
+        return new DatabaseStatementCounter();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer(DatabaseStatementCounter statementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+    }
+
+    @Bean
+    public FilterRegistrationBean<DatabaseStatementMetricsFilter> databaseStatementMetricsFilter(
+            DatabaseStatementCounter statementCounter, MeterRegistry meterRegistry) {
+        FilterRegistrationBean<DatabaseStatementMetricsFilter> registration =
+                new FilterRegistrationBean<>(new DatabaseStatementMetricsFilter(statementCounter, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,97 @@
+package com.corep.productcatalog.shared.config;
+
+import com.corep.productcatalog.shared.datasource.ReadReplicaRoutingDataSource;
+import com.corep.productcatalog.shared.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read replica routing (app.read-replicas.enabled=true)
+ * Replaces the auto-configured data source: spring.datasource stays the primary (all writes), read-only
+ * transactions go to the replicas listed in app.read-replicas.replicas
+ *
+ * Replicas are asynchronous: a read right after a write may not see it yet (up to max-lag). Code that must
+ * read its own writes should do it inside the read-write transaction.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.read-replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    /**
+     * Primary pool, built from spring.datasource and spring.datasource.hikari as Spring Boot would
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReadReplicaRoutingDataSource readReplicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                                     ApplicationProperties properties) {
+        List<ApplicationProperties.ReadReplicas.Replica> replicas = properties.getReadReplicas().getReplicas();
+        if (replicas.isEmpty()) {
+            throw new IllegalStateException("app.read-replicas.enabled is set but app.read-replicas.replicas is empty");
+        }
+        Map<String, DataSource> replicaDataSources = new LinkedHashMap<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            ApplicationProperties.ReadReplicas.Replica replica = replicas.get(i);
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .build();
+            dataSource.setPoolName("replica-" + (i + 1));
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            replicaDataSources.put(dataSource.getPoolName(), dataSource);
+        }
+        return new ReadReplicaRoutingDataSource(primaryDataSource, replicaDataSources);
+    }
+
+    /**
+     * The data source used by JPA and JdbcTemplate
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadReplicaRoutingDataSource readReplicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readReplicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReadReplicaRoutingDataSource readReplicaRoutingDataSource,
+                                               ApplicationProperties properties, MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(readReplicaRoutingDataSource, properties, meterRegistry);
+    }
+
+    /**
+     * Release the connection at the end of each transaction: with open-in-view the session would otherwise
+     * keep the connection (and so the route) of its first transaction for the whole request
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
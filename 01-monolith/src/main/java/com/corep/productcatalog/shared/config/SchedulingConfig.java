@@ -0,0 +1,15 @@
+package com.corep.productcatalog.shared.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (e.g. category statistics reconcile)
+ * Uses the scheduler auto-configured by Spring Boot (spring.task.scheduling.*), sized in application.yml
+ * with one thread per job: Boot's default single thread would queue the outbox poll and the reservation
+ * expiry behind a long statistics reconcile or inventory snapshot
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,102 @@
+package com.corep.productcatalog.shared.datasource;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes read-only transactions (@Transactional(readOnly = true)) to the read replicas, round robin,
+ * and everything else to the primary
+ *
+ * The route is chosen when a connection is requested, so this data source must be wrapped in a
+ * LazyConnectionDataSourceProxy: the transaction manager asks for a connection before it marks the
+ * transaction read-only, the proxy fetches the real one only at the first statement.
+ * A replica marked unavailable (lagging or down, see ReplicaLagMonitor) is skipped; with no replica
+ * available, reads go to the primary.
+ */
+@Slf4j
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    public static final String PRIMARY = "primary";
+
+    private final List<Replica> replicas;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReadReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas) {
+        this.replicas = replicas.entrySet().stream()
+                .map(entry -> new Replica(entry.getKey(), entry.getValue()))
+                .toList();
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(replicas.size(), 1));
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.isAvailable()) {
+                return replica.getName();
+            }
+        }
+        return PRIMARY;
+    }
+
+    /**
+     * Close the replica pools (the primary is a bean of its own)
+     */
+    @Override
+    public void close() throws IOException {
+        for (Replica replica : replicas) {
+            if (replica.getDataSource() instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    /**
+     * One replica and its routing state, updated by ReplicaLagMonitor
+     */
+    @Getter
+    public static class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+
+        // Not routed to until the first lag check has passed
+        private volatile boolean available;
+        private volatile double lagSeconds = Double.NaN;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public void update(boolean available, double lagSeconds) {
+            if (available != this.available) {
+                log.info("Read replica {} is now {} (lag {} s)", name, available ? "available" : "unavailable", lagSeconds);
+            }
+            this.available = available;
+            this.lagSeconds = lagSeconds;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.corep.productcatalog.shared.datasource;
+
+import com.corep.productcatalog.shared.config.ApplicationProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+
+/**
+ * Replica lag guard
+ * Measures the replication lag of every replica (app.read-replicas.lag-query, run on the replica) and
+ * takes a replica out of the read routing while its lag exceeds app.read-replicas.max-lag or it cannot
+ * be queried; it is routed to again as soon as a check passes.
+ *
+ * Lag is exposed as datasource.replica.lag (seconds) and availability as datasource.replica.available,
+ * tagged by replica.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final ReadReplicaRoutingDataSource routingDataSource;
+    private final String lagQuery;
+    private final Duration maxLag;
+
+    public ReplicaLagMonitor(ReadReplicaRoutingDataSource routingDataSource, ApplicationProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.routingDataSource = routingDataSource;
+        this.lagQuery = properties.getReadReplicas().getLagQuery();
+        this.maxLag = properties.getReadReplicas().getMaxLag();
+        for (ReadReplicaRoutingDataSource.Replica replica : routingDataSource.getReplicas()) {
+            Gauge.builder("datasource.replica.lag", replica, ReadReplicaRoutingDataSource.Replica::getLagSeconds)
+                    .description("Replication lag of the read replica")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+            Gauge.builder("datasource.replica.available", replica, r -> r.isAvailable() ? 1 : 0)
+                    .description("1 if read-only transactions are routed to the replica")
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.read-replicas.lag-check-interval:PT5S}")
+    public void checkReplicas() {
+        for (ReadReplicaRoutingDataSource.Replica replica : routingDataSource.getReplicas()) {
+            try {
+                Double lag = new JdbcTemplate(replica.getDataSource()).queryForObject(lagQuery, Double.class);
+                double lagSeconds = lag == null ? 0 : lag;
+                replica.update(lagSeconds * 1000 <= maxLag.toMillis(), lagSeconds);
+            } catch (RuntimeException e) {
+                log.warn("Lag check of read replica {} failed: {}", replica.getName(), e.getMessage());
+                replica.update(false, Double.NaN);
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.corep.productcatalog.shared.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,393 @@
+package com.corep.productcatalog.shared.idempotency;
+
+import com.corep.productcatalog.shared.config.ApplicationProperties;
+import com.corep.productcatalog.shared.exception.GlobalExceptionHandler.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import jakarta.servlet.http.Part;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Idempotency-Key support for write requests (POST, PUT, PATCH, DELETE)
+ *
+ * A client retrying after a timeout sends the same Idempotency-Key header: the first request is executed
+ * and its 2xx response stored (IdempotencyStore); the duplicates get that response back, with the header
+ * Idempotent-Replayed: true, without reaching the controller. A request answered with an error changed
+ * nothing (its transaction rolled back), so its key is released and a retry executes again.
+ *
+ * - 409 Conflict: the first request with the key is still executing
+ * - 422 Unprocessable Entity: the key was already used for another request (other body or parameters)
+ *
+ * Requests without the header are passed through untouched.
+ *
+ * The body of a keyed request is read and fingerprinted before it executes: kept in memory up to
+ * app.idempotency.max-request-buffer-size, spooled to a temporary file past it (e.g. a streamed import), so
+ * memory stays bounded whatever the body size. The response goes straight to the client; the copy kept for
+ * the store stops at app.idempotency.max-response-size (larger responses are stored without their body).
+ */
+@RequiredArgsConstructor
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationProperties.Idempotency settings;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !WRITE_METHODS.contains(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY_HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST,
+                    IDEMPOTENCY_KEY_HEADER + " must have between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        // Multipart bodies are parsed by the container from the original stream: fingerprinted by their parts
+        boolean multipart = request.getContentType() != null
+                && request.getContentType().startsWith(MediaType.MULTIPART_FORM_DATA_VALUE);
+        if (multipart) {
+            Collection<Part> parts;
+            try {
+                parts = request.getParts();
+            } catch (IllegalStateException | ServletException e) {
+                // Malformed or too large: rejected by the dispatcher without executing anything
+                chain.doFilter(request, response);
+                return;
+            }
+            handle(request, response, chain, key, fingerprint(request.getQueryString(), parts));
+            return;
+        }
+        // Parameters first: a form body is consumed by the container when they are parsed
+        String parameters = new TreeMap<>(request.getParameterMap()).entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + String.join(",", entry.getValue()))
+                .collect(Collectors.joining("&"));
+        try (CachedBodyRequest cached = new CachedBodyRequest(request, digest(parameters),
+                settings.getMaxRequestBufferSize().toBytes())) {
+            handle(cached, response, chain, key, cached.fingerprint);
+        }
+    }
+
+    private void handle(HttpServletRequest request, HttpServletResponse response, FilterChain chain, String key,
+                        String fingerprint) throws ServletException, IOException {
+        String requestKey = request.getMethod() + " " + request.getRequestURI() + " " + key;
+        IdempotencyStore.Claim claim = store.claim(requestKey, fingerprint);
+        record(claim.outcome());
+        switch (claim.outcome()) {
+            case REPLAY -> replay(response, claim.response());
+            case IN_PROGRESS -> writeError(response, HttpStatus.CONFLICT,
+                    "A request with this " + IDEMPOTENCY_KEY_HEADER + " is still being processed");
+            case MISMATCH -> writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    "This " + IDEMPOTENCY_KEY_HEADER + " was already used for a different request");
+            case EXECUTE -> execute(request, response, chain, requestKey, fingerprint);
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+                         String requestKey, String fingerprint) throws ServletException, IOException {
+        CapturingResponse captured = new CapturingResponse(response, settings.getMaxResponseSize().toBytes());
+        boolean stored = false;
+        try {
+            chain.doFilter(request, captured);
+            if (HttpStatus.valueOf(captured.getStatus()).is2xxSuccessful()) {
+                byte[] body = captured.body();
+                IdempotentResponse executed = new IdempotentResponse(captured.getStatus(), captured.getContentType(),
+                        captured.getHeader(HttpHeaders.LOCATION), captured.getHeader(HttpHeaders.ETAG),
+                        body == null ? new byte[0] : body);
+                store.complete(requestKey, fingerprint, body == null ? executed.withoutBody() : executed);
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                store.release(requestKey);
+            }
+        }
+    }
+
+    private void replay(HttpServletResponse response, IdempotentResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.location());
+        }
+        if (stored.eTag() != null) {
+            response.setHeader(HttpHeaders.ETAG, stored.eTag());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(status.value(), message, LocalDateTime.now()));
+    }
+
+    /**
+     * Name, file name, content type and content of every part, in order (contents streamed from the container)
+     */
+    private String fingerprint(String parameters, Collection<Part> parts) throws IOException {
+        MessageDigest digest = digest(parameters);
+        for (Part part : parts) {
+            digest.update((part.getName() + "\n" + part.getSubmittedFileName() + "\n" + part.getContentType() + "\n"
+                    + part.getSize() + "\n").getBytes(StandardCharsets.UTF_8));
+            try (InputStream content = new DigestInputStream(part.getInputStream(), digest)) {
+                content.transferTo(OutputStream.nullOutputStream());
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private MessageDigest digest(String parameters) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            if (parameters != null) {
+                digest.update(parameters.getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) '\n');
+            return digest;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * idempotency.requests, tagged by outcome (execute, replay, in_progress, mismatch)
+     */
+    private void record(IdempotencyStore.Outcome outcome) {
+        meterRegistry.counter("idempotency.requests", "outcome", outcome.name().toLowerCase(Locale.ROOT)).increment();
+    }
+
+    /**
+     * Request whose body has been read up front (to fingerprint it) and can be read again by the controller
+     * The body is kept in memory up to maxInMemory bytes, in a temporary file past it (deleted by close())
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper implements Closeable {
+
+        private final byte[] body;
+        private final Path spooled;
+        private final String fingerprint;
+
+        CachedBodyRequest(HttpServletRequest request, MessageDigest digest, long maxInMemory) throws IOException {
+            super(request);
+            InputStream input = new DigestInputStream(request.getInputStream(), digest);
+            byte[] head = input.readNBytes((int) Math.min(maxInMemory + 1, Integer.MAX_VALUE - 8));
+            if (head.length <= maxInMemory) {
+                this.body = head;
+                this.spooled = null;
+            } else {
+                this.body = null;
+                this.spooled = Files.createTempFile("idempotent-request-", ".body");
+                try (OutputStream file = Files.newOutputStream(spooled)) {
+                    file.write(head);
+                    input.transferTo(file);
+                } catch (IOException e) {
+                    Files.deleteIfExists(spooled);
+                    throw e;
+                }
+            }
+            this.fingerprint = HexFormat.of().formatHex(digest.digest());
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            InputStream input = body != null ? new ByteArrayInputStream(body) : Files.newInputStream(spooled);
+            return new ServletInputStream() {
+                @Override
+                public int read() throws IOException {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    return input.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    try {
+                        return input.available() == 0;
+                    } catch (IOException e) {
+                        return true;
+                    }
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException(
+                            "Non-blocking reads are not supported: the body was read up front by IdempotencyFilter");
+                }
+
+                @Override
+                public void close() throws IOException {
+                    input.close();
+                }
+            };
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (spooled != null) {
+                Files.deleteIfExists(spooled);
+            }
+        }
+    }
+
+    /**
+     * Response written straight through to the client, with a copy of its body for the store as long as it fits
+     * in limit bytes
+     */
+    private static class CapturingResponse extends HttpServletResponseWrapper {
+
+        private final ByteArrayOutputStream copy = new ByteArrayOutputStream();
+        private final long limit;
+        private boolean overflow;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        CapturingResponse(HttpServletResponse response, long limit) {
+            super(response);
+            this.limit = limit;
+        }
+
+        /**
+         * Body written so far, null if it exceeded the limit
+         */
+        byte[] body() {
+            if (writer != null) {
+                writer.flush();
+            }
+            return overflow ? null : copy.toByteArray();
+        }
+
+        private void capture(byte[] buffer, int offset, int length) {
+            if (overflow) {
+                return;
+            }
+            if (copy.size() + (long) length > limit) {
+                overflow = true;
+                copy.reset();
+                return;
+            }
+            copy.write(buffer, offset, length);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream target = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        target.write(b);
+                        capture(new byte[]{(byte) b}, 0, 1);
+                    }
+
+                    @Override
+                    public void write(byte[] buffer, int offset, int length) throws IOException {
+                        target.write(buffer, offset, length);
+                        capture(buffer, offset, length);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        target.flush();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return target.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        target.setWriteListener(listener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            super.flushBuffer();
+        }
+    }
+}
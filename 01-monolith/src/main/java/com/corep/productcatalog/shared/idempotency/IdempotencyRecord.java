@@ -0,0 +1,58 @@
+package com.corep.productcatalog.shared.idempotency;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persisted idempotency key (app.idempotency.persistent): shared by all instances and kept across restarts
+ * A row without status is a request still executing; expired rows are ignored and purged
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    /**
+     * Method, path and client key, e.g. "POST /api/v1/products 3f1c..."
+     */
+    @Id
+    @Column(name = "request_key", length = 512)
+    private String requestKey;
+
+    /**
+     * Hash of the request (query string and body): the same key with another request is rejected
+     */
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    /**
+     * HTTP status of the stored response (null: still executing)
+     */
+    private Integer status;
+
+    @Column(name = "content_type", length = 255)
+    private String contentType;
+
+    @Column(length = 2048)
+    private String location;
+
+    @Column(name = "etag", length = 255)
+    private String eTag;
+
+    /**
+     * Response body (bytea on PostgreSQL); responses above app.idempotency.max-response-size are not stored
+     */
+    @Column(name = "body", length = 1_048_576)
+    private byte[] body;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,30 @@
+package com.corep.productcatalog.shared.idempotency;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency Record Repository
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Delete the expired keys (range scan on idx_idempotency_keys_expires_at)
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    /**
+     * Delete one key only if it has expired, so a live key of another instance is never taken over
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.requestKey = :requestKey AND r.expiresAt < :now")
+    int deleteIfExpired(@Param("requestKey") String requestKey, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,200 @@
+package com.corep.productcatalog.shared.idempotency;
+
+import com.corep.productcatalog.shared.config.ApplicationProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Idempotency Store
+ * Remembers, per idempotency key, the fingerprint of the request and its response once it has completed
+ *
+ * Keys live in a Caffeine map bounded by weight (app.idempotency.max-store-size, the stored bodies count)
+ * and evicted app.idempotency.ttl after their last write: a lookup is one hash map access, cheap enough
+ * for every write request. The claim is an atomic putIfAbsent, so two concurrent duplicates cannot both run.
+ *
+ * With app.idempotency.persistent the keys are also written to the idempotency_keys table, shared by all
+ * instances and kept across restarts: a claim inserts the row (the primary key decides between concurrent
+ * duplicates) and only a local miss reads the table. A row still executing after
+ * app.idempotency.in-progress-timeout (its instance died) can be claimed again.
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+    public enum Outcome {
+        /**
+         * First request with this key: execute it, then complete() or release()
+         */
+        EXECUTE,
+        /**
+         * Completed before: send the stored response
+         */
+        REPLAY,
+        /**
+         * The first request with this key is still executing
+         */
+        IN_PROGRESS,
+        /**
+         * The key was used for a different request
+         */
+        MISMATCH
+    }
+
+    public record Claim(Outcome outcome, IdempotentResponse response) {
+    }
+
+    private static final Claim EXECUTE = new Claim(Outcome.EXECUTE, null);
+
+    private final Cache<String, Entry> entries;
+    private final IdempotencyRecordRepository repository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationProperties.Idempotency settings;
+
+    public IdempotencyStore(IdempotencyRecordRepository repository, EntityManager entityManager,
+                            TransactionTemplate transactionTemplate, ApplicationProperties properties) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.settings = properties.getIdempotency();
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(settings.getMaxStoreSize().toBytes())
+                .weigher((String key, Entry entry) -> 2 * key.length() + entry.weight())
+                .expireAfterWrite(settings.getTtl())
+                .build();
+    }
+
+    /**
+     * Claim a key for a request, or find out what to answer instead of executing it
+     */
+    public Claim claim(String requestKey, String fingerprint) {
+        Entry placeholder = new Entry(fingerprint, null);
+        Entry existing = entries.asMap().putIfAbsent(requestKey, placeholder);
+        if (existing != null) {
+            return decide(existing.fingerprint(), existing.response(), fingerprint);
+        }
+        if (!settings.isPersistent()) {
+            return EXECUTE;
+        }
+        Claim claim;
+        try {
+            claim = claimPersistent(requestKey, fingerprint);
+        } catch (RuntimeException e) {
+            entries.asMap().remove(requestKey, placeholder);
+            throw e;
+        }
+        if (claim.outcome() != Outcome.EXECUTE) {
+            // Claimed by another instance: remember its response locally, the next duplicates skip the table
+            entries.asMap().remove(requestKey, placeholder);
+            if (claim.outcome() == Outcome.REPLAY) {
+                entries.put(requestKey, new Entry(fingerprint, claim.response()));
+            }
+        }
+        return claim;
+    }
+
+    /**
+     * Store the response of a claimed request (replayed until the key expires)
+     * A body above app.idempotency.max-response-size is not stored: the key stays claimed and its duplicates
+     * get the status and headers with an empty body (the request is not executed twice)
+     */
+    public void complete(String requestKey, String fingerprint, IdempotentResponse response) {
+        if (response.body().length > settings.getMaxResponseSize().toBytes()) {
+            log.debug("Response of {} too large to be stored ({} bytes), storing it without its body", requestKey,
+                    response.body().length);
+            response = response.withoutBody();
+        }
+        IdempotentResponse stored = response;
+        entries.put(requestKey, new Entry(fingerprint, stored));
+        if (settings.isPersistent()) {
+            transactionTemplate.executeWithoutResult(status -> repository.findById(requestKey).ifPresent(record -> {
+                record.setStatus(stored.status());
+                record.setContentType(stored.contentType());
+                record.setLocation(stored.location());
+                record.setETag(stored.eTag());
+                record.setBody(stored.body());
+                record.setExpiresAt(LocalDateTime.now().plus(settings.getTtl()));
+            }));
+        }
+    }
+
+    /**
+     * Forget a claimed key (the request failed and changed nothing): a retry executes again
+     */
+    public void release(String requestKey) {
+        entries.invalidate(requestKey);
+        if (settings.isPersistent()) {
+            transactionTemplate.executeWithoutResult(status -> repository.deleteById(requestKey));
+        }
+    }
+
+    /**
+     * Delete the expired persisted keys (the in-memory ones are evicted by Caffeine)
+     */
+    @Scheduled(initialDelayString = "${app.idempotency.purge-interval:PT10M}",
+            fixedDelayString = "${app.idempotency.purge-interval:PT10M}")
+    public void purgeExpired() {
+        if (!settings.isPersistent()) {
+            return;
+        }
+        Integer deleted = transactionTemplate.execute(status -> repository.deleteExpired(LocalDateTime.now()));
+        log.debug("Purged {} expired idempotency keys", deleted);
+    }
+
+    /**
+     * Insert the row of the key; on a duplicate, answer from the existing row
+     * An expired row (finished long ago, or left executing by a dead instance) is deleted and the insert retried once
+     */
+    private Claim claimPersistent(String requestKey, String fingerprint) {
+        for (int attempt = 1; attempt <= 2; attempt++) {
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                transactionTemplate.executeWithoutResult(status -> entityManager.persist(new IdempotencyRecord(
+                        requestKey, fingerprint, null, null, null, null, null,
+                        now.plus(settings.getInProgressTimeout()))));
+                return EXECUTE;
+            } catch (DataIntegrityViolationException e) {
+                IdempotencyRecord record = transactionTemplate.execute(status ->
+                        repository.findById(requestKey).orElse(null));
+                if (record == null) {
+                    continue; // released meanwhile
+                }
+                if (record.getExpiresAt().isBefore(now)) {
+                    transactionTemplate.execute(status -> repository.deleteIfExpired(requestKey, now));
+                    continue;
+                }
+                IdempotentResponse response = record.getStatus() == null ? null : new IdempotentResponse(
+                        record.getStatus(), record.getContentType(), record.getLocation(), record.getETag(),
+                        record.getBody() == null ? new byte[0] : record.getBody());
+                return decide(record.getFingerprint(), response, fingerprint);
+            }
+        }
+        return new Claim(Outcome.IN_PROGRESS, null);
+    }
+
+    private Claim decide(String storedFingerprint, IdempotentResponse response, String fingerprint) {
+        if (!Objects.equals(storedFingerprint, fingerprint)) {
+            return new Claim(Outcome.MISMATCH, null);
+        }
+        return response == null ? new Claim(Outcome.IN_PROGRESS, null) : new Claim(Outcome.REPLAY, response);
+    }
+
+    /**
+     * Fingerprint of the request and its response (null while it executes)
+     */
+    private record Entry(String fingerprint, IdempotentResponse response) {
+
+        int weight() {
+            return 64 + (response == null ? 0 : response.body().length);
+        }
+    }
+}
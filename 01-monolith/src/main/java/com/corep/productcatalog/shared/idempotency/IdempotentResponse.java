@@ -0,0 +1,14 @@
+package com.corep.productcatalog.shared.idempotency;
+
+/**
+ * Response of the first execution of an idempotent request, replayed for its duplicates
+ */
+public record IdempotentResponse(int status, String contentType, String location, String eTag, byte[] body) {
+
+    /**
+     * Same status, Location and ETag, without the body (and so without its content type)
+     */
+    public IdempotentResponse withoutBody() {
+        return new IdempotentResponse(status, null, location, eTag, new byte[0]);
+    }
+}
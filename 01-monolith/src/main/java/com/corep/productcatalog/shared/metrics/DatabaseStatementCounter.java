@@ -0,0 +1,35 @@
+package com.corep.productcatalog.shared.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate sends to the database on the current thread
+ * Counting is active only between start() and stop() (one HTTP request, see DatabaseStatementMetricsFilter);
+ * statements run by background jobs or through JdbcTemplate are not counted
+ */
+public class DatabaseStatementCounter implements StatementInspector {
+
+    private final ThreadLocal<int[]> statements = new ThreadLocal<>();
+
+    public void start() {
+        statements.set(new int[1]);
+    }
+
+    /**
+     * Stop counting on this thread and return the number of statements since start()
+     */
+    public int stop() {
+        int[] count = statements.get();
+        statements.remove();
+        return count == null ? 0 : count[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = statements.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+}
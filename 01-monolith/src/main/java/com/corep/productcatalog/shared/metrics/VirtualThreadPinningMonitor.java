@@ -0,0 +1,84 @@
+package com.corep.productcatalog.shared.metrics;
+
+import com.corep.productcatalog.shared.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Pinning diagnostics for virtual threads
+ * A virtual thread blocking while pinned to its carrier (inside synchronized, or in native code) holds
+ * one of the few carrier threads and silently limits throughput. The JFR event jdk.VirtualThreadPinned
+ * is streamed in-process: each pinning longer than app.virtual-threads.pinning-threshold is recorded
+ * in the jvm.threads.virtual.pinned timer and logged with the blocking frame.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final ApplicationProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private RecordingStream recordingStream;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (Runtime.version().feature() < 21) {
+            log.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads: using platform threads",
+                    Runtime.version().feature());
+            return;
+        }
+        Timer pinned = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads blocked while pinned to their carrier thread")
+                .register(meterRegistry);
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT)
+                .withThreshold(properties.getVirtualThreads().getPinningThreshold())
+                .withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, event -> {
+            pinned.record(event.getDuration());
+            log.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), blockingFrame(event));
+        });
+        recordingStream.startAsync();
+        log.info("Virtual threads enabled, reporting pinning longer than {}",
+                properties.getVirtualThreads().getPinningThreshold());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    /**
+     * First frame of the application in the stack (or the top frame)
+     */
+    private String blockingFrame(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "unknown location";
+        }
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        RecordedFrame frame = frames.stream()
+                .filter(candidate -> candidate.getMethod().getType().getName().startsWith("com.corep."))
+                .findFirst()
+                .orElse(frames.isEmpty() ? null : frames.get(0));
+        return frame == null ? "unknown location"
+                : frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
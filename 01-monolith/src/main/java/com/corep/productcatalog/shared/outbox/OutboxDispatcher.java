@@ -0,0 +1,160 @@
+package com.corep.productcatalog.shared.outbox;
+
+import com.corep.productcatalog.shared.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Outbox Dispatcher
+ * Polls the outbox table every app.outbox.poll-interval and delivers the due events to the handlers
+ *
+ * Events are read in batches (app.outbox.batch-size), in id order; consecutive events of the same type
+ * are handed to their handler together, and the batch is handled and deleted in one transaction.
+ * If the batch fails, its events are retried one by one so a single bad event cannot block the others:
+ * the failing ones are rescheduled with exponential backoff (app.outbox.retry-backoff, capped at
+ * app.outbox.max-retry-backoff) and keep their last error.
+ *
+ * Metrics: outbox.events.dispatched, outbox.events.failed (by type) and outbox.events.lag
+ * (time from the write to the delivery)
+ */
+@Component
+@Slf4j
+public class OutboxDispatcher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationProperties.Outbox settings;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, OutboxEventHandler> handlers = new HashMap<>();
+
+    /**
+     * One dispatch at a time in this instance (scheduler and explicit calls)
+     */
+    private final ReentrantLock dispatchLock = new ReentrantLock();
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository, TransactionTemplate transactionTemplate,
+                            ApplicationProperties properties, MeterRegistry meterRegistry,
+                            List<OutboxEventHandler> handlers) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.settings = properties.getOutbox();
+        this.meterRegistry = meterRegistry;
+        for (OutboxEventHandler handler : handlers) {
+            handler.eventTypes().forEach(type -> {
+                if (this.handlers.putIfAbsent(type, handler) != null) {
+                    throw new IllegalStateException("Several outbox handlers for event type " + type);
+                }
+            });
+        }
+    }
+
+    /**
+     * Deliver all the events due now
+     * @return number of events delivered
+     */
+    @Scheduled(initialDelayString = "${app.outbox.poll-interval:PT0.5S}",
+            fixedDelayString = "${app.outbox.poll-interval:PT0.5S}")
+    public int dispatchPending() {
+        dispatchLock.lock();
+        try {
+            int delivered = 0;
+            while (true) {
+                List<OutboxEvent> batch = new ArrayList<>();
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        batch.addAll(outboxEventRepository.findDue(LocalDateTime.now(),
+                                PageRequest.of(0, settings.getBatchSize())));
+                        deliver(batch);
+                        outboxEventRepository.deleteAllInBatch(batch);
+                    });
+                    batch.forEach(this::recordDelivery);
+                    delivered += batch.size();
+                } catch (RuntimeException e) {
+                    if (batch.isEmpty()) {
+                        throw e;
+                    }
+                    log.warn("Outbox batch of {} events failed, retrying them one by one: {}", batch.size(), e.getMessage());
+                    delivered += dispatchOneByOne(batch);
+                }
+                if (batch.size() < settings.getBatchSize()) {
+                    return delivered;
+                }
+            }
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
+    private int dispatchOneByOne(List<OutboxEvent> events) {
+        int delivered = 0;
+        for (OutboxEvent event : events) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    deliver(List.of(event));
+                    outboxEventRepository.deleteAllByIdInBatch(List.of(event.getId()));
+                });
+                recordDelivery(event);
+                delivered++;
+            } catch (RuntimeException e) {
+                reschedule(event, e);
+            }
+        }
+        return delivered;
+    }
+
+    /**
+     * Hand consecutive events of the same type to their handler together (keeps the order of the events)
+     */
+    private void deliver(List<OutboxEvent> events) {
+        int start = 0;
+        while (start < events.size()) {
+            String type = events.get(start).getEventType();
+            int end = start;
+            List<Long> aggregateIds = new ArrayList<>();
+            while (end < events.size() && events.get(end).getEventType().equals(type)) {
+                aggregateIds.add(events.get(end).getAggregateId());
+                end++;
+            }
+            OutboxEventHandler handler = handlers.get(type);
+            if (handler == null) {
+                throw new IllegalStateException("No outbox handler for event type " + type);
+            }
+            handler.handle(type, aggregateIds);
+            start = end;
+        }
+    }
+
+    private void reschedule(OutboxEvent event, RuntimeException error) {
+        int attempts = event.getAttempts() + 1;
+        Duration backoff = settings.getRetryBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        if (backoff.compareTo(settings.getMaxRetryBackoff()) > 0) {
+            backoff = settings.getMaxRetryBackoff();
+        }
+        event.setAttempts(attempts);
+        event.setNextAttemptAt(LocalDateTime.now().plus(backoff));
+        String message = String.valueOf(error.getMessage());
+        event.setLastError(message.length() > 500 ? message.substring(0, 500) : message);
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.save(event));
+        meterRegistry.counter("outbox.events.failed", "type", event.getEventType()).increment();
+        log.error("Outbox event {} ({} {}) failed {} times, next attempt in {}: {}", event.getId(),
+                event.getEventType(), event.getAggregateId(), attempts, backoff, message);
+    }
+
+    private void recordDelivery(OutboxEvent event) {
+        meterRegistry.counter("outbox.events.dispatched", "type", event.getEventType()).increment();
+        meterRegistry.timer("outbox.events.lag", "type", event.getEventType())
+                .record(Duration.between(event.getCreatedAt(), LocalDateTime.now()));
+    }
+}
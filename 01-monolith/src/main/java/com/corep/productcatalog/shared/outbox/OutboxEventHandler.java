@@ -0,0 +1,21 @@
+package com.corep.productcatalog.shared.outbox;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Consumer of outbox events, called by OutboxDispatcher inside the dispatch transaction
+ * Delivery is at-least-once: handling the same event twice must be harmless
+ */
+public interface OutboxEventHandler {
+
+    /**
+     * Event types handled by this handler
+     */
+    Set<String> eventTypes();
+
+    /**
+     * Handle a batch of events of one type (aggregate ids in event order)
+     */
+    void handle(String eventType, List<Long> aggregateIds);
+}
@@ -0,0 +1,36 @@
+package com.corep.productcatalog.shared.web;
+
+/**
+ * Entity tags (ETag) built from an entity's version column, and If-Match evaluation (RFC 9110)
+ * The same tag is sent in the ETag header of reads and expected back in If-Match by conditional writes
+ */
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    /**
+     * Strong ETag of a versioned entity, e.g. "p42-v3" for version 3 of product 42
+     */
+    public static String versioned(String kind, Long id, Long version) {
+        return "\"" + kind + id + "-v" + version + "\"";
+    }
+
+    /**
+     * Whether an If-Match header allows a write on the entity currently tagged eTag
+     * A missing header always matches (unconditional write); "*" matches any existing entity.
+     * Weak tags never match: If-Match uses the strong comparison.
+     */
+    public static boolean matches(String ifMatch, String eTag) {
+        if (ifMatch == null) {
+            return true;
+        }
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
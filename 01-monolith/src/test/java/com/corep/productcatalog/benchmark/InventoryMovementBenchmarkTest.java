@@ -0,0 +1,141 @@
+package com.corep.productcatalog.benchmark;
+
+import com.corep.productcatalog.inventory.entity.InventoryMovement;
+import com.corep.productcatalog.inventory.repository.InventoryRepository;
+import com.corep.productcatalog.inventory.service.InventoryMovementService;
+import com.corep.productcatalog.inventory.service.InventoryService;
+import com.corep.productcatalog.inventory.service.StockReservationEngine;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Cost of the movement journal in a reservation transaction
+ * Compares reservations alone, reservations with their movement inserted before commit (InventoryMovementService),
+ * and movements inserted in batches of BATCH_SIZE per transaction, the best a writer batching across
+ * transactions could do
+ *
+ * Run with: mvn -Pbenchmark test -Dtest=InventoryMovementBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@Slf4j
+class InventoryMovementBenchmarkTest {
+
+    private static final long FIRST_PRODUCT_ID = 810_000L;
+    private static final int MAX_THREADS = 8;
+    private static final int BATCH_SIZE = 64;
+    private static final int OPERATIONS_PER_THREAD = Integer.getInteger("benchmark.operationsPerThread", 2_000);
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private StockReservationEngine stockReservationEngine;
+
+    @Autowired
+    private InventoryMovementService movementService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        for (long i = 0; i < MAX_THREADS; i++) {
+            inventoryService.createInventory(FIRST_PRODUCT_ID + i, Integer.MAX_VALUE / 2);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (long i = 0; i < MAX_THREADS; i++) {
+            inventoryRepository.findByProductId(FIRST_PRODUCT_ID + i).ifPresent(inventoryRepository::delete);
+        }
+        jdbcTemplate.update("DELETE FROM inventory_movements WHERE product_id >= ? AND product_id < ?",
+                FIRST_PRODUCT_ID, FIRST_PRODUCT_ID + MAX_THREADS);
+    }
+
+    @Test
+    void benchmarkMovementJournal() throws Exception {
+        LongConsumer reservation = productId -> transactionTemplate.executeWithoutResult(status ->
+                stockReservationEngine.reserve(productId, 1));
+        LongConsumer reservationWithMovement = productId -> transactionTemplate.executeWithoutResult(status -> {
+            stockReservationEngine.reserve(productId, 1);
+            movementService.record(productId, InventoryMovement.Type.RESERVE, 0, 1);
+        });
+        LongConsumer movementBatch = productId -> transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                movementService.record(productId, InventoryMovement.Type.RESERVE, 0, 1);
+            }
+        });
+
+        // Warm-up (JIT, connection pool)
+        run(MAX_THREADS, reservationWithMovement, 1);
+
+        List<String> results = new ArrayList<>();
+        for (int threads : new int[]{1, MAX_THREADS}) {
+            results.add(String.format("%-2d threads | reservation: %8.0f tx/s | reservation + movement: %8.0f tx/s" +
+                            " | movements in batches of %d: %8.0f movements/s",
+                    threads, run(threads, reservation, 1), run(threads, reservationWithMovement, 1),
+                    BATCH_SIZE, run(threads, movementBatch, BATCH_SIZE)));
+        }
+        log.info("Movement journal benchmark ({} operations per thread):\n{}",
+                OPERATIONS_PER_THREAD, String.join("\n", results));
+    }
+
+    /**
+     * @return operations per second, an operation being a call of work times perCall
+     */
+    private double run(int threads, LongConsumer work, int perCall) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        LongAdder completed = new LongAdder();
+        int calls = OPERATIONS_PER_THREAD / perCall;
+
+        for (int t = 0; t < threads; t++) {
+            long productId = FIRST_PRODUCT_ID + t;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < calls; i++) {
+                    work.accept(productId);
+                    completed.add(perCall);
+                }
+                return null;
+            });
+        }
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.MINUTES);
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        assertEquals((long) threads * calls * perCall, completed.sum());
+        return completed.sum() / (elapsedNanos / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,110 @@
+package com.corep.productcatalog.benchmark;
+
+import com.corep.productcatalog.inventory.dto.InventoryDTO;
+import com.corep.productcatalog.inventory.service.InventoryService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Latency benchmark for the low-stock dashboard query on a large inventory table (default 1M rows)
+ * Compares the former expression filter (stock_quantity - reserved_quantity), which forces a full scan,
+ * with the indexed available_quantity column, both for the whole result and for one page
+ *
+ * Run with: mvn -Pbenchmark test -Dtest=LowStockQueryBenchmarkTest -Dbenchmark.inventoryRows=1000000
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@Slf4j
+class LowStockQueryBenchmarkTest {
+
+    private static final long FIRST_PRODUCT_ID = 10_000_000L;
+    private static final int ROWS = Integer.getInteger("benchmark.inventoryRows", 1_000_000);
+    private static final int THRESHOLD = 10;
+    private static final int PAGE_SIZE = 50;
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 100);
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Available quantities spread over 0..999: about 1% of the rows are below the threshold
+        jdbcTemplate.update("INSERT INTO inventory (id, product_id, stock_quantity, reserved_quantity, " +
+                        "available_quantity, last_updated) " +
+                        "SELECT X + ?, X + ?, MOD(X * 7919, 1000), 0, MOD(X * 7919, 1000), CURRENT_TIMESTAMP " +
+                        "FROM SYSTEM_RANGE(1, ?)",
+                FIRST_PRODUCT_ID, FIRST_PRODUCT_ID, ROWS);
+        jdbcTemplate.execute("ANALYZE TABLE inventory");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM inventory WHERE product_id > ?", FIRST_PRODUCT_ID);
+    }
+
+    @Test
+    void benchmarkLowStockQuery() {
+        String expressionQuery = "SELECT * FROM inventory WHERE (stock_quantity - reserved_quantity) < ?";
+        String indexedQuery = "SELECT * FROM inventory WHERE available_quantity < ? ORDER BY available_quantity, id";
+        String indexedPageQuery = indexedQuery + " OFFSET ? ROWS FETCH FIRST ? ROWS ONLY";
+
+        int expected = jdbcTemplate.queryForList(expressionQuery, THRESHOLD).size();
+        assertEquals(expected, jdbcTemplate.queryForList(indexedQuery, THRESHOLD).size());
+
+        // Same access path (JdbcTemplate) for the three SQL shapes, then the whole service call
+        double expressionMillis = measure(() -> jdbcTemplate.queryForList(expressionQuery, THRESHOLD));
+        double indexedMillis = measure(() -> jdbcTemplate.queryForList(indexedQuery, THRESHOLD));
+        double pageMillis = measure(() -> jdbcTemplate.queryForList(indexedPageQuery, THRESHOLD, 0, PAGE_SIZE + 1));
+        double serviceMillis = measure(() -> {
+            Slice<InventoryDTO> page = inventoryService.getLowStockItems(THRESHOLD, PageRequest.of(0, PAGE_SIZE));
+            assertTrue(page.hasNext());
+            return page.getContent();
+        });
+
+        log.info("Low-stock query on {} inventory rows ({} matching, average of {} runs):\n" +
+                        "expression filter, all rows        : {} ms\n" +
+                        "indexed column, all rows           : {} ms ({}x)\n" +
+                        "indexed column, page of {}         : {} ms ({}x)\n" +
+                        "InventoryService.getLowStockItems  : {} ms",
+                ROWS, expected, ITERATIONS,
+                format(expressionMillis),
+                format(indexedMillis), format(expressionMillis / indexedMillis),
+                PAGE_SIZE, format(pageMillis), format(expressionMillis / pageMillis),
+                format(serviceMillis));
+    }
+
+    private double measure(Supplier<List<?>> query) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            query.get();
+        }
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            query.get();
+        }
+        return (System.nanoTime() - startNanos) / 1_000_000.0 / ITERATIONS;
+    }
+
+    private String format(double value) {
+        return String.format("%.2f", value);
+    }
+}
@@ -0,0 +1,94 @@
+package com.corep.productcatalog.benchmark;
+
+import com.corep.productcatalog.catalog.dto.ProductDTO;
+import com.corep.productcatalog.catalog.event.ProductCreatedEvent;
+import com.corep.productcatalog.catalog.repository.ProductRepository;
+import com.corep.productcatalog.catalog.service.ProductAutocompleteIndex;
+import com.corep.productcatalog.shared.config.ApplicationProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Latency benchmark for the autocomplete trie: build time, memory and per-keystroke lookup percentiles
+ * on a large catalog (default 200k products), without Spring or database
+ *
+ * Run with: mvn -Pbenchmark test -Dtest=ProductAutocompleteBenchmarkTest -Dbenchmark.products=200000
+ */
+@Tag("benchmark")
+@Slf4j
+class ProductAutocompleteBenchmarkTest {
+
+    private static final int PRODUCTS = Integer.getInteger("benchmark.products", 200_000);
+    private static final int LOOKUPS = Integer.getInteger("benchmark.lookups", 200_000);
+
+    private static final String[] ADJECTIVES = {"wireless", "portable", "ergonomic", "compact", "premium",
+            "smart", "classic", "rugged", "silent", "gaming"};
+    private static final String[] NOUNS = {"mouse", "keyboard", "monitor", "laptop", "headset", "speaker",
+            "charger", "webcam", "router", "tablet", "printer", "scanner", "microphone", "projector", "drive"};
+    private static final String[] BRANDS = {"Acme", "Globex", "Initech", "Umbrella", "Hooli", "Stark", "Wayne"};
+
+    @Test
+    void benchmarkAutocomplete() {
+        ProductRepository productRepository = mock(ProductRepository.class);
+        when(productRepository.streamSearchViews()).thenReturn(Stream.empty());
+        ProductAutocompleteIndex index = new ProductAutocompleteIndex(productRepository, new ApplicationProperties());
+        index.rebuild();
+
+        Random random = new Random(42);
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        long buildStart = System.nanoTime();
+        String[] names = new String[PRODUCTS];
+        for (int i = 0; i < PRODUCTS; i++) {
+            names[i] = BRANDS[random.nextInt(BRANDS.length)] + " " + ADJECTIVES[random.nextInt(ADJECTIVES.length)]
+                    + " " + NOUNS[random.nextInt(NOUNS.length)] + " " + Integer.toString(i, 36);
+            ProductDTO product = new ProductDTO();
+            product.setId((long) i);
+            product.setName(names[i]);
+            product.setCategory("Category " + (i % 50));
+            product.setPrice(BigDecimal.ONE);
+            index.onProductCreated(new ProductCreatedEvent(product));
+        }
+        double buildMillis = (System.nanoTime() - buildStart) / 1_000_000.0;
+        System.gc();
+        long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+
+        // Keystrokes: prefixes of 1 to 8 characters of existing names
+        String[] prefixes = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            String name = names[random.nextInt(PRODUCTS)].toLowerCase();
+            prefixes[i] = name.substring(0, Math.min(name.length(), 1 + random.nextInt(8))).trim();
+        }
+        for (int i = 0; i < 20_000; i++) {
+            index.complete(prefixes[i % LOOKUPS], 10); // warm-up
+        }
+        long[] latencies = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            long start = System.nanoTime();
+            assertFalse(index.complete(prefixes[i], 10).isEmpty());
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+
+        log.info("Autocomplete on {} products: built in {} ms, ~{} bytes per product\n" +
+                        "lookup p50: {} us | p99: {} us | p99.9: {} us | max: {} us",
+                PRODUCTS, Math.round(buildMillis), (heapAfter - heapBefore) / PRODUCTS,
+                micros(latencies[LOOKUPS / 2]), micros(latencies[(int) (LOOKUPS * 0.99)]),
+                micros(latencies[(int) (LOOKUPS * 0.999)]), micros(latencies[LOOKUPS - 1]));
+    }
+
+    private String micros(long nanos) {
+        return String.format("%.1f", nanos / 1000.0);
+    }
+}
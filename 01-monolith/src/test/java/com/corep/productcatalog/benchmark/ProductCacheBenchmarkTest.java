@@ -0,0 +1,116 @@
+package com.corep.productcatalog.benchmark;
+
+import com.corep.productcatalog.catalog.entity.Product;
+import com.corep.productcatalog.catalog.repository.ProductRepository;
+import com.corep.productcatalog.shared.config.CacheConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Latency benchmark for GET /api/v1/products/{id} with and without the product cache
+ * Reports p50/p99 over random ids of a seeded catalog
+ *
+ * Run with: mvn -Pbenchmark test -Dtest=ProductCacheBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Slf4j
+class ProductCacheBenchmarkTest {
+
+    private static final int PRODUCTS = Integer.getInteger("benchmark.products", 1_000);
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 20_000);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final List<Long> productIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName("Benchmark Product " + i);
+            product.setDescription("Seeded product for the cache benchmark");
+            product.setPrice(new BigDecimal(10 + i % 500));
+            product.setCategory("Category " + i % 20);
+            products.add(product);
+        }
+        productRepository.saveAll(products).forEach(product -> productIds.add(product.getId()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAllById(productIds);
+        cacheManager.getCache(CacheConfig.PRODUCTS_CACHE).clear();
+    }
+
+    @Test
+    void benchmarkGetProductById() throws Exception {
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+
+        // Warm-up (JIT, connection pool) and cache fill
+        measure(REQUESTS / 4, null);
+
+        long[] uncached = measure(REQUESTS, cache);
+        long[] cached = measure(REQUESTS, null);
+
+        log.info("GET /api/v1/products/{id} latency ({} requests, {} products):\n"
+                        + "without cache | p50: {} us | p99: {} us\n"
+                        + "with cache    | p50: {} us | p99: {} us",
+                REQUESTS, PRODUCTS,
+                percentile(uncached, 50), percentile(uncached, 99),
+                percentile(cached, 50), percentile(cached, 99));
+    }
+
+    /**
+     * Issues the requests and returns the sorted latencies in nanoseconds
+     * When cacheToBypass is set, the requested entry is evicted first so every request reaches the database
+     */
+    private long[] measure(int requests, Cache cacheToBypass) throws Exception {
+        long[] latencies = new long[requests];
+        for (int i = 0; i < requests; i++) {
+            Long id = productIds.get(ThreadLocalRandom.current().nextInt(productIds.size()));
+            if (cacheToBypass != null) {
+                cacheToBypass.evict(id);
+            }
+            long start = System.nanoTime();
+            mockMvc.perform(get("/api/v1/products/{id}", id)).andExpect(status().isOk());
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private long percentile(long[] sortedLatencies, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(index, 0)] / 1_000;
+    }
+}
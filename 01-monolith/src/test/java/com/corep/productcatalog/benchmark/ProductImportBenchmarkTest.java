@@ -0,0 +1,65 @@
+package com.corep.productcatalog.benchmark;
+
+import com.corep.productcatalog.catalog.dto.ProductImportReportDTO;
+import com.corep.productcatalog.catalog.repository.ProductRepository;
+import com.corep.productcatalog.catalog.service.ProductImportService;
+import com.corep.productcatalog.inventory.repository.InventoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Throughput benchmark for the bulk product import (rows/sec)
+ *
+ * Run with: mvn -Pbenchmark test -Dtest=ProductImportBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@Slf4j
+class ProductImportBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 50_000);
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @AfterEach
+    void tearDown() {
+        inventoryRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void benchmarkImportNdjson() throws Exception {
+        StringBuilder feed = new StringBuilder();
+        for (int i = 0; i < ROWS; i++) {
+            feed.append("{\"name\":\"Imported Product ").append(i)
+                    .append("\",\"description\":\"Supplier feed row\",\"price\":").append(1 + i % 1000)
+                    .append(".99,\"category\":\"Category ").append(i % 25)
+                    .append("\",\"initialStock\":").append(i % 100).append("}\n");
+        }
+        byte[] bytes = feed.toString().getBytes(StandardCharsets.UTF_8);
+
+        ProductImportReportDTO report = productImportService.importNdjson(new ByteArrayInputStream(bytes));
+
+        assertEquals(ROWS, report.getImportedRows());
+        log.info("Bulk import of {} NDJSON rows: {} ms, {} rows/s",
+                ROWS, report.getDurationMillis(), Math.round(report.getRowsPerSecond()));
+    }
+}
@@ -0,0 +1,169 @@
+package com.corep.productcatalog.benchmark;
+
+import com.corep.productcatalog.catalog.dto.ProductDTO;
+import com.corep.productcatalog.catalog.event.ProductUpdatedEvent;
+import com.corep.productcatalog.catalog.repository.ProductRepository;
+import com.corep.productcatalog.catalog.service.ProductPriceIndex;
+import com.corep.productcatalog.catalog.service.ProductService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Latency benchmark: in-memory price index vs SQL range queries (findByPriceBetween,
+ * findByCategoryAndPriceBetween) on a large catalog (default 200k products, prices 0.01 - 1000.00),
+ * for a narrow and a wide price range, with and without a category, first and a deep page, by price and by id
+ * (the default sort of the product list); and the cost of a read right after a write to the index
+ *
+ * Run with: mvn -Pbenchmark test -Dtest=ProductPriceRangeBenchmarkTest -Dbenchmark.products=200000
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@Slf4j
+class ProductPriceRangeBenchmarkTest {
+
+    private static final long FIRST_PRODUCT_ID = 20_000_000L;
+    private static final int PRODUCTS = Integer.getInteger("benchmark.products", 200_000);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 20);
+    private static final int PAGE_SIZE = 20;
+    private static final int DEEP_PAGE = 100;
+
+    private static final String[] CATEGORIES = {"Electronics", "Accessories", "Audio", "Office", "Networking"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductPriceIndex productPriceIndex;
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(42);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            batch.add(new Object[]{FIRST_PRODUCT_ID + i, "Product " + i, "Benchmark product",
+                    BigDecimal.valueOf(1 + random.nextInt(100_000), 2),
+                    CATEGORIES[random.nextInt(CATEGORIES.length)], now, now});
+            if (batch.size() == 1000) {
+                insert(batch);
+            }
+        }
+        insert(batch);
+        productPriceIndex.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM products WHERE id >= ?", FIRST_PRODUCT_ID);
+        productPriceIndex.rebuild();
+    }
+
+    @Test
+    void benchmarkPriceRange() {
+        List<String> results = new ArrayList<>();
+        String[][] ranges = {{"100.00", "101.00"}, {"100.00", "600.00"}};
+        // By price, and by id: the default sort of GET /api/v1/products
+        Sort[] sorts = {Sort.by("price").descending(), Sort.by("id").ascending()};
+        for (Sort sort : sorts) {
+            ProductPriceIndex.Order order = sort.getOrderFor("price") != null
+                    ? ProductPriceIndex.Order.PRICE_DESC : ProductPriceIndex.Order.ID_ASC;
+            for (String[] range : ranges) {
+                BigDecimal min = new BigDecimal(range[0]);
+                BigDecimal max = new BigDecimal(range[1]);
+                for (String category : new String[]{null, "Audio"}) {
+                    for (int page : new int[]{0, DEEP_PAGE}) {
+                        Pageable pageable = PageRequest.of(page, PAGE_SIZE, sort);
+                        long sqlMatches = sqlPage(min, max, category, pageable).getTotalElements();
+                        assertEquals(sqlMatches, productService.getProductsByPriceRange(min, max, category, pageable)
+                                .getTotalElements());
+
+                        double sqlMillis = measure(() -> sqlPage(min, max, category, pageable).getContent());
+                        double indexMillis = measure(() -> productPriceIndex.find(min, max, category, order,
+                                pageable.getOffset(), PAGE_SIZE).productIds());
+                        double serviceMillis = measure(() -> productService
+                                .getProductsByPriceRange(min, max, category, pageable).getContent());
+                        results.add(String.format("%-10s %s-%s %-11s page %3d (%6d matches) | SQL: %8.2f ms | index: %7.2f ms | service page: %7.2f ms",
+                                order, range[0], range[1], category == null ? "(all)" : category, page, sqlMatches,
+                                sqlMillis, indexMillis, serviceMillis));
+                    }
+                }
+            }
+        }
+        log.info("Price range pages of {} on {} products (average of {} runs):\n{}",
+                PAGE_SIZE, PRODUCTS, ITERATIONS, String.join("\n", results));
+    }
+
+    @Test
+    void benchmarkReadAfterWrite() {
+        // Each iteration reprices a product, then reads a page: the write must not make the read copy the index
+        Random random = new Random(7);
+        BigDecimal min = new BigDecimal("100.00");
+        BigDecimal max = new BigDecimal("600.00");
+        List<String> results = new ArrayList<>();
+        for (ProductPriceIndex.Order order : ProductPriceIndex.Order.values()) {
+            double millis = measure(() -> {
+                ProductDTO product = new ProductDTO();
+                product.setId(FIRST_PRODUCT_ID + random.nextInt(PRODUCTS));
+                product.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+                product.setPrice(BigDecimal.valueOf(1 + random.nextInt(100_000), 2));
+                productPriceIndex.onProductUpdated(new ProductUpdatedEvent(product));
+                return productPriceIndex.find(min, max, null, order, 0, PAGE_SIZE).productIds();
+            });
+            results.add(String.format("%-10s | write + read: %7.3f ms", order, millis));
+        }
+        log.info("Index write then page of {} on {} products (average of {} runs):\n{}",
+                PAGE_SIZE, PRODUCTS, ITERATIONS, String.join("\n", results));
+    }
+
+    private Page<?> sqlPage(BigDecimal min, BigDecimal max, String category,
+                            Pageable pageable) {
+        return category == null
+                ? productRepository.findByPriceBetween(min, max, pageable)
+                : productRepository.findByCategoryAndPriceBetween(category, min, max, pageable);
+    }
+
+    private void insert(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO products (id, name, description, price, category, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+
+    private double measure(Supplier<List<?>> query) {
+        for (int i = 0; i < 3; i++) {
+            query.get(); // warm-up
+        }
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            query.get();
+        }
+        return (System.nanoTime() - startNanos) / 1_000_000.0 / ITERATIONS;
+    }
+}
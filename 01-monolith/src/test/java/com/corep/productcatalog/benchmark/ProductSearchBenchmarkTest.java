@@ -0,0 +1,125 @@
+package com.corep.productcatalog.benchmark;
+
+import com.corep.productcatalog.catalog.repository.ProductRepository;
+import com.corep.productcatalog.catalog.service.ProductSearchIndex;
+import com.corep.productcatalog.catalog.service.ProductService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Latency benchmark: product search index vs LIKE '%x%' (findByNameContainingIgnoreCase)
+ * on a large catalog (default 200k products), for a rare and a common word
+ *
+ * Run with: mvn -Pbenchmark test -Dtest=ProductSearchBenchmarkTest -Dbenchmark.products=200000
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@Slf4j
+class ProductSearchBenchmarkTest {
+
+    private static final long FIRST_PRODUCT_ID = 20_000_000L;
+    private static final int PRODUCTS = Integer.getInteger("benchmark.products", 200_000);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 20);
+    private static final int PAGE_SIZE = 20;
+
+    private static final String[] ADJECTIVES = {"wireless", "portable", "ergonomic", "compact", "premium",
+            "smart", "classic", "rugged", "silent", "gaming"};
+    private static final String[] NOUNS = {"mouse", "keyboard", "monitor", "laptop", "headset", "speaker",
+            "charger", "webcam", "router", "tablet", "printer", "scanner", "microphone", "projector", "drive"};
+    private static final String[] CATEGORIES = {"Electronics", "Accessories", "Audio", "Office", "Networking"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(42);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            String noun = NOUNS[random.nextInt(NOUNS.length)];
+            // One product in 10,000 gets a rare model name
+            String model = i % 10_000 == 0 ? "Quasar" : "Model " + random.nextInt(1000);
+            batch.add(new Object[]{FIRST_PRODUCT_ID + i,
+                    ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + noun + " " + model,
+                    "A " + ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + noun + " for everyday use",
+                    BigDecimal.valueOf(1 + random.nextInt(100_000), 2),
+                    CATEGORIES[random.nextInt(CATEGORIES.length)], now, now});
+            if (batch.size() == 1000) {
+                insert(batch);
+            }
+        }
+        insert(batch);
+        productSearchIndex.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM products WHERE id >= ?", FIRST_PRODUCT_ID);
+        productSearchIndex.rebuild();
+    }
+
+    @Test
+    void benchmarkSearch() {
+        List<String> results = new ArrayList<>();
+        for (String word : new String[]{"quasar", "keyboard"}) {
+            int likeMatches = productRepository.findByNameContainingIgnoreCase(word).size();
+            long indexMatches = productSearchIndex.search(word, 0, PAGE_SIZE).totalMatches();
+            assertTrue(indexMatches >= likeMatches);
+
+            double likeMillis = measure(() -> productRepository.findByNameContainingIgnoreCase(word));
+            double indexMillis = measure(() -> productSearchIndex.search(word, 0, PAGE_SIZE).productIds());
+            double serviceMillis = measure(() -> productService.searchProducts(word, PageRequest.of(0, PAGE_SIZE))
+                    .getContent());
+            results.add(String.format("%-9s (%6d matches) | LIKE: %9.2f ms | index: %7.2f ms | search page of %d: %7.2f ms",
+                    word, indexMatches, likeMillis, indexMillis, PAGE_SIZE, serviceMillis));
+        }
+        log.info("Product search on {} products (average of {} runs):\n{}",
+                PRODUCTS, ITERATIONS, String.join("\n", results));
+    }
+
+    private void insert(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO products (id, name, description, price, category, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+
+    private double measure(Supplier<List<?>> query) {
+        for (int i = 0; i < 3; i++) {
+            query.get(); // warm-up
+        }
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            query.get();
+        }
+        return (System.nanoTime() - startNanos) / 1_000_000.0 / ITERATIONS;
+    }
+}
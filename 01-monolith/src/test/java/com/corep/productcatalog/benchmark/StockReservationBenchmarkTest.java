@@ -0,0 +1,118 @@
+package com.corep.productcatalog.benchmark;
+
+import com.corep.productcatalog.catalog.service.ProductAvailabilityService;
+import com.corep.productcatalog.inventory.repository.InventoryRepository;
+import com.corep.productcatalog.inventory.service.InventoryService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Contention benchmark for InventoryService.reserveStock
+ * Measures reservations/sec with 1, 8 and 64 threads hammering the same product
+ * (hot SKU, single row) and different products (one row per thread)
+ * Every product has its product_availability row, refreshed by each reservation like in production
+ *
+ * Run with: mvn -Pbenchmark test -Dtest=StockReservationBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@Slf4j
+class StockReservationBenchmarkTest {
+
+    private static final long FIRST_PRODUCT_ID = 800_000L;
+    private static final int MAX_THREADS = 64;
+    private static final int RESERVATIONS_PER_THREAD = Integer.getInteger("benchmark.reservationsPerThread", 200);
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private ProductAvailabilityService productAvailabilityService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Products written directly (no outbox event creating their inventory), read model rebuilt afterwards
+        jdbcTemplate.update("INSERT INTO products (id, name, description, price, category, created_at, updated_at) " +
+                        "SELECT X, 'Benchmark ' || X, NULL, 9.99, 'Benchmark', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP " +
+                        "FROM SYSTEM_RANGE(?, ?)",
+                FIRST_PRODUCT_ID, FIRST_PRODUCT_ID + MAX_THREADS - 1);
+        for (long i = 0; i < MAX_THREADS; i++) {
+            inventoryService.createInventory(FIRST_PRODUCT_ID + i, Integer.MAX_VALUE / 2);
+        }
+        productAvailabilityService.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (long i = 0; i < MAX_THREADS; i++) {
+            inventoryRepository.findByProductId(FIRST_PRODUCT_ID + i).ifPresent(inventoryRepository::delete);
+        }
+        jdbcTemplate.update("DELETE FROM products WHERE id >= ?", FIRST_PRODUCT_ID);
+        productAvailabilityService.rebuild();
+    }
+
+    @Test
+    void benchmarkReserveStock() throws Exception {
+        // Warm-up (JIT, connection pool)
+        run(8, false);
+
+        List<String> results = new ArrayList<>();
+        for (int threads : new int[]{1, 8, 64}) {
+            results.add(String.format("%-4d threads | same product: %10.0f res/s | different products: %10.0f res/s",
+                    threads, run(threads, true), run(threads, false)));
+        }
+        log.info("reserveStock contention benchmark ({} reservations per thread):\n{}",
+                RESERVATIONS_PER_THREAD, String.join("\n", results));
+    }
+
+    private double run(int threads, boolean sameProduct) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        LongAdder completed = new LongAdder();
+
+        for (int t = 0; t < threads; t++) {
+            long productId = sameProduct ? FIRST_PRODUCT_ID : FIRST_PRODUCT_ID + t;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < RESERVATIONS_PER_THREAD; i++) {
+                    inventoryService.reserveStock(productId, 1);
+                    completed.increment();
+                }
+                return null;
+            });
+        }
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.MINUTES);
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        assertEquals((long) threads * RESERVATIONS_PER_THREAD, completed.sum());
+        return completed.sum() / (elapsedNanos / 1_000_000_000.0);
+    }
+}
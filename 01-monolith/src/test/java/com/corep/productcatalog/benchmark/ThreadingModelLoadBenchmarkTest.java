@@ -0,0 +1,189 @@
+package com.corep.productcatalog.benchmark;
+
+import com.corep.productcatalog.ProductCatalogApplication;
+import com.corep.productcatalog.catalog.dto.ProductDTO;
+import com.corep.productcatalog.catalog.service.ProductService;
+import com.corep.productcatalog.shared.outbox.OutboxDispatcher;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load test: platform threads (Tomcat pool) vs virtual threads (virtual-threads profile)
+ * Many concurrent clients call GET /api/v1/products and GET /api/v1/inventory/product/{id} while every
+ * SQL statement takes an extra fixed latency (slow database). Reports throughput, p50/p99 latency and errors.
+ *
+ * The virtual thread run needs a Java 21 runtime and is skipped otherwise.
+ *
+ * Run with (JDK 21): mvn -Pjava21,benchmark test -Dtest=ThreadingModelLoadBenchmarkTest
+ * Options: -Dbenchmark.clients=400 -Dbenchmark.seconds=10 -Dbenchmark.dbLatencyMs=20
+ */
+@Tag("benchmark")
+@Slf4j
+class ThreadingModelLoadBenchmarkTest {
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 400);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 10);
+    private static final int DB_LATENCY_MS = Integer.getInteger("benchmark.dbLatencyMs", 20);
+    private static final int PRODUCTS = 200;
+
+    @Test
+    void compareThreadingModels() throws Exception {
+        List<String> results = new ArrayList<>();
+        results.add(run("platform threads", "test"));
+        if (Runtime.version().feature() >= 21) {
+            results.add(run("virtual threads ", "test", "virtual-threads"));
+        } else {
+            results.add("virtual threads : skipped, needs Java 21 (running Java " + Runtime.version().feature() + ")");
+        }
+        log.info("Load test, {} clients for {} s, +{} ms per SQL statement:\n{}",
+                CLIENTS, SECONDS, DB_LATENCY_MS, String.join("\n", results));
+    }
+
+    private String run(String label, String... profiles) throws Exception {
+        SlowDatabase slowDatabase = new SlowDatabase();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ProductCatalogApplication.class)
+                .profiles(profiles)
+                .properties("server.port=0", "logging.level.root=WARN", "logging.level.com.corep.productcatalog=WARN",
+                        "logging.level.org.springframework.web=WARN")
+                .initializers(applicationContext -> applicationContext.getBeanFactory().addBeanPostProcessor(slowDatabase))
+                .run()) {
+            List<Long> productIds = seed(context.getBean(ProductService.class));
+            context.getBean(OutboxDispatcher.class).dispatchPending(); // inventories of the seeded products
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            slowDatabase.latencyMillis = DB_LATENCY_MS;
+            return label + " | " + load(baseUrl, productIds);
+        }
+    }
+
+    private List<Long> seed(ProductService productService) {
+        List<Long> productIds = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            ProductDTO product = new ProductDTO();
+            product.setName("Load Test Product " + i);
+            product.setPrice(new BigDecimal("9.99"));
+            product.setCategory("Category " + (i % 10));
+            productIds.add(productService.createProduct(product).getId());
+        }
+        return productIds;
+    }
+
+    private String load(String baseUrl, List<Long> productIds) throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SECONDS);
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int c = 0; c < CLIENTS; c++) {
+            futures.add(clients.submit(() -> {
+                List<Long> latencies = new ArrayList<>();
+                long errors = 0;
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    String path = random.nextBoolean()
+                            ? "/api/v1/products?page=" + random.nextInt(PRODUCTS / 20) + "&size=20"
+                            : "/api/v1/inventory/product/" + productIds.get(random.nextInt(productIds.size()));
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + path)).build(),
+                                HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors++;
+                        }
+                    } catch (IOException e) {
+                        errors++;
+                    }
+                    latencies.add(System.nanoTime() - start);
+                }
+                long[] result = new long[latencies.size() + 1];
+                result[0] = errors;
+                for (int i = 0; i < latencies.size(); i++) {
+                    result[i + 1] = latencies.get(i);
+                }
+                return result;
+            }));
+        }
+
+        long errors = 0;
+        List<long[]> perClient = new ArrayList<>();
+        for (Future<long[]> future : futures) {
+            long[] result = future.get();
+            errors += result[0];
+            perClient.add(Arrays.copyOfRange(result, 1, result.length));
+        }
+        clients.shutdown();
+        long[] latencies = perClient.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        assertTrue(latencies.length > 0);
+
+        return String.format("%8.0f req/s | p50 %6.1f ms | p99 %7.1f ms | errors %d",
+                latencies.length / (double) SECONDS, latencies[latencies.length / 2] / 1e6,
+                latencies[(int) (latencies.length * 0.99)] / 1e6, errors);
+    }
+
+    /**
+     * Wraps the DataSource: once latencyMillis is set, every statement execution waits that long first
+     */
+    private static final class SlowDatabase implements BeanPostProcessor {
+
+        private volatile int latencyMillis;
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return proxy(Connection.class, super.getConnection());
+                }
+            };
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> T proxy(Class<T> type, T target) {
+            InvocationHandler handler = (proxy, method, args) -> {
+                if (method.getName().startsWith("execute") && latencyMillis > 0) {
+                    Thread.sleep(latencyMillis);
+                }
+                try {
+                    Object result = method.invoke(target, args);
+                    if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                        return proxy((Class<Statement>) method.getReturnType(), statement);
+                    }
+                    return result;
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            };
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.corep.productcatalog.benchmark.jmh;
+
+import com.corep.productcatalog.catalog.dto.ProductDTO;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeded dataset generator for the benchmarks
+ * The same seed always produces the same products, so results of different runs are comparable
+ */
+public final class BenchmarkDataset {
+
+    public static final long DEFAULT_SEED = 42L;
+
+    private static final String[] ADJECTIVES = {"Wireless", "Portable", "Ergonomic", "Compact", "Premium",
+            "Smart", "Classic", "Rugged", "Silent", "Gaming"};
+    private static final String[] NOUNS = {"Mouse", "Keyboard", "Monitor", "Laptop", "Headset", "Speaker",
+            "Charger", "Webcam", "Router", "Tablet"};
+    private static final String[] CATEGORIES = {"Electronics", "Accessories", "Computers", "Audio", "Networking",
+            "Office", "Gaming", "Storage"};
+
+    private BenchmarkDataset() {
+    }
+
+    public static List<ProductDTO> products(long seed, int count) {
+        Random random = new Random(seed);
+        List<ProductDTO> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ProductDTO product = new ProductDTO();
+            product.setName(ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                    + NOUNS[random.nextInt(NOUNS.length)] + " " + (i + 1));
+            product.setDescription("Benchmark product " + (i + 1) + " with a description of typical length");
+            product.setPrice(BigDecimal.valueOf(100 + random.nextInt(99_900), 2));
+            product.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            products.add(product);
+        }
+        return products;
+    }
+
+    public static int initialStock(long seed, int index) {
+        return Math.floorMod(seed * 31 + index * 7919L, 1000);
+    }
+}
@@ -0,0 +1,71 @@
+package com.corep.productcatalog.benchmark.jmh;
+
+import com.corep.productcatalog.ProductCatalogApplication;
+import com.corep.productcatalog.catalog.dto.ProductDTO;
+import com.corep.productcatalog.catalog.service.ProductImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Application context shared by the benchmarks of one fork (test profile, in-memory H2, no web server),
+ * seeded once per trial with datasetSize products from BenchmarkDataset
+ */
+@State(Scope.Benchmark)
+public class CatalogContextState {
+
+    @Param("10000")
+    public int datasetSize;
+
+    public ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        context = new SpringApplicationBuilder(ProductCatalogApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("logging.level.root=WARN", "logging.level.com.corep.productcatalog=WARN",
+                        "logging.level.org.springframework.web=WARN")
+                .run();
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Load the seeded products (with their inventories) through the bulk import
+     */
+    private void seed() throws IOException {
+        ObjectMapper objectMapper = bean(ObjectMapper.class);
+        List<ProductDTO> products = BenchmarkDataset.products(BenchmarkDataset.DEFAULT_SEED, datasetSize);
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        for (int i = 0; i < products.size(); i++) {
+            ObjectNode node = objectMapper.valueToTree(products.get(i));
+            node.put("initialStock", BenchmarkDataset.initialStock(BenchmarkDataset.DEFAULT_SEED, i));
+            ndjson.write(objectMapper.writeValueAsBytes(node));
+            ndjson.write('\n');
+        }
+        bean(ProductImportService.class).importNdjson(new ByteArrayInputStream(ndjson.toByteArray()));
+    }
+}
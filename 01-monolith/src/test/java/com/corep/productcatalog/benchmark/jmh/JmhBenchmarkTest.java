@@ -0,0 +1,50 @@
+package com.corep.productcatalog.benchmark.jmh;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs the JMH benchmarks (classes annotated with @Benchmark) and writes the results as JSON,
+ * to be compared between releases (e.g. with a JMH visualizer, or by diffing primaryMetric.score)
+ *
+ * Run with: mvn -Pbenchmark test -Dtest=JmhBenchmarkTest
+ * Options: -Dbenchmark.jmh.include=ProductMapping (regex on the benchmark names, default all)
+ *          -Dbenchmark.jmh.forks=1 -Dbenchmark.jmh.iterations=5
+ *          -Dbenchmark.jmh.result=target/jmh-result.json
+ */
+@Tag("benchmark")
+@Slf4j
+class JmhBenchmarkTest {
+
+    @Test
+    void runJmhBenchmarks() throws Exception {
+        int iterations = Integer.getInteger("benchmark.jmh.iterations", 5);
+        String result = System.getProperty("benchmark.jmh.result", "target/jmh-result.json");
+        Options options = new OptionsBuilder()
+                .include(System.getProperty("benchmark.jmh.include", ".*"))
+                .forks(Integer.getInteger("benchmark.jmh.forks", 1))
+                .warmupIterations(Math.max(1, iterations / 2))
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(iterations)
+                .measurementTime(TimeValue.seconds(1))
+                .resultFormat(ResultFormatType.JSON)
+                .result(result)
+                .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+
+        assertFalse(results.isEmpty());
+        log.info("JMH results of {} benchmarks written to {}", results.size(), result);
+    }
+}
@@ -0,0 +1,71 @@
+package com.corep.productcatalog.benchmark.jmh;
+
+import com.corep.productcatalog.catalog.dto.ProductDTO;
+import com.corep.productcatalog.inventory.dto.InventoryDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of the response pages (Page of ProductDTO, Slice of InventoryDTO),
+ * with an ObjectMapper configured like the one of the application
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonSerializationBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<ProductDTO> productPage;
+    private Slice<InventoryDTO> inventorySlice;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+        List<ProductDTO> products = BenchmarkDataset.products(BenchmarkDataset.DEFAULT_SEED, pageSize);
+        List<InventoryDTO> inventories = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            ProductDTO product = products.get(i);
+            product.setId((long) i + 1);
+            product.setCreatedAt(now);
+            product.setUpdatedAt(now);
+            int stock = BenchmarkDataset.initialStock(BenchmarkDataset.DEFAULT_SEED, i);
+            inventories.add(new InventoryDTO((long) i + 1, (long) i + 1, stock, 0, stock, now, 0L));
+        }
+        productPage = new PageImpl<>(products, PageRequest.of(0, pageSize), 10_000);
+        inventorySlice = new SliceImpl<>(inventories, PageRequest.of(0, pageSize), true);
+    }
+
+    @Benchmark
+    public byte[] productPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(productPage);
+    }
+
+    @Benchmark
+    public byte[] inventorySlice() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(inventorySlice);
+    }
+}
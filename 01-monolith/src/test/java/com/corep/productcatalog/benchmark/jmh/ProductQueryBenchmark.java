@@ -0,0 +1,49 @@
+package com.corep.productcatalog.benchmark.jmh;
+
+import com.corep.productcatalog.catalog.dto.ProductDTO;
+import com.corep.productcatalog.catalog.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ProductService.getAllProducts(Pageable): one page of the seeded catalog, first page and a deep page
+ * (offset pagination: the deep page pays for the skipped rows)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductQueryBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private ProductService productService;
+    private int lastPage;
+
+    @Setup
+    public void setUp(CatalogContextState state) {
+        productService = state.bean(ProductService.class);
+        lastPage = state.datasetSize / pageSize - 1;
+    }
+
+    @Benchmark
+    public Page<ProductDTO> firstPage() {
+        return productService.getAllProducts(PageRequest.of(0, pageSize, Sort.by("id")));
+    }
+
+    @Benchmark
+    public Page<ProductDTO> lastPage() {
+        return productService.getAllProducts(PageRequest.of(lastPage, pageSize, Sort.by("id")));
+    }
+}
@@ -0,0 +1,71 @@
+package com.corep.productcatalog.benchmark.jmh;
+
+import com.corep.productcatalog.catalog.repository.ProductRepository;
+import com.corep.productcatalog.inventory.dto.InventoryDTO;
+import com.corep.productcatalog.inventory.service.InventoryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InventoryService.reserveStock under contention: 8 threads reserving (and releasing, to keep the stock
+ * stable) on the same product (hot SKU, one row) or each on its own product
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class StockReservationJmhBenchmark {
+
+    private static final int MAX_THREADS = 64;
+
+    @State(Scope.Benchmark)
+    public static class Products {
+
+        InventoryService inventoryService;
+        List<Long> productIds;
+
+        @Setup
+        public void setUp(CatalogContextState state) {
+            inventoryService = state.bean(InventoryService.class);
+            productIds = state.bean(ProductRepository.class).findAll(PageRequest.of(0, MAX_THREADS, Sort.by("id")))
+                    .map(product -> product.getId())
+                    .getContent();
+            productIds.forEach(productId -> inventoryService.updateStock(productId, Integer.MAX_VALUE / 2));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class OwnProduct {
+
+        Long productId;
+
+        @Setup
+        public void setUp(Products products, ThreadParams threadParams) {
+            productId = products.productIds.get(threadParams.getThreadIndex() % products.productIds.size());
+        }
+    }
+
+    @Benchmark
+    public InventoryDTO sameProduct(Products products) {
+        Long productId = products.productIds.get(0);
+        products.inventoryService.reserveStock(productId, 1);
+        return products.inventoryService.releaseStock(productId, 1);
+    }
+
+    @Benchmark
+    public InventoryDTO differentProducts(Products products, OwnProduct own) {
+        products.inventoryService.reserveStock(own.productId, 1);
+        return products.inventoryService.releaseStock(own.productId, 1);
+    }
+}
@@ -1,7 +1,12 @@
 package com.corep.productcatalog.catalog.controller;
 
 import com.corep.productcatalog.catalog.dto.ProductDTO;
+import com.corep.productcatalog.catalog.service.ProductAutocompleteIndex;
+import com.corep.productcatalog.catalog.service.ProductExportWriter;
+import com.corep.productcatalog.catalog.service.ProductImportService;
 import com.corep.productcatalog.catalog.service.ProductService;
+import com.corep.productcatalog.catalog.service.ProductVersion;
+import com.corep.productcatalog.shared.exception.PreconditionFailedException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,16 +16,21 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -37,6 +47,15 @@ class ProductControllerTest {
     @MockBean
     private ProductService productService;
 
+    @MockBean
+    private ProductExportWriter productExportWriter;
+
+    @MockBean
+    private ProductImportService productImportService;
+
+    @MockBean
+    private ProductAutocompleteIndex productAutocompleteIndex;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -84,6 +103,7 @@ class ProductControllerTest {
         List<ProductDTO> products = Arrays.asList(product1, product2);
         Page<ProductDTO> productPage = new PageImpl<>(products, PageRequest.of(0, 10), products.size());
         when(productService.getAllProducts(any(Pageable.class))).thenReturn(productPage);
+        when(productService.getCollectionVersion(null)).thenReturn(ProductVersion.ofCollection(1L, 2L));
 
         // When & Then
         mockMvc.perform(get("/api/v1/products"))
@@ -102,14 +122,43 @@ class ProductControllerTest {
         product.setPrice(new BigDecimal("99.99"));
 
         when(productService.getProductById(1L)).thenReturn(product);
+        when(productService.getProductVersion(1L)).thenReturn(ProductVersion.ofProduct(1L, 0L, LocalDateTime.now()));
 
         // When & Then
         mockMvc.perform(get("/api/v1/products/1"))
                 .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.name").value("Test Product"));
     }
 
+    @Test
+    void testGetProductById_NotModified() throws Exception {
+        // Given
+        ProductVersion version = ProductVersion.ofProduct(1L, 0L, LocalDateTime.now());
+        when(productService.getProductVersion(1L)).thenReturn(version);
+
+        // When & Then - the product itself is never loaded
+        mockMvc.perform(get("/api/v1/products/1").header(HttpHeaders.IF_NONE_MATCH, version.getETag()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, version.getETag()));
+        verify(productService, never()).getProductById(1L);
+    }
+
+    @Test
+    void testGetAllProducts_NotModified() throws Exception {
+        // Given
+        ProductVersion version = ProductVersion.ofCollection(1L, 2L);
+        when(productService.getCollectionVersion("Electronics")).thenReturn(version);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/products")
+                        .param("category", "Electronics")
+                        .header(HttpHeaders.IF_NONE_MATCH, version.getETag()))
+                .andExpect(status().isNotModified());
+        verify(productService, never()).getProductsByCategory(eq("Electronics"), any(Pageable.class));
+    }
+
     @Test
     void testUpdateProduct() throws Exception {
         // Given
@@ -123,18 +172,40 @@ class ProductControllerTest {
         outputDTO.setName("Updated Product");
         outputDTO.setPrice(new BigDecimal("149.99"));
         outputDTO.setCategory("Electronics");
+        outputDTO.setVersion(1L);
 
-        when(productService.updateProduct(eq(1L), any(ProductDTO.class))).thenReturn(outputDTO);
+        when(productService.updateProduct(eq(1L), any(ProductDTO.class), isNull())).thenReturn(outputDTO);
 
         // When & Then
         mockMvc.perform(put("/api/v1/products/1")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(inputDTO)))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"p1-v1\""))
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.name").value("Updated Product"));
     }
 
+    @Test
+    void testUpdateProduct_PreconditionFailed() throws Exception {
+        // Given
+        ProductDTO inputDTO = new ProductDTO();
+        inputDTO.setName("Updated Product");
+        inputDTO.setPrice(new BigDecimal("149.99"));
+        inputDTO.setCategory("Electronics");
+
+        when(productService.updateProduct(eq(1L), any(ProductDTO.class), eq("\"p1-v0\"")))
+                .thenThrow(new PreconditionFailedException("Product 1 has changed"));
+
+        // When & Then
+        mockMvc.perform(put("/api/v1/products/1")
+                        .header(HttpHeaders.IF_MATCH, "\"p1-v0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(inputDTO)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status").value(412));
+    }
+
     @Test
     void testDeleteProduct() throws Exception {
         // When & Then
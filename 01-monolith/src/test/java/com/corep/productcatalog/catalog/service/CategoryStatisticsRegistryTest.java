@@ -0,0 +1,112 @@
+package com.corep.productcatalog.catalog.service;
+
+import com.corep.productcatalog.catalog.dto.CategoryStatisticsDTO;
+import com.corep.productcatalog.catalog.dto.ProductDTO;
+import com.corep.productcatalog.catalog.event.ProductCreatedEvent;
+import com.corep.productcatalog.catalog.event.ProductDeletedEvent;
+import com.corep.productcatalog.catalog.event.ProductUpdatedEvent;
+import com.corep.productcatalog.catalog.repository.ProductPriceView;
+import com.corep.productcatalog.catalog.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryStatisticsRegistryTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private CategoryStatisticsRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        when(productRepository.streamPriceViews()).thenReturn(Stream.of(
+                view(1L, "Electronics", "100.00"),
+                view(2L, "Electronics", "300.00"),
+                view(3L, "Books", "20.00")));
+        registry.rebuild();
+    }
+
+    @Test
+    void testRebuildAggregatesByCategory() {
+        // When
+        List<CategoryStatisticsDTO> statistics = registry.getStatistics();
+
+        // Then
+        assertEquals(2, statistics.size());
+        assertStatistics(statistics.get(0), "Books", 1, "20.00", "20.00", "20.00");
+        assertStatistics(statistics.get(1), "Electronics", 2, "200.00", "100.00", "300.00");
+    }
+
+    @Test
+    void testCreateUpdateAndDeleteAreAppliedIncrementally() {
+        // When
+        registry.onProductCreated(new ProductCreatedEvent(product(4L, "Electronics", "50.00")));
+        registry.onProductUpdated(new ProductUpdatedEvent(product(2L, "Books", "40.00")));
+        registry.onProductDeleted(new ProductDeletedEvent(3L));
+
+        // Then: Electronics keeps 1 and 4, Books only has the moved product 2
+        List<CategoryStatisticsDTO> statistics = registry.getStatistics();
+        assertEquals(2, statistics.size());
+        assertStatistics(statistics.get(0), "Books", 1, "40.00", "40.00", "40.00");
+        assertStatistics(statistics.get(1), "Electronics", 2, "75.00", "50.00", "100.00");
+    }
+
+    @Test
+    void testDeletingMaxRecomputesMaxAndEmptyCategoryDisappears() {
+        // When
+        registry.onProductDeleted(new ProductDeletedEvent(2L));
+        registry.onProductDeleted(new ProductDeletedEvent(3L));
+
+        // Then
+        List<CategoryStatisticsDTO> statistics = registry.getStatistics();
+        assertEquals(1, statistics.size());
+        assertStatistics(statistics.get(0), "Electronics", 1, "100.00", "100.00", "100.00");
+    }
+
+    private void assertStatistics(CategoryStatisticsDTO statistics, String category, long count,
+                                  String average, String min, String max) {
+        assertEquals(category, statistics.getCategory());
+        assertEquals(count, statistics.getProductCount());
+        assertEquals(new BigDecimal(average), statistics.getAveragePrice());
+        assertEquals(new BigDecimal(min), statistics.getMinPrice());
+        assertEquals(new BigDecimal(max), statistics.getMaxPrice());
+    }
+
+    private ProductDTO product(Long id, String category, String price) {
+        ProductDTO product = new ProductDTO();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setCategory(category);
+        product.setPrice(new BigDecimal(price));
+        return product;
+    }
+
+    private ProductPriceView view(Long id, String category, String price) {
+        return new ProductPriceView() {
+            public Long getId() {
+                return id;
+            }
+
+            public String getCategory() {
+                return category;
+            }
+
+            public BigDecimal getPrice() {
+                return new BigDecimal(price);
+            }
+        };
+    }
+}
@@ -0,0 +1,163 @@
+package com.corep.productcatalog.catalog.service;
+
+import com.corep.productcatalog.catalog.dto.AutocompleteSuggestionDTO;
+import com.corep.productcatalog.catalog.dto.ProductDTO;
+import com.corep.productcatalog.catalog.event.ProductCreatedEvent;
+import com.corep.productcatalog.catalog.event.ProductDeletedEvent;
+import com.corep.productcatalog.catalog.event.ProductUpdatedEvent;
+import com.corep.productcatalog.catalog.repository.ProductRepository;
+import com.corep.productcatalog.shared.config.ApplicationProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductAutocompleteIndexTest {
+
+    private ProductAutocompleteIndex index;
+
+    @BeforeEach
+    void setUp() {
+        ProductRepository productRepository = mock(ProductRepository.class);
+        when(productRepository.streamSearchViews()).thenReturn(Stream.empty());
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getAutocomplete().setMaxSuggestions(3);
+        index = new ProductAutocompleteIndex(productRepository, properties);
+        index.rebuild();
+
+        create(1L, "Laptop Dell XPS", "Electronics");
+        create(2L, "Gaming Laptop", "Electronics");
+        create(3L, "Laser Printer", "Office");
+        create(4L, "Laptop Dell XPS", "Electronics");
+    }
+
+    @Test
+    void testCompletesNamesFromAnyLeadingWord() {
+        List<AutocompleteSuggestionDTO> suggestions = index.complete("lap", 10);
+
+        // Two products named "Laptop Dell XPS" rank first, then the match on the second word
+        assertEquals(List.of("Laptop Dell XPS", "Gaming Laptop"), texts(suggestions));
+        assertEquals(2, suggestions.get(0).getProductCount());
+    }
+
+    @Test
+    void testPrefixEndingInsideAnEdgeAndAcrossWords() {
+        // "Laser Printer" matches from its first word, "Gaming Laptop" only from the second
+        assertEquals(List.of("Laptop Dell XPS", "Laser Printer", "Gaming Laptop"), texts(index.complete("la", 10)));
+        assertEquals(List.of("Laptop Dell XPS"), texts(index.complete("LAPTOP  de", 10)));
+        assertTrue(index.complete("laptop x", 10).isEmpty());
+        assertTrue(index.complete("", 10).isEmpty());
+    }
+
+    @Test
+    void testCategoriesAreSuggested() {
+        List<AutocompleteSuggestionDTO> suggestions = index.complete("elec", 10);
+
+        assertEquals(1, suggestions.size());
+        assertEquals(AutocompleteSuggestionDTO.Type.CATEGORY, suggestions.get(0).getType());
+        assertEquals(3, suggestions.get(0).getProductCount());
+    }
+
+    @Test
+    void testLimitIsCappedByMaxSuggestions() {
+        assertEquals(1, index.complete("la", 1).size());
+        assertEquals(3, index.complete("l", 50).size());
+    }
+
+    @Test
+    void testUpdatesAndDeletesAreApplied() {
+        // When
+        index.onProductUpdated(new ProductUpdatedEvent(product(2L, "Gaming Desktop", "Electronics")));
+        index.onProductDeleted(new ProductDeletedEvent(3L));
+
+        // Then
+        assertEquals(List.of("Laptop Dell XPS"), texts(index.complete("la", 10)));
+        assertEquals(List.of("Gaming Desktop"), texts(index.complete("desk", 10)));
+        assertTrue(index.complete("office", 10).isEmpty());
+    }
+
+    @Test
+    void testMatchesBruteForceAfterRandomChanges() {
+        // Given - random names over a small alphabet: many shared prefixes, edge splits and merges
+        Random random = new Random(7);
+        Map<Long, String> names = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            long id = 100 + random.nextInt(300);
+            if (random.nextInt(4) == 0) {
+                index.onProductDeleted(new ProductDeletedEvent(id));
+                names.remove(id);
+            } else {
+                String name = randomWord(random) + " " + randomWord(random);
+                index.onProductUpdated(new ProductUpdatedEvent(product(id, name, "Electronics")));
+                names.put(id, name);
+            }
+        }
+        names.putAll(Map.of(1L, "Laptop Dell XPS", 2L, "Gaming Laptop", 3L, "Laser Printer", 4L, "Laptop Dell XPS"));
+
+        // Then
+        for (String prefix : List.of("a", "b", "ab", "ba", "abc", "ca", "a b", "cab c")) {
+            List<String> products = index.complete(prefix, 3).stream()
+                    .filter(suggestion -> suggestion.getType() == AutocompleteSuggestionDTO.Type.PRODUCT)
+                    .map(AutocompleteSuggestionDTO::getText)
+                    .collect(Collectors.toList());
+            assertEquals(bruteForce(names, prefix, 3), products, "prefix '" + prefix + "'");
+        }
+    }
+
+    private List<String> bruteForce(Map<Long, String> names, String prefix, int max) {
+        Map<String, Long> ranks = new HashMap<>();
+        Map<String, Integer> counts = new HashMap<>();
+        names.values().forEach(name -> counts.merge(name, 1, Integer::sum));
+        counts.forEach((name, count) -> {
+            String[] words = name.toLowerCase().split(" ");
+            for (int i = 0; i < words.length; i++) {
+                String key = String.join(" ", List.of(words).subList(i, words.length));
+                if (key.startsWith(prefix)) {
+                    ranks.merge(name, count * 2L + (i == 0 ? 1 : 0), Math::max);
+                }
+            }
+        });
+        return ranks.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(max)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    private String randomWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0, length = 1 + random.nextInt(4); i < length; i++) {
+            word.append((char) ('a' + random.nextInt(3)));
+        }
+        return word.toString();
+    }
+
+    private void create(Long id, String name, String category) {
+        index.onProductCreated(new ProductCreatedEvent(product(id, name, category)));
+    }
+
+    private ProductDTO product(Long id, String name, String category) {
+        ProductDTO product = new ProductDTO();
+        product.setId(id);
+        product.setName(name);
+        product.setCategory(category);
+        product.setPrice(BigDecimal.ONE);
+        return product;
+    }
+
+    private List<String> texts(List<AutocompleteSuggestionDTO> suggestions) {
+        return suggestions.stream().map(AutocompleteSuggestionDTO::getText).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,89 @@
+package com.corep.productcatalog.catalog.service;
+
+import com.corep.productcatalog.catalog.dto.ProductDTO;
+import com.corep.productcatalog.catalog.exception.ProductNotFoundException;
+import com.corep.productcatalog.shared.config.CacheConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Product cache tests
+ * Not @Transactional: cache updates are applied only after commit
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductCacheTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Cache productsCache;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        productsCache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        ProductDTO product = new ProductDTO();
+        product.setName("Cached Product");
+        product.setPrice(new BigDecimal("10.00"));
+        product.setCategory("Books");
+        productId = productService.createProduct(product).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        try {
+            productService.deleteProduct(productId);
+        } catch (ProductNotFoundException e) {
+            // Already deleted by the test
+        }
+    }
+
+    @Test
+    void testGetProductById_IsCached() {
+        assertNull(productsCache.get(productId));
+
+        ProductDTO first = productService.getProductById(productId);
+        ProductDTO second = productService.getProductById(productId);
+
+        assertNotNull(productsCache.get(productId));
+        assertSame(first, second);
+    }
+
+    @Test
+    void testUpdateProduct_InvalidatesCache() {
+        productService.getProductById(productId);
+
+        ProductDTO update = new ProductDTO();
+        update.setName("Renamed Product");
+        update.setPrice(new BigDecimal("12.00"));
+        update.setCategory("Books");
+        productService.updateProduct(productId, update);
+
+        assertNull(productsCache.get(productId));
+        assertEquals("Renamed Product", productService.getProductById(productId).getName());
+    }
+
+    @Test
+    void testDeleteProduct_InvalidatesCache() {
+        productService.getProductById(productId);
+
+        productService.deleteProduct(productId);
+
+        assertNull(productsCache.get(productId));
+        assertThrows(ProductNotFoundException.class, () -> productService.getProductById(productId));
+    }
+}
@@ -0,0 +1,115 @@
+package com.corep.productcatalog.catalog.service;
+
+import com.corep.productcatalog.catalog.dto.ProductDTO;
+import com.corep.productcatalog.catalog.event.ProductCreatedEvent;
+import com.corep.productcatalog.catalog.event.ProductDeletedEvent;
+import com.corep.productcatalog.catalog.event.ProductUpdatedEvent;
+import com.corep.productcatalog.catalog.repository.ProductPriceView;
+import com.corep.productcatalog.catalog.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCollectionVersionsTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductCollectionVersions versions;
+
+    @BeforeEach
+    void setUp() {
+        when(productRepository.streamPriceViews()).thenReturn(Stream.of(
+                view(1L, "Accessories"),
+                view(2L, "Electronics"),
+                view(3L, "Kitchen")));
+        versions.rebuild();
+    }
+
+    @Test
+    void testUpdateChangesTheCategoriesLeftAndEntered() {
+        // Given
+        String accessories = etag("Accessories");
+        String electronics = etag("Electronics");
+        String kitchen = etag("Kitchen");
+        String catalog = etag(null);
+
+        // When - product 1 moves from Accessories to Electronics
+        versions.onProductUpdated(new ProductUpdatedEvent(product(1L, "Electronics")));
+
+        // Then
+        assertNotEquals(accessories, etag("Accessories"));
+        assertNotEquals(electronics, etag("Electronics"));
+        assertEquals(kitchen, etag("Kitchen"));
+        assertNotEquals(catalog, etag(null));
+    }
+
+    @Test
+    void testCreateAndDeleteChangeOnlyTheirCategory() {
+        // Given
+        String kitchen = etag("Kitchen");
+        String electronics = etag("Electronics");
+
+        // When
+        versions.onProductCreated(new ProductCreatedEvent(product(4L, "Kitchen")));
+        String afterCreate = etag("Kitchen");
+        versions.onProductDeleted(new ProductDeletedEvent(3L));
+
+        // Then
+        assertNotEquals(kitchen, afterCreate);
+        assertNotEquals(afterCreate, etag("Kitchen"));
+        assertEquals(electronics, etag("Electronics"));
+    }
+
+    @Test
+    void testChangeOfUnknownProductChangesEveryCategory() {
+        // Given - a category without any change since startup
+        String garden = etag("Garden");
+
+        // When - a product the versions never saw is deleted
+        versions.onProductDeleted(new ProductDeletedEvent(99L));
+
+        // Then
+        assertNotEquals(garden, etag("Garden"));
+    }
+
+    private String etag(String category) {
+        return versions.get(category).getETag();
+    }
+
+    private ProductDTO product(Long id, String category) {
+        ProductDTO product = new ProductDTO();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setCategory(category);
+        product.setPrice(BigDecimal.TEN);
+        return product;
+    }
+
+    private ProductPriceView view(Long id, String category) {
+        return new ProductPriceView() {
+            public Long getId() {
+                return id;
+            }
+
+            public String getCategory() {
+                return category;
+            }
+
+            public BigDecimal getPrice() {
+                return BigDecimal.TEN;
+            }
+        };
+    }
+}
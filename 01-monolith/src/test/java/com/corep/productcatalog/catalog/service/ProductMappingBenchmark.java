@@ -0,0 +1,50 @@
+package com.corep.productcatalog.catalog.service;
+
+import com.corep.productcatalog.benchmark.jmh.BenchmarkDataset;
+import com.corep.productcatalog.catalog.dto.ProductDTO;
+import com.corep.productcatalog.catalog.entity.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the entity/DTO mapping of ProductService
+ * In this package because convertToDTO and convertToEntity are package-private; the mapping
+ * does not use the collaborators, so the service is built without them
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProductMappingBenchmark {
+
+    private ProductService productService;
+    private ProductDTO productDTO;
+    private Product product;
+
+    @Setup
+    public void setUp() {
+        productService = new ProductService(null, null, null, null, null, null, null, null, null, null, null);
+        productDTO = BenchmarkDataset.products(BenchmarkDataset.DEFAULT_SEED, 1).get(0);
+        product = productService.convertToEntity(productDTO);
+        product.setId(1L);
+        product.setCreatedAt(LocalDateTime.of(2025, 1, 1, 12, 0));
+        product.setUpdatedAt(product.getCreatedAt());
+    }
+
+    @Benchmark
+    public ProductDTO convertToDTO() {
+        return productService.convertToDTO(product);
+    }
+
+    @Benchmark
+    public Product convertToEntity() {
+        return productService.convertToEntity(productDTO);
+    }
+}
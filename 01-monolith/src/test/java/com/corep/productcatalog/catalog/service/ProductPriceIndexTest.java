@@ -0,0 +1,190 @@
+package com.corep.productcatalog.catalog.service;
+
+import com.corep.productcatalog.catalog.dto.ProductDTO;
+import com.corep.productcatalog.catalog.event.ProductCreatedEvent;
+import com.corep.productcatalog.catalog.event.ProductDeletedEvent;
+import com.corep.productcatalog.catalog.event.ProductUpdatedEvent;
+import com.corep.productcatalog.catalog.repository.ProductPriceView;
+import com.corep.productcatalog.catalog.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductPriceIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductPriceIndex priceIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(productRepository.streamPriceViews()).thenReturn(Stream.of(
+                view(1L, "Accessories", "29.99"),
+                view(2L, "Electronics", "1299.99"),
+                view(3L, "Accessories", "49.50"),
+                view(4L, "Electronics", "49.50"),
+                view(5L, "Kitchen", "12.00")));
+        priceIndex.rebuild();
+    }
+
+    @Test
+    void testRangeIsInclusiveAndOrderedByPrice() {
+        // When
+        ProductPriceIndex.PriceRangeResult ascending = find("12.00", "49.50", null, ProductPriceIndex.Order.PRICE_ASC);
+        ProductPriceIndex.PriceRangeResult descending = find("12.00", "49.50", null, ProductPriceIndex.Order.PRICE_DESC);
+
+        // Then - equal prices ordered by id
+        assertEquals(List.of(5L, 1L, 3L, 4L), ascending.productIds());
+        assertEquals(List.of(4L, 3L, 1L, 5L), descending.productIds());
+        assertEquals(4, ascending.totalMatches());
+    }
+
+    @Test
+    void testBoundsAreRoundedToWholeCents() {
+        assertEquals(List.of(3L, 4L), find("49.499", "49.501", null, ProductPriceIndex.Order.ID_ASC).productIds());
+        assertEquals(0, find("49.501", "49.509", null, ProductPriceIndex.Order.ID_ASC).totalMatches());
+        assertEquals(0, find("100", "50", null, ProductPriceIndex.Order.ID_ASC).totalMatches());
+    }
+
+    @Test
+    void testBoundsBeyondThePriceColumnAreClamped() {
+        assertEquals(5, find("0", "99999999999999999999", null, ProductPriceIndex.Order.ID_ASC).totalMatches());
+        assertEquals(5, find("-99999999999999999999", "1e30", null, ProductPriceIndex.Order.ID_ASC).totalMatches());
+        assertEquals(0, find("99999999999999999999", "99999999999999999999", null, ProductPriceIndex.Order.ID_ASC)
+                .totalMatches());
+    }
+
+    @Test
+    void testCategoryFilter() {
+        assertEquals(List.of(4L, 2L), find("0", "5000", "Electronics", ProductPriceIndex.Order.PRICE_ASC).productIds());
+        assertEquals(List.of(3L, 1L), find("0", "5000", "Accessories", ProductPriceIndex.Order.ID_DESC).productIds());
+        assertEquals(0, find("0", "5000", "Garden", ProductPriceIndex.Order.ID_ASC).totalMatches());
+    }
+
+    @Test
+    void testPagination() {
+        // When - pages of 2 out of the 5 products, by id
+        ProductPriceIndex.PriceRangeResult secondPage = priceIndex.find(BigDecimal.ZERO, new BigDecimal("5000"),
+                null, ProductPriceIndex.Order.ID_ASC, 2, 2);
+        ProductPriceIndex.PriceRangeResult lastPage = priceIndex.find(BigDecimal.ZERO, new BigDecimal("5000"),
+                null, ProductPriceIndex.Order.PRICE_DESC, 4, 2);
+
+        // Then
+        assertEquals(List.of(3L, 4L), secondPage.productIds());
+        assertEquals(5, secondPage.totalMatches());
+        assertEquals(List.of(5L), lastPage.productIds());
+        assertTrue(priceIndex.find(BigDecimal.ZERO, new BigDecimal("5000"), null,
+                ProductPriceIndex.Order.ID_ASC, 5, 2).productIds().isEmpty());
+    }
+
+    @Test
+    void testIndexFollowsProductEvents() {
+        // When
+        priceIndex.onProductCreated(new ProductCreatedEvent(product(6L, "Kitchen", "45.00")));
+        priceIndex.onProductUpdated(new ProductUpdatedEvent(product(2L, "Accessories", "39.99")));
+        priceIndex.onProductDeleted(new ProductDeletedEvent(1L));
+
+        // Then
+        assertEquals(List.of(2L, 3L), find("0", "5000", "Accessories", ProductPriceIndex.Order.PRICE_ASC).productIds());
+        assertEquals(List.of(4L), find("0", "5000", "Electronics", ProductPriceIndex.Order.PRICE_ASC).productIds());
+        assertEquals(List.of(5L, 6L), find("0", "5000", "Kitchen", ProductPriceIndex.Order.PRICE_ASC).productIds());
+        assertEquals(5, priceIndex.size());
+    }
+
+    @Test
+    void testLargeCatalog_MatchesFullScan() {
+        // Given - enough products to split and drop blocks, then random updates and deletes
+        Random random = new Random(7);
+        Map<Long, ProductDTO> products = new HashMap<>();
+        for (long id = 1; id <= 5; id++) {
+            priceIndex.onProductDeleted(new ProductDeletedEvent(id));
+        }
+        for (int i = 0; i < 20_000; i++) {
+            long id = 1 + random.nextInt(3000);
+            if (random.nextInt(4) == 0) {
+                products.remove(id);
+                priceIndex.onProductDeleted(new ProductDeletedEvent(id));
+            } else {
+                ProductDTO product = product(id, random.nextBoolean() ? "Kitchen" : "Garden",
+                        BigDecimal.valueOf(random.nextInt(10_000), 2).toPlainString());
+                products.put(id, product);
+                priceIndex.onProductUpdated(new ProductUpdatedEvent(product));
+            }
+        }
+
+        // When & Then - narrow and wide ranges, first and deep pages, every order
+        for (int i = 0; i < 300; i++) {
+            BigDecimal min = BigDecimal.valueOf(random.nextInt(10_000), 2);
+            BigDecimal max = min.add(BigDecimal.valueOf(random.nextInt(i % 2 == 0 ? 100 : 10_000), 2));
+            String category = random.nextBoolean() ? null : "Kitchen";
+            ProductPriceIndex.Order order = ProductPriceIndex.Order.values()[i % 4];
+            int offset = random.nextInt(i % 3 == 0 ? 1500 : 40);
+            Comparator<ProductDTO> byId = Comparator.comparing(ProductDTO::getId);
+            Comparator<ProductDTO> comparator = switch (order) {
+                case PRICE_ASC -> Comparator.comparing(ProductDTO::getPrice).thenComparing(byId);
+                case PRICE_DESC -> Comparator.comparing(ProductDTO::getPrice).thenComparing(byId).reversed();
+                case ID_ASC -> byId;
+                case ID_DESC -> byId.reversed();
+            };
+            List<Long> expected = products.values().stream()
+                    .filter(product -> category == null || category.equals(product.getCategory()))
+                    .filter(product -> product.getPrice().compareTo(min) >= 0 && product.getPrice().compareTo(max) <= 0)
+                    .sorted(comparator)
+                    .map(ProductDTO::getId)
+                    .toList();
+
+            ProductPriceIndex.PriceRangeResult result = priceIndex.find(min, max, category, order, offset, 20);
+
+            assertEquals(expected.size(), result.totalMatches());
+            assertEquals(expected.subList(Math.min(offset, expected.size()), Math.min(offset + 20, expected.size())),
+                    result.productIds(), () -> order + " " + min + "-" + max + " offset " + offset);
+        }
+    }
+
+    private ProductPriceIndex.PriceRangeResult find(String min, String max, String category,
+                                                    ProductPriceIndex.Order order) {
+        return priceIndex.find(new BigDecimal(min), new BigDecimal(max), category, order, 0, 10);
+    }
+
+    private ProductDTO product(Long id, String category, String price) {
+        ProductDTO product = new ProductDTO();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setCategory(category);
+        product.setPrice(new BigDecimal(price));
+        return product;
+    }
+
+    private ProductPriceView view(Long id, String category, String price) {
+        return new ProductPriceView() {
+            public Long getId() {
+                return id;
+            }
+
+            public String getCategory() {
+                return category;
+            }
+
+            public BigDecimal getPrice() {
+                return new BigDecimal(price);
+            }
+        };
+    }
+}
@@ -0,0 +1,124 @@
+package com.corep.productcatalog.catalog.service;
+
+import com.corep.productcatalog.catalog.dto.ProductDTO;
+import com.corep.productcatalog.catalog.event.ProductCreatedEvent;
+import com.corep.productcatalog.catalog.event.ProductDeletedEvent;
+import com.corep.productcatalog.catalog.event.ProductUpdatedEvent;
+import com.corep.productcatalog.catalog.repository.ProductRepository;
+import com.corep.productcatalog.catalog.repository.ProductSearchView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(productRepository.streamSearchViews()).thenReturn(Stream.of(
+                view(1L, "Wireless Mouse", "Ergonomic mouse with USB receiver", "Accessories"),
+                view(2L, "Gaming Laptop", "Laptop with a wireless keyboard", "Electronics"),
+                view(3L, "Mouse Pad", "Large pad", "Accessories"),
+                view(4L, "Café Crème Mug", "Ceramic mug", "Kitchen")));
+        searchIndex.rebuild();
+    }
+
+    @Test
+    void testTermInNameRanksAboveTermInDescription() {
+        // When
+        ProductSearchIndex.SearchResult result = searchIndex.search("wireless", 0, 10);
+
+        // Then
+        assertEquals(List.of(1L, 2L), result.productIds());
+        assertEquals(2, result.totalMatches());
+    }
+
+    @Test
+    void testAllTokensMustMatchAndPrefixesMatch() {
+        assertEquals(List.of(1L), searchIndex.search("wire MOU", 0, 10).productIds());
+        assertEquals(List.of(3L), searchIndex.search("mouse pad", 0, 10).productIds());
+        assertTrue(searchIndex.search("mouse kitchen", 0, 10).productIds().isEmpty());
+    }
+
+    @Test
+    void testCaseAndAccentsAreFolded() {
+        assertEquals(List.of(4L), searchIndex.search("CAFE creme", 0, 10).productIds());
+    }
+
+    @Test
+    void testPagination() {
+        // "mouse" matches 1 and 3 (in the name) and no other product
+        ProductSearchIndex.SearchResult firstPage = searchIndex.search("mouse", 0, 1);
+        ProductSearchIndex.SearchResult secondPage = searchIndex.search("mouse", 1, 1);
+
+        assertEquals(2, firstPage.totalMatches());
+        assertEquals(1, firstPage.productIds().size());
+        assertEquals(1, secondPage.productIds().size());
+        assertNotEquals(firstPage.productIds(), secondPage.productIds());
+        assertTrue(searchIndex.search("mouse", 2, 1).productIds().isEmpty());
+    }
+
+    @Test
+    void testIndexFollowsProductEvents() {
+        // When
+        searchIndex.onProductCreated(new ProductCreatedEvent(product(5L, "Wireless Headphones", "Audio")));
+        searchIndex.onProductUpdated(new ProductUpdatedEvent(product(2L, "Gaming Desktop", "Electronics")));
+        searchIndex.onProductDeleted(new ProductDeletedEvent(1L));
+
+        // Then
+        assertEquals(List.of(5L), searchIndex.search("wireless", 0, 10).productIds());
+        assertTrue(searchIndex.search("laptop", 0, 10).productIds().isEmpty());
+        assertEquals(List.of(2L), searchIndex.search("desktop", 0, 10).productIds());
+        assertEquals(4, searchIndex.size());
+    }
+
+    @Test
+    void testBlankQueryMatchesNothing() {
+        assertEquals(0, searchIndex.search(" ,; ", 0, 10).totalMatches());
+    }
+
+    private ProductDTO product(Long id, String name, String category) {
+        ProductDTO product = new ProductDTO();
+        product.setId(id);
+        product.setName(name);
+        product.setCategory(category);
+        product.setPrice(BigDecimal.TEN);
+        return product;
+    }
+
+    private ProductSearchView view(Long id, String name, String description, String category) {
+        return new ProductSearchView() {
+            public Long getId() {
+                return id;
+            }
+
+            public String getName() {
+                return name;
+            }
+
+            public String getDescription() {
+                return description;
+            }
+
+            public String getCategory() {
+                return category;
+            }
+        };
+    }
+}
@@ -1,24 +1,42 @@
 package com.corep.productcatalog.catalog.service;
 
+import com.corep.productcatalog.catalog.dto.ProductBatchDTO;
 import com.corep.productcatalog.catalog.dto.ProductDTO;
 import com.corep.productcatalog.catalog.entity.Product;
+import com.corep.productcatalog.catalog.event.ProductCreatedEvent;
+import com.corep.productcatalog.catalog.event.ProductDeletedEvent;
 import com.corep.productcatalog.catalog.exception.ProductNotFoundException;
 import com.corep.productcatalog.catalog.repository.ProductRepository;
-import com.corep.productcatalog.inventory.service.InventoryService;
+import com.corep.productcatalog.shared.exception.PreconditionFailedException;
+import com.corep.productcatalog.shared.outbox.OutboxEvent;
+import com.corep.productcatalog.shared.outbox.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.Spy;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.anyIterable;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,7 +48,19 @@ class ProductServiceTest {
     private ProductRepository productRepository;
 
     @Mock
-    private InventoryService inventoryService;
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private ProductPriceIndex productPriceIndex;
 
     @InjectMocks
     private ProductService productService;
@@ -60,9 +90,6 @@ class ProductServiceTest {
     void testCreateProduct() {
         // Given
         when(productRepository.save(any(Product.class))).thenReturn(testProduct);
-        // Mock InventoryService.createInventory to return a dummy InventoryDTO
-        // (we don't care about the return value, just that it's called)
-        when(inventoryService.createInventory(eq(1L), eq(0))).thenReturn(null);
 
         // When
         ProductDTO result = productService.createProduct(testProductDTO);
@@ -72,7 +99,10 @@ class ProductServiceTest {
         assertEquals(testProduct.getName(), result.getName());
         assertEquals(testProduct.getPrice(), result.getPrice());
         verify(productRepository, times(1)).save(any(Product.class));
-        verify(inventoryService, times(1)).createInventory(eq(1L), eq(0));
+        // Inventory creation is requested through the outbox, in the same transaction
+        verify(outboxEventRepository, times(1)).save(argThat(event ->
+                ProductCreatedEvent.OUTBOX_TYPE.equals(event.getEventType()) && event.getAggregateId() == 1L));
+        verify(eventPublisher, times(1)).publishEvent(any(ProductCreatedEvent.class));
     }
 
     @Test
@@ -102,6 +132,73 @@ class ProductServiceTest {
         verify(productRepository, times(1)).findById(999L);
     }
 
+    @Test
+    void testGetProductsByIds_ChunkedAndInRequestOrder() {
+        // Given - 250 ids in descending order, the database knows all but the first one
+        List<Long> ids = LongStream.rangeClosed(1, 250).map(i -> 251 - i).boxed().toList();
+        when(productRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            List<Product> products = new ArrayList<>();
+            for (Long id : invocation.<Iterable<Long>>getArgument(0)) {
+                if (id != 250L) {
+                    Product product = new Product();
+                    product.setId(id);
+                    products.add(product);
+                }
+            }
+            return products;
+        });
+
+        // When
+        ProductBatchDTO result = productService.getProductsByIds(ids, false);
+
+        // Then - one IN query per chunk of 100 ids
+        verify(productRepository, times(3)).findAllById(anyIterable());
+        assertEquals(249, result.getProducts().size());
+        assertEquals(249L, result.getProducts().get(0).getId());
+        assertEquals(1L, result.getProducts().get(248).getId());
+        assertEquals(List.of(250L), result.getMissingIds());
+        assertNull(result.getAvailableQuantities());
+    }
+
+    @Test
+    void testGetProductsByPriceRange_PageServedFromPriceIndex() {
+        // Given - second page of 2, most expensive first, out of 5 matches
+        Product other = new Product();
+        other.setId(2L);
+        other.setPrice(new BigDecimal("89.99"));
+        BigDecimal min = new BigDecimal("50");
+        BigDecimal max = new BigDecimal("200");
+        when(productPriceIndex.find(min, max, "Electronics", ProductPriceIndex.Order.PRICE_DESC, 2, 2))
+                .thenReturn(new ProductPriceIndex.PriceRangeResult(List.of(1L, 2L), 5));
+        when(productRepository.findAllById(anyIterable())).thenReturn(List.of(other, testProduct));
+
+        // When
+        Page<ProductDTO> result = productService.getProductsByPriceRange(min, max, "Electronics",
+                PageRequest.of(1, 2, Sort.by("price").descending()));
+
+        // Then - in index order, no range query
+        assertEquals(List.of(1L, 2L), result.getContent().stream().map(ProductDTO::getId).toList());
+        assertEquals(5, result.getTotalElements());
+        verify(productRepository, never()).findByCategoryAndPriceBetween(any(), any(), any(), any());
+    }
+
+    @Test
+    void testGetProductsByPriceRange_OtherSortLeftToDatabase() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("name"));
+        BigDecimal min = new BigDecimal("50");
+        BigDecimal max = new BigDecimal("200");
+        when(productRepository.findByPriceBetween(min, max, pageable))
+                .thenReturn(new PageImpl<>(List.of(testProduct), pageable, 1));
+
+        // When
+        Page<ProductDTO> result = productService.getProductsByPriceRange(min, max, pageable);
+
+        // Then
+        assertEquals(1, result.getTotalElements());
+        verifyNoInteractions(productPriceIndex);
+    }
+
     @Test
     void testUpdateProduct_Success() {
         // Given
@@ -112,7 +209,7 @@ class ProductServiceTest {
         updateDTO.setCategory("Electronics");
 
         when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
-        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
+        when(productRepository.saveAndFlush(any(Product.class))).thenReturn(testProduct);
 
         // When
         ProductDTO result = productService.updateProduct(1L, updateDTO);
@@ -120,7 +217,36 @@ class ProductServiceTest {
         // Then
         assertNotNull(result);
         verify(productRepository, times(1)).findById(1L);
-        verify(productRepository, times(1)).save(any(Product.class));
+        verify(productRepository, times(1)).saveAndFlush(any(Product.class));
+    }
+
+    @Test
+    void testUpdateProduct_IfMatchCurrentVersion() {
+        // Given
+        testProduct.setVersion(3L);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.saveAndFlush(any(Product.class))).thenReturn(testProduct);
+
+        // When
+        ProductDTO result = productService.updateProduct(1L, testProductDTO, "\"p1-v3\"");
+
+        // Then
+        assertEquals(3L, result.getVersion());
+        verify(productRepository, times(1)).saveAndFlush(any(Product.class));
+    }
+
+    @Test
+    void testUpdateProduct_IfMatchStaleVersion() {
+        // Given - the client read version 2, the product is now at version 3
+        testProduct.setVersion(3L);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+
+        // When & Then
+        assertThrows(PreconditionFailedException.class,
+                () -> productService.updateProduct(1L, testProductDTO, "\"p1-v2\""));
+        verify(productRepository, never()).saveAndFlush(any(Product.class));
+        assertEquals(1.0, meterRegistry.counter("optimistic.lock.conflicts",
+                "entity", "product", "operation", "update", "reason", "precondition").count());
     }
 
     @Test
@@ -134,14 +260,13 @@ class ProductServiceTest {
             productService.updateProduct(999L, updateDTO);
         });
         verify(productRepository, times(1)).findById(999L);
-        verify(productRepository, never()).save(any(Product.class));
+        verify(productRepository, never()).saveAndFlush(any(Product.class));
     }
 
     @Test
     void testDeleteProduct_Success() {
         // Given
         when(productRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(inventoryService).deleteInventory(1L);
         doNothing().when(productRepository).deleteById(1L);
 
         // When
@@ -149,7 +274,8 @@ class ProductServiceTest {
 
         // Then
         verify(productRepository, times(1)).existsById(1L);
-        verify(inventoryService, times(1)).deleteInventory(1L);
+        verify(outboxEventRepository, times(1)).save(argThat(event ->
+                ProductDeletedEvent.OUTBOX_TYPE.equals(event.getEventType()) && event.getAggregateId() == 1L));
         verify(productRepository, times(1)).deleteById(1L);
     }
 
@@ -163,7 +289,7 @@ class ProductServiceTest {
             productService.deleteProduct(999L);
         });
         verify(productRepository, times(1)).existsById(999L);
-        verify(inventoryService, never()).deleteInventory(anyLong());
+        verify(outboxEventRepository, never()).save(any(OutboxEvent.class));
         verify(productRepository, never()).deleteById(anyLong());
     }
 }
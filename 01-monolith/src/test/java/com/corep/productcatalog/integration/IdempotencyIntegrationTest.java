@@ -0,0 +1,148 @@
+package com.corep.productcatalog.integration;
+
+import com.corep.productcatalog.catalog.service.ProductService;
+import com.corep.productcatalog.inventory.repository.InventoryRepository;
+import com.corep.productcatalog.inventory.service.InventoryService;
+import com.corep.productcatalog.shared.outbox.OutboxDispatcher;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Idempotency-Key on write endpoints: a retried request is answered from the stored response
+ * Not @Transactional: the first request must commit before its duplicate arrives
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IdempotencyIntegrationTest {
+
+    private static final Long PRODUCT_ID = 930_001L;
+    private static final String PRODUCT_JSON =
+            "{\"name\": \"Idempotent Lamp\", \"price\": 12.50, \"category\": \"Idempotency\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    private final List<Long> createdIds = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        createdIds.forEach(productService::deleteProduct);
+        outboxDispatcher.dispatchPending();
+        inventoryRepository.findByProductId(PRODUCT_ID).ifPresent(inventoryRepository::delete);
+    }
+
+    @Test
+    void testCreateProduct_RetryReplaysResponse() throws Exception {
+        // Given
+        String key = UUID.randomUUID().toString();
+        MvcResult first = mockMvc.perform(post("/api/v1/products")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(PRODUCT_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andReturn();
+        JsonNode created = objectMapper.readTree(first.getResponse().getContentAsString());
+        createdIds.add(created.get("id").asLong());
+
+        // When - the client retries after a timeout
+        MvcResult retry = mockMvc.perform(post("/api/v1/products")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(PRODUCT_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andReturn();
+
+        // Then - same product, created once
+        assertEquals(created, objectMapper.readTree(retry.getResponse().getContentAsString()));
+        assertEquals(1, productService.getProductsByCategoryOrderedByPrice("Idempotency").size());
+    }
+
+    @Test
+    void testReserve_RetryDoesNotReserveTwice() throws Exception {
+        inventoryService.createInventory(PRODUCT_ID, 10);
+        String key = UUID.randomUUID().toString();
+
+        for (int attempt = 0; attempt < 3; attempt++) {
+            mockMvc.perform(post("/api/v1/inventory/product/{productId}/reserve", PRODUCT_ID)
+                            .param("quantity", "4")
+                            .header("Idempotency-Key", key))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.reservedQuantity").value(4));
+        }
+
+        assertEquals(4, inventoryService.getInventoryByProductId(PRODUCT_ID).getReservedQuantity());
+    }
+
+    @Test
+    void testSameKeyForAnotherRequest_Rejected() throws Exception {
+        inventoryService.createInventory(PRODUCT_ID, 10);
+        String key = UUID.randomUUID().toString();
+        mockMvc.perform(post("/api/v1/inventory/product/{productId}/reserve", PRODUCT_ID)
+                        .param("quantity", "1")
+                        .header("Idempotency-Key", key))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/v1/inventory/product/{productId}/reserve", PRODUCT_ID)
+                        .param("quantity", "2")
+                        .header("Idempotency-Key", key))
+                .andExpect(status().isUnprocessableEntity());
+        assertEquals(1, inventoryService.getInventoryByProductId(PRODUCT_ID).getReservedQuantity());
+    }
+
+    @Test
+    void testFailedRequest_ReleasesKey() throws Exception {
+        // Given - the first attempt fails and changes nothing
+        inventoryService.createInventory(PRODUCT_ID, 2);
+        String key = UUID.randomUUID().toString();
+        mockMvc.perform(post("/api/v1/inventory/product/{productId}/reserve", PRODUCT_ID)
+                        .param("quantity", "5")
+                        .header("Idempotency-Key", key))
+                .andExpect(status().isBadRequest());
+
+        // When - retried once the stock is there
+        inventoryService.updateStock(PRODUCT_ID, 10);
+
+        // Then - executed, not replayed
+        mockMvc.perform(post("/api/v1/inventory/product/{productId}/reserve", PRODUCT_ID)
+                        .param("quantity", "5")
+                        .header("Idempotency-Key", key))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andExpect(jsonPath("$.reservedQuantity").value(5));
+    }
+}
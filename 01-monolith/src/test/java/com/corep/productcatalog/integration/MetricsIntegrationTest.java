@@ -0,0 +1,101 @@
+package com.corep.productcatalog.integration;
+
+import com.corep.productcatalog.catalog.dto.ProductDTO;
+import com.corep.productcatalog.catalog.service.ProductService;
+import com.corep.productcatalog.shared.metrics.DatabaseStatementMetricsFilter;
+import com.corep.productcatalog.shared.outbox.OutboxDispatcher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Metrics integration test: service timers, reservation conflicts and SQL statements per request
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        ProductDTO product = new ProductDTO();
+        product.setName("Metrics Mouse");
+        product.setPrice(new BigDecimal("19.99"));
+        product.setCategory("Accessories");
+        productId = productService.createProduct(product).getId();
+        outboxDispatcher.dispatchPending(); // creates the inventory
+    }
+
+    @AfterEach
+    void tearDown() {
+        productService.deleteProduct(productId);
+        outboxDispatcher.dispatchPending();
+    }
+
+    @Test
+    void testReservationConflictsAndTimers() throws Exception {
+        // Given
+        double conflictsBefore = conflicts();
+
+        // When - the product was created without stock
+        mockMvc.perform(post("/api/v1/inventory/product/{productId}/reserve", productId).param("quantity", "1"))
+                .andExpect(status().isBadRequest());
+
+        // Then
+        assertEquals(conflictsBefore + 1, conflicts());
+        Timer timer = meterRegistry.find("inventory.reserve").tag("exception", "InsufficientStockException").timer();
+        assertNotNull(timer);
+        assertTrue(timer.count() >= 1);
+        assertNotNull(meterRegistry.find("catalog.products.create").tag("exception", "none").timer());
+    }
+
+    @Test
+    void testDatabaseStatementsPerRequest() throws Exception {
+        // When
+        mockMvc.perform(get("/api/v1/inventory/product/{productId}", productId))
+                .andExpect(status().isOk());
+
+        // Then
+        DistributionSummary statements = meterRegistry.find(DatabaseStatementMetricsFilter.METRIC_NAME)
+                .tags("method", "GET", "uri", "/api/v1/inventory/product/{productId}", "status", "200")
+                .summary();
+        assertNotNull(statements);
+        assertTrue(statements.count() >= 1);
+        assertTrue(statements.max() >= 1);
+    }
+
+    private double conflicts() {
+        Counter counter = meterRegistry.find("inventory.reservation.conflicts").tag("operation", "reserve").counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
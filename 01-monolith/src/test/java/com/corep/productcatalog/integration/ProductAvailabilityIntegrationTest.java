@@ -0,0 +1,197 @@
+package com.corep.productcatalog.integration;
+
+import com.corep.productcatalog.catalog.dto.ProductDTO;
+import com.corep.productcatalog.catalog.service.ProductService;
+import com.corep.productcatalog.inventory.service.InventoryService;
+import com.corep.productcatalog.shared.outbox.OutboxDispatcher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Product-with-availability read model kept up to date by product and inventory writes
+ * Not @Transactional: the read model is refreshed when the writing transactions commit
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductAvailabilityIntegrationTest {
+
+    private static final String CATEGORY = "Availability";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    private final List<Long> createdIds = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        createdIds.forEach(productService::deleteProduct);
+        outboxDispatcher.dispatchPending();
+    }
+
+    @Test
+    void testReadModelFollowsProductAndInventoryWrites() throws Exception {
+        // Given - a new product: no inventory yet, then an empty one created from the outbox
+        Long id = create("Availability Lamp");
+        mockMvc.perform(get("/api/v1/products/availability/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Availability Lamp"))
+                .andExpect(jsonPath("$.availableQuantity").value(0))
+                .andExpect(jsonPath("$.inStock").value(false));
+        outboxDispatcher.dispatchPending();
+
+        // When - stock, reservation and product update
+        inventoryService.updateStock(id, 10);
+        inventoryService.reserveStock(id, 3);
+        ProductDTO product = productService.getProductById(id);
+        product.setPrice(new BigDecimal("29.90"));
+        productService.updateProduct(id, product);
+
+        // Then
+        mockMvc.perform(get("/api/v1/products/availability/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price").value(29.90))
+                .andExpect(jsonPath("$.availableQuantity").value(7))
+                .andExpect(jsonPath("$.inStock").value(true));
+
+        // When - deleted
+        productService.deleteProduct(id);
+        createdIds.remove(id);
+
+        // Then
+        mockMvc.perform(get("/api/v1/products/availability/{id}", id))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testInStockOnlyFilter() throws Exception {
+        // Given
+        Long inStock = create("Availability Desk");
+        Long outOfStock = create("Availability Chair");
+        outboxDispatcher.dispatchPending();
+        inventoryService.updateStock(inStock, 4);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/products/availability")
+                        .param("category", CATEGORY)
+                        .param("inStockOnly", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(inStock))
+                .andExpect(jsonPath("$.content[0].availableQuantity").value(4));
+
+        mockMvc.perform(get("/api/v1/products/availability").param("category", CATEGORY))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[1].id").value(outOfStock));
+    }
+
+    @Test
+    void testConcurrentProductUpdateAndReservation_BothRefreshTheRow() throws Exception {
+        // Given
+        Long id = create("Availability Shelf");
+        outboxDispatcher.dispatchPending();
+        int rounds = 20;
+        inventoryService.updateStock(id, rounds);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // When - in every round a product update and a reservation of the same product commit together
+        for (int round = 1; round <= rounds; round++) {
+            String name = "Availability Shelf " + round;
+            CountDownLatch start = new CountDownLatch(1);
+            Future<?> update = executor.submit(() -> {
+                start.await();
+                ProductDTO product = productService.getProductById(id);
+                product.setName(name);
+                return productService.updateProduct(id, product);
+            });
+            Future<?> reservation = executor.submit(() -> {
+                start.await();
+                return inventoryService.reserveStock(id, 1);
+            });
+            start.countDown();
+            update.get(30, TimeUnit.SECONDS);
+            reservation.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then - no write failed, and the row has the last name and every reservation
+        mockMvc.perform(get("/api/v1/products/availability/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Availability Shelf " + rounds))
+                .andExpect(jsonPath("$.availableQuantity").value(0))
+                .andExpect(jsonPath("$.inStock").value(false));
+    }
+
+    @Test
+    void testConcurrentReservations_QuantityOfLastCommit() throws Exception {
+        // Given
+        Long id = create("Availability Cabinet");
+        outboxDispatcher.dispatchPending();
+        int threads = 4;
+        int reservationsPerThread = 10;
+        inventoryService.updateStock(id, threads * reservationsPerThread + 5);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // When - inventory-only changes: the quantity columns updated in the order of the inventory writes
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < reservationsPerThread; i++) {
+                    inventoryService.reserveStock(id, 1);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        mockMvc.perform(get("/api/v1/products/availability/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Availability Cabinet"))
+                .andExpect(jsonPath("$.availableQuantity").value(5))
+                .andExpect(jsonPath("$.inStock").value(true));
+    }
+
+    private Long create(String name) {
+        ProductDTO product = new ProductDTO();
+        product.setName(name);
+        product.setPrice(new BigDecimal("25.00"));
+        product.setCategory(CATEGORY);
+        Long id = productService.createProduct(product).getId();
+        createdIds.add(id);
+        return id;
+    }
+}
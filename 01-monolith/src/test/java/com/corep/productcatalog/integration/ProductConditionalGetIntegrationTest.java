@@ -0,0 +1,100 @@
+package com.corep.productcatalog.integration;
+
+import com.corep.productcatalog.catalog.dto.ProductDTO;
+import com.corep.productcatalog.catalog.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Conditional GET (ETag / Last-Modified) integration test
+ * Not @Transactional: the products cache is updated only when the writes commit, as in production
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductConditionalGetIntegrationTest {
+
+    private static final String CATEGORY = "Conditional Get";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    private final List<Long> createdIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        create("Etag Lamp");
+    }
+
+    @AfterEach
+    void tearDown() {
+        createdIds.forEach(productService::deleteProduct);
+    }
+
+    @Test
+    void testGetProductById_NotModifiedUntilUpdated() throws Exception {
+        Long id = createdIds.get(0);
+        String eTag = mockMvc.perform(get("/api/v1/products/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Same version: 304 without body
+        mockMvc.perform(get("/api/v1/products/{id}", id).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // Updated product: new ETag and full body
+        ProductDTO product = productService.getProductById(id);
+        product.setPrice(new BigDecimal("12.50"));
+        productService.updateProduct(id, product);
+        String newETag = mockMvc.perform(get("/api/v1/products/{id}", id).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price").value(12.50))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, newETag);
+    }
+
+    @Test
+    void testGetProductsByCategory_NotModifiedUntilCollectionChanges() throws Exception {
+        String eTag = mockMvc.perform(get("/api/v1/products").param("category", CATEGORY))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/products").param("category", CATEGORY).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        // A new product in the category changes the collection version
+        create("Etag Desk");
+        mockMvc.perform(get("/api/v1/products").param("category", CATEGORY).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2));
+    }
+
+    private void create(String name) {
+        ProductDTO product = new ProductDTO();
+        product.setName(name);
+        product.setPrice(new BigDecimal("10.00"));
+        product.setCategory(CATEGORY);
+        createdIds.add(productService.createProduct(product).getId());
+    }
+}
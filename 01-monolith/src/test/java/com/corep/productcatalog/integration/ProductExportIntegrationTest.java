@@ -0,0 +1,92 @@
+package com.corep.productcatalog.integration;
+
+import com.corep.productcatalog.catalog.entity.Product;
+import com.corep.productcatalog.catalog.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Catalog export integration test
+ * Not @Transactional: the export is streamed from another thread, in its own transaction
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductExportIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        productRepository.save(newProduct("Laptop", "Fast, light laptop", "999.00"));
+        productRepository.save(newProduct("Book", "A \"classic\" novel", "12.50"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void testExportProducts_Ndjson() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/products/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"name\":\"Laptop\""));
+        assertTrue(lines[1].contains("\"name\":\"Book\""));
+    }
+
+    @Test
+    void testExportProducts_Csv() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/products/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\r\n");
+        assertEquals(3, lines.length);
+        assertEquals("id,name,description,price,category,createdAt,updatedAt", lines[0]);
+        assertTrue(lines[1].contains(",Laptop,\"Fast, light laptop\",999.00,Electronics,"));
+        assertTrue(lines[2].contains(",Book,\"A \"\"classic\"\" novel\",12.50,Electronics,"));
+    }
+
+    private Product newProduct(String name, String description, String price) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription(description);
+        product.setPrice(new BigDecimal(price));
+        product.setCategory("Electronics");
+        return product;
+    }
+}
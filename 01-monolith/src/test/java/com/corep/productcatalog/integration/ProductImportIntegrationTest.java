@@ -0,0 +1,117 @@
+package com.corep.productcatalog.integration;
+
+import com.corep.productcatalog.catalog.repository.ProductRepository;
+import com.corep.productcatalog.inventory.repository.InventoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Bulk import integration test
+ * Not @Transactional: every chunk is committed in its own transaction
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductImportIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @AfterEach
+    void tearDown() {
+        inventoryRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void testImportProducts_Ndjson() throws Exception {
+        String feed = """
+                {"name": "Mouse", "price": 19.99, "category": "Accessories", "initialStock": 40}
+                {"name": "", "price": 5.00, "category": "Accessories"}
+                {"name": "Keyboard", "price": 49.00, "category": "Accessories"}
+                not json
+                """;
+
+        mockMvc.perform(post("/api/v1/products/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(feed))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRows").value(4))
+                .andExpect(jsonPath("$.importedRows").value(2))
+                .andExpect(jsonPath("$.failedRows").value(2))
+                .andExpect(jsonPath("$.errors[0].row").value(2))
+                .andExpect(jsonPath("$.errors[0].message").value("Product name is required"))
+                .andExpect(jsonPath("$.errors[1].row").value(4));
+
+        assertEquals(2, productRepository.count());
+        assertEquals(2, inventoryRepository.count());
+        Long mouseId = productRepository.findByNameContainingIgnoreCase("Mouse").get(0).getId();
+        assertEquals(40, inventoryRepository.findByProductId(mouseId).orElseThrow().getStockQuantity());
+    }
+
+    @Test
+    void testImportProducts_NdjsonInvalidInitialStock() throws Exception {
+        String feed = """
+                {"name": "Webcam", "price": 59.00, "category": "Accessories", "initialStock": "abc"}
+                {"name": "Headset", "price": 79.00, "category": "Accessories", "initialStock": -5}
+                {"name": "Speaker", "price": 99.00, "category": "Accessories", "initialStock": 12.7}
+                {"name": "Router", "price": 89.00, "category": "Accessories", "initialStock": null}
+                {"name": "Hub", "price": 25.00, "category": "Accessories", "initialStock": "8"}
+                """;
+
+        mockMvc.perform(post("/api/v1/products/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(feed))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importedRows").value(1))
+                .andExpect(jsonPath("$.failedRows").value(4))
+                .andExpect(jsonPath("$.errors[0].message").value("Invalid number: For input string: \"abc\""))
+                .andExpect(jsonPath("$.errors[1].message").value("Initial stock cannot be negative"))
+                .andExpect(jsonPath("$.errors[2].row").value(3))
+                .andExpect(jsonPath("$.errors[3].row").value(4));
+
+        Long hubId = productRepository.findByNameContainingIgnoreCase("Hub").get(0).getId();
+        assertEquals(8, inventoryRepository.findByProductId(hubId).orElseThrow().getStockQuantity());
+    }
+
+    @Test
+    void testImportProducts_Csv() throws Exception {
+        String feed = "name,description,price,category,initialStock\r\n"
+                + "Monitor,\"27\"\", 4K\",399.99,Electronics,5\r\n"
+                + "Cable,,abc,Electronics,1\r\n";
+
+        mockMvc.perform(post("/api/v1/products/import")
+                        .contentType("text/csv")
+                        .content(feed))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importedRows").value(1))
+                .andExpect(jsonPath("$.failedRows").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(2));
+
+        assertEquals("27\", 4K", productRepository.findByNameContainingIgnoreCase("Monitor").get(0).getDescription());
+    }
+
+    @Test
+    void testImportProducts_CsvWithoutRequiredColumns() throws Exception {
+        mockMvc.perform(post("/api/v1/products/import")
+                        .contentType("text/csv")
+                        .content("title,cost\r\nMonitor,399.99\r\n"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -3,13 +3,16 @@ package com.corep.productcatalog.integration;
 import com.corep.productcatalog.catalog.dto.ProductDTO;
 import com.corep.productcatalog.catalog.entity.Product;
 import com.corep.productcatalog.catalog.repository.ProductRepository;
+import com.corep.productcatalog.inventory.service.InventoryService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
@@ -39,6 +42,9 @@ class ProductIntegrationTest {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private InventoryService inventoryService;
+
     private Product testProduct;
 
     @BeforeEach
@@ -141,4 +147,112 @@ class ProductIntegrationTest {
                 .andExpect(jsonPath("$.content.length()").value(1))
                 .andExpect(jsonPath("$.content[0].category").value("Electronics"));
     }
+
+    @Test
+    void testGetAllProducts_KeysetPagination_Integration() throws Exception {
+        // Given - 4 more products, two of them with the same price as the test product (99.99)
+        for (String price : new String[]{"99.99", "10.00", "99.99", "500.00"}) {
+            Product product = new Product();
+            product.setName("Product " + price);
+            product.setPrice(new BigDecimal(price));
+            product.setCategory("Books");
+            productRepository.save(product);
+        }
+
+        // When - first page sorted by price, then follow the cursors
+        MvcResult first = mockMvc.perform(get("/api/v1/products")
+                        .param("pagination", "keyset")
+                        .param("size", "2")
+                        .param("sortBy", "price"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].price").value(10.00))
+                .andExpect(jsonPath("$.content[1].price").value(99.99))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn();
+        String cursor = JsonPath.read(first.getResponse().getContentAsString(), "$.nextCursor");
+
+        MvcResult second = mockMvc.perform(get("/api/v1/products")
+                        .param("pagination", "keyset")
+                        .param("size", "2")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].price").value(99.99))
+                .andExpect(jsonPath("$.content[1].price").value(99.99))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn();
+        cursor = JsonPath.read(second.getResponse().getContentAsString(), "$.nextCursor");
+
+        // Then - last page
+        mockMvc.perform(get("/api/v1/products")
+                        .param("pagination", "keyset")
+                        .param("size", "2")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].price").value(500.00))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    void testGetAllProducts_KeysetPagination_InvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/v1/products")
+                        .param("pagination", "keyset")
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetAllProducts_KeysetPagination_FiltersAndInvalidSizesRejected() throws Exception {
+        mockMvc.perform(get("/api/v1/products")
+                        .param("pagination", "keyset")
+                        .param("category", "Books"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/products")
+                        .param("pagination", "keyset")
+                        .param("minPrice", "10")
+                        .param("maxPrice", "20"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/products")
+                        .param("pagination", "keyset")
+                        .param("size", "501"))
+                .andExpect(status().isBadRequest());
+        for (String size : new String[]{"0", "-1"}) {
+            mockMvc.perform(get("/api/v1/products")
+                            .param("pagination", "keyset")
+                            .param("size", size))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Test
+    void testGetProductsByIds_KeepsOrderAndReportsMissing() throws Exception {
+        // Given - a second product, with inventory
+        Product mouse = new Product();
+        mouse.setName("Mouse");
+        mouse.setPrice(new BigDecimal("19.99"));
+        mouse.setCategory("Accessories");
+        mouse = productRepository.save(mouse);
+        inventoryService.createInventory(mouse.getId(), 7);
+        long unknownId = mouse.getId() + 1000;
+
+        // When & Then - requested order, duplicate removed, unknown id reported
+        mockMvc.perform(get("/api/v1/products/batch")
+                        .param("ids", mouse.getId() + "," + unknownId + "," + testProduct.getId() + "," + mouse.getId())
+                        .param("includeAvailability", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products.length()").value(2))
+                .andExpect(jsonPath("$.products[0].name").value("Mouse"))
+                .andExpect(jsonPath("$.products[1].name").value("Test Product"))
+                .andExpect(jsonPath("$.missingIds[0]").value(unknownId))
+                .andExpect(jsonPath("$.availableQuantities['" + mouse.getId() + "']").value(7))
+                .andExpect(jsonPath("$.availableQuantities['" + testProduct.getId() + "']").doesNotExist());
+    }
+
+    @Test
+    void testGetProductsByIds_EmptyIds() throws Exception {
+        mockMvc.perform(get("/api/v1/products/batch").param("ids", ""))
+                .andExpect(status().isBadRequest());
+    }
 }
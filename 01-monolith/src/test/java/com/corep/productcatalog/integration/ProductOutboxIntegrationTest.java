@@ -0,0 +1,118 @@
+package com.corep.productcatalog.integration;
+
+import com.corep.productcatalog.catalog.dto.ProductDTO;
+import com.corep.productcatalog.catalog.event.ProductCreatedEvent;
+import com.corep.productcatalog.catalog.service.ProductService;
+import com.corep.productcatalog.inventory.event.InventoryChangedEvent;
+import com.corep.productcatalog.inventory.repository.InventoryRepository;
+import com.corep.productcatalog.inventory.service.InventoryOutboxHandler;
+import com.corep.productcatalog.shared.outbox.OutboxDispatcher;
+import com.corep.productcatalog.shared.outbox.OutboxEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Product lifecycle through the transactional outbox
+ * Not @Transactional: the outbox events are delivered in their own transactions, after the product commits
+ * The scheduled poll is pushed back so that the test thread delivers the events: the scheduler has a thread per job
+ * and would otherwise deliver them first, on a thread whose events are not recorded
+ */
+@SpringBootTest(properties = "app.outbox.poll-interval=PT1H")
+@ActiveProfiles("test")
+@RecordApplicationEvents
+class ProductOutboxIntegrationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InventoryOutboxHandler inventoryOutboxHandler;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Autowired
+    private ThreadPoolTaskScheduler taskScheduler;
+
+    @Autowired
+    private List<ScheduledTaskHolder> scheduledTaskHolders;
+
+    @Test
+    void testInventoryCreatedAndDeletedFromOutbox() {
+        // Given
+        ProductDTO product = new ProductDTO();
+        product.setName("Outbox Keyboard");
+        product.setPrice(new BigDecimal("49.99"));
+        product.setCategory("Accessories");
+        Long productId = productService.createProduct(product).getId();
+
+        // When
+        outboxDispatcher.dispatchPending();
+
+        // Then
+        assertEquals(0, inventoryRepository.findByProductId(productId).orElseThrow().getStockQuantity());
+
+        // When
+        productService.deleteProduct(productId);
+        outboxDispatcher.dispatchPending();
+
+        // Then
+        assertFalse(inventoryRepository.existsByProductId(productId));
+        assertTrue(outboxEventRepository.findAll().stream()
+                .noneMatch(event -> event.getAggregateId().equals(productId)));
+        assertEquals(1, events.stream(InventoryChangedEvent.class)
+                .filter(event -> event.getProductId().equals(productId) && event.getAvailableQuantity() == 0)
+                .count());
+    }
+
+    @Test
+    void testProductCreatedRetriedAfterDelete_CreatesNoInventory() {
+        // Given - created and deleted before its ProductCreated was delivered
+        ProductDTO product = new ProductDTO();
+        product.setName("Outbox Mouse");
+        product.setPrice(new BigDecimal("19.99"));
+        product.setCategory("Accessories");
+        Long productId = productService.createProduct(product).getId();
+        productService.deleteProduct(productId);
+        outboxDispatcher.dispatchPending();
+
+        // When - ProductCreated delivered once more
+        inventoryOutboxHandler.handle(ProductCreatedEvent.OUTBOX_TYPE, List.of(productId));
+
+        // Then
+        assertFalse(inventoryRepository.existsByProductId(productId));
+    }
+
+    @Test
+    void testSchedulerHasThreadPerScheduledJob() {
+        // When
+        int scheduledJobs = scheduledTaskHolders.stream()
+                .mapToInt(holder -> holder.getScheduledTasks().size())
+                .sum();
+
+        // Then - the outbox poll never waits behind another job
+        assertTrue(scheduledJobs > 1);
+        assertTrue(taskScheduler.getPoolSize() >= scheduledJobs,
+                scheduledJobs + " scheduled jobs on " + taskScheduler.getPoolSize() + " scheduler threads");
+    }
+}
@@ -0,0 +1,105 @@
+package com.corep.productcatalog.integration;
+
+import com.corep.productcatalog.catalog.dto.ProductDTO;
+import com.corep.productcatalog.catalog.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Product search integration test
+ * Not @Transactional: the search index is updated only after the product writes commit
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductSearchIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    private final List<Long> createdIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        create("Zyxtro Wireless Headset", "Over-ear headset", "Audio");
+        create("Zyxtro Speaker", "Wireless speaker for the zyxtro headset", "Audio");
+    }
+
+    @AfterEach
+    void tearDown() {
+        createdIds.forEach(productService::deleteProduct);
+    }
+
+    @Test
+    void testSearchProducts_RankedByRelevance() throws Exception {
+        mockMvc.perform(get("/api/v1/products/search").param("q", "zyxtro headset"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.content[0].id").value(createdIds.get(0)))
+                .andExpect(jsonPath("$.content[1].id").value(createdIds.get(1)));
+    }
+
+    @Test
+    void testSearchProducts_PrefixAndPagination() throws Exception {
+        mockMvc.perform(get("/api/v1/products/search")
+                        .param("q", "zyx wirel")
+                        .param("size", "1")
+                        .param("page", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.content.length()").value(1));
+    }
+
+    @Test
+    void testSearchProducts_UpdatedAndDeletedProducts() throws Exception {
+        ProductDTO speaker = productService.getProductById(createdIds.get(1));
+        speaker.setName("Zyxtro Subwoofer");
+        speaker.setDescription("Bass");
+        productService.updateProduct(speaker.getId(), speaker);
+        productService.deleteProduct(createdIds.remove(0));
+
+        mockMvc.perform(get("/api/v1/products/search").param("q", "zyxtro headset"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(0));
+        mockMvc.perform(get("/api/v1/products/search").param("q", "subwoofer"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(speaker.getId()));
+    }
+
+    @Test
+    void testSearchProducts_BlankQuery() throws Exception {
+        mockMvc.perform(get("/api/v1/products/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testSearchProducts_PageSizeCapped() throws Exception {
+        mockMvc.perform(get("/api/v1/products/search").param("q", "zyxtro").param("size", "501"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void create(String name, String description, String category) {
+        ProductDTO product = new ProductDTO();
+        product.setName(name);
+        product.setDescription(description);
+        product.setPrice(new BigDecimal("59.90"));
+        product.setCategory(category);
+        createdIds.add(productService.createProduct(product).getId());
+    }
+}
@@ -0,0 +1,116 @@
+package com.corep.productcatalog.integration;
+
+import com.corep.productcatalog.catalog.dto.ProductDTO;
+import com.corep.productcatalog.catalog.service.ProductService;
+import com.corep.productcatalog.shared.datasource.ReadReplicaRoutingDataSource;
+import com.corep.productcatalog.shared.datasource.ReplicaLagMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Read replica routing with two local "nodes": the replica is the same H2 database opened as another
+ * user, so the user of the connection tells which data source served a transaction
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replicadb;INIT=CREATE USER IF NOT EXISTS REPLICA PASSWORD 'replica' ADMIN",
+        "app.read-replicas.enabled=true",
+        "app.read-replicas.max-lag=PT5S",
+        "app.read-replicas.lag-query=SELECT lag_seconds FROM replica_lag",
+        "app.read-replicas.replicas[0].url=jdbc:h2:mem:replicadb",
+        "app.read-replicas.replicas[0].username=REPLICA",
+        "app.read-replicas.replicas[0].password=replica"
+})
+@ActiveProfiles("test")
+class ReadReplicaRoutingIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private ReadReplicaRoutingDataSource routingDataSource;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS replica_lag (lag_seconds DOUBLE)");
+        jdbcTemplate.update("DELETE FROM replica_lag");
+        jdbcTemplate.update("INSERT INTO replica_lag VALUES (0)");
+        replicaLagMonitor.checkReplicas();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("UPDATE replica_lag SET lag_seconds = 0");
+        replicaLagMonitor.checkReplicas();
+    }
+
+    @Test
+    void testReadOnlyTransactionsGoToReplica() {
+        assertEquals("REPLICA", currentUser(true));
+        assertEquals("SA", currentUser(false));
+    }
+
+    @Test
+    void testLaggingReplicaIsSkipped() {
+        // Given - the replica reports 60 s of lag, more than max-lag
+        jdbcTemplate.update("UPDATE replica_lag SET lag_seconds = 60");
+
+        // When
+        replicaLagMonitor.checkReplicas();
+
+        // Then - reads fall back to the primary until the replica catches up
+        assertFalse(routingDataSource.getReplicas().get(0).isAvailable());
+        assertEquals(60.0, meterRegistry.get("datasource.replica.lag").tag("replica", "replica-1").gauge().value());
+        assertEquals("SA", currentUser(true));
+
+        jdbcTemplate.update("UPDATE replica_lag SET lag_seconds = 1");
+        replicaLagMonitor.checkReplicas();
+        assertEquals("REPLICA", currentUser(true));
+    }
+
+    @Test
+    void testServiceReadsAndWritesAreRouted() {
+        // Given - written through the primary
+        ProductDTO product = new ProductDTO();
+        product.setName("Replicated Lamp");
+        product.setPrice(new BigDecimal("15.00"));
+        product.setCategory("Replica");
+        Long id = productService.createProduct(product).getId();
+
+        // When - read in a readOnly transaction, i.e. from the replica
+        try {
+            assertEquals(1, productService.getProductsByCategory("Replica").size());
+        } finally {
+            productService.deleteProduct(id);
+        }
+    }
+
+    private String currentUser(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT CURRENT_USER", String.class));
+    }
+}
@@ -0,0 +1,106 @@
+package com.corep.productcatalog.integration;
+
+import com.corep.productcatalog.catalog.dto.ProductDTO;
+import com.corep.productcatalog.catalog.service.ProductService;
+import com.corep.productcatalog.catalog.service.ProductVersion;
+import com.corep.productcatalog.shared.datasource.ReplicaLagMonitor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reads right after an update, with a replica that has not received it yet: the replica is the STALE schema
+ * of the same H2 database, holding a copy of the products table taken before the update
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:staledb;INIT=CREATE USER IF NOT EXISTS REPLICA PASSWORD 'replica' ADMIN"
+                + "\\\\;CREATE SCHEMA IF NOT EXISTS STALE",
+        "app.read-replicas.enabled=true",
+        "app.read-replicas.max-lag=PT5S",
+        "app.read-replicas.lag-query=SELECT lag_seconds FROM replica_lag",
+        "app.read-replicas.replicas[0].url=jdbc:h2:mem:staledb;SCHEMA=STALE",
+        "app.read-replicas.replicas[0].username=REPLICA",
+        "app.read-replicas.replicas[0].password=replica"
+})
+@ActiveProfiles("test")
+class ReadReplicaStalenessIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private ProductService productService;
+
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS STALE.replica_lag (lag_seconds DOUBLE)");
+        jdbcTemplate.update("DELETE FROM STALE.replica_lag");
+        jdbcTemplate.update("INSERT INTO STALE.replica_lag VALUES (1)");
+        replicaLagMonitor.checkReplicas();
+
+        ProductDTO product = new ProductDTO();
+        product.setName("Lagging Lamp");
+        product.setPrice(new BigDecimal("15.00"));
+        product.setCategory("Stale");
+        productId = productService.createProduct(product).getId();
+
+        // The replica has the product as it was before the update
+        jdbcTemplate.execute("DROP TABLE IF EXISTS STALE.products");
+        jdbcTemplate.execute("CREATE TABLE STALE.products AS SELECT * FROM PUBLIC.products");
+        productService.getProductById(productId); // cached, then evicted by the update
+    }
+
+    @AfterEach
+    void tearDown() {
+        productService.deleteProduct(productId);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS STALE.products");
+    }
+
+    @Test
+    void testReadAfterUpdate_NotServedByTheStaleReplica() {
+        // Given
+        ProductDTO update = new ProductDTO();
+        update.setName("Lagging Lamp");
+        update.setPrice(new BigDecimal("19.00"));
+        update.setCategory("Stale");
+        ProductDTO updated = productService.updateProduct(productId, update);
+
+        // The replica still serves the old price to plain read-only transactions
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        assertEquals(0, new BigDecimal("15.00").compareTo(readOnly.execute(status -> jdbcTemplate.queryForObject(
+                "SELECT price FROM products WHERE id = ?", BigDecimal.class, productId))));
+
+        // When & Then - cached and versioned reads see the update
+        ProductVersion expected = ProductVersion.ofProduct(productId, updated.getVersion(), updated.getUpdatedAt());
+        assertEquals(expected.getETag(), productService.getProductVersion(productId).getETag());
+        assertEquals(0, new BigDecimal("19.00").compareTo(productService.getProductById(productId).getPrice()));
+        assertEquals(0, new BigDecimal("19.00").compareTo(productService.getProductById(productId).getPrice()));
+        assertEquals(0, new BigDecimal("19.00").compareTo(productService.getProductsByIds(List.of(productId), false)
+                .getProducts().get(0).getPrice()));
+        assertEquals(0, new BigDecimal("19.00").compareTo(productService.getProductsByCategory("Stale",
+                PageRequest.of(0, 10)).getContent().get(0).getPrice()));
+        assertEquals(0, new BigDecimal("19.00").compareTo(productService.getProductsByCategory("Stale")
+                .get(0).getPrice()));
+    }
+}
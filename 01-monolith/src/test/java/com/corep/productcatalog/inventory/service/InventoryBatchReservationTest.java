@@ -0,0 +1,148 @@
+package com.corep.productcatalog.inventory.service;
+
+import com.corep.productcatalog.inventory.dto.InventoryDTO;
+import com.corep.productcatalog.inventory.dto.StockBatchRequestDTO.Line;
+import com.corep.productcatalog.inventory.exception.InsufficientStockException;
+import com.corep.productcatalog.inventory.exception.InventoryNotFoundException;
+import com.corep.productcatalog.inventory.repository.InventoryRepository;
+import com.corep.productcatalog.shared.exception.PreconditionFailedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class InventoryBatchReservationTest {
+
+    private static final Long LAPTOP_ID = 910_001L;
+    private static final Long MOUSE_ID = 910_002L;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @BeforeEach
+    void setUp() {
+        inventoryService.createInventory(LAPTOP_ID, 5);
+        inventoryService.createInventory(MOUSE_ID, 50);
+    }
+
+    @AfterEach
+    void tearDown() {
+        inventoryRepository.findByProductId(LAPTOP_ID).ifPresent(inventoryRepository::delete);
+        inventoryRepository.findByProductId(MOUSE_ID).ifPresent(inventoryRepository::delete);
+    }
+
+    @Test
+    void testReserveStockBatch_Success() {
+        // Given - lines in any order, the mouse appears twice
+        List<Line> lines = List.of(new Line(MOUSE_ID, 3), new Line(LAPTOP_ID, 2), new Line(MOUSE_ID, 4));
+
+        // When
+        List<InventoryDTO> result = inventoryService.reserveStockBatch(lines);
+
+        // Then - one result per product, sorted by product id
+        assertEquals(2, result.size());
+        assertEquals(LAPTOP_ID, result.get(0).getProductId());
+        assertEquals(2, result.get(0).getReservedQuantity());
+        assertEquals(MOUSE_ID, result.get(1).getProductId());
+        assertEquals(7, result.get(1).getReservedQuantity());
+    }
+
+    @Test
+    void testReserveStockBatch_AllOrNothing() {
+        // Given - the laptop line cannot be satisfied
+        List<Line> lines = List.of(new Line(MOUSE_ID, 10), new Line(LAPTOP_ID, 6));
+
+        // When & Then
+        assertThrows(InsufficientStockException.class, () -> inventoryService.reserveStockBatch(lines));
+        assertEquals(0, inventoryService.getInventoryByProductId(MOUSE_ID).getReservedQuantity());
+        assertEquals(0, inventoryService.getInventoryByProductId(LAPTOP_ID).getReservedQuantity());
+    }
+
+    @Test
+    void testReserveStockBatch_MissingInventory() {
+        List<Line> lines = List.of(new Line(MOUSE_ID, 1), new Line(999_999L, 1));
+
+        InventoryNotFoundException ex = assertThrows(InventoryNotFoundException.class,
+                () -> inventoryService.reserveStockBatch(lines));
+        assertTrue(ex.getMessage().contains("999999"));
+        assertEquals(0, inventoryService.getInventoryByProductId(MOUSE_ID).getReservedQuantity());
+    }
+
+    @Test
+    void testReleaseStockBatch_Success() {
+        inventoryService.reserveStockBatch(List.of(new Line(LAPTOP_ID, 3), new Line(MOUSE_ID, 10)));
+
+        List<InventoryDTO> result = inventoryService.releaseStockBatch(
+                List.of(new Line(LAPTOP_ID, 3), new Line(MOUSE_ID, 4)));
+
+        assertEquals(0, result.get(0).getReservedQuantity());
+        assertEquals(6, result.get(1).getReservedQuantity());
+    }
+
+    @Test
+    void testReserveStockBatch_ConcurrentBatchesLoseNoUpdate() throws Exception {
+        // Given - concurrent orders on the same rows: version conflicts are retried from a fresh read
+        int orders = 6;
+        ExecutorService executor = Executors.newFixedThreadPool(orders);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < orders; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    inventoryService.reserveStockBatch(List.of(new Line(MOUSE_ID, 2), new Line(LAPTOP_ID, 0)));
+                    return true;
+                } catch (OptimisticLockingFailureException e) {
+                    return false; // retries exhausted: rolled back, nothing reserved
+                }
+            }));
+        }
+
+        // When
+        start.countDown();
+        int succeeded = 0;
+        for (Future<Boolean> result : results) {
+            succeeded += result.get(30, TimeUnit.SECONDS) ? 1 : 0;
+        }
+        executor.shutdown();
+
+        // Then - every successful order is counted exactly once
+        assertTrue(succeeded > 0);
+        assertEquals(2 * succeeded, inventoryService.getInventoryByProductId(MOUSE_ID).getReservedQuantity());
+    }
+
+    @Test
+    void testUpdateStock_IfMatchStaleAfterReservation() {
+        // Given - the client reads the inventory, then a reservation changes it
+        InventoryDTO read = inventoryService.getInventoryByProductId(LAPTOP_ID);
+        String eTag = InventoryService.eTag(LAPTOP_ID, read.getVersion());
+        inventoryService.reserveStock(LAPTOP_ID, 1);
+
+        // When & Then - the stock computed from the stale read is rejected
+        assertThrows(PreconditionFailedException.class, () -> inventoryService.updateStock(LAPTOP_ID, 10, eTag));
+        assertEquals(5, inventoryService.getInventoryByProductId(LAPTOP_ID).getStockQuantity());
+
+        InventoryDTO current = inventoryService.getInventoryByProductId(LAPTOP_ID);
+        InventoryDTO updated = inventoryService.updateStock(LAPTOP_ID, 10, InventoryService.eTag(LAPTOP_ID, current.getVersion()));
+        assertEquals(10, updated.getStockQuantity());
+        assertEquals(current.getVersion() + 1, updated.getVersion());
+    }
+}
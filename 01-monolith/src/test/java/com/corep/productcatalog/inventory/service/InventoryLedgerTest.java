@@ -0,0 +1,306 @@
+package com.corep.productcatalog.inventory.service;
+
+import com.corep.productcatalog.inventory.dto.InventoryDTO;
+import com.corep.productcatalog.inventory.entity.Inventory;
+import com.corep.productcatalog.inventory.entity.InventoryLedgerCheckpoint;
+import com.corep.productcatalog.inventory.entity.InventoryLedgerProductCheckpoint;
+import com.corep.productcatalog.inventory.exception.InsufficientStockException;
+import com.corep.productcatalog.inventory.repository.InventoryLedgerCheckpointRepository;
+import com.corep.productcatalog.inventory.repository.InventoryLedgerProductCheckpointRepository;
+import com.corep.productcatalog.inventory.repository.InventoryRepository;
+import com.corep.productcatalog.shared.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * In-memory ledger: reservations served from memory, written behind to the inventory table
+ * Flush interval of one hour: the tests decide when the ledger writes to the table
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ledgerdb",
+        "app.inventory.ledger.enabled=true",
+        "app.inventory.ledger.shards=2",
+        "app.inventory.ledger.flush-interval=PT1H",
+        "app.inventory.ledger.journal-directory=target/inventory-ledger-test"
+})
+@ActiveProfiles("test")
+class InventoryLedgerTest {
+
+    private static final Long HEADPHONES_ID = 940_001L;
+    // Same shard as the headphones (2 shards)
+    private static final Long SPEAKER_ID = 940_003L;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InventoryLedgerCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private InventoryLedgerProductCheckpointRepository productCheckpointRepository;
+
+    @Autowired
+    private InventoryMovementService movementService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        inventoryService.createInventory(HEADPHONES_ID, 10);
+        inventoryService.createInventory(SPEAKER_ID, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        inventoryService.deleteInventories(List.of(HEADPHONES_ID, SPEAKER_ID));
+    }
+
+    @Test
+    void testReserveAndRelease_ServedFromMemoryThenWrittenBehind() {
+        // When
+        inventoryService.reserveStock(HEADPHONES_ID, 4);
+        inventoryService.reserveStock(HEADPHONES_ID, 2);
+        InventoryDTO released = inventoryService.releaseStock(HEADPHONES_ID, 1);
+
+        // Then - the ledger answers, the table is not written yet
+        assertEquals(5, released.getAvailableQuantity());
+        assertEquals(5, inventoryService.getInventoryByProductId(HEADPHONES_ID).getReservedQuantity());
+        assertEquals(0, reservedInTable());
+        assertThrows(InsufficientStockException.class, () -> inventoryService.reserveStock(HEADPHONES_ID, 6));
+
+        // When - written behind
+        inventoryLedger.flush();
+
+        // Then - same quantities and version as served by the ledger
+        Inventory inventory = inventoryRepository.findByProductId(HEADPHONES_ID).orElseThrow();
+        assertEquals(5, inventory.getReservedQuantity());
+        assertEquals(released.getVersion(), inventory.getVersion());
+    }
+
+    @Test
+    void testCallerRollback_UndoesReservation() {
+        transactionTemplate.executeWithoutResult(status -> {
+            inventoryService.reserveStock(HEADPHONES_ID, 4);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(10, inventoryService.getInventoryByProductId(HEADPHONES_ID).getAvailableQuantity());
+    }
+
+    @Test
+    void testUpdateStock_FencesPendingReservations() {
+        // Given - a reservation not yet in the table
+        inventoryService.reserveStock(HEADPHONES_ID, 3);
+
+        // When - written straight to the table
+        inventoryService.updateStock(HEADPHONES_ID, 20);
+
+        // Then - the reservation was flushed first and the ledger reloads the new stock
+        assertEquals(3, reservedInTable());
+        assertEquals(16, inventoryService.reserveStock(HEADPHONES_ID, 1).getAvailableQuantity());
+    }
+
+    @Test
+    void testFence_FlushesOnlyTheFencedProduct() {
+        // Given - reservations of two products of the same shard, not yet in the table
+        inventoryService.reserveStock(HEADPHONES_ID, 3);
+        inventoryService.reserveStock(SPEAKER_ID, 2);
+
+        // When
+        inventoryService.updateStock(HEADPHONES_ID, 20);
+
+        // Then - the other product stays pending, the fenced one has a product checkpoint
+        assertEquals(3, reservedInTable());
+        assertEquals(0, inventoryRepository.findByProductId(SPEAKER_ID).orElseThrow().getReservedQuantity());
+        assertTrue(productCheckpointRepository.existsById(HEADPHONES_ID));
+
+        // When - the whole shard is written behind
+        inventoryLedger.flush();
+
+        // Then
+        assertEquals(2, inventoryRepository.findByProductId(SPEAKER_ID).orElseThrow().getReservedQuantity());
+        assertFalse(productCheckpointRepository.existsById(HEADPHONES_ID));
+    }
+
+    @Test
+    void testStartup_SkipsRecordsOfProductsFlushedByAFence(@TempDir Path directory) throws Exception {
+        // Given - records 1-2 of the headphones were flushed by a fence (product checkpoint 2), record 3 was not
+        try (InventoryLedgerJournal journal = new InventoryLedgerJournal(directory.resolve("shard-7.journal"))) {
+            journal.append(1, HEADPHONES_ID, 0, 5);
+            journal.append(2, HEADPHONES_ID, 0, -3);
+            journal.append(3, HEADPHONES_ID, 0, 1);
+            journal.sync();
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                inventoryRepository.applyLedgerDelta(HEADPHONES_ID, 0, 2, 2, LocalDateTime.now()));
+        productCheckpointRepository.save(new InventoryLedgerProductCheckpoint(HEADPHONES_ID, 7, 2L));
+
+        // When
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getInventory().getLedger().setJournalDirectory(directory.toString());
+        InventoryLedger recovered = new InventoryLedger(inventoryRepository, checkpointRepository,
+                productCheckpointRepository, movementService, transactionTemplate, eventPublisher, properties,
+                new SimpleMeterRegistry());
+        recovered.stop();
+
+        // Then - only record 3 replayed
+        assertEquals(3, reservedInTable());
+        assertFalse(productCheckpointRepository.existsById(HEADPHONES_ID));
+        checkpointRepository.deleteById(7);
+    }
+
+    @Test
+    void testFence_TimesOutWhileTheShardIsBlocked(@TempDir Path directory) throws Exception {
+        // Given - a ledger whose only shard is stuck in a journal sync
+        CountDownLatch syncStarted = new CountDownLatch(1);
+        CountDownLatch diskBack = new CountDownLatch(1);
+        InventoryLedgerCheckpoint sharedCheckpoint = checkpointRepository.findById(0).orElse(null);
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getInventory().getLedger().setJournalDirectory(directory.toString());
+        properties.getInventory().getLedger().setShards(1);
+        properties.getInventory().getLedger().setFenceTimeout(Duration.ofMillis(200));
+        InventoryLedger blocked = new InventoryLedger(inventoryRepository, checkpointRepository,
+                productCheckpointRepository, movementService, transactionTemplate, eventPublisher, properties,
+                new SimpleMeterRegistry(), path -> new InventoryLedgerJournal(path) {
+                    @Override
+                    void sync() {
+                        syncStarted.countDown();
+                        try {
+                            diskBack.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        super.sync();
+                    }
+                });
+        try {
+            CompletableFuture<InventoryLedger.Stock> reservation =
+                    CompletableFuture.supplyAsync(() -> blocked.reserve(HEADPHONES_ID, 4));
+            assertTrue(syncStarted.await(10, TimeUnit.SECONDS));
+
+            // When & Then - the fencing transaction fails instead of waiting forever
+            assertThrows(CannotAcquireLockException.class, () -> transactionTemplate.executeWithoutResult(
+                    status -> blocked.fence(List.of(HEADPHONES_ID))));
+
+            // Then - once the shard is back, the abandoned fence left the product in the ledger
+            diskBack.countDown();
+            assertEquals(6, reservation.get(10, TimeUnit.SECONDS).availableQuantity());
+            assertEquals(5, blocked.reserve(HEADPHONES_ID, 1).availableQuantity());
+            blocked.flush();
+            assertEquals(5, reservedInTable());
+        } finally {
+            diskBack.countDown();
+            blocked.stop();
+            // Shard 0 checkpoint belongs to the application's ledger
+            if (sharedCheckpoint != null) {
+                checkpointRepository.save(sharedCheckpoint);
+            } else {
+                checkpointRepository.deleteById(0);
+            }
+        }
+    }
+
+    @Test
+    void testStartup_ReplaysJournalAfterCheckpoint(@TempDir Path directory) throws Exception {
+        // Given - a shard journal left by a crash: records 1-2 were flushed (checkpoint 2), record 3 was not
+        try (InventoryLedgerJournal journal = new InventoryLedgerJournal(directory.resolve("shard-7.journal"))) {
+            journal.append(1, HEADPHONES_ID, 0, 5);
+            journal.append(2, HEADPHONES_ID, 0, -5);
+            journal.append(3, HEADPHONES_ID, 0, 2);
+            journal.sync();
+        }
+        checkpointRepository.save(new InventoryLedgerCheckpoint(7, 2L));
+
+        // When
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getInventory().getLedger().setJournalDirectory(directory.toString());
+        InventoryLedger recovered = new InventoryLedger(inventoryRepository, checkpointRepository,
+                productCheckpointRepository, movementService, transactionTemplate, eventPublisher, properties,
+                new SimpleMeterRegistry());
+        recovered.stop();
+
+        // Then
+        assertEquals(2, reservedInTable());
+        assertEquals(3L, checkpointRepository.findById(7).orElseThrow().getLastSequence());
+        assertFalse(Files.exists(directory.resolve("shard-7.journal")));
+        checkpointRepository.deleteById(7);
+    }
+
+    @Test
+    void testJournalSyncFailure_UndoesAndFailsTheBatch(@TempDir Path directory) {
+        // Given - a ledger whose journal cannot be written
+        AtomicBoolean diskFailing = new AtomicBoolean(true);
+        InventoryLedgerCheckpoint sharedCheckpoint = checkpointRepository.findById(0).orElse(null);
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getInventory().getLedger().setJournalDirectory(directory.toString());
+        properties.getInventory().getLedger().setShards(1);
+        InventoryLedger failing = new InventoryLedger(inventoryRepository, checkpointRepository,
+                productCheckpointRepository, movementService, transactionTemplate, eventPublisher, properties,
+                new SimpleMeterRegistry(),
+                path -> new InventoryLedgerJournal(path) {
+                    @Override
+                    void sync() {
+                        if (diskFailing.get()) {
+                            throw new UncheckedIOException(new IOException("No space left on device"));
+                        }
+                        super.sync();
+                    }
+                });
+        try {
+            // When - the reservation is not acknowledged and not kept in memory
+            assertThrows(UncheckedIOException.class, () -> failing.reserve(HEADPHONES_ID, 4));
+            assertEquals(0, failing.get(HEADPHONES_ID).reservedQuantity());
+
+            // Then - once the disk is back, only the later reservation is journaled and written behind
+            diskFailing.set(false);
+            assertEquals(8, failing.reserve(HEADPHONES_ID, 2).availableQuantity());
+            failing.flush();
+            assertEquals(2, reservedInTable());
+        } finally {
+            failing.stop();
+            // Shard 0 checkpoint belongs to the application's ledger
+            if (sharedCheckpoint != null) {
+                checkpointRepository.save(sharedCheckpoint);
+            } else {
+                checkpointRepository.deleteById(0);
+            }
+        }
+    }
+
+    private int reservedInTable() {
+        return inventoryRepository.findByProductId(HEADPHONES_ID).orElseThrow().getReservedQuantity();
+    }
+}
@@ -0,0 +1,111 @@
+package com.corep.productcatalog.inventory.service;
+
+import com.corep.productcatalog.inventory.dto.InventoryDTO;
+import com.corep.productcatalog.inventory.dto.StockBatchRequestDTO.Line;
+import com.corep.productcatalog.inventory.repository.InventoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class InventoryLowStockTest {
+
+    private static final Long KEYBOARD_ID = 920_001L;
+    private static final Long MONITOR_ID = 920_002L;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        inventoryService.createInventory(KEYBOARD_ID, 10);
+        inventoryService.createInventory(MONITOR_ID, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        inventoryRepository.findByProductId(KEYBOARD_ID).ifPresent(inventoryRepository::delete);
+        inventoryRepository.findByProductId(MONITOR_ID).ifPresent(inventoryRepository::delete);
+    }
+
+    @Test
+    void testAvailableQuantityColumnFollowsEveryMutation() {
+        assertEquals(10, persistedAvailable(KEYBOARD_ID));
+
+        inventoryService.reserveStock(KEYBOARD_ID, 4);
+        assertEquals(6, persistedAvailable(KEYBOARD_ID));
+
+        inventoryService.releaseStock(KEYBOARD_ID, 1);
+        assertEquals(7, persistedAvailable(KEYBOARD_ID));
+
+        inventoryService.updateStock(KEYBOARD_ID, 20);
+        assertEquals(17, persistedAvailable(KEYBOARD_ID));
+
+        inventoryService.reserveStockBatch(List.of(new Line(KEYBOARD_ID, 5), new Line(MONITOR_ID, 3)));
+        assertEquals(12, persistedAvailable(KEYBOARD_ID));
+        assertEquals(0, persistedAvailable(MONITOR_ID));
+
+        inventoryService.releaseStockBatch(List.of(new Line(MONITOR_ID, 2)));
+        assertEquals(2, persistedAvailable(MONITOR_ID));
+    }
+
+    @Test
+    void testLowStockItems_FilteredOrderedAndPaginated() {
+        // Given
+        inventoryService.reserveStock(MONITOR_ID, 3);
+
+        // When - walk all pages
+        List<InventoryDTO> items = new ArrayList<>();
+        Slice<InventoryDTO> slice = inventoryService.getLowStockItems(11, PageRequest.of(0, 2));
+        items.addAll(slice.getContent());
+        while (slice.hasNext()) {
+            slice = inventoryService.getLowStockItems(11, slice.nextPageable());
+            items.addAll(slice.getContent());
+        }
+
+        // Then - every item is below the threshold, least available first
+        assertTrue(items.stream().allMatch(item -> item.getAvailableQuantity() < 11));
+        for (int i = 1; i < items.size(); i++) {
+            assertTrue(items.get(i - 1).getAvailableQuantity() <= items.get(i).getAvailableQuantity());
+        }
+        assertTrue(items.stream().anyMatch(item -> item.getProductId().equals(KEYBOARD_ID)));
+        assertTrue(items.stream().anyMatch(item -> item.getProductId().equals(MONITOR_ID)));
+    }
+
+    @Test
+    void testOutOfStockItems() {
+        // Given
+        inventoryService.reserveStock(MONITOR_ID, 3);
+
+        // When
+        Slice<InventoryDTO> slice = inventoryService.getOutOfStockItems(PageRequest.of(0, 100));
+
+        // Then
+        assertTrue(slice.getContent().stream().allMatch(item -> item.getAvailableQuantity() <= 0));
+        assertTrue(slice.getContent().stream().anyMatch(item -> item.getProductId().equals(MONITOR_ID)));
+        assertTrue(slice.getContent().stream().noneMatch(item -> item.getProductId().equals(KEYBOARD_ID)));
+    }
+
+    private int persistedAvailable(Long productId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT available_quantity FROM inventory WHERE product_id = ?", Integer.class, productId);
+    }
+}
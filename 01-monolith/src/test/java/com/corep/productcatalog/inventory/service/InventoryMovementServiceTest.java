@@ -0,0 +1,128 @@
+package com.corep.productcatalog.inventory.service;
+
+import com.corep.productcatalog.inventory.dto.InventoryHistoryDTO;
+import com.corep.productcatalog.inventory.dto.InventoryMovementDTO;
+import com.corep.productcatalog.inventory.exception.InsufficientStockException;
+import com.corep.productcatalog.inventory.exception.InventoryNotFoundException;
+import com.corep.productcatalog.inventory.repository.InventoryMovementRepository;
+import com.corep.productcatalog.inventory.repository.InventoryRepository;
+import com.corep.productcatalog.inventory.repository.InventorySnapshotRepository;
+import com.corep.productcatalog.shared.config.ApplicationProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class InventoryMovementServiceTest {
+
+    private static final Long MONITOR_ID = 950_001L;
+
+    @Autowired
+    private InventoryMovementService movementService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InventoryMovementRepository movementRepository;
+
+    @Autowired
+    private InventorySnapshotRepository snapshotRepository;
+
+    @Autowired
+    private ApplicationProperties properties;
+
+    private LocalDateTime created;
+
+    @BeforeEach
+    void setUp() {
+        inventoryService.createInventory(MONITOR_ID, 10);
+        created = LocalDateTime.now();
+    }
+
+    @AfterEach
+    void tearDown() {
+        inventoryRepository.findByProductId(MONITOR_ID).ifPresent(inventoryRepository::delete);
+        movementRepository.deleteAll(movementRepository.findAll().stream()
+                .filter(movement -> MONITOR_ID.equals(movement.getProductId()))
+                .toList());
+        snapshotRepository.deleteAll(snapshotRepository.findAll().stream()
+                .filter(snapshot -> MONITOR_ID.equals(snapshot.getProductId()))
+                .toList());
+        properties.getInventory().setSnapshotEvery(100);
+        properties.getInventory().setSnapshotSettleDelay(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void testEveryChangeIsRecorded() {
+        // When
+        inventoryService.reserveStock(MONITOR_ID, 4);
+        inventoryService.releaseStock(MONITOR_ID, 1);
+        inventoryService.commitReservedStock(MONITOR_ID, 2);
+        inventoryService.updateStock(MONITOR_ID, 20);
+        assertThrows(InsufficientStockException.class, () -> inventoryService.reserveStock(MONITOR_ID, 50));
+
+        // Then - in order, and nothing for the rejected reservation
+        List<InventoryMovementDTO> movements = movementService
+                .getMovements(MONITOR_ID, null, LocalDateTime.now(), PageRequest.of(0, 50))
+                .getContent();
+        assertEquals(List.of("RESTOCK", "RESERVE", "RELEASE", "COMMIT", "ADJUST"),
+                movements.stream().map(InventoryMovementDTO::getType).toList());
+        assertEquals(12, movements.get(4).getStockDelta());
+        assertEquals(-2, movements.get(3).getReservedDelta());
+    }
+
+    @Test
+    void testGetInventoryAt_BeforeWrongUpdate() {
+        // Given - a reservation, then a wrong stock update
+        inventoryService.reserveStock(MONITOR_ID, 3);
+        LocalDateTime beforeUpdate = LocalDateTime.now();
+        inventoryService.updateStock(MONITOR_ID, 1000);
+
+        // When
+        InventoryHistoryDTO before = movementService.getInventoryAt(MONITOR_ID, beforeUpdate);
+        InventoryHistoryDTO atCreation = movementService.getInventoryAt(MONITOR_ID, created);
+
+        // Then
+        assertEquals(10, before.getStockQuantity());
+        assertEquals(3, before.getReservedQuantity());
+        assertEquals(7, before.getAvailableQuantity());
+        assertEquals(10, atCreation.getAvailableQuantity());
+        assertThrows(InventoryNotFoundException.class,
+                () -> movementService.getInventoryAt(MONITOR_ID, created.minusHours(1)));
+    }
+
+    @Test
+    void testSnapshot_ReconstructionReplaysOnlyTheTail() {
+        // Given - snapshot after two movements, then one more
+        properties.getInventory().setSnapshotEvery(2);
+        properties.getInventory().setSnapshotSettleDelay(Duration.ZERO);
+        inventoryService.reserveStock(MONITOR_ID, 4);
+        assertTrue(movementService.snapshotDue() >= 1);
+        inventoryService.releaseStock(MONITOR_ID, 1);
+
+        // When
+        InventoryHistoryDTO now = movementService.getInventoryAt(MONITOR_ID, LocalDateTime.now());
+
+        // Then - same state as the inventory row, from the snapshot plus one movement
+        assertNotNull(now.getSnapshotAsOf());
+        assertEquals(1, now.getReplayedMovements());
+        assertEquals(3, now.getReservedQuantity());
+        assertEquals(inventoryService.getInventoryByProductId(MONITOR_ID).getAvailableQuantity(),
+                now.getAvailableQuantity());
+    }
+}
@@ -0,0 +1,124 @@
+package com.corep.productcatalog.inventory.service;
+
+import com.corep.productcatalog.inventory.dto.LowStockAlertDTO;
+import com.corep.productcatalog.inventory.event.InventoryChangedEvent;
+import com.corep.productcatalog.shared.config.ApplicationProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LowStockAlertBroadcasterTest {
+
+    private final List<Runnable> pendingDeliveries = new ArrayList<>();
+    private LowStockAlertBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getLowStockAlerts().setQueueCapacity(2);
+        // Deliveries run only when the test calls deliver(): simulates a slow client
+        broadcaster = new LowStockAlertBroadcaster(properties, pendingDeliveries::add);
+    }
+
+    @Test
+    void testCrossingsAreSentPerSubscriberThreshold() {
+        // Given
+        CapturingEmitter threshold10 = subscribe(10);
+        CapturingEmitter threshold3 = subscribe(3);
+
+        // When - 12 -> 8 crosses 10 only, 8 -> 2 crosses 3 only, 2 -> 15 recovers both
+        broadcaster.onInventoryChanged(new InventoryChangedEvent(1L, 12, 8));
+        broadcaster.onInventoryChanged(new InventoryChangedEvent(1L, 8, 2));
+        broadcaster.onInventoryChanged(new InventoryChangedEvent(1L, 2, 15));
+        deliver();
+
+        // Then
+        assertEquals(List.of(LowStockAlertDTO.Type.LOW, LowStockAlertDTO.Type.RECOVERED), threshold10.types());
+        assertEquals(List.of(LowStockAlertDTO.Type.LOW, LowStockAlertDTO.Type.RECOVERED), threshold3.types());
+        assertEquals(8, threshold10.alerts.get(0).getAvailableQuantity());
+        assertEquals(2, threshold3.alerts.get(0).getAvailableQuantity());
+    }
+
+    @Test
+    void testNoAlertWithoutCrossing() {
+        CapturingEmitter emitter = subscribe(10);
+
+        broadcaster.onInventoryChanged(new InventoryChangedEvent(1L, 50, 40));
+        broadcaster.onInventoryChanged(new InventoryChangedEvent(1L, 5, 4));
+        deliver();
+
+        assertTrue(emitter.alerts.isEmpty());
+    }
+
+    @Test
+    void testSlowSubscriberDropsOldestAlerts() {
+        // Given - queue capacity 2, nothing delivered yet
+        CapturingEmitter emitter = subscribe(10);
+
+        // When - 4 alerts for 4 products
+        for (long productId = 1; productId <= 4; productId++) {
+            broadcaster.onInventoryChanged(new InventoryChangedEvent(productId, 10, 9));
+        }
+        deliver();
+
+        // Then - the two newest alerts are delivered, the first one reports the drops
+        assertEquals(2, emitter.alerts.size());
+        assertEquals(3L, emitter.alerts.get(0).getProductId());
+        assertEquals(2, emitter.alerts.get(0).getDroppedAlerts());
+        assertEquals(4L, emitter.alerts.get(1).getProductId());
+        assertEquals(0, emitter.alerts.get(1).getDroppedAlerts());
+    }
+
+    @Test
+    void testFailingSubscriberIsRemoved() {
+        CapturingEmitter emitter = subscribe(10);
+        emitter.failing = true;
+
+        broadcaster.onInventoryChanged(new InventoryChangedEvent(1L, 10, 9));
+        deliver();
+
+        assertEquals(0, broadcaster.getSubscriberCount());
+    }
+
+    private CapturingEmitter subscribe(int threshold) {
+        CapturingEmitter emitter = new CapturingEmitter();
+        broadcaster.register(emitter, threshold);
+        return emitter;
+    }
+
+    private void deliver() {
+        while (!pendingDeliveries.isEmpty()) {
+            pendingDeliveries.remove(0).run();
+        }
+    }
+
+    private static class CapturingEmitter extends SseEmitter {
+
+        private final List<LowStockAlertDTO> alerts = new ArrayList<>();
+        private boolean failing;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            Set<DataWithMediaType> data = builder.build();
+            data.stream()
+                    .map(DataWithMediaType::getData)
+                    .filter(LowStockAlertDTO.class::isInstance)
+                    .map(LowStockAlertDTO.class::cast)
+                    .forEach(alerts::add);
+        }
+
+        List<LowStockAlertDTO.Type> types() {
+            return alerts.stream().map(LowStockAlertDTO::getType).toList();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.corep.productcatalog.inventory.service;
+
+import com.corep.productcatalog.inventory.dto.InventoryDTO;
+import com.corep.productcatalog.inventory.exception.InsufficientStockException;
+import com.corep.productcatalog.inventory.exception.InventoryNotFoundException;
+import com.corep.productcatalog.inventory.repository.InventoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stock reservation tests against the real database
+ * Not @Transactional: every reservation must run in its own transaction, as in production
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class StockReservationEngineTest {
+
+    private static final Long PRODUCT_ID = 900_001L;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @BeforeEach
+    void setUp() {
+        inventoryService.createInventory(PRODUCT_ID, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        inventoryRepository.findByProductId(PRODUCT_ID).ifPresent(inventoryRepository::delete);
+    }
+
+    @Test
+    void testReserveStock_Success() {
+        InventoryDTO result = inventoryService.reserveStock(PRODUCT_ID, 30);
+
+        assertEquals(100, result.getStockQuantity());
+        assertEquals(30, result.getReservedQuantity());
+        assertEquals(70, result.getAvailableQuantity());
+    }
+
+    @Test
+    void testReserveStock_InsufficientStock() {
+        inventoryService.reserveStock(PRODUCT_ID, 90);
+
+        InsufficientStockException ex = assertThrows(InsufficientStockException.class,
+                () -> inventoryService.reserveStock(PRODUCT_ID, 20));
+        assertEquals("Insufficient stock. Available: 10, Requested: 20", ex.getMessage());
+        assertEquals(90, inventoryService.getInventoryByProductId(PRODUCT_ID).getReservedQuantity());
+    }
+
+    @Test
+    void testReserveStock_InventoryNotFound() {
+        assertThrows(InventoryNotFoundException.class, () -> inventoryService.reserveStock(999_999L, 1));
+    }
+
+    @Test
+    void testReleaseStock_MoreThanReserved() {
+        inventoryService.reserveStock(PRODUCT_ID, 5);
+
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.releaseStock(PRODUCT_ID, 6));
+        InventoryDTO result = inventoryService.releaseStock(PRODUCT_ID, 5);
+        assertEquals(0, result.getReservedQuantity());
+    }
+
+    @Test
+    void testConcurrentReservations_NeverOversell() throws Exception {
+        // Given - 16 threads competing for 100 units, 250 attempts in total
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 250; i++) {
+            futures.add(executor.submit(() -> {
+                try {
+                    inventoryService.reserveStock(PRODUCT_ID, 1);
+                    succeeded.incrementAndGet();
+                } catch (InsufficientStockException e) {
+                    rejected.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Then - exactly the available stock was reserved, no update was lost
+        InventoryDTO result = inventoryService.getInventoryByProductId(PRODUCT_ID);
+        assertEquals(100, succeeded.get());
+        assertEquals(150, rejected.get());
+        assertEquals(100, result.getReservedQuantity());
+        assertEquals(0, result.getAvailableQuantity());
+    }
+}
@@ -0,0 +1,148 @@
+package com.corep.productcatalog.inventory.service;
+
+import com.corep.productcatalog.inventory.dto.InventoryDTO;
+import com.corep.productcatalog.inventory.dto.StockReservationDTO;
+import com.corep.productcatalog.inventory.entity.StockReservation;
+import com.corep.productcatalog.inventory.exception.InsufficientStockException;
+import com.corep.productcatalog.inventory.exception.StockReservationNotFoundException;
+import com.corep.productcatalog.inventory.repository.InventoryRepository;
+import com.corep.productcatalog.inventory.repository.StockReservationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StockReservationServiceTest {
+
+    private static final Long KEYBOARD_ID = 920_001L;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        inventoryService.createInventory(KEYBOARD_ID, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stockReservationRepository.deleteAll(stockReservationRepository.findAll().stream()
+                .filter(reservation -> KEYBOARD_ID.equals(reservation.getProductId()))
+                .toList());
+        inventoryRepository.findByProductId(KEYBOARD_ID).ifPresent(inventoryRepository::delete);
+    }
+
+    @Test
+    void testHoldAndCancel() {
+        // Given
+        StockReservationDTO reservation = stockReservationService.hold(KEYBOARD_ID, 4, Duration.ofMinutes(5));
+        assertEquals(6, inventoryService.getInventoryByProductId(KEYBOARD_ID).getAvailableQuantity());
+
+        // When
+        stockReservationService.cancel(reservation.getId());
+
+        // Then - available again, and the hold cannot be settled twice
+        InventoryDTO inventory = inventoryService.getInventoryByProductId(KEYBOARD_ID);
+        assertEquals(10, inventory.getAvailableQuantity());
+        assertEquals(0, inventory.getReservedQuantity());
+        assertThrows(StockReservationNotFoundException.class, () -> stockReservationService.cancel(reservation.getId()));
+    }
+
+    @Test
+    void testActiveHoldsGauge_FollowsHoldsAndSettlements() {
+        // Given
+        stockReservationService.recountActiveHolds();
+        double before = meterRegistry.get("inventory.reservations.active").gauge().value();
+
+        // When & Then
+        StockReservationDTO confirmed = stockReservationService.hold(KEYBOARD_ID, 1, Duration.ofMinutes(5));
+        StockReservationDTO cancelled = stockReservationService.hold(KEYBOARD_ID, 1, Duration.ofMinutes(5));
+        assertThrows(InsufficientStockException.class, () -> stockReservationService.hold(KEYBOARD_ID, 20, null));
+        assertEquals(before + 2, meterRegistry.get("inventory.reservations.active").gauge().value());
+
+        stockReservationService.confirm(confirmed.getId());
+        stockReservationService.cancel(cancelled.getId());
+        assertEquals(before, meterRegistry.get("inventory.reservations.active").gauge().value());
+        assertEquals((long) before, stockReservationRepository.count());
+    }
+
+    @Test
+    void testConfirm_RemovesUnitsFromStock() {
+        StockReservationDTO reservation = stockReservationService.hold(KEYBOARD_ID, 3, null);
+
+        stockReservationService.confirm(reservation.getId());
+
+        InventoryDTO inventory = inventoryService.getInventoryByProductId(KEYBOARD_ID);
+        assertEquals(7, inventory.getStockQuantity());
+        assertEquals(0, inventory.getReservedQuantity());
+        assertEquals(7, inventory.getAvailableQuantity());
+        assertFalse(stockReservationRepository.existsById(reservation.getId()));
+    }
+
+    @Test
+    void testHold_InsufficientStockCreatesNoHold() {
+        long before = stockReservationRepository.count();
+
+        assertThrows(InsufficientStockException.class, () -> stockReservationService.hold(KEYBOARD_ID, 11, null));
+
+        assertEquals(before, stockReservationRepository.count());
+        assertEquals(10, inventoryService.getInventoryByProductId(KEYBOARD_ID).getAvailableQuantity());
+    }
+
+    @Test
+    void testHold_TtlCappedAtMaximum() {
+        StockReservationDTO reservation = stockReservationService.hold(KEYBOARD_ID, 1, Duration.ofDays(7));
+
+        assertTrue(reservation.getExpiresAt().isBefore(LocalDateTime.now().plusHours(2).plusMinutes(1)));
+    }
+
+    @Test
+    void testExpireDue_ReleasesExpiredHoldsOnly() {
+        // Given - two holds past their expiry, one still active
+        List<StockReservationDTO> expiring = List.of(
+                stockReservationService.hold(KEYBOARD_ID, 2, null),
+                stockReservationService.hold(KEYBOARD_ID, 3, null));
+        StockReservationDTO active = stockReservationService.hold(KEYBOARD_ID, 1, Duration.ofMinutes(5));
+        double expiredBefore = meterRegistry.counter("inventory.reservations.expired").count();
+        expiring.forEach(dto -> {
+            StockReservation reservation = stockReservationRepository.findById(dto.getId()).orElseThrow();
+            reservation.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+            stockReservationRepository.save(reservation);
+        });
+
+        // When (the scheduled run may get there first: the outcome is the same)
+        stockReservationService.expireDue();
+
+        // Then
+        InventoryDTO inventory = inventoryService.getInventoryByProductId(KEYBOARD_ID);
+        assertEquals(1, inventory.getReservedQuantity());
+        assertEquals(9, inventory.getAvailableQuantity());
+        assertTrue(stockReservationRepository.existsById(active.getId()));
+        assertEquals(expiredBefore + 2, meterRegistry.counter("inventory.reservations.expired").count());
+        assertThrows(StockReservationNotFoundException.class,
+                () -> stockReservationService.confirm(expiring.get(0).getId()));
+    }
+}
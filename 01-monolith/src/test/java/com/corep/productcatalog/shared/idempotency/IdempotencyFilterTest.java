@@ -0,0 +1,136 @@
+package com.corep.productcatalog.shared.idempotency;
+
+import com.corep.productcatalog.shared.config.ApplicationProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockPart;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyFilterTest {
+
+    private IdempotencyFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getIdempotency().setMaxRequestBufferSize(DataSize.ofBytes(16));
+        properties.getIdempotency().setMaxResponseSize(DataSize.ofBytes(16));
+        IdempotencyStore store = new IdempotencyStore(null, null, null, properties);
+        filter = new IdempotencyFilter(store, new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry(),
+                properties.getIdempotency());
+    }
+
+    @Test
+    void testBodyLargerThanBuffer_SpooledAndFingerprinted() throws Exception {
+        // Given - bodies past the 16 bytes kept in memory
+        String body = "sku-1,10\nsku-2,20\nsku-3,30\n";
+        List<String> received = new ArrayList<>();
+
+        // When
+        MockHttpServletResponse first = perform(csv(body), received);
+        MockHttpServletResponse other = perform(csv(body.replace("30", "31")), received);
+        MockHttpServletResponse replayed = perform(csv(body), received);
+
+        // Then - the controller read the whole body once; same body replayed, another one rejected
+        assertEquals(List.of(body), received);
+        assertEquals(201, first.getStatus());
+        assertEquals(422, other.getStatus());
+        assertEquals("true", replayed.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals("sku-1,10", replayed.getContentAsString());
+    }
+
+    @Test
+    void testResponseLargerThanLimit_SentButStoredWithoutBody() throws Exception {
+        // Given
+        List<String> received = new ArrayList<>();
+        String body = "sku-1,10\nsku-2,20\nsku-3,30\n";
+
+        // When - the controller echoes the 27 bytes
+        MockHttpServletResponse first = perform(csv(body), received, true);
+        MockHttpServletResponse replayed = perform(csv(body), received, true);
+
+        // Then
+        assertEquals(body, first.getContentAsString());
+        assertEquals(201, replayed.getStatus());
+        assertEquals("", replayed.getContentAsString());
+    }
+
+    @Test
+    void testMultipart_SameSizeOtherContentRejected() throws Exception {
+        // Given
+        assertEquals(201, perform(multipart("sku-1,10")).getStatus());
+
+        // When & Then - same length, same key, another file
+        assertEquals(422, perform(multipart("sku-2,10")).getStatus());
+        MockHttpServletResponse replayed = perform(multipart("sku-1,10"));
+        assertEquals(201, replayed.getStatus());
+        assertEquals("true", replayed.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    private MockHttpServletRequest multipart(String content) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/products/import");
+        request.setContentType(MediaType.MULTIPART_FORM_DATA_VALUE + "; boundary=x");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "import-1");
+        request.addPart(new MockPart("file", "products.csv", content.getBytes(StandardCharsets.UTF_8)));
+        return request;
+    }
+
+    private MockHttpServletRequest csv(String content) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/products/import");
+        request.setContentType("text/csv");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "import-2");
+        request.setContent(content.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest servletRequest, HttpServletResponse servletResponse) {
+                servletResponse.setStatus(201);
+            }
+        }));
+        return response;
+    }
+
+    /**
+     * Controller reading the body (kept in received) and answering with its first line, or with all of it
+     */
+    private MockHttpServletResponse perform(MockHttpServletRequest request, List<String> received) throws Exception {
+        return perform(request, received, false);
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request, List<String> received, boolean echo)
+            throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest servletRequest, HttpServletResponse servletResponse)
+                    throws IOException {
+                String body = new String(servletRequest.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+                received.add(body);
+                servletResponse.setStatus(201);
+                servletResponse.setContentType("text/plain");
+                servletResponse.getWriter().write(echo ? body : body.substring(0, body.indexOf('\n')));
+            }
+        }));
+        return response;
+    }
+}
@@ -0,0 +1,127 @@
+package com.corep.productcatalog.shared.idempotency;
+
+import com.corep.productcatalog.shared.config.ApplicationProperties;
+import com.corep.productcatalog.shared.idempotency.IdempotencyStore.Outcome;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Persistent mode: two stores over the same table behave like two instances of the application
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class IdempotencyStoreTest {
+
+    private static final String KEY = "POST /api/v1/products store-test";
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private IdempotencyStore first;
+    private IdempotencyStore second;
+
+    @BeforeEach
+    void setUp() {
+        first = persistentStore();
+        second = persistentStore();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void testDuplicateOnAnotherInstance_WaitsThenReplays() {
+        // Given
+        assertEquals(Outcome.EXECUTE, first.claim(KEY, "fp").outcome());
+
+        // When & Then - still executing on the first instance
+        assertEquals(Outcome.IN_PROGRESS, second.claim(KEY, "fp").outcome());
+
+        // When - completed
+        first.complete(KEY, "fp", new IdempotentResponse(201, "application/json", null, null,
+                "{\"id\":1}".getBytes(StandardCharsets.UTF_8)));
+
+        // Then
+        IdempotencyStore.Claim claim = second.claim(KEY, "fp");
+        assertEquals(Outcome.REPLAY, claim.outcome());
+        assertEquals(201, claim.response().status());
+        assertEquals("{\"id\":1}", new String(claim.response().body(), StandardCharsets.UTF_8));
+        assertEquals(Outcome.MISMATCH, second.claim(KEY, "other").outcome());
+    }
+
+    @Test
+    void testReleasedKey_ExecutesAgain() {
+        assertEquals(Outcome.EXECUTE, first.claim(KEY, "fp").outcome());
+
+        first.release(KEY);
+
+        assertEquals(Outcome.EXECUTE, second.claim(KEY, "fp").outcome());
+    }
+
+    @Test
+    void testOversizedResponse_KeyStaysClaimedWithoutBody() {
+        // Given
+        IdempotencyStore small = persistentStore(DataSize.ofBytes(4));
+        assertEquals(Outcome.EXECUTE, small.claim(KEY, "fp").outcome());
+
+        // When
+        small.complete(KEY, "fp", new IdempotentResponse(201, "application/json", "/api/v1/products/1", "\"p1-0\"",
+                "{\"id\":1}".getBytes(StandardCharsets.UTF_8)));
+
+        // Then - replayed (locally and from the table), not executed again
+        for (IdempotencyStore store : new IdempotencyStore[]{small, second}) {
+            IdempotencyStore.Claim claim = store.claim(KEY, "fp");
+            assertEquals(Outcome.REPLAY, claim.outcome());
+            assertEquals(201, claim.response().status());
+            assertEquals("/api/v1/products/1", claim.response().location());
+            assertEquals("\"p1-0\"", claim.response().eTag());
+            assertNull(claim.response().contentType());
+            assertEquals(0, claim.response().body().length);
+        }
+    }
+
+    @Test
+    void testAbandonedKey_TakenOverAfterTimeout() {
+        // Given - claimed by an instance that died before completing
+        assertEquals(Outcome.EXECUTE, first.claim(KEY, "fp").outcome());
+        transactionTemplate.executeWithoutResult(status ->
+                repository.findById(KEY).orElseThrow().setExpiresAt(LocalDateTime.now().minusSeconds(1)));
+
+        // When & Then
+        assertEquals(Outcome.EXECUTE, second.claim(KEY, "fp").outcome());
+        assertTrue(repository.findById(KEY).orElseThrow().getExpiresAt().isAfter(LocalDateTime.now()));
+    }
+
+    private IdempotencyStore persistentStore() {
+        return persistentStore(DataSize.ofMegabytes(1));
+    }
+
+    private IdempotencyStore persistentStore(DataSize maxResponseSize) {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getIdempotency().setPersistent(true);
+        properties.getIdempotency().setMaxResponseSize(maxResponseSize);
+        properties.getIdempotency().setInProgressTimeout(Duration.ofMinutes(1));
+        return new IdempotencyStore(repository, entityManager, transactionTemplate, properties);
+    }
+}
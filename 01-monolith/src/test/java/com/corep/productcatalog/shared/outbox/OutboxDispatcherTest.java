@@ -0,0 +1,98 @@
+package com.corep.productcatalog.shared.outbox;
+
+import com.corep.productcatalog.shared.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxDispatcherTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<String> handled = new ArrayList<>();
+
+    private OutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        OutboxEventHandler handler = new OutboxEventHandler() {
+            @Override
+            public Set<String> eventTypes() {
+                return Set.of("Created", "Deleted");
+            }
+
+            @Override
+            public void handle(String eventType, List<Long> aggregateIds) {
+                if (aggregateIds.contains(13L)) {
+                    throw new IllegalStateException("Handler failure");
+                }
+                handled.add(eventType + aggregateIds);
+            }
+        };
+        dispatcher = new OutboxDispatcher(outboxEventRepository, new TransactionTemplate(transactionManager),
+                new ApplicationProperties(), new SimpleMeterRegistry(), List.of(handler));
+    }
+
+    @Test
+    void testDispatch_ConsecutiveEventsOfSameTypeInOneCall() {
+        // Given
+        when(outboxEventRepository.findDue(any(), any()))
+                .thenReturn(List.of(event(1L, "Created", 10L), event(2L, "Created", 11L), event(3L, "Deleted", 10L)));
+
+        // When
+        int delivered = dispatcher.dispatchPending();
+
+        // Then
+        assertEquals(3, delivered);
+        assertEquals(List.of("Created[10, 11]", "Deleted[10]"), handled);
+        verify(outboxEventRepository).deleteAllInBatch(any());
+    }
+
+    @Test
+    void testDispatch_FailedEventRescheduledOthersDelivered() {
+        // Given
+        OutboxEvent failing = event(2L, "Created", 13L);
+        when(outboxEventRepository.findDue(any(), any()))
+                .thenReturn(List.of(event(1L, "Created", 12L), failing, event(3L, "Created", 14L)));
+
+        // When
+        int delivered = dispatcher.dispatchPending();
+
+        // Then - retried one by one: the failing event is kept with a later next attempt
+        assertEquals(2, delivered);
+        assertEquals(List.of("Created[12]", "Created[14]"), handled);
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(3L));
+        verify(outboxEventRepository).save(failing);
+        assertEquals(1, failing.getAttempts());
+        assertTrue(failing.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        assertEquals("Handler failure", failing.getLastError());
+    }
+
+    private OutboxEvent event(Long id, String type, Long aggregateId) {
+        OutboxEvent event = new OutboxEvent(type, aggregateId);
+        event.setId(id);
+        event.setCreatedAt(LocalDateTime.now());
+        event.setNextAttemptAt(event.getCreatedAt());
+        return event;
+    }
+}